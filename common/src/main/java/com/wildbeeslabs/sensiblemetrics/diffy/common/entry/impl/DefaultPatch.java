@@ -28,8 +28,8 @@ import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Patch;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.apache.commons.collections.comparators.ComparableComparator;
 
+import java.io.Serializable;
 import java.util.*;
 
 import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.listOf;
@@ -47,6 +47,11 @@ import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.l
 @SuppressWarnings("unchecked")
 public class DefaultPatch<T> implements Patch<T> {
 
+    /**
+     * Default {@link Delta} {@link Comparator} by original chunk position
+     */
+    public static final Comparator<Delta<?>> DEFAULT_POSITION_COMPARATOR = (Comparator<Delta<?>> & Serializable) (first, last) -> Integer.compare(first.getOriginal().getPosition(), last.getOriginal().getPosition());
+
     /**
      * Default {@link List} of {@link Delta}s
      */
@@ -55,6 +60,10 @@ public class DefaultPatch<T> implements Patch<T> {
      * Default {@link Comparator} instance
      */
     private final Comparator<? super Delta<T>> comparator;
+    /**
+     * Default approximation flag, {@code true} if deltas were completed by a fallback heuristic and are not minimal
+     */
+    private boolean approximate;
 
     /**
      * Default patch constructor
@@ -69,7 +78,7 @@ public class DefaultPatch<T> implements Patch<T> {
      * @param comparator - initial input {@link Comparator} instance
      */
     public DefaultPatch(final Comparator<? super Delta<T>> comparator) {
-        this.comparator = Optional.ofNullable(comparator).orElseGet(ComparableComparator::getInstance);
+        this.comparator = Objects.nonNull(comparator) ? comparator : DEFAULT_POSITION_COMPARATOR;
     }
 
     /**
@@ -26,6 +26,9 @@ package com.wildbeeslabs.sensiblemetrics.diffy.comparator.factory;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.annotation.Factory;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.interfaces.DiffComparator;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.service.DefaultDiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.service.GraphDiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.CachingComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadataCache;
 import lombok.experimental.UtilityClass;
 
 import java.util.Comparator;
@@ -41,6 +44,20 @@ import java.util.Comparator;
 @SuppressWarnings("unchecked")
 public class DefaultDiffComparatorFactory {
 
+    /**
+     * Default class metadata cache {@link ClassMetadataCache} shared by created comparators
+     */
+    private static final ClassMetadataCache METADATA_CACHE = ClassMetadataCache.getDefault();
+
+    /**
+     * Returns class metadata cache {@link ClassMetadataCache} shared by created comparators
+     *
+     * @return class metadata cache {@link ClassMetadataCache}
+     */
+    public static ClassMetadataCache getMetadataCache() {
+        return METADATA_CACHE;
+    }
+
     /**
      * Creates difference comparator instance {@link DiffComparator} by class instance {@link Class}
      *
@@ -51,7 +68,7 @@ public class DefaultDiffComparatorFactory {
      */
     @Factory
     public static <T, E extends DiffComparator<T>> E create(final Class<? extends T> clazz) {
-        return (E) new DefaultDiffComparator<>(clazz);
+        return (E) new DefaultDiffComparator<>(clazz, null, METADATA_CACHE);
     }
 
     /**
@@ -66,7 +83,7 @@ public class DefaultDiffComparatorFactory {
      */
     @Factory
     public static <T, E extends DiffComparator<T>> E create(final Class<? extends T> clazz, final Iterable<String> includeProperties, final Iterable<String> excludeProperties) {
-        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz);
+        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz, null, METADATA_CACHE);
         defaultDiffComparator.includeProperties(includeProperties);
         defaultDiffComparator.excludeProperties(excludeProperties);
         return (E) defaultDiffComparator;
@@ -83,7 +100,7 @@ public class DefaultDiffComparatorFactory {
      */
     @Factory
     public static <T, E extends DiffComparator<T>> E create(final Class<? extends T> clazz, final Iterable<String> excludeProperties) {
-        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz);
+        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz, null, METADATA_CACHE);
         defaultDiffComparator.excludeProperties(excludeProperties);
         return (E) defaultDiffComparator;
     }
@@ -99,7 +116,7 @@ public class DefaultDiffComparatorFactory {
      */
     @Factory
     public static <T, E extends DiffComparator<T>> E create(final Class<? extends T> clazz, final Comparator<? super T> comparator) {
-        return (E) new DefaultDiffComparator<>(clazz, comparator);
+        return (E) new DefaultDiffComparator<>(clazz, comparator, METADATA_CACHE);
     }
 
     /**
@@ -115,7 +132,7 @@ public class DefaultDiffComparatorFactory {
      */
     @Factory
     public static <T, E extends DiffComparator<T>> E create(final Class<? extends T> clazz, final Comparator<? super T> comparator, final Iterable<String> includeProperties, final Iterable<String> excludeProperties) {
-        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz, comparator);
+        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz, comparator, METADATA_CACHE);
         defaultDiffComparator.includeProperties(includeProperties);
         defaultDiffComparator.excludeProperties(excludeProperties);
         return (E) defaultDiffComparator;
@@ -133,8 +150,50 @@ public class DefaultDiffComparatorFactory {
      */
     @Factory
     public static <T, E extends DiffComparator<T>> E create(final Class<? extends T> clazz, final Comparator<? super T> comparator, final Iterable<String> excludeProperties) {
-        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz, comparator);
+        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz, comparator, METADATA_CACHE);
         defaultDiffComparator.excludeProperties(excludeProperties);
         return (E) defaultDiffComparator;
     }
+
+    /**
+     * Creates difference comparator instance {@link DiffComparator} by class instance {@link Class} with property comparators
+     * caching comparison results of hot pairs of immutable values {@link CachingComparator} (statistics are reported by {@link DefaultDiffComparator#getComparatorCaches()})
+     *
+     * @param <T>      type of input element to create comparator for
+     * @param <E>      type of difference comparator instance
+     * @param clazz    - initial class instance {@link Class} to initialize comparator {@link DiffComparator}
+     * @param capacity - initial number of cached results per property comparator
+     * @return difference comparator {@link DiffComparator}
+     */
+    @Factory
+    public static <T, E extends DiffComparator<T>> E createCaching(final Class<? extends T> clazz, int capacity) {
+        final DefaultDiffComparator<T> defaultDiffComparator = new DefaultDiffComparator<>(clazz, null, METADATA_CACHE);
+        defaultDiffComparator.enableCaching(capacity);
+        return (E) defaultDiffComparator;
+    }
+
+    /**
+     * Creates caching comparator instance {@link CachingComparator} by delegate comparator instance {@link Comparator}
+     *
+     * @param <T>        type of input element to create comparator for
+     * @param comparator - initial delegate comparator instance {@link Comparator}
+     * @return caching comparator {@link CachingComparator}
+     */
+    @Factory
+    public static <T> CachingComparator<T> caching(final Comparator<? super T> comparator) {
+        return new CachingComparator<>(comparator);
+    }
+
+    /**
+     * Creates recursive graph difference comparator instance {@link DiffComparator} by class instance {@link Class}
+     *
+     * @param <T>   type of input element to create comparator for
+     * @param <E>   type of difference comparator instance
+     * @param clazz - initial class instance {@link Class} to initialize comparator {@link DiffComparator}
+     * @return graph difference comparator {@link DiffComparator}
+     */
+    @Factory
+    public static <T, E extends DiffComparator<T>> E createGraph(final Class<? extends T> clazz) {
+        return (E) new GraphDiffComparator<>(clazz, GraphDiffComparator.DEFAULT_MAX_DEPTH, false, METADATA_CACHE);
+    }
 }
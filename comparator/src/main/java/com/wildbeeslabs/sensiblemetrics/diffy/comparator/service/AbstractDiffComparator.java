@@ -29,7 +29,9 @@ import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ParserUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.interfaces.DiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadataCache;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparatorUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparisonPlan;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -39,7 +41,7 @@ import java.lang.reflect.Field;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ReflectionUtils.*;
+import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ReflectionUtils.getProperty;
 
 /**
  * Abstract difference comparator implementation by input object instance
@@ -69,6 +71,11 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      * Default class instance {@link Class}
      */
     private final Class<? extends T> clazz;
+    /**
+     * Default class metadata cache {@link ClassMetadataCache}
+     */
+    @ToString.Exclude
+    private final transient ClassMetadataCache metadataCache;
     /**
      * Default property map {@link Map} by names {@link String} and values {@link Comparator}
      */
@@ -99,11 +106,54 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      * @throws NullPointerException if clazz argument is {@code null}
      */
     public AbstractDiffComparator(final Class<? extends T> clazz, final Comparator<? super T> comparator) {
+        this(clazz, comparator, ClassMetadataCache.getDefault());
+    }
+
+    /**
+     * Creates difference comparator with initial input {@link Class}, {@link Comparator} and {@link ClassMetadataCache}
+     *
+     * @param clazz         - initial input {@link Class}
+     * @param comparator    - initial input {@link Comparator}
+     * @param metadataCache - initial input {@link ClassMetadataCache}
+     * @throws NullPointerException if clazz or metadataCache argument is {@code null}
+     */
+    public AbstractDiffComparator(final Class<? extends T> clazz, final Comparator<? super T> comparator, final ClassMetadataCache metadataCache) {
         ValidationUtils.notNull(clazz, "Class should not be null!");
+        ValidationUtils.notNull(metadataCache, "Metadata cache should not be null!");
         this.clazz = clazz;
         this.comparator = Optional.ofNullable(comparator).orElse(ComparatorUtils.DEFAULT_COMPARATOR);
-        this.getPropertyMap().putAll(this.getFieldsMap(this.clazz));
-        this.getPropertySet().addAll(this.getPropertyMap().keySet());
+        this.metadataCache = metadataCache;
+        this.propertyMap.putAll(this.getFieldsMap(this.clazz));
+        this.propertySet.addAll(this.propertyMap.keySet());
+    }
+
+    /**
+     * Returns unmodifiable {@link Map} of property {@link Comparator}s, use {@link #setComparator(String, Comparator)}
+     * and {@link #removeComparator(String)} to change it
+     *
+     * @return unmodifiable {@link Map} of property {@link Comparator}s
+     */
+    public Map<String, Comparator<?>> getPropertyComparatorMap() {
+        return Collections.unmodifiableMap(this.propertyComparatorMap);
+    }
+
+    /**
+     * Returns unmodifiable {@link Map} of properties with related fields {@link Field}
+     *
+     * @return unmodifiable {@link Map} of properties
+     */
+    public Map<String, Field> getPropertyMap() {
+        return Collections.unmodifiableMap(this.propertyMap);
+    }
+
+    /**
+     * Returns unmodifiable {@link Set} of properties to compare by, use {@link #includeProperties(Iterable)}
+     * and {@link #excludeProperties(Iterable)} to change it
+     *
+     * @return unmodifiable {@link Set} of properties
+     */
+    public Set<String> getPropertySet() {
+        return Collections.unmodifiableSet(this.propertySet);
     }
 
     /**
@@ -122,7 +172,8 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      */
     public void excludeProperty(final String property) {
         if (Objects.nonNull(property)) {
-            this.getPropertySet().remove(property);
+            this.propertySet.remove(property);
+            this.invalidate();
         }
     }
 
@@ -132,7 +183,8 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      * @param properties - initial input {@link Iterable} collection of properties to include in comparison
      */
     public void includeProperties(final Iterable<String> properties) {
-        this.getPropertySet().clear();
+        this.propertySet.clear();
+        this.invalidate();
         ServiceUtils.listOf(properties).forEach(this::includeProperty);
     }
 
@@ -143,7 +195,8 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      */
     protected void includeProperty(final String property) {
         if (Objects.nonNull(property)) {
-            this.getPropertySet().add(property);
+            this.propertySet.add(property);
+            this.invalidate();
         }
     }
 
@@ -157,7 +210,8 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
     public void setComparator(final String property, final Comparator<?> comparator) {
         ValidationUtils.notNull(property, "Property should not be null!");
         log.debug("DEBUG <{}>: storing property by name={}, comparator={}", getClass().getName(), property, comparator);
-        this.getPropertyComparatorMap().put(ParserUtils.sanitize(property), comparator);
+        this.propertyComparatorMap.put(ParserUtils.sanitize(property), comparator);
+        this.invalidate();
     }
 
     /**
@@ -179,7 +233,8 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      */
     public void removeComparator(final String property) {
         log.debug("DEBUG: <{}>: removing comparator for property={}", getClass().getName(), property);
-        this.getPropertyComparatorMap().remove(ParserUtils.sanitize(property));
+        this.propertyComparatorMap.remove(ParserUtils.sanitize(property));
+        this.invalidate();
     }
 
     /**
@@ -191,6 +246,12 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
         ServiceUtils.listOf(properties).forEach(this::removeComparator);
     }
 
+    /**
+     * Invalidates derived comparison state after properties or property comparators have been changed
+     */
+    protected void invalidate() {
+    }
+
     /**
      * Returns numeric result of initial arguments comparison by property name {@link String}
      *
@@ -216,7 +277,7 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      */
     @SuppressWarnings("unchecked")
     protected Comparator<?> getPropertyComparator(final String property) {
-        return this.getPropertyComparatorMap().getOrDefault(ParserUtils.sanitize(property), new ComparatorUtils.DefaultNullSafeObjectComparator());
+        return this.propertyComparatorMap.getOrDefault(ParserUtils.sanitize(property), ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
     }
 
     /**
@@ -238,10 +299,7 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      * @return list of field names {@link List}
      */
     protected List<String> getFieldsList(final Class<? extends T> clazz) {
-        return getValidFields(getAllFields(clazz), false, false)
-            .stream()
-            .map(Field::getName)
-            .collect(Collectors.toList());
+        return new ArrayList<>(this.getMetadataCache().get(clazz).getFields().keySet());
     }
 
     /**
@@ -251,7 +309,7 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      * @return map of fields {@link Map} by names {@link String} and types {@link Class}
      */
     protected Map<String, Class<?>> getFieldsClassMap(final Class<? extends T> clazz) {
-        return getValidFields(getAllFields(clazz), false, false)
+        return this.getMetadataCache().get(clazz).getFields().values()
             .stream()
             .collect(Collectors.toMap(Field::getName, Field::getType));
     }
@@ -263,9 +321,7 @@ public abstract class AbstractDiffComparator<T> implements DiffComparator<T> {
      * @return map of fields {@link Map} by names {@link String} and types {@link Class}
      */
     protected Map<String, Field> getFieldsMap(final Class<? extends T> clazz) {
-        return getValidFields(getAllFields(clazz), false, false)
-            .stream()
-            .collect(Collectors.toMap(Field::getName, field -> field));
+        return this.getMetadataCache().get(clazz).getFields();
     }
 
     /**
@@ -23,24 +23,35 @@
  */
 package com.wildbeeslabs.sensiblemetrics.diffy.comparator.service;
 
-import com.wildbeeslabs.sensiblemetrics.diffy.common.sort.SortManager;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ParserUtils;
-import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ReflectionUtils;
-import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.StringUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.CachingComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadataCache;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparatorUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparisonPlan;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
-import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.impl.DefaultDiffEntry;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -63,6 +74,49 @@ public class DefaultDiffComparator<T> extends AbstractDiffComparator<T> {
      */
     private static final long serialVersionUID = 2088063953605270171L;
 
+    /**
+     * Default number of properties to switch to parallel comparison at (parallel comparison is disabled by default)
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = Integer.MAX_VALUE;
+
+    /**
+     * Default number of properties to switch to parallel comparison at
+     */
+    @Setter(AccessLevel.NONE)
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    /**
+     * Default executor {@link Executor} of parallel comparison ({@link ForkJoinPool#commonPool()} if {@code null})
+     */
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient Executor executor;
+
+    /**
+     * Default number of cached results per property comparator (caching of property comparators is disabled if zero)
+     */
+    @Setter(AccessLevel.NONE)
+    private int cacheCapacity;
+    /**
+     * Default immutable value types {@link Set} to cache comparison results of in addition to {@link CachingComparator#DEFAULT_CACHEABLE_TYPES}
+     */
+    @Setter(AccessLevel.NONE)
+    private Set<Class<?>> cacheableTypes = Collections.emptySet();
+    /**
+     * Default caching property comparators {@link Map} by property name {@link String} of compiled comparison plan
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile Map<String, CachingComparator<?>> comparatorCaches;
+
+    /**
+     * Default compiled comparison plan {@link ComparisonPlan}
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile ComparisonPlan<T> plan;
+
     /**
      * Creates default difference comparator with initial class {@link Class}
      *
@@ -82,6 +136,17 @@ public class DefaultDiffComparator<T> extends AbstractDiffComparator<T> {
         super(clazz, comparator);
     }
 
+    /**
+     * Creates default difference comparator with initial class {@link Class}, comparator instance {@link Comparator} and metadata cache {@link ClassMetadataCache}
+     *
+     * @param clazz         - initial class instance {@link Class}
+     * @param comparator    - initial comparator instance {@link Comparator}
+     * @param metadataCache - initial class metadata cache {@link ClassMetadataCache}
+     */
+    public DefaultDiffComparator(final Class<? extends T> clazz, final Comparator<? super T> comparator, final ClassMetadataCache metadataCache) {
+        super(clazz, comparator, metadataCache);
+    }
+
     /**
      * Returns comparator instance {@link Comparator} by property name {@link String}
      *
@@ -110,7 +175,7 @@ public class DefaultDiffComparator<T> extends AbstractDiffComparator<T> {
                 return new ComparatorUtils.DefaultNullSafeArrayComparator<>();
             }
         }
-        return this.getPropertyComparatorMap().getOrDefault(ParserUtils.sanitize(property), new ComparatorUtils.DefaultNullSafeObjectComparator());
+        return this.getPropertyComparatorMap().getOrDefault(ParserUtils.sanitize(property), ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
     }
 
     /**
@@ -123,24 +188,133 @@ public class DefaultDiffComparator<T> extends AbstractDiffComparator<T> {
      */
     @Override
     public <S extends Iterable<? extends DiffEntry<?>>> S diffCompare(final T first, final T last) {
-        return (S) this.getPropertySet().stream()
-            .filter(property -> this.getPropertyMap().containsKey(property))
-            .map(property -> this.processProperty(first, last, property))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        final ComparisonPlan<T> plan = this.getPlan();
+        if (plan.size() < this.getParallelThreshold()) {
+            return (S) plan.diffCompare(first, last);
+        }
+        final Executor executor = Optional.ofNullable(this.getExecutor()).orElseGet(ForkJoinPool::commonPool);
+        final int parallelism = (executor instanceof ForkJoinPool) ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        return (S) plan.diffCompare(first, last, executor, parallelism);
+    }
+
+    /**
+     * Enables parallel comparison of properties on executor {@link Executor} for classes with at least threshold number of properties.
+     * Order of difference entries is the same as by sequential comparison.
+     *
+     * @param threshold - initial number of properties to switch to parallel comparison at
+     * @param executor  - initial executor {@link Executor} ({@link ForkJoinPool#commonPool()} if {@code null})
+     * @throws IllegalArgumentException if threshold is not positive
+     */
+    public void enableParallel(int threshold, final Executor executor) {
+        ValidationUtils.isTrue(threshold > 0, "Parallel threshold should be greater than zero!");
+        this.parallelThreshold = threshold;
+        this.executor = executor;
+    }
+
+    /**
+     * Disables parallel comparison of properties
+     */
+    public void disableParallel() {
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        this.executor = null;
+    }
+
+    /**
+     * Enables caching of comparison results by property comparators {@link CachingComparator} of immutable value properties
+     *
+     * @param capacity - initial number of cached results per property comparator
+     * @throws IllegalArgumentException if capacity is not greater than one
+     */
+    public void enableCaching(int capacity) {
+        this.enableCaching(capacity, Collections.emptyList());
+    }
+
+    /**
+     * Enables caching of comparison results by property comparators {@link CachingComparator} of immutable value properties,
+     * including properties of explicitly allowed types {@link Iterable} (values of allowed types should not change after comparison)
+     *
+     * @param capacity       - initial number of cached results per property comparator
+     * @param cacheableTypes - initial immutable value types {@link Iterable} to cache comparison results of
+     * @throws IllegalArgumentException if capacity is not greater than one or types are {@code null}
+     */
+    public void enableCaching(int capacity, final Iterable<Class<?>> cacheableTypes) {
+        ValidationUtils.isTrue(capacity > 1, "Cache capacity should be greater than one!");
+        ValidationUtils.notNull(cacheableTypes, "Cacheable types should not be null!");
+
+        final Set<Class<?>> types = new LinkedHashSet<>();
+        cacheableTypes.forEach(types::add);
+        this.cacheCapacity = capacity;
+        this.cacheableTypes = Collections.unmodifiableSet(types);
+        this.invalidate();
+    }
+
+    /**
+     * Disables caching of comparison results by property comparators
+     */
+    public void disableCaching() {
+        this.cacheCapacity = 0;
+        this.cacheableTypes = Collections.emptySet();
+        this.invalidate();
+    }
+
+    /**
+     * Returns caching property comparators {@link Map} by property name {@link String} to report cache statistics
+     *
+     * @return caching property comparators {@link Map}
+     */
+    public Map<String, CachingComparator<?>> getComparatorCaches() {
+        this.getPlan();
+        return Optional.ofNullable(this.comparatorCaches).orElseGet(Collections::emptyMap);
     }
 
-    private DiffEntry<?> processProperty(final T first, final T last, final String property) {
-        try {
-            ReflectionUtils.setAccessible(this.getPropertyMap().get(property));
-            final Object firstValue = this.getPropertyMap().get(property).get(first);
-            final Object lastValue = this.getPropertyMap().get(property).get(last);
-            if (!Objects.equals(compare(firstValue, lastValue, property), SortManager.SortDirection.EQ)) {
-                return DefaultDiffEntry.of(property, firstValue, lastValue);
+    /**
+     * Returns comparison plan {@link ComparisonPlan} compiled by current properties and property comparators
+     *
+     * @return comparison plan {@link ComparisonPlan}
+     */
+    public ComparisonPlan<T> getPlan() {
+        ComparisonPlan<T> result = this.plan;
+        if (Objects.isNull(result)) {
+            synchronized (this) {
+                result = this.plan;
+                if (Objects.isNull(result)) {
+                    final Map<String, CachingComparator<?>> caches = new LinkedHashMap<>();
+                    result = ComparisonPlan.compile(this.getMetadataCache().get(this.getClazz()), this.getPropertySet().stream()
+                        .filter(property -> this.getPropertyMap().containsKey(property))
+                        .collect(Collectors.toList()), property -> this.getCachingComparator(property, caches));
+                    this.comparatorCaches = Collections.unmodifiableMap(caches);
+                    this.plan = result;
+                }
             }
-        } catch (IllegalAccessException e) {
-            log.error(StringUtils.formatMessage("ERROR: cannot process property: {%s}, message: {%s}", property, e.getMessage()));
         }
-        return null;
+        return result;
+    }
+
+    /**
+     * Returns property comparator {@link Comparator} wrapped by caching comparator {@link CachingComparator} if caching is enabled
+     * and property is of immutable value type (primitive properties are compared without boxing and are never cached)
+     *
+     * @param property - initial property name {@link String}
+     * @param caches   - initial caching property comparators {@link Map} to register created comparator in
+     * @return property comparator {@link Comparator}
+     */
+    private Comparator<?> getCachingComparator(final String property, final Map<String, CachingComparator<?>> caches) {
+        final Comparator<?> comparator = this.getPropertyComparator(property);
+        final Class<?> type = this.getPropertyMap().get(property).getType();
+        if (0 == this.getCacheCapacity() || !(Enum.class.isAssignableFrom(type) || CachingComparator.DEFAULT_CACHEABLE_TYPES.contains(type) || this.getCacheableTypes().contains(type))) {
+            return comparator;
+        }
+        final CachingComparator<?> result = new CachingComparator<>(comparator, this.getCacheCapacity(), this.getCacheableTypes());
+        caches.put(property, result);
+        return result;
+    }
+
+    /**
+     * Drops compiled comparison plan {@link ComparisonPlan} to be rebuilt on next comparison
+     */
+    @Override
+    protected void invalidate() {
+        this.plan = null;
+        this.comparatorCaches = null;
     }
 }
@@ -0,0 +1,490 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.exception.PropertyAccessException;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.interfaces.DiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ArrayDiffUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadata;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadataCache;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.MismatchRange;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.impl.DefaultDiffEntry;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Recursive object graph difference comparator implementation by input class {@link Class}
+ * <p>
+ * Nested beans, arrays, collections and maps are traversed and every difference is reported as {@link DiffEntry}
+ * addressed by property path (for instance, {@code addresses[1].city} or {@code attributes[key]}). Identical
+ * (reference-equal) subtrees are skipped, so graphs sharing most of their structure are compared in time
+ * proportional to the changed part. Primitive arrays are reported by mismatch ranges (for instance, {@code values[2..5]}
+ * with sub-arrays of both sides), not element by element. Visited pairs of nodes are tracked by identity to terminate on cycles.
+ * <p>
+ * Optionally (equality short-circuit), beans declaring {@link Object#equals(Object)} are skipped if their structural
+ * hashes match and equality is confirmed by {@link Object#equals(Object)}. Structural hashes are computed bottom-up
+ * for both nodes of a pair at once and memoized by pair, reference-equal properties contribute their identity and
+ * are not entered, so hashing never reaches subtrees skipped by comparison. Pairs whose hashing runs into a cycle
+ * back reference are always compared property by property, {@link Object#equals(Object)} is never called on them.
+ *
+ * @param <T> type of input element to be compared by operation
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@SuppressWarnings("unchecked")
+public class GraphDiffComparator<T> implements DiffComparator<T> {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = -4170563291842236587L;
+
+    /**
+     * Default maximum depth of traversal
+     */
+    public static final int DEFAULT_MAX_DEPTH = 64;
+
+    /**
+     * Default value types {@link ClassValue} compared as opaque values
+     */
+    private static final ClassValue<Boolean> VALUE_TYPES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            if (type.isArray() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+                return false;
+            }
+            final String name = type.getName();
+            return type.isPrimitive() || Enum.class.isAssignableFrom(type)
+                || name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+        }
+    };
+
+    /**
+     * Default types {@link ClassValue} declaring own {@link Object#equals(Object)} implementation
+     */
+    private static final ClassValue<Boolean> EQUALS_TYPES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return Object.class != type.getMethod("equals", Object.class).getDeclaringClass();
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    /**
+     * Default class instance {@link Class}
+     */
+    private final Class<? extends T> clazz;
+    /**
+     * Default maximum depth of traversal (deeper nodes are compared by {@link Object#equals(Object)})
+     */
+    private final int maxDepth;
+    /**
+     * Default flag to skip beans declaring {@link Object#equals(Object)} with equal structural hashes and values
+     */
+    private final boolean equalsShortCircuit;
+    /**
+     * Default class metadata cache {@link ClassMetadataCache}
+     */
+    @ToString.Exclude
+    private final transient ClassMetadataCache metadataCache;
+
+    /**
+     * Creates graph difference comparator with initial class {@link Class}
+     *
+     * @param clazz - initial class instance {@link Class}
+     */
+    public GraphDiffComparator(final Class<? extends T> clazz) {
+        this(clazz, DEFAULT_MAX_DEPTH, false, ClassMetadataCache.getDefault());
+    }
+
+    /**
+     * Creates graph difference comparator with initial class {@link Class}, maximum depth, equality short-circuit flag and metadata cache {@link ClassMetadataCache}
+     *
+     * @param clazz              - initial class instance {@link Class}
+     * @param maxDepth           - initial maximum depth of traversal
+     * @param equalsShortCircuit - initial flag to skip equal beans by structural hashes and equality (disabled by default)
+     * @param metadataCache      - initial class metadata cache {@link ClassMetadataCache}
+     * @throws NullPointerException     if clazz or metadataCache argument is {@code null}
+     * @throws IllegalArgumentException if maximum depth is negative
+     */
+    public GraphDiffComparator(final Class<? extends T> clazz, final int maxDepth, final boolean equalsShortCircuit, final ClassMetadataCache metadataCache) {
+        ValidationUtils.notNull(clazz, "Class should not be null!");
+        ValidationUtils.notNull(metadataCache, "Metadata cache should not be null!");
+        ValidationUtils.isTrue(maxDepth >= 0, "Maximum depth should not be negative!");
+        this.clazz = clazz;
+        this.maxDepth = maxDepth;
+        this.equalsShortCircuit = equalsShortCircuit;
+        this.metadataCache = metadataCache;
+    }
+
+    /**
+     * Returns iterableOf collection of path-addressed difference entries {@link DiffEntry}
+     *
+     * @param <S>   type of difference entry collection
+     * @param first - initial first argument to be compared {@code T}
+     * @param last  - initial last argument to be compared with {@code T}
+     * @return collection of {@link DiffEntry} instances
+     */
+    @Override
+    public <S extends Iterable<? extends DiffEntry<?>>> S diffCompare(final T first, final T last) {
+        final GraphWalker walker = new GraphWalker();
+        walker.diff(null, first, last, 0);
+        return (S) walker.getEntries();
+    }
+
+    /**
+     * Graph walker implementation holding state of a single comparison
+     */
+    private final class GraphWalker {
+
+        /**
+         * Default difference entries {@link List}
+         */
+        @Getter
+        private final List<DiffEntry<?>> entries = new ArrayList<>();
+        /**
+         * Default visited pairs of nodes {@link Set}
+         */
+        private final Set<NodePair> visited = new HashSet<>();
+        /**
+         * Default structural hashes {@link Map} by pair of nodes
+         */
+        private final Map<NodePair, PairHash> hashes = new HashMap<>();
+
+        private void diff(final String path, final Object first, final Object last, int depth) {
+            if (first == last) {
+                return;
+            }
+            if (Objects.isNull(first) || Objects.isNull(last) || first.getClass() != last.getClass()) {
+                this.emit(path, first, last);
+                return;
+            }
+            final Class<?> type = first.getClass();
+            if (VALUE_TYPES.get(type) || depth >= getMaxDepth()) {
+                if (!Objects.deepEquals(first, last)) {
+                    this.emit(path, first, last);
+                }
+                return;
+            }
+            if (!this.visited.add(new NodePair(first, last))) {
+                return;
+            }
+            if (type.isArray()) {
+                this.diffArray(path, first, last, depth);
+            } else if (first instanceof Set) {
+                this.diffSet(path, (Set<?>) first, (Set<?>) last);
+            } else if (first instanceof Map) {
+                this.diffMap(path, (Map<?, ?>) first, (Map<?, ?>) last, depth);
+            } else if (first instanceof Iterable) {
+                this.diffIterable(path, ((Iterable<?>) first).iterator(), ((Iterable<?>) last).iterator(), depth);
+            } else if (!isEqualBean(type, first, last, depth)) {
+                this.diffBean(path, type, first, last, depth);
+            }
+        }
+
+        private void diffArray(final String path, final Object first, final Object last, int depth) {
+            if (first.getClass().getComponentType().isPrimitive()) {
+                for (final MismatchRange range : ArrayDiffUtils.mismatches(first, last)) {
+                    this.emit(index(path, range.getFrom() + ".." + range.getTo()), slice(first, range), slice(last, range));
+                }
+                return;
+            }
+            final int firstLength = Array.getLength(first);
+            final int lastLength = Array.getLength(last);
+            for (int i = 0; i < Math.max(firstLength, lastLength); i++) {
+                final Object firstItem = (i < firstLength) ? Array.get(first, i) : null;
+                final Object lastItem = (i < lastLength) ? Array.get(last, i) : null;
+                if (i < firstLength && i < lastLength) {
+                    this.diff(index(path, i), firstItem, lastItem, depth + 1);
+                } else {
+                    this.emit(index(path, i), firstItem, lastItem);
+                }
+            }
+        }
+
+        private void diffIterable(final String path, final Iterator<?> first, final Iterator<?> last, int depth) {
+            int i = 0;
+            while (first.hasNext() && last.hasNext()) {
+                this.diff(index(path, i++), first.next(), last.next(), depth + 1);
+            }
+            while (first.hasNext()) {
+                this.emit(index(path, i++), first.next(), null);
+            }
+            while (last.hasNext()) {
+                this.emit(index(path, i++), null, last.next());
+            }
+        }
+
+        private void diffSet(final String path, final Set<?> first, final Set<?> last) {
+            final String itemPath = index(path, "");
+            first.stream().filter(item -> !last.contains(item)).forEach(item -> this.emit(itemPath, item, null));
+            last.stream().filter(item -> !first.contains(item)).forEach(item -> this.emit(itemPath, null, item));
+        }
+
+        private void diffMap(final String path, final Map<?, ?> first, final Map<?, ?> last, int depth) {
+            for (final Map.Entry<?, ?> entry : first.entrySet()) {
+                final String itemPath = index(path, entry.getKey());
+                if (last.containsKey(entry.getKey())) {
+                    this.diff(itemPath, entry.getValue(), last.get(entry.getKey()), depth + 1);
+                } else {
+                    this.emit(itemPath, entry.getValue(), null);
+                }
+            }
+            for (final Map.Entry<?, ?> entry : last.entrySet()) {
+                if (!first.containsKey(entry.getKey())) {
+                    this.emit(index(path, entry.getKey()), null, entry.getValue());
+                }
+            }
+        }
+
+        private void diffBean(final String path, final Class<?> type, final Object first, final Object last, int depth) {
+            final ClassMetadata metadata = getMetadataCache().get(type);
+            if (metadata.getGetters().isEmpty()) {
+                if (!Objects.equals(first, last)) {
+                    this.emit(path, first, last);
+                }
+                return;
+            }
+            for (final Map.Entry<String, MethodHandle> property : metadata.getGetters().entrySet()) {
+                final String propertyPath = Objects.isNull(path) ? property.getKey() : path + "." + property.getKey();
+                this.diff(propertyPath, get(property, first), get(property, last), depth + 1);
+            }
+        }
+
+        private boolean isEqualBean(final Class<?> type, final Object first, final Object last, int depth) {
+            if (!isEqualsShortCircuit() || !EQUALS_TYPES.get(type)) {
+                return false;
+            }
+            final PairHash hash = this.hash(first, last, depth);
+            return !hash.cyclic && hash.first == hash.last && first.equals(last);
+        }
+
+        /**
+         * Returns structural hashes of the given pair of nodes (non-null, distinct, of the same class) combined from
+         * hashes of their compared properties / items, the hashes of every traversed pair are computed once
+         * (pairs running into a back reference of a cycle are marked as cyclic)
+         *
+         * @param first - initial input first node
+         * @param last  - initial input last node
+         * @param depth - initial input nodes depth
+         * @return structural {@link PairHash}
+         */
+        private PairHash hash(final Object first, final Object last, int depth) {
+            final NodePair pair = new NodePair(first, last);
+            final PairHash cached = this.hashes.get(pair);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+            this.hashes.put(pair, PairHash.BACK_REFERENCE);
+            final PairHash result = new PairHash(false);
+            final Class<?> type = first.getClass();
+            if (type.isArray() && type.getComponentType().isPrimitive()) {
+                result.first = Arrays.deepHashCode(new Object[]{first});
+                result.last = Arrays.deepHashCode(new Object[]{last});
+            } else if (depth >= getMaxDepth() || first instanceof Set) {
+                // compared by equality, not traversed
+                result.first = result.last = 0;
+            } else if (type.isArray()) {
+                final int firstLength = Array.getLength(first);
+                final int lastLength = Array.getLength(last);
+                for (int i = 0; i < Math.max(firstLength, lastLength); i++) {
+                    this.combine(result, (i < firstLength) ? Array.get(first, i) : null, (i < lastLength) ? Array.get(last, i) : null, depth);
+                }
+            } else if (first instanceof Map) {
+                this.hashMap(result, (Map<?, ?>) first, (Map<?, ?>) last, depth);
+            } else if (first instanceof Iterable) {
+                final Iterator<?> firstItems = ((Iterable<?>) first).iterator();
+                final Iterator<?> lastItems = ((Iterable<?>) last).iterator();
+                while (firstItems.hasNext() || lastItems.hasNext()) {
+                    this.combine(result, firstItems.hasNext() ? firstItems.next() : null, lastItems.hasNext() ? lastItems.next() : null, depth);
+                }
+            } else {
+                final ClassMetadata metadata = getMetadataCache().get(type);
+                if (metadata.getGetters().isEmpty()) {
+                    result.first = first.hashCode();
+                    result.last = last.hashCode();
+                }
+                for (final Map.Entry<String, MethodHandle> property : metadata.getGetters().entrySet()) {
+                    this.combine(result, get(property, first), get(property, last), depth);
+                }
+            }
+            this.hashes.put(pair, result);
+            return result;
+        }
+
+        private void hashMap(final PairHash result, final Map<?, ?> first, final Map<?, ?> last, int depth) {
+            int firstHash = 0;
+            int lastHash = 0;
+            for (final Map.Entry<?, ?> entry : first.entrySet()) {
+                final int key = Objects.hashCode(entry.getKey());
+                if (last.containsKey(entry.getKey())) {
+                    final PairHash value = new PairHash(false);
+                    this.combine(value, entry.getValue(), last.get(entry.getKey()), depth);
+                    firstHash += key ^ value.first;
+                    lastHash += key ^ value.last;
+                    result.cyclic |= value.cyclic;
+                } else {
+                    firstHash += key;
+                }
+            }
+            for (final Object key : last.keySet()) {
+                if (!first.containsKey(key)) {
+                    lastHash += ~Objects.hashCode(key);
+                }
+            }
+            result.first = 31 * result.first + firstHash;
+            result.last = 31 * result.last + lastHash;
+        }
+
+        /**
+         * Combines hashes of the given pair of properties / items into result, reference-equal and differently typed
+         * values are not entered
+         *
+         * @param result - initial input {@link PairHash} of the owning pair
+         * @param first  - initial input first value
+         * @param last   - initial input last value
+         * @param depth  - initial input depth of the owning pair
+         */
+        private void combine(final PairHash result, final Object first, final Object last, int depth) {
+            final int firstHash;
+            final int lastHash;
+            if (first == last) {
+                firstHash = lastHash = System.identityHashCode(first);
+            } else if (Objects.isNull(first) || Objects.isNull(last) || first.getClass() != last.getClass()) {
+                // reported as a difference by comparison
+                firstHash = 0;
+                lastHash = 1;
+            } else if (VALUE_TYPES.get(first.getClass())) {
+                firstHash = first.hashCode();
+                lastHash = last.hashCode();
+            } else {
+                final PairHash nested = this.hash(first, last, depth + 1);
+                firstHash = nested.first;
+                lastHash = nested.last;
+                result.cyclic |= nested.cyclic;
+            }
+            result.first = 31 * result.first + firstHash;
+            result.last = 31 * result.last + lastHash;
+        }
+
+        private void emit(final String path, final Object first, final Object last) {
+            this.entries.add(DefaultDiffEntry.of(Objects.isNull(path) ? "" : path, first, last));
+        }
+    }
+
+    /**
+     * Structural hashes of a pair of compared nodes
+     */
+    private static final class PairHash {
+
+        /**
+         * Default hashes of a pair under computation (returned on back references of cycles)
+         */
+        private static final PairHash BACK_REFERENCE = new PairHash(true);
+
+        private int first = 1;
+        private int last = 1;
+        private boolean cyclic;
+
+        private PairHash(final boolean cyclic) {
+            this.cyclic = cyclic;
+        }
+    }
+
+    /**
+     * Identity-based pair of compared nodes
+     */
+    private static final class NodePair {
+
+        private final Object first;
+        private final Object last;
+
+        private NodePair(final Object first, final Object last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof NodePair)) {
+                return false;
+            }
+            final NodePair pair = (NodePair) other;
+            return this.first == pair.first && this.last == pair.last;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.first) + System.identityHashCode(this.last);
+        }
+    }
+
+    private static String index(final String path, final Object key) {
+        return (Objects.isNull(path) ? "" : path) + "[" + key + "]";
+    }
+
+    private static Object slice(final Object array, final MismatchRange range) {
+        final int length = Array.getLength(array);
+        final int from = Math.min(range.getFrom(), length);
+        final Object result = Array.newInstance(array.getClass().getComponentType(), Math.min(range.getTo(), length) - from);
+        System.arraycopy(array, from, result, 0, Array.getLength(result));
+        return result;
+    }
+
+    private static Object get(final Map.Entry<String, MethodHandle> property, final Object target) {
+        try {
+            return property.getValue().invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw PropertyAccessException.throwIllegalAccess(property.getKey(), target, t);
+        }
+    }
+}
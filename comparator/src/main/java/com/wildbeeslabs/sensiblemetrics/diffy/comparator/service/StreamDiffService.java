@@ -0,0 +1,480 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.interfaces.DiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.KeyedDiffResult;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keyed stream difference service implementation
+ * <p>
+ * Compares two (possibly very large) streams of elements joined by key: elements present in one stream only are
+ * reported as added/removed, elements present in both streams are compared by difference comparator {@link DiffComparator}
+ * and reported as changed if any difference entries {@link DiffEntry} are found. Results are emitted lazily.
+ * <p>
+ * Sorted streams are joined by merge in constant memory. Unsorted streams are joined by hash: if the last stream
+ * exceeds in-memory limit, both streams are partitioned by key hash into temporary files (elements should be
+ * {@link java.io.Serializable}), and partitions are joined one by one. Partitions of last stream still exceeding
+ * in-memory limit are partitioned again by differently seeded key hash, up to {@link #MAX_SPILL_LEVEL} times.
+ *
+ * @param <T> type of input element to be compared by operation
+ * @param <K> type of element key
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Getter
+@ToString
+@SuppressWarnings("unchecked")
+public class StreamDiffService<T, K> {
+
+    /**
+     * Default maximum number of elements of last stream held in memory
+     */
+    public static final int DEFAULT_MAX_IN_MEMORY = 1 << 20;
+    /**
+     * Default number of spill partitions
+     */
+    public static final int DEFAULT_PARTITIONS = 64;
+    /**
+     * Default maximum number of times a spill partition is partitioned again
+     */
+    public static final int MAX_SPILL_LEVEL = 4;
+    /**
+     * Default number of written elements to reset object stream after
+     */
+    private static final int RESET_INTERVAL = 1024;
+    /**
+     * Default spill file buffer size
+     */
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    /**
+     * Default difference comparator instance {@link DiffComparator}
+     */
+    private final DiffComparator<T> comparator;
+    /**
+     * Default key extractor {@link Function}
+     */
+    @ToString.Exclude
+    private final Function<? super T, ? extends K> keyExtractor;
+    /**
+     * Default maximum number of elements of last stream held in memory
+     */
+    private final int maxInMemory;
+    /**
+     * Default number of spill partitions
+     */
+    private final int partitions;
+    /**
+     * Default spill directory {@link Path} (system temporary directory if {@code null})
+     */
+    private final Path spillDirectory;
+
+    /**
+     * Creates keyed stream difference service with default difference comparator {@link DefaultDiffComparator} by class {@link Class} and key extractor {@link Function}
+     *
+     * @param clazz        - initial class instance {@link Class} to compare elements by
+     * @param keyExtractor - initial key extractor {@link Function}
+     */
+    public StreamDiffService(final Class<? extends T> clazz, final Function<? super T, ? extends K> keyExtractor) {
+        this(new DefaultDiffComparator<>(clazz), keyExtractor);
+    }
+
+    /**
+     * Creates keyed stream difference service with initial difference comparator {@link DiffComparator} and key extractor {@link Function}
+     *
+     * @param comparator   - initial difference comparator {@link DiffComparator}
+     * @param keyExtractor - initial key extractor {@link Function}
+     */
+    public StreamDiffService(final DiffComparator<T> comparator, final Function<? super T, ? extends K> keyExtractor) {
+        this(comparator, keyExtractor, DEFAULT_MAX_IN_MEMORY, DEFAULT_PARTITIONS, null);
+    }
+
+    /**
+     * Creates keyed stream difference service with initial parameters
+     *
+     * @param comparator     - initial difference comparator {@link DiffComparator}
+     * @param keyExtractor   - initial key extractor {@link Function}
+     * @param maxInMemory    - initial maximum number of elements of last stream held in memory
+     * @param partitions     - initial number of spill partitions
+     * @param spillDirectory - initial spill directory {@link Path} (system temporary directory if {@code null})
+     */
+    public StreamDiffService(final DiffComparator<T> comparator, final Function<? super T, ? extends K> keyExtractor, int maxInMemory, int partitions, final Path spillDirectory) {
+        ValidationUtils.notNull(comparator, "Comparator should not be null!");
+        ValidationUtils.notNull(keyExtractor, "Key extractor should not be null!");
+        ValidationUtils.isTrue(maxInMemory > 0, "Maximum in-memory size should be greater than zero!");
+        ValidationUtils.isTrue(partitions > 0, "Number of partitions should be greater than zero!");
+
+        this.comparator = comparator;
+        this.keyExtractor = keyExtractor;
+        this.maxInMemory = maxInMemory;
+        this.partitions = partitions;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Returns lazy {@link Stream} of keyed difference results {@link KeyedDiffResult} of streams sorted by unique keys
+     *
+     * @param first         - initial first {@link Stream} sorted by key
+     * @param last          - initial last {@link Stream} sorted by key
+     * @param keyComparator - initial key {@link Comparator} both streams are sorted by
+     * @return {@link Stream} of keyed difference results {@link KeyedDiffResult}
+     * @throws IllegalStateException if keys are not sorted or unique
+     */
+    public Stream<KeyedDiffResult<K, T>> diffSorted(final Stream<? extends T> first, final Stream<? extends T> last, final Comparator<? super K> keyComparator) {
+        ValidationUtils.notNull(first, "First stream should not be null!");
+        ValidationUtils.notNull(last, "Last stream should not be null!");
+        ValidationUtils.notNull(keyComparator, "Key comparator should not be null!");
+
+        final Iterator<KeyedDiffResult<K, T>> iterator = new MergeIterator(first.iterator(), last.iterator(), keyComparator);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(first::close)
+            .onClose(last::close);
+    }
+
+    /**
+     * Returns lazy {@link Stream} of keyed difference results {@link KeyedDiffResult} of unsorted streams with unique keys
+     *
+     * @param first - initial first {@link Stream}
+     * @param last  - initial last {@link Stream}
+     * @return {@link Stream} of keyed difference results {@link KeyedDiffResult}
+     * @throws IllegalStateException if keys of last stream are not unique, or too many of them share the same hash to fit in memory
+     * @throws UncheckedIOException  if streams cannot be spilled to temporary files
+     */
+    public Stream<KeyedDiffResult<K, T>> diffUnsorted(final Stream<? extends T> first, final Stream<? extends T> last) {
+        ValidationUtils.notNull(first, "First stream should not be null!");
+        ValidationUtils.notNull(last, "Last stream should not be null!");
+
+        final Iterator<? extends T> lastIterator = last.iterator();
+        final Map<K, T> index = new LinkedHashMap<>();
+        try {
+            while (lastIterator.hasNext() && index.size() < this.maxInMemory) {
+                this.index(index, lastIterator.next());
+            }
+        } catch (RuntimeException e) {
+            try (first; last) {
+                throw e;
+            }
+        }
+        if (!lastIterator.hasNext()) {
+            last.close();
+            return this.join(first, index).onClose(first::close);
+        }
+
+        log.debug("DEBUG: spilling streams into {} partitions, in-memory limit={}", this.partitions, this.maxInMemory);
+        final SpillPartitions spill = new SpillPartitions(0);
+        try (first; last) {
+            index.values().forEach(item -> spill.write(spill.lastFiles, item));
+            index.clear();
+            lastIterator.forEachRemaining(item -> spill.write(spill.lastFiles, item));
+            first.forEach(item -> spill.write(spill.firstFiles, item));
+            spill.flush();
+        } catch (RuntimeException e) {
+            spill.close();
+            throw e;
+        }
+        return this.join(spill);
+    }
+
+    private Stream<KeyedDiffResult<K, T>> join(final SpillPartitions spill) {
+        return IntStream.range(0, this.partitions)
+            .boxed()
+            .flatMap(partition -> this.join(spill, partition))
+            .onClose(spill::close);
+    }
+
+    private Stream<KeyedDiffResult<K, T>> join(final SpillPartitions spill, int partition) {
+        final int count = spill.count(spill.lastFiles, partition);
+        if (count > this.maxInMemory) {
+            if (spill.level >= MAX_SPILL_LEVEL || 1 == this.partitions) {
+                throw new IllegalStateException(String.format("ERROR: spill partition of {%d} elements exceeds in-memory limit {%d} after {%d} re-partitions, keys should have distinct hashes", count, this.maxInMemory, spill.level));
+            }
+            log.debug("DEBUG: re-partitioning spill partition of {} elements, level={}", count, spill.level + 1);
+            return this.join(spill.split(partition));
+        }
+        final Map<K, T> partitionIndex = new LinkedHashMap<>();
+        try (Stream<T> items = spill.read(spill.lastFiles, partition)) {
+            items.forEach(item -> this.index(partitionIndex, item));
+        }
+        return this.join(spill.read(spill.firstFiles, partition), partitionIndex);
+    }
+
+    private Stream<KeyedDiffResult<K, T>> join(final Stream<? extends T> first, final Map<K, T> index) {
+        final Stream<KeyedDiffResult<K, T>> probed = first
+            .map(item -> {
+                final K key = this.keyExtractor.apply(item);
+                final T other = index.remove(key);
+                return Objects.isNull(other) ? KeyedDiffResult.<K, T>removed(key, item) : this.diff(key, item, other);
+            })
+            .filter(Objects::nonNull);
+        final Stream<KeyedDiffResult<K, T>> added = Stream.of(index)
+            .flatMap(rest -> rest.entrySet().stream().map(entry -> KeyedDiffResult.added(entry.getKey(), entry.getValue())));
+        return Stream.concat(probed, added).onClose(first::close);
+    }
+
+    private void index(final Map<K, T> index, final T item) {
+        final K key = this.keyExtractor.apply(item);
+        if (Objects.nonNull(index.putIfAbsent(key, item))) {
+            throw new IllegalStateException(String.format("ERROR: duplicate key: {%s}", key));
+        }
+    }
+
+    private KeyedDiffResult<K, T> diff(final K key, final T first, final T last) {
+        final List<DiffEntry<?>> entries = new ArrayList<>();
+        for (final DiffEntry<?> entry : this.comparator.<Iterable<? extends DiffEntry<?>>>diffCompare(first, last)) {
+            entries.add(entry);
+        }
+        return entries.isEmpty() ? null : KeyedDiffResult.changed(key, first, last, entries);
+    }
+
+    /**
+     * Merge join iterator implementation of streams sorted by unique keys
+     */
+    private final class MergeIterator implements Iterator<KeyedDiffResult<K, T>> {
+
+        private final Iterator<? extends T> first;
+        private final Iterator<? extends T> last;
+        private final Comparator<? super K> keyComparator;
+
+        private T firstItem;
+        private K firstKey;
+        private T lastItem;
+        private K lastKey;
+        private KeyedDiffResult<K, T> next;
+
+        private MergeIterator(final Iterator<? extends T> first, final Iterator<? extends T> last, final Comparator<? super K> keyComparator) {
+            this.first = first;
+            this.last = last;
+            this.keyComparator = keyComparator;
+            this.advanceFirst();
+            this.advanceLast();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (Objects.isNull(this.next) && (Objects.nonNull(this.firstItem) || Objects.nonNull(this.lastItem))) {
+                final int result = Objects.isNull(this.firstItem) ? 1 : Objects.isNull(this.lastItem) ? -1 : this.keyComparator.compare(this.firstKey, this.lastKey);
+                if (result < 0) {
+                    this.next = KeyedDiffResult.removed(this.firstKey, this.firstItem);
+                    this.advanceFirst();
+                } else if (result > 0) {
+                    this.next = KeyedDiffResult.added(this.lastKey, this.lastItem);
+                    this.advanceLast();
+                } else {
+                    this.next = diff(this.firstKey, this.firstItem, this.lastItem);
+                    this.advanceFirst();
+                    this.advanceLast();
+                }
+            }
+            return Objects.nonNull(this.next);
+        }
+
+        @Override
+        public KeyedDiffResult<K, T> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final KeyedDiffResult<K, T> result = this.next;
+            this.next = null;
+            return result;
+        }
+
+        private void advanceFirst() {
+            final K previous = this.firstKey;
+            this.firstItem = this.first.hasNext() ? this.first.next() : null;
+            this.firstKey = Objects.isNull(this.firstItem) ? null : keyExtractor.apply(this.firstItem);
+            this.checkOrder(previous, this.firstItem, this.firstKey);
+        }
+
+        private void advanceLast() {
+            final K previous = this.lastKey;
+            this.lastItem = this.last.hasNext() ? this.last.next() : null;
+            this.lastKey = Objects.isNull(this.lastItem) ? null : keyExtractor.apply(this.lastItem);
+            this.checkOrder(previous, this.lastItem, this.lastKey);
+        }
+
+        private void checkOrder(final K previous, final T item, final K key) {
+            if (Objects.nonNull(previous) && Objects.nonNull(item) && this.keyComparator.compare(previous, key) >= 0) {
+                throw new IllegalStateException(String.format("ERROR: keys should be sorted and unique, found: {%s} after {%s}", key, previous));
+            }
+        }
+    }
+
+    /**
+     * Spill partitions implementation holding temporary files of both streams partitioned by key hash
+     */
+    private final class SpillPartitions {
+
+        private final int level;
+        private final Path[] firstFiles = new Path[partitions];
+        private final Path[] lastFiles = new Path[partitions];
+        private final Map<Path, ObjectOutputStream> outputs = new LinkedHashMap<>();
+        private final Map<Path, Integer> counts = new LinkedHashMap<>();
+        private final List<SpillPartitions> children = new ArrayList<>();
+
+        private SpillPartitions(int level) {
+            this.level = level;
+        }
+
+        private int partitionOf(final T item) {
+            int hash = Objects.hashCode(keyExtractor.apply(item)) + this.level * 0x9E3779B9;
+            hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+            hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+            return Math.floorMod(hash ^ (hash >>> 16), partitions);
+        }
+
+        private int count(final Path[] files, int partition) {
+            return Objects.isNull(files[partition]) ? 0 : this.counts.get(files[partition]);
+        }
+
+        private SpillPartitions split(int partition) {
+            final SpillPartitions child = new SpillPartitions(this.level + 1);
+            this.children.add(child);
+            try (Stream<T> items = this.read(this.lastFiles, partition)) {
+                items.forEach(item -> child.write(child.lastFiles, item));
+            }
+            try (Stream<T> items = this.read(this.firstFiles, partition)) {
+                items.forEach(item -> child.write(child.firstFiles, item));
+            }
+            child.flush();
+            return child;
+        }
+
+        private void write(final Path[] files, final T item) {
+            final int partition = this.partitionOf(item);
+            try {
+                if (Objects.isNull(files[partition])) {
+                    files[partition] = Objects.isNull(spillDirectory)
+                        ? Files.createTempFile("diffy-spill-", ".bin")
+                        : Files.createTempFile(spillDirectory, "diffy-spill-", ".bin");
+                    this.counts.put(files[partition], 0);
+                    this.outputs.put(files[partition], new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(files[partition]), BUFFER_SIZE)));
+                }
+                final ObjectOutputStream output = this.outputs.get(files[partition]);
+                output.writeObject(item);
+                if (0 == this.counts.merge(files[partition], 1, Integer::sum) % RESET_INTERVAL) {
+                    output.reset();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            try {
+                for (final ObjectOutputStream output : this.outputs.values()) {
+                    output.close();
+                }
+                this.outputs.clear();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private Stream<T> read(final Path[] files, int partition) {
+            final Path file = files[partition];
+            if (Objects.isNull(file)) {
+                return Stream.empty();
+            }
+            final int count = this.counts.get(file);
+            try {
+                final ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+                return IntStream.range(0, count)
+                    .mapToObj(i -> this.readObject(input))
+                    .onClose(() -> this.delete(file, input));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private T readObject(final ObjectInputStream input) {
+            try {
+                return (T) input.readObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void delete(final Path file, final ObjectInputStream input) {
+            try {
+                input.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.error("ERROR: cannot delete spill file: {}, message: {}", file, e.getMessage());
+            }
+        }
+
+        private void close() {
+            this.children.forEach(SpillPartitions::close);
+            this.children.clear();
+            for (final ObjectOutputStream output : this.outputs.values()) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    log.error("ERROR: cannot close spill file, message: {}", e.getMessage());
+                }
+            }
+            this.outputs.clear();
+            for (final Path file : this.counts.keySet()) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.error("ERROR: cannot delete spill file: {}, message: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Array difference utilities implementation
+ * <p>
+ * Equal regions of arrays are skipped by {@link Arrays#mismatch} (vectorized by the JVM for primitive arrays),
+ * so that only mismatched elements are inspected one by one. Differences are reported as ranges {@link MismatchRange}
+ * of consecutive mismatched indexes; length difference is reported as trailing range.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@UtilityClass
+public class ArrayDiffUtils {
+
+    /**
+     * Returns mismatch ranges {@link List} of arrays of the same type (primitive or object arrays)
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     * @throws IllegalArgumentException if arguments are not arrays of the same type
+     */
+    public static List<MismatchRange> mismatches(final Object first, final Object last) {
+        ValidationUtils.notNull(first, "First array should not be null!");
+        ValidationUtils.notNull(last, "Last array should not be null!");
+        ValidationUtils.isTrue(first.getClass().isArray() && first.getClass() == last.getClass(), "Arguments should be arrays of the same type!");
+
+        if (first instanceof int[]) {
+            return mismatches((int[]) first, (int[]) last);
+        } else if (first instanceof long[]) {
+            return mismatches((long[]) first, (long[]) last);
+        } else if (first instanceof double[]) {
+            return mismatches((double[]) first, (double[]) last);
+        } else if (first instanceof float[]) {
+            return mismatches((float[]) first, (float[]) last);
+        } else if (first instanceof short[]) {
+            return mismatches((short[]) first, (short[]) last);
+        } else if (first instanceof byte[]) {
+            return mismatches((byte[]) first, (byte[]) last);
+        } else if (first instanceof char[]) {
+            return mismatches((char[]) first, (char[]) last);
+        } else if (first instanceof boolean[]) {
+            return mismatches((boolean[]) first, (boolean[]) last);
+        }
+        return mismatches((Object[]) first, (Object[]) last);
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code int[]} arrays
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final int[] first, final int[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return first[index] == last[index];
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code long[]} arrays
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final long[] first, final long[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return first[index] == last[index];
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code double[]} arrays (elements are compared as by {@link Double#compare})
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final double[] first, final double[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return 0 == Double.compare(first[index], last[index]);
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code float[]} arrays (elements are compared as by {@link Float#compare})
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final float[] first, final float[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return 0 == Float.compare(first[index], last[index]);
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code short[]} arrays
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final short[] first, final short[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return first[index] == last[index];
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code byte[]} arrays
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final byte[] first, final byte[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return first[index] == last[index];
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code char[]} arrays
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final char[] first, final char[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return first[index] == last[index];
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code boolean[]} arrays
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final boolean[] first, final boolean[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return first[index] == last[index];
+            }
+        });
+    }
+
+    /**
+     * Returns mismatch ranges {@link List} of {@code Object[]} arrays (elements are compared by {@link Object#equals(Object)})
+     *
+     * @param first - initial first array
+     * @param last  - initial last array
+     * @return mismatch ranges {@link List}
+     */
+    public static List<MismatchRange> mismatches(final Object[] first, final Object[] last) {
+        return mismatches(first.length, last.length, new RangeMatcher() {
+            @Override
+            public int mismatch(int from, int to) {
+                return Arrays.mismatch(first, from, to, last, from, to);
+            }
+
+            @Override
+            public boolean isEqual(int index) {
+                return Objects.equals(first[index], last[index]);
+            }
+        });
+    }
+
+    private static List<MismatchRange> mismatches(int firstLength, int lastLength, final RangeMatcher matcher) {
+        final List<MismatchRange> result = new ArrayList<>();
+        final int length = Math.min(firstLength, lastLength);
+        int from = 0;
+        while (from < length) {
+            final int index = matcher.mismatch(from, length);
+            if (index < 0) {
+                break;
+            }
+            final int start = from + index;
+            int end = start + 1;
+            while (end < length && !matcher.isEqual(end)) {
+                end++;
+            }
+            result.add(MismatchRange.of(start, end));
+            from = end;
+        }
+        if (firstLength != lastLength) {
+            final int end = Math.max(firstLength, lastLength);
+            if (!result.isEmpty() && result.get(result.size() - 1).getTo() == length) {
+                result.set(result.size() - 1, MismatchRange.of(result.get(result.size() - 1).getFrom(), end));
+            } else {
+                result.add(MismatchRange.of(length, end));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Array range matcher declaration
+     */
+    private interface RangeMatcher {
+
+        /**
+         * Returns relative index of the first mismatch in range, or -1 if there is no mismatch
+         *
+         * @param from - initial start index (inclusive)
+         * @param to   - initial end index (exclusive)
+         * @return relative index of the first mismatch, or -1
+         */
+        int mismatch(int from, int to);
+
+        /**
+         * Returns binary flag whether elements are equal by index
+         *
+         * @param index - initial element index
+         * @return true - if elements are equal, false - otherwise
+         */
+        boolean isEqual(int index);
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caching comparator implementation {@link Comparator} that memoizes comparison results of hot pairs of values
+ * <p>
+ * Results are kept in a bounded two-way set-associative table keyed by equal (not identical) pairs of values,
+ * so repeated comparisons of enum-like strings, currencies or locales are answered without calling the delegate.
+ * Hit rate is sampled over windows of lookups: when it drops below the minimum hit rate, the cache is bypassed
+ * for a number of comparisons before it is probed again, so cold workloads call the delegate directly.
+ * Delegate comparator {@link Comparator} is expected to be consistent (the same result for equal pairs of values),
+ * {@code null} values are always passed to the delegate.
+ * <p>
+ * Only values of immutable types are cached: enums, {@link #DEFAULT_CACHEABLE_TYPES} and explicitly allowed types
+ * (matched by exact class). Values of any other type (collections, arrays, dates or beans) may change after being
+ * compared, so they are always passed to the delegate.
+ *
+ * @param <T> type of input element to be compared by operation
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Getter
+@ToString(of = {"comparator", "capacity"})
+public final class CachingComparator<T> implements Comparator<T> {
+
+    /**
+     * Default number of cached results
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * Default number of lookups to sample hit rate over
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 4096;
+    /**
+     * Default minimum hit rate to keep the cache enabled
+     */
+    public static final double DEFAULT_MIN_HIT_RATE = 0.25d;
+    /**
+     * Default number of comparisons to bypass the cache for
+     */
+    public static final int DEFAULT_BYPASS_PERIOD = 1 << 16;
+    /**
+     * Default immutable value types {@link Set} to cache comparison results of (enums are always cached)
+     */
+    public static final Set<Class<?>> DEFAULT_CACHEABLE_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+        BigInteger.class, BigDecimal.class, Currency.class, Locale.class, UUID.class, URI.class, Class.class,
+        LocalDate.class, LocalTime.class, LocalDateTime.class, OffsetTime.class, OffsetDateTime.class, ZonedDateTime.class,
+        Instant.class, Duration.class, Period.class
+    )));
+
+    /**
+     * Default delegate comparator {@link Comparator}
+     */
+    private final Comparator<? super T> comparator;
+    /**
+     * Default number of cached results (rounded up to power of two)
+     */
+    private final int capacity;
+    /**
+     * Default number of lookups to sample hit rate over
+     */
+    private final int sampleSize;
+    /**
+     * Default minimum hit rate to keep the cache enabled
+     */
+    private final double minHitRate;
+    /**
+     * Default number of comparisons to bypass the cache for
+     */
+    private final int bypassPeriod;
+    /**
+     * Default immutable value types {@link Set} to cache comparison results of
+     */
+    private final Set<Class<?>> cacheableTypes;
+
+    /**
+     * Default table of cached results (entries are immutable, so racy publication is safe)
+     */
+    @Getter(AccessLevel.NONE)
+    private final Entry[] table;
+    /**
+     * Default number of sampled lookups in current window (approximate under contention)
+     */
+    @Getter(AccessLevel.NONE)
+    private int sampled;
+    /**
+     * Default number of sampled hits in current window (approximate under contention)
+     */
+    @Getter(AccessLevel.NONE)
+    private int sampledHits;
+    /**
+     * Default number of remaining bypassed comparisons (approximate under contention)
+     */
+    @Getter(AccessLevel.NONE)
+    private int bypassRemaining;
+    /**
+     * Default hit counter {@link LongAdder}
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder hits = new LongAdder();
+    /**
+     * Default miss counter {@link LongAdder}
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder misses = new LongAdder();
+    /**
+     * Default bypass counter {@link LongAdder}
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder bypasses = new LongAdder();
+
+    /**
+     * Creates caching comparator with initial delegate comparator {@link Comparator} and default settings
+     *
+     * @param comparator - initial delegate comparator {@link Comparator}
+     */
+    public CachingComparator(final Comparator<? super T> comparator) {
+        this(comparator, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates caching comparator with initial delegate comparator {@link Comparator} and number of cached results
+     *
+     * @param comparator - initial delegate comparator {@link Comparator}
+     * @param capacity   - initial number of cached results
+     */
+    public CachingComparator(final Comparator<? super T> comparator, int capacity) {
+        this(comparator, capacity, Collections.emptySet());
+    }
+
+    /**
+     * Creates caching comparator with initial delegate comparator {@link Comparator}, number of cached results
+     * and immutable value types {@link Collection} to cache comparison results of in addition to {@link #DEFAULT_CACHEABLE_TYPES}
+     *
+     * @param comparator     - initial delegate comparator {@link Comparator}
+     * @param capacity       - initial number of cached results
+     * @param cacheableTypes - initial additional immutable value types {@link Collection}
+     */
+    public CachingComparator(final Comparator<? super T> comparator, int capacity, final Collection<Class<?>> cacheableTypes) {
+        this(comparator, capacity, DEFAULT_SAMPLE_SIZE, DEFAULT_MIN_HIT_RATE, DEFAULT_BYPASS_PERIOD, cacheableTypes);
+    }
+
+    /**
+     * Creates caching comparator with initial delegate comparator {@link Comparator}, number of cached results and bypass settings
+     *
+     * @param comparator   - initial delegate comparator {@link Comparator}
+     * @param capacity     - initial number of cached results
+     * @param sampleSize   - initial number of lookups to sample hit rate over
+     * @param minHitRate   - initial minimum hit rate to keep the cache enabled
+     * @param bypassPeriod - initial number of comparisons to bypass the cache for
+     * @throws IllegalArgumentException if comparator is {@code null} or settings are out of range
+     */
+    public CachingComparator(final Comparator<? super T> comparator, int capacity, int sampleSize, double minHitRate, int bypassPeriod) {
+        this(comparator, capacity, sampleSize, minHitRate, bypassPeriod, Collections.emptySet());
+    }
+
+    /**
+     * Creates caching comparator with initial delegate comparator {@link Comparator}, number of cached results, bypass settings
+     * and immutable value types {@link Collection} to cache comparison results of in addition to {@link #DEFAULT_CACHEABLE_TYPES}
+     *
+     * @param comparator     - initial delegate comparator {@link Comparator}
+     * @param capacity       - initial number of cached results
+     * @param sampleSize     - initial number of lookups to sample hit rate over
+     * @param minHitRate     - initial minimum hit rate to keep the cache enabled
+     * @param bypassPeriod   - initial number of comparisons to bypass the cache for
+     * @param cacheableTypes - initial additional immutable value types {@link Collection}
+     * @throws IllegalArgumentException if comparator or types are {@code null} or settings are out of range
+     */
+    public CachingComparator(final Comparator<? super T> comparator, int capacity, int sampleSize, double minHitRate, int bypassPeriod, final Collection<Class<?>> cacheableTypes) {
+        ValidationUtils.notNull(comparator, "Comparator should not be null!");
+        ValidationUtils.notNull(cacheableTypes, "Cacheable types should not be null!");
+        ValidationUtils.isTrue(capacity > 1 && capacity <= 1 << 30, "Capacity should be in range (1, 2^30]!");
+        ValidationUtils.isTrue(sampleSize > 0, "Sample size should be greater than zero!");
+        ValidationUtils.isTrue(minHitRate >= 0 && minHitRate <= 1, "Minimum hit rate should be in range [0, 1]!");
+        ValidationUtils.isTrue(bypassPeriod >= 0, "Bypass period should not be negative!");
+
+        this.comparator = comparator;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.sampleSize = sampleSize;
+        this.minHitRate = minHitRate;
+        this.bypassPeriod = bypassPeriod;
+        this.table = new Entry[this.capacity];
+        if (cacheableTypes.isEmpty()) {
+            this.cacheableTypes = DEFAULT_CACHEABLE_TYPES;
+        } else {
+            final Set<Class<?>> types = new HashSet<>(DEFAULT_CACHEABLE_TYPES);
+            types.addAll(cacheableTypes);
+            this.cacheableTypes = Collections.unmodifiableSet(types);
+        }
+    }
+
+    /**
+     * Returns numeric result of arguments comparison by delegate comparator {@link Comparator}
+     *
+     * @param first - initial input first argument
+     * @param last  - initial input last argument
+     * @return numeric result of arguments comparison
+     */
+    @Override
+    public int compare(final T first, final T last) {
+        if (Objects.isNull(first) || Objects.isNull(last) || !this.isCacheable(first.getClass()) || !this.isCacheable(last.getClass())) {
+            return this.comparator.compare(first, last);
+        }
+        if (this.bypassRemaining > 0) {
+            this.bypassRemaining--;
+            this.bypasses.increment();
+            return this.comparator.compare(first, last);
+        }
+
+        final int hash = hash(first, last);
+        final int index = hash & (this.capacity - 1);
+        final Entry primary = this.table[index];
+        final Entry secondary = this.table[index ^ 1];
+        final Entry cached = Objects.nonNull(primary) && primary.matches(hash, first, last) ? primary
+            : Objects.nonNull(secondary) && secondary.matches(hash, first, last) ? secondary : null;
+        if (Objects.nonNull(cached)) {
+            this.hits.increment();
+            this.sample(true);
+            return cached.result;
+        }
+
+        this.misses.increment();
+        final int result = this.comparator.compare(first, last);
+        if (Objects.nonNull(primary)) {
+            this.table[index ^ 1] = primary;
+        }
+        this.table[index] = new Entry(hash, first, last, result);
+        this.sample(false);
+        return result;
+    }
+
+    /**
+     * Returns number of comparisons answered by cached results
+     *
+     * @return number of cache hits
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns number of comparisons computed by delegate comparator on cache miss
+     *
+     * @return number of cache misses
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns number of comparisons computed by delegate comparator while the cache was bypassed
+     *
+     * @return number of bypassed comparisons
+     */
+    public long getBypassCount() {
+        return this.bypasses.sum();
+    }
+
+    /**
+     * Returns ratio of cache hits to cache lookups (bypassed comparisons are not counted)
+     *
+     * @return cache hit rate
+     */
+    public double getHitRate() {
+        final long hitCount = this.getHitCount();
+        final long total = hitCount + this.getMissCount();
+        return (0 == total) ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns binary flag whether the cache is currently bypassed
+     *
+     * @return true - if the cache is bypassed, false - otherwise
+     */
+    public boolean isBypassed() {
+        return this.bypassRemaining > 0;
+    }
+
+    /**
+     * Returns binary flag whether comparison results of values by class {@link Class} are cached
+     *
+     * @param type - initial value class {@link Class}
+     * @return true - if type is an enum or an allowed immutable value type, false - otherwise
+     */
+    public boolean isCacheable(final Class<?> type) {
+        return Enum.class.isAssignableFrom(type) || this.cacheableTypes.contains(type);
+    }
+
+    private void sample(boolean hit) {
+        if (hit) {
+            this.sampledHits++;
+        }
+        if (++this.sampled >= this.sampleSize) {
+            if (this.sampledHits < this.minHitRate * this.sampled) {
+                this.bypassRemaining = this.bypassPeriod;
+            }
+            this.sampled = 0;
+            this.sampledHits = 0;
+        }
+    }
+
+    private static int hash(final Object first, final Object last) {
+        final int hash = (first.hashCode() * 31 + last.hashCode()) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Cached comparison result implementation
+     */
+    private static final class Entry {
+
+        private final int hash;
+        private final Object first;
+        private final Object last;
+        private final int result;
+
+        private Entry(int hash, final Object first, final Object last, int result) {
+            this.hash = hash;
+            this.first = first;
+            this.last = last;
+            this.result = result;
+        }
+
+        private boolean matches(int hash, final Object first, final Object last) {
+            return this.hash == hash
+                && (this.first == first || this.first.equals(first))
+                && (this.last == last || this.last.equals(last));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.StringUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ReflectionUtils.getAllFields;
+import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ReflectionUtils.getValidFields;
+
+/**
+ * Class metadata implementation holding comparable properties {@link Field} and compiled getters {@link MethodHandle} of class {@link Class}
+ * <p>
+ * A field shadowed by a field of the same name declared in a subclass is hidden, so that each property resolves
+ * to the most specific declaration (as Java name resolution and bean getters do).
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Getter
+@EqualsAndHashCode(of = "type")
+@ToString(of = {"type", "fields"})
+public final class ClassMetadata {
+
+    /**
+     * Default class instance {@link Class}
+     */
+    private final Class<?> type;
+    /**
+     * Default properties {@link Map} by names {@link String} and fields {@link Field}
+     */
+    private final Map<String, Field> fields;
+    /**
+     * Default property getters {@link Map} by names {@link String} and method handles {@link MethodHandle}
+     */
+    private final Map<String, MethodHandle> getters;
+
+    /**
+     * Creates class metadata by input parameters
+     *
+     * @param type    - initial class instance {@link Class}
+     * @param fields  - initial properties {@link Map}
+     * @param getters - initial property getters {@link Map}
+     */
+    private ClassMetadata(final Class<?> type, final Map<String, Field> fields, final Map<String, MethodHandle> getters) {
+        this.type = type;
+        this.fields = Collections.unmodifiableMap(fields);
+        this.getters = Collections.unmodifiableMap(getters);
+    }
+
+    /**
+     * Returns class metadata {@link ClassMetadata} by reflecting on class instance {@link Class}
+     *
+     * @param clazz - initial class instance {@link Class} to reflect on
+     * @return class metadata {@link ClassMetadata}
+     */
+    public static ClassMetadata of(final Class<?> clazz) {
+        ValidationUtils.notNull(clazz, "Class should not be null!");
+
+        final Map<String, Field> fields = new HashMap<>();
+        final Map<String, MethodHandle> getters = new HashMap<>();
+        for (final Field field : getValidFields(getAllFields(clazz), false, false)) {
+            final Field shadowed = fields.get(field.getName());
+            if (Objects.nonNull(shadowed) && field.getDeclaringClass().isAssignableFrom(shadowed.getDeclaringClass())) {
+                continue;
+            }
+            fields.put(field.getName(), field);
+            getters.remove(field.getName());
+            try {
+                getters.put(field.getName(), ComparisonPlan.compileGetter(field));
+            } catch (IllegalAccessException | RuntimeException e) {
+                log.error(StringUtils.formatMessage("ERROR: cannot process property: {%s}, message: {%s}", field.getName(), e.getMessage()));
+            }
+        }
+        return new ClassMetadata(clazz, fields, getters);
+    }
+
+    /**
+     * Returns property getter {@link MethodHandle} by name {@link String}
+     *
+     * @param property - initial property name {@link String}
+     * @return property getter {@link MethodHandle}, or {@code null} if property is unknown or not accessible
+     */
+    public MethodHandle getGetter(final String property) {
+        return this.getters.get(property);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrent class metadata cache implementation by class instance {@link Class}
+ * <p>
+ * Entries are attached to their classes through {@link ClassValue}, so the cache never keeps a class
+ * (or its class loader) reachable: metadata is collected together with the class once it is unloaded.
+ * When the number of cached entries exceeds the maximum size, the oldest computed entries are evicted.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Getter
+@ToString(of = {"maxSize", "size"})
+public final class ClassMetadataCache {
+
+    /**
+     * Default maximum number of cached entries
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * Default shared class metadata cache instance {@link ClassMetadataCache}
+     */
+    private static final ClassMetadataCache DEFAULT_CACHE = new ClassMetadataCache(DEFAULT_MAX_SIZE);
+
+    /**
+     * Default maximum number of cached entries
+     */
+    private final int maxSize;
+    /**
+     * Default number of cached entries {@link AtomicInteger}
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * Default per-class metadata holders {@link ClassValue}
+     */
+    @Getter(AccessLevel.NONE)
+    private final ClassValue<AtomicReference<ClassMetadata>> holders = new ClassValue<AtomicReference<ClassMetadata>>() {
+        @Override
+        protected AtomicReference<ClassMetadata> computeValue(final Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+    /**
+     * Default eviction order {@link Queue} of weakly referenced metadata entries
+     */
+    @Getter(AccessLevel.NONE)
+    private final Queue<WeakReference<ClassMetadata>> order = new ConcurrentLinkedQueue<>();
+    /**
+     * Default hit counter {@link LongAdder}
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder hits = new LongAdder();
+    /**
+     * Default miss counter {@link LongAdder}
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder misses = new LongAdder();
+    /**
+     * Default eviction counter {@link LongAdder}
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates class metadata cache with initial maximum number of entries
+     *
+     * @param maxSize - initial maximum number of cached entries
+     * @throws IllegalArgumentException if maximum size is not positive
+     */
+    public ClassMetadataCache(final int maxSize) {
+        ValidationUtils.isTrue(maxSize > 0, "Maximum size should be greater than zero!");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns shared class metadata cache instance {@link ClassMetadataCache}
+     *
+     * @return shared class metadata cache {@link ClassMetadataCache}
+     */
+    public static ClassMetadataCache getDefault() {
+        return DEFAULT_CACHE;
+    }
+
+    /**
+     * Returns cached class metadata {@link ClassMetadata} by class instance {@link Class}, computing it on miss
+     *
+     * @param clazz - initial class instance {@link Class}
+     * @return class metadata {@link ClassMetadata}
+     */
+    public ClassMetadata get(final Class<?> clazz) {
+        ValidationUtils.notNull(clazz, "Class should not be null!");
+
+        final AtomicReference<ClassMetadata> holder = this.holders.get(clazz);
+        final ClassMetadata cached = holder.get();
+        if (Objects.nonNull(cached)) {
+            this.hits.increment();
+            return cached;
+        }
+        this.misses.increment();
+        final ClassMetadata computed = ClassMetadata.of(clazz);
+        if (!holder.compareAndSet(null, computed)) {
+            return Objects.requireNonNullElse(holder.get(), computed);
+        }
+        this.order.offer(new WeakReference<>(computed));
+        if (this.size.incrementAndGet() > this.maxSize) {
+            this.evict();
+        }
+        return computed;
+    }
+
+    /**
+     * Removes cached class metadata by class instance {@link Class}
+     *
+     * @param clazz - initial class instance {@link Class}
+     */
+    public void invalidate(final Class<?> clazz) {
+        ValidationUtils.notNull(clazz, "Class should not be null!");
+        this.holders.get(clazz).set(null);
+    }
+
+    /**
+     * Removes all cached class metadata entries
+     */
+    public void clear() {
+        WeakReference<ClassMetadata> entry;
+        while (Objects.nonNull(entry = this.order.poll())) {
+            this.size.decrementAndGet();
+            this.remove(entry);
+        }
+    }
+
+    /**
+     * Returns number of tracked cache entries (entries invalidated explicitly are counted until aged out)
+     *
+     * @return number of cached entries
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Returns number of cache hits
+     *
+     * @return number of cache hits
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns number of cache misses
+     *
+     * @return number of cache misses
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns number of evicted entries
+     *
+     * @return number of evicted entries
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns ratio of cache hits to all requests, or {@code 1.0} if there were no requests
+     *
+     * @return cache hit ratio
+     */
+    public double getHitRate() {
+        final long hitCount = this.getHitCount();
+        final long requestCount = hitCount + this.getMissCount();
+        return (0 == requestCount) ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Evicts oldest entries until the number of cached entries fits maximum size
+     */
+    private void evict() {
+        WeakReference<ClassMetadata> entry;
+        while (this.size.get() > this.maxSize && Objects.nonNull(entry = this.order.poll())) {
+            this.size.decrementAndGet();
+            if (this.remove(entry)) {
+                this.evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns binary flag whether weakly referenced metadata entry has been removed from its class holder
+     *
+     * @param entry - initial weakly referenced metadata entry {@link WeakReference}
+     * @return true - if metadata entry has been removed, false - if it was already unloaded or replaced
+     */
+    private boolean remove(final WeakReference<ClassMetadata> entry) {
+        final ClassMetadata metadata = entry.get();
+        return Objects.nonNull(metadata) && this.holders.get(metadata.getType()).compareAndSet(metadata, null);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collection difference result implementation holding added, removed and changed elements
+ *
+ * @param <T> type of collection element
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public final class CollectionDiffResult<T> {
+
+    /**
+     * Default elements {@link List} present in last collection only
+     */
+    private final List<T> added = new ArrayList<>();
+    /**
+     * Default elements {@link List} present in first collection only
+     */
+    private final List<T> removed = new ArrayList<>();
+    /**
+     * Default matched element pairs {@link List} with different values
+     */
+    private final List<Change<T>> changed = new ArrayList<>();
+
+    /**
+     * Returns binary flag whether collections have no differences
+     *
+     * @return true - if there are no added, removed or changed elements, false - otherwise
+     */
+    public boolean isEmpty() {
+        return this.added.isEmpty() && this.removed.isEmpty() && this.changed.isEmpty();
+    }
+
+    /**
+     * Returns total number of differences
+     *
+     * @return total number of added, removed and changed elements
+     */
+    public int size() {
+        return this.added.size() + this.removed.size() + this.changed.size();
+    }
+
+    /**
+     * Matched pair of first and last elements with different values
+     *
+     * @param <T> type of collection element
+     */
+    @Data
+    @EqualsAndHashCode
+    @ToString
+    public static final class Change<T> {
+
+        /**
+         * Default element of first collection
+         */
+        private final T first;
+        /**
+         * Default element of last collection
+         */
+        private final T last;
+
+        private Change(final T first, final T last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * Returns {@link Change} by first and last elements
+         *
+         * @param <T>   type of collection element
+         * @param first - initial element of first collection
+         * @param last  - initial element of last collection
+         * @return {@link Change}
+         */
+        public static <T> Change<T> of(final T first, final T last) {
+            return new Change<>(first, last);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Collection difference utilities implementation
+ * <p>
+ * Elements are matched by identity keys provided by key extractor {@link Function}: unordered matching is done
+ * by a single hash join, ordered matching by the longest common subsequence of keys (linear-space Myers algorithm
+ * bounded by the maximum edit distance). Matched elements with
+ * different values (by value {@link Comparator}, or {@link Object#equals(Object)} if none) are reported as changed.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@UtilityClass
+@SuppressWarnings("unchecked")
+public class CollectionDiffUtils {
+
+    /**
+     * Default maximum edit distance for ordered matching (beyond it elements are matched as unordered)
+     */
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 4096;
+
+    /**
+     * Returns unordered collection difference {@link CollectionDiffResult} of elements matched by key
+     *
+     * @param <T>             type of collection element
+     * @param first           - initial first {@link Iterable} collection
+     * @param last            - initial last {@link Iterable} collection
+     * @param keyExtractor    - initial element key extractor {@link Function}
+     * @param valueComparator - initial matched elements {@link Comparator}
+     * @return collection difference {@link CollectionDiffResult}
+     */
+    public static <T> CollectionDiffResult<T> diffByKey(final Iterable<? extends T> first, final Iterable<? extends T> last, final Function<? super T, ?> keyExtractor, @Nullable final Comparator<? super T> valueComparator) {
+        ValidationUtils.notNull(keyExtractor, "Key extractor should not be null!");
+
+        final Object[] firstItems = toArray(first);
+        final Object[] lastItems = toArray(last);
+        return diffByKey(firstItems, keys(firstItems, keyExtractor), lastItems, keys(lastItems, keyExtractor), valueComparator);
+    }
+
+    /**
+     * Returns ordered collection difference {@link CollectionDiffResult} of elements matched by the longest common subsequence of keys
+     *
+     * @param <T>             type of collection element
+     * @param first           - initial first {@link Iterable} collection
+     * @param last            - initial last {@link Iterable} collection
+     * @param keyExtractor    - initial element key extractor {@link Function}
+     * @param valueComparator - initial matched elements {@link Comparator}
+     * @return collection difference {@link CollectionDiffResult}
+     */
+    public static <T> CollectionDiffResult<T> diffOrdered(final Iterable<? extends T> first, final Iterable<? extends T> last, final Function<? super T, ?> keyExtractor, @Nullable final Comparator<? super T> valueComparator) {
+        return diffOrdered(first, last, keyExtractor, valueComparator, DEFAULT_MAX_EDIT_DISTANCE);
+    }
+
+    /**
+     * Returns ordered collection difference {@link CollectionDiffResult} of elements matched by the longest common subsequence of keys,
+     * falling back to unordered matching if edit distance exceeds the maximum one
+     *
+     * @param <T>             type of collection element
+     * @param first           - initial first {@link Iterable} collection
+     * @param last            - initial last {@link Iterable} collection
+     * @param keyExtractor    - initial element key extractor {@link Function}
+     * @param valueComparator - initial matched elements {@link Comparator}
+     * @param maxEditDistance - initial maximum edit distance
+     * @return collection difference {@link CollectionDiffResult}
+     */
+    public static <T> CollectionDiffResult<T> diffOrdered(final Iterable<? extends T> first, final Iterable<? extends T> last, final Function<? super T, ?> keyExtractor, @Nullable final Comparator<? super T> valueComparator, int maxEditDistance) {
+        ValidationUtils.notNull(keyExtractor, "Key extractor should not be null!");
+        ValidationUtils.isTrue(maxEditDistance >= 0, "Maximum edit distance should not be negative!");
+
+        final Object[] firstItems = toArray(first);
+        final Object[] lastItems = toArray(last);
+        final Object[] firstKeys = keys(firstItems, keyExtractor);
+        final Object[] lastKeys = keys(lastItems, keyExtractor);
+        final int[] matches = matchOrdered(firstKeys, lastKeys, maxEditDistance);
+        if (Objects.isNull(matches)) {
+            return diffByKey(firstItems, firstKeys, lastItems, lastKeys, valueComparator);
+        }
+        return collect(firstItems, lastItems, matches, valueComparator);
+    }
+
+    private static <T> CollectionDiffResult<T> diffByKey(final Object[] firstItems, final Object[] firstKeys, final Object[] lastItems, final Object[] lastKeys, @Nullable final Comparator<? super T> valueComparator) {
+        final Map<Object, Integer> heads = new HashMap<>(Math.max(16, (int) (lastKeys.length / 0.75f) + 1));
+        final int[] next = new int[lastKeys.length];
+        for (int j = lastKeys.length - 1; j >= 0; j--) {
+            next[j] = Objects.requireNonNullElse(heads.put(lastKeys[j], j), -1);
+        }
+
+        final int[] matches = new int[firstKeys.length];
+        for (int i = 0; i < firstKeys.length; i++) {
+            final Integer j = heads.get(firstKeys[i]);
+            if (Objects.isNull(j)) {
+                matches[i] = -1;
+                continue;
+            }
+            matches[i] = j;
+            if (next[j] < 0) {
+                heads.remove(firstKeys[i]);
+            } else {
+                heads.put(firstKeys[i], next[j]);
+            }
+        }
+        return collect(firstItems, lastItems, matches, valueComparator);
+    }
+
+    private static <T> CollectionDiffResult<T> collect(final Object[] firstItems, final Object[] lastItems, final int[] matches, @Nullable final Comparator<? super T> valueComparator) {
+        final CollectionDiffResult<T> result = new CollectionDiffResult<>();
+        final boolean[] matched = new boolean[lastItems.length];
+        for (int i = 0; i < firstItems.length; i++) {
+            final T firstItem = (T) firstItems[i];
+            if (matches[i] < 0) {
+                result.getRemoved().add(firstItem);
+                continue;
+            }
+            matched[matches[i]] = true;
+            final T lastItem = (T) lastItems[matches[i]];
+            if (!isEqual(firstItem, lastItem, valueComparator)) {
+                result.getChanged().add(CollectionDiffResult.Change.of(firstItem, lastItem));
+            }
+        }
+        for (int j = 0; j < lastItems.length; j++) {
+            if (!matched[j]) {
+                result.getAdded().add((T) lastItems[j]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns matches of first keys to last keys indexes by the shortest edit script (Myers algorithm in linear space),
+     * or {@code null} if edit distance exceeds the maximum one
+     *
+     * @param first           - initial first keys
+     * @param last            - initial last keys
+     * @param maxEditDistance - initial maximum edit distance
+     * @return array of matched last indexes (or -1) by first indexes
+     */
+    private static int[] matchOrdered(final Object[] first, final Object[] last, int maxEditDistance) {
+        if (editDistance(first, last, maxEditDistance) < 0) {
+            return null;
+        }
+        final BitSet deleted = new BitSet(first.length);
+        final BitSet inserted = new BitSet(last.length);
+        new Bisection(first, last, deleted, inserted).compare(0, first.length, 0, last.length);
+
+        final int[] matches = new int[first.length];
+        int j = inserted.nextClearBit(0);
+        for (int i = 0; i < first.length; i++) {
+            if (deleted.get(i)) {
+                matches[i] = -1;
+            } else {
+                matches[i] = j;
+                j = inserted.nextClearBit(j + 1);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns edit distance of the given keys (forward Myers pass without trace), or -1 if it exceeds the maximum one
+     *
+     * @param first           - initial first keys
+     * @param last            - initial last keys
+     * @param maxEditDistance - initial maximum edit distance
+     * @return edit distance, or -1
+     */
+    private static int editDistance(final Object[] first, final Object[] last, int maxEditDistance) {
+        final int n = first.length;
+        final int m = last.length;
+        final int max = Math.min(n + m, maxEditDistance);
+        final int offset = max + 1;
+        final int[] v = new int[2 * offset + 1];
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) ? v[offset + k + 1] : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && Objects.equals(first[x], last[y])) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    return d;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Middle snake bisection of keys marking deleted / inserted positions in linear space
+     */
+    private static final class Bisection {
+
+        private final Object[] first;
+        private final Object[] last;
+        private final BitSet deleted;
+        private final BitSet inserted;
+        private final int[] forward;
+        private final int[] backward;
+
+        private Bisection(final Object[] first, final Object[] last, final BitSet deleted, final BitSet inserted) {
+            this.first = first;
+            this.last = last;
+            this.deleted = deleted;
+            this.inserted = inserted;
+            final int size = 2 * ((first.length + last.length + 1) / 2) + 3;
+            this.forward = new int[size];
+            this.backward = new int[size];
+        }
+
+        private void compare(int aLo, int aHi, int bLo, int bHi) {
+            while (aLo < aHi && bLo < bHi && Objects.equals(this.first[aLo], this.last[bLo])) {
+                aLo++;
+                bLo++;
+            }
+            while (aLo < aHi && bLo < bHi && Objects.equals(this.first[aHi - 1], this.last[bHi - 1])) {
+                aHi--;
+                bHi--;
+            }
+            if (aLo == aHi) {
+                this.inserted.set(bLo, bHi);
+            } else if (bLo == bHi) {
+                this.deleted.set(aLo, aHi);
+            } else {
+                this.bisect(aLo, aHi, bLo, bHi);
+            }
+        }
+
+        private void bisect(int aLo, int aHi, int bLo, int bHi) {
+            final int n = aHi - aLo;
+            final int m = bHi - bLo;
+            final int max = (n + m + 1) / 2;
+            final int offset = max + 1;
+            final int size = 2 * max + 3;
+            final int delta = n - m;
+            final boolean front = (delta & 1) != 0;
+
+            Arrays.fill(this.forward, 0, size, -1);
+            Arrays.fill(this.backward, 0, size, -1);
+            this.forward[offset + 1] = 0;
+            this.backward[offset + 1] = 0;
+
+            int k1start = 0;
+            int k1end = 0;
+            int k2start = 0;
+            int k2end = 0;
+            for (int d = 0; d < max; d++) {
+                for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+                    final int k1offset = offset + k1;
+                    int x1 = (k1 == -d || (k1 != d && this.forward[k1offset - 1] < this.forward[k1offset + 1])) ? this.forward[k1offset + 1] : this.forward[k1offset - 1] + 1;
+                    int y1 = x1 - k1;
+                    while (x1 < n && y1 < m && Objects.equals(this.first[aLo + x1], this.last[bLo + y1])) {
+                        x1++;
+                        y1++;
+                    }
+                    this.forward[k1offset] = x1;
+                    if (x1 > n) {
+                        k1end += 2;
+                    } else if (y1 > m) {
+                        k1start += 2;
+                    } else if (front) {
+                        final int k2offset = offset + delta - k1;
+                        if (k2offset >= 0 && k2offset < size && this.backward[k2offset] != -1 && x1 >= n - this.backward[k2offset]) {
+                            this.compare(aLo, aLo + x1, bLo, bLo + y1);
+                            this.compare(aLo + x1, aHi, bLo + y1, bHi);
+                            return;
+                        }
+                    }
+                }
+                for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+                    final int k2offset = offset + k2;
+                    int x2 = (k2 == -d || (k2 != d && this.backward[k2offset - 1] < this.backward[k2offset + 1])) ? this.backward[k2offset + 1] : this.backward[k2offset - 1] + 1;
+                    int y2 = x2 - k2;
+                    while (x2 < n && y2 < m && Objects.equals(this.first[aHi - x2 - 1], this.last[bHi - y2 - 1])) {
+                        x2++;
+                        y2++;
+                    }
+                    this.backward[k2offset] = x2;
+                    if (x2 > n) {
+                        k2end += 2;
+                    } else if (y2 > m) {
+                        k2start += 2;
+                    } else if (!front) {
+                        final int k1offset = offset + delta - k2;
+                        if (k1offset >= 0 && k1offset < size && this.forward[k1offset] != -1) {
+                            final int x1 = this.forward[k1offset];
+                            final int y1 = x1 - (k1offset - offset);
+                            if (x1 >= n - x2) {
+                                this.compare(aLo, aLo + x1, bLo, bLo + y1);
+                                this.compare(aLo + x1, aHi, bLo + y1, bHi);
+                                return;
+                            }
+                        }
+                    }
+                }
+            }
+            this.deleted.set(aLo, aHi);
+            this.inserted.set(bLo, bHi);
+        }
+    }
+
+    private static boolean isEqual(final Object first, final Object last, @Nullable final Comparator<?> valueComparator) {
+        if (Objects.isNull(valueComparator)) {
+            return Objects.equals(first, last);
+        }
+        return 0 == Objects.compare(first, last, (Comparator<Object>) valueComparator);
+    }
+
+    private static Object[] keys(final Object[] items, final Function<?, ?> keyExtractor) {
+        final Function<Object, ?> extractor = (Function<Object, ?>) keyExtractor;
+        final Object[] result = new Object[items.length];
+        for (int i = 0; i < items.length; i++) {
+            result[i] = extractor.apply(items[i]);
+        }
+        return result;
+    }
+
+    private static Object[] toArray(final Iterable<?> items) {
+        ValidationUtils.notNull(items, "Collection should not be null!");
+        if (items instanceof Collection) {
+            return ((Collection<?>) items).toArray();
+        }
+        final List<Object> result = new ArrayList<>();
+        items.forEach(result::add);
+        return result.toArray();
+    }
+}
@@ -1347,14 +1347,7 @@ public class ComparatorUtils {
          * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
          */
         public LexicographicalNullSafeShortArrayComparator(boolean nullsInPriority) {
-            super((o1, o2) -> {
-                int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = Short.compare(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return (o1.length - o2.length);
-            }, nullsInPriority);
+            super(Arrays::compare, nullsInPriority);
         }
     }
 
@@ -1378,14 +1371,7 @@ public class ComparatorUtils {
          * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
          */
         public LexicographicalNullSafeIntArrayComparator(boolean nullsInPriority) {
-            super((o1, o2) -> {
-                int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = Integer.compare(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return (o1.length - o2.length);
-            }, nullsInPriority);
+            super(Arrays::compare, nullsInPriority);
         }
     }
 
@@ -1409,14 +1395,7 @@ public class ComparatorUtils {
          * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
          */
         public LexicographicalNullSafeLongArrayComparator(boolean nullsInPriority) {
-            super((o1, o2) -> {
-                int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = Long.compare(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return (o1.length - o2.length);
-            }, nullsInPriority);
+            super(Arrays::compare, nullsInPriority);
         }
     }
 
@@ -1440,14 +1419,7 @@ public class ComparatorUtils {
          * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
          */
         public LexicographicalNullSafeFloatArrayComparator(boolean nullsInPriority) {
-            super((o1, o2) -> {
-                int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = Float.compare(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return (o1.length - o2.length);
-            }, nullsInPriority);
+            super(Arrays::compare, nullsInPriority);
         }
     }
 
@@ -1471,14 +1443,7 @@ public class ComparatorUtils {
          * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
          */
         public LexicographicalNullSafeDoubleArrayComparator(boolean nullsInPriority) {
-            super((o1, o2) -> {
-                int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = Double.compare(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return (o1.length - o2.length);
-            }, nullsInPriority);
+            super(Arrays::compare, nullsInPriority);
         }
     }
 
@@ -1502,14 +1467,7 @@ public class ComparatorUtils {
          * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
          */
         public LexicographicalNullSafeCharacterArrayComparator(boolean nullsInPriority) {
-            super((o1, o2) -> {
-                int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = Character.compare(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return (o1.length - o2.length);
-            }, nullsInPriority);
+            super(Arrays::compare, nullsInPriority);
         }
     }
 
@@ -1533,14 +1491,7 @@ public class ComparatorUtils {
          * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
          */
         public LexicographicalNullSafeBooleanArrayComparator(boolean nullsInPriority) {
-            super((o1, o2) -> {
-                int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = Boolean.compare(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return (o1.length - o2.length);
-            }, nullsInPriority);
+            super(Arrays::compare, nullsInPriority);
         }
     }
 
@@ -1571,11 +1522,8 @@ public class ComparatorUtils {
         public LexicographicalNullSafeByteArrayComparator(boolean nullsInPriority) {
             super((o1, o2) -> {
                 int minLength = Math.min(o1.length, o2.length);
-                for (int i = 0; i < minLength; i++) {
-                    int result = compareBy(o1[i], o2[i]);
-                    if (0 != result) return result;
-                }
-                return 0;
+                int index = Arrays.mismatch(o1, 0, minLength, o2, 0, minLength);
+                return (index < 0) ? 0 : compareBy(o1[index], o2[index]);
             }, nullsInPriority);
         }
 
@@ -1610,6 +1558,19 @@ public class ComparatorUtils {
     @ToString(callSuper = true)
     public static class DefaultNullSafeIterableComparator<T> extends DefaultNullSafeObjectComparator<Iterable<T>> {
 
+        /**
+         * Default element key extractor {@link Function} (positional comparison if {@code null})
+         */
+        private final transient Function<? super T, ?> keyExtractor;
+        /**
+         * Default element value comparator instance {@link Comparator}
+         */
+        private final transient Comparator<? super T> valueComparator;
+        /**
+         * Default ordered matching flag (true - elements are matched by the longest common subsequence of keys, false - by keys only)
+         */
+        private final boolean ordered;
+
         /**
          * Default null-safe iterableOf comparator constructor
          */
@@ -1647,6 +1608,114 @@ public class ComparatorUtils {
                 }
                 return 0;
             }, nullsInPriority);
+            this.keyExtractor = null;
+            this.valueComparator = comparator;
+            this.ordered = true;
+        }
+
+        /**
+         * Default null-safe iterableOf comparator constructor with initial element key extractor {@link Function}, value comparator instance {@link Comparator} and ordered matching flag
+         *
+         * @param keyExtractor - initial input element key extractor {@link Function}
+         * @param comparator   - initial input element value comparator instance {@link Comparator}
+         * @param ordered      - initial input ordered matching flag
+         */
+        public DefaultNullSafeIterableComparator(final Function<? super T, ?> keyExtractor, @Nullable final Comparator<? super T> comparator, boolean ordered) {
+            this(keyExtractor, comparator, ordered, false);
+        }
+
+        /**
+         * Default null-safe iterableOf comparator constructor with initial element key extractor {@link Function}, value comparator instance {@link Comparator}, ordered matching flag and "null" priority argument {@link Boolean}
+         * <p>
+         * Collections are equal if every element is matched by key and matched elements are equal by value comparator
+         * (or {@link Object#equals(Object)} if none); otherwise, the result is the comparison of removed and added elements
+         * counts, then of the first changed pair by value comparator; otherwise, elements are walked in parallel and
+         * the first differing pair is compared by keys (or by elements, if keys are equal), using natural order of
+         * comparable keys or string representations. The result is sign-consistent: {@code compare(a, b) == -compare(b, a)}.
+         *
+         * @param keyExtractor    - initial input element key extractor {@link Function}
+         * @param comparator      - initial input element value comparator instance {@link Comparator}
+         * @param ordered         - initial input ordered matching flag
+         * @param nullsInPriority - initial input "null" priority argument {@link Boolean}
+         */
+        public DefaultNullSafeIterableComparator(final Function<? super T, ?> keyExtractor, @Nullable final Comparator<? super T> comparator, boolean ordered, boolean nullsInPriority) {
+            super((o1, o2) -> {
+                final CollectionDiffResult<T> result = ordered
+                    ? CollectionDiffUtils.diffOrdered(o1, o2, keyExtractor, comparator)
+                    : CollectionDiffUtils.diffByKey(o1, o2, keyExtractor, comparator);
+                if (result.isEmpty()) return 0;
+                int temp = Integer.compare(result.getRemoved().size(), result.getAdded().size());
+                if (0 != temp) return temp;
+                if (!result.getChanged().isEmpty() && Objects.nonNull(comparator)) {
+                    final CollectionDiffResult.Change<T> change = result.getChanged().get(0);
+                    return comparator.compare(change.getFirst(), change.getLast());
+                }
+                return compareFirstDifference(o1, o2, keyExtractor);
+            }, nullsInPriority);
+            ValidationUtils.notNull(keyExtractor, "Key extractor should not be null!");
+            this.keyExtractor = keyExtractor;
+            this.valueComparator = comparator;
+            this.ordered = ordered;
+        }
+
+        /**
+         * Returns comparison result of the first pair of elements differing by key or value at the same position,
+         * collections indistinguishable this way are ordered by identity hash codes
+         *
+         * @param <T>          type of collection element
+         * @param first        - initial input first {@link Iterable} collection
+         * @param last         - initial input last {@link Iterable} collection
+         * @param keyExtractor - initial input element key extractor {@link Function}
+         * @return numeric result of comparison
+         */
+        private static <T> int compareFirstDifference(final Iterable<T> first, final Iterable<T> last, final Function<? super T, ?> keyExtractor) {
+            final Iterator<T> iteratorFirst = first.iterator();
+            final Iterator<T> iteratorLast = last.iterator();
+            while (iteratorFirst.hasNext() && iteratorLast.hasNext()) {
+                final T firstItem = iteratorFirst.next();
+                final T lastItem = iteratorLast.next();
+                final Object firstKey = keyExtractor.apply(firstItem);
+                final Object lastKey = keyExtractor.apply(lastItem);
+                final int temp = Objects.equals(firstKey, lastKey)
+                    ? (Objects.equals(firstItem, lastItem) ? 0 : compareNaturally(firstItem, lastItem))
+                    : compareNaturally(firstKey, lastKey);
+                if (0 != temp) return temp;
+            }
+            if (iteratorFirst.hasNext()) return 1;
+            if (iteratorLast.hasNext()) return -1;
+            return Integer.compare(System.identityHashCode(first), System.identityHashCode(last));
+        }
+
+        /**
+         * Returns natural comparison result of comparable values of the same class, or of their string representations otherwise
+         *
+         * @param first - initial input first value
+         * @param last  - initial input last value
+         * @return numeric result of comparison
+         */
+        private static int compareNaturally(final Object first, final Object last) {
+            if (Objects.isNull(first) || Objects.isNull(last)) {
+                return Boolean.compare(Objects.nonNull(first), Objects.nonNull(last));
+            }
+            if (first instanceof Comparable && first.getClass() == last.getClass()) {
+                return Integer.signum(((Comparable<Object>) first).compareTo(last));
+            }
+            return Integer.signum(String.valueOf(first).compareTo(String.valueOf(last)));
+        }
+
+        /**
+         * Returns collection difference {@link CollectionDiffResult} of elements matched by key extractor {@link Function}
+         * (or elements themselves, if comparator is positional)
+         *
+         * @param first - initial input first {@link Iterable} collection
+         * @param last  - initial input last {@link Iterable} collection
+         * @return collection difference {@link CollectionDiffResult}
+         */
+        public CollectionDiffResult<T> diff(final Iterable<T> first, final Iterable<T> last) {
+            final Function<? super T, ?> extractor = Optional.ofNullable(this.keyExtractor).orElse(value -> value);
+            return this.ordered
+                ? CollectionDiffUtils.diffOrdered(first, last, extractor, this.valueComparator)
+                : CollectionDiffUtils.diffByKey(first, last, extractor, this.valueComparator);
         }
     }
 
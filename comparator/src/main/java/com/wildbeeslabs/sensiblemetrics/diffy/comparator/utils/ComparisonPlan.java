@@ -0,0 +1,391 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.exception.PropertyAccessException;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ReflectionUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.StringUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.impl.DefaultDiffEntry;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Compiled comparison plan implementation by collection of properties {@link Field}
+ * <p>
+ * Plan is compiled once per comparator and class: every property is bound to a {@link MethodHandle} getter
+ * and a resolved property {@link Comparator}, so that {@link #diffCompare(Object, Object)} performs
+ * neither reflective field access nor comparator lookups. Primitive properties compared by {@link #DEFAULT_PROPERTY_COMPARATOR}
+ * are additionally bound to typed getters and compared without boxing (values are boxed only for emitted entries).
+ *
+ * @param <T> type of input element to be compared by operation
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Getter
+@EqualsAndHashCode
+@ToString
+@SuppressWarnings("unchecked")
+public final class ComparisonPlan<T> {
+
+    /**
+     * Default getter method type {@link MethodType}
+     */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * Default property comparator {@link Comparator} (shared instance enables primitive comparison of properties)
+     */
+    public static final Comparator<Object> DEFAULT_PROPERTY_COMPARATOR = new ComparatorUtils.DefaultNullSafeObjectComparator<>();
+
+    /**
+     * Default compiled properties {@link List}
+     */
+    private final List<PropertyAccessor> properties;
+
+    /**
+     * Creates comparison plan by compiled properties {@link List}
+     *
+     * @param properties - initial compiled properties {@link List}
+     */
+    private ComparisonPlan(final List<PropertyAccessor> properties) {
+        this.properties = Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * Returns compiled comparison plan {@link ComparisonPlan} by fields {@link Iterable} and property comparator {@link Function} provider
+     *
+     * @param <T>                type of input element to be compared by operation
+     * @param fields             - initial fields {@link Iterable} to compile
+     * @param comparatorProvider - initial property comparator provider {@link Function} by property name {@link String}
+     * @return compiled comparison plan {@link ComparisonPlan}
+     */
+    public static <T> ComparisonPlan<T> compile(final Iterable<Field> fields, final Function<String, Comparator<?>> comparatorProvider) {
+        ValidationUtils.notNull(fields, "Fields should not be null!");
+        ValidationUtils.notNull(comparatorProvider, "Comparator provider should not be null!");
+
+        final List<PropertyAccessor> properties = new ArrayList<>();
+        for (final Field field : fields) {
+            try {
+                final MethodHandle getter = compileGetter(field);
+                final Comparator<Object> comparator = (Comparator<Object>) comparatorProvider.apply(field.getName());
+                properties.add(new PropertyAccessor(field.getName(), field.getType(), getter, compilePrimitiveGetter(field, comparator), comparator));
+            } catch (IllegalAccessException e) {
+                log.error(StringUtils.formatMessage("ERROR: cannot process property: {%s}, message: {%s}", field.getName(), e.getMessage()));
+            }
+        }
+        return new ComparisonPlan<>(properties);
+    }
+
+    /**
+     * Returns compiled comparison plan {@link ComparisonPlan} by class metadata {@link ClassMetadata}, properties {@link Iterable} and property comparator {@link Function} provider
+     *
+     * @param <T>                type of input element to be compared by operation
+     * @param metadata           - initial class metadata {@link ClassMetadata} with compiled property getters
+     * @param properties         - initial property names {@link Iterable} to compile
+     * @param comparatorProvider - initial property comparator provider {@link Function} by property name {@link String}
+     * @return compiled comparison plan {@link ComparisonPlan}
+     */
+    public static <T> ComparisonPlan<T> compile(final ClassMetadata metadata, final Iterable<String> properties, final Function<String, Comparator<?>> comparatorProvider) {
+        ValidationUtils.notNull(metadata, "Metadata should not be null!");
+        ValidationUtils.notNull(properties, "Properties should not be null!");
+        ValidationUtils.notNull(comparatorProvider, "Comparator provider should not be null!");
+
+        final List<PropertyAccessor> result = new ArrayList<>();
+        for (final String property : properties) {
+            final MethodHandle getter = metadata.getGetter(property);
+            if (Objects.nonNull(getter)) {
+                final Field field = metadata.getFields().get(property);
+                final Comparator<Object> comparator = (Comparator<Object>) comparatorProvider.apply(property);
+                result.add(new PropertyAccessor(property, field.getType(), getter, compilePrimitiveGetter(field, comparator), comparator));
+            }
+        }
+        return new ComparisonPlan<>(result);
+    }
+
+    /**
+     * Returns {@link MethodHandle} getter of type {@code (Object)Object} by field {@link Field}
+     *
+     * @param field - initial field {@link Field} to compile getter for
+     * @return field getter {@link MethodHandle}
+     * @throws IllegalAccessException if field is not accessible
+     */
+    public static MethodHandle compileGetter(final Field field) throws IllegalAccessException {
+        ValidationUtils.notNull(field, "Field should not be null!");
+        ReflectionUtils.setAccessible(field);
+        return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+    }
+
+    /**
+     * Returns {@link MethodHandle} getter of type {@code (Object)P} by primitive field {@link Field} and property comparator {@link Comparator},
+     * or {@code null} if field is not primitive or is compared by custom comparator
+     *
+     * @param field      - initial field {@link Field} to compile getter for
+     * @param comparator - initial property comparator {@link Comparator}
+     * @return primitive field getter {@link MethodHandle}, or {@code null}
+     */
+    private static MethodHandle compilePrimitiveGetter(final Field field, final Comparator<Object> comparator) {
+        if (!field.getType().isPrimitive() || DEFAULT_PROPERTY_COMPARATOR != comparator) {
+            return null;
+        }
+        try {
+            ReflectionUtils.setAccessible(field);
+            return MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(field.getType(), Object.class));
+        } catch (IllegalAccessException e) {
+            log.error(StringUtils.formatMessage("ERROR: cannot process primitive property: {%s}, message: {%s}", field.getName(), e.getMessage()));
+        }
+        return null;
+    }
+
+    /**
+     * Returns collection of difference entries {@link List} by initial arguments
+     *
+     * @param first - initial first argument to be compared {@code T}
+     * @param last  - initial last argument to be compared with {@code T}
+     * @return collection of difference entries {@link List}
+     */
+    public List<DiffEntry<?>> diffCompare(final T first, final T last) {
+        final List<DiffEntry<?>> result = new ArrayList<>();
+        for (final PropertyAccessor property : this.properties) {
+            final DiffEntry<?> entry = property.diffCompare(first, last);
+            if (Objects.nonNull(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns collection of difference entries {@link List} by initial arguments, evaluating properties
+     * in contiguous chunks on the executor {@link Executor} (the first chunk is evaluated by calling thread).
+     * Entries are returned in the same order as by {@link #diffCompare(Object, Object)}.
+     *
+     * @param first    - initial first argument to be compared {@code T}
+     * @param last     - initial last argument to be compared with {@code T}
+     * @param executor - initial executor {@link Executor} to evaluate chunks on
+     * @param chunks   - initial number of chunks to split properties into
+     * @return collection of difference entries {@link List}
+     */
+    public List<DiffEntry<?>> diffCompare(final T first, final T last, final Executor executor, int chunks) {
+        ValidationUtils.notNull(executor, "Executor should not be null!");
+
+        final int size = this.properties.size();
+        final int count = Math.max(1, Math.min(chunks, size));
+        if (1 == count) {
+            return this.diffCompare(first, last);
+        }
+        final DiffEntry<?>[] slots = new DiffEntry<?>[size];
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[count - 1];
+        for (int chunk = 1; chunk < count; chunk++) {
+            final int from = (int) ((long) size * chunk / count);
+            final int to = (int) ((long) size * (chunk + 1) / count);
+            futures[chunk - 1] = CompletableFuture.runAsync(() -> this.diffCompare(first, last, from, to, slots), executor);
+        }
+        this.diffCompare(first, last, 0, size / count, slots);
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+
+        final List<DiffEntry<?>> result = new ArrayList<>();
+        for (final DiffEntry<?> entry : slots) {
+            if (Objects.nonNull(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private void diffCompare(final T first, final T last, int from, int to, final DiffEntry<?>[] slots) {
+        for (int i = from; i < to; i++) {
+            slots[i] = this.properties.get(i).diffCompare(first, last);
+        }
+    }
+
+    /**
+     * Returns number of compiled properties
+     *
+     * @return number of compiled properties
+     */
+    public int size() {
+        return this.properties.size();
+    }
+
+    /**
+     * Compiled property accessor implementation
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static final class PropertyAccessor {
+
+        /**
+         * Default property name {@link String}
+         */
+        private final String name;
+        /**
+         * Default property type {@link Class}
+         */
+        private final Class<?> type;
+        /**
+         * Default property getter {@link MethodHandle}
+         */
+        @ToString.Exclude
+        private final MethodHandle getter;
+        /**
+         * Default primitive property getter {@link MethodHandle} (or {@code null} if property is compared by boxed values)
+         */
+        @ToString.Exclude
+        private final MethodHandle primitiveGetter;
+        /**
+         * Default property comparator {@link Comparator}
+         */
+        private final Comparator<Object> comparator;
+
+        /**
+         * Creates property accessor by input parameters
+         *
+         * @param name       - initial property name {@link String}
+         * @param type       - initial property type {@link Class}
+         * @param getter          - initial property getter {@link MethodHandle}
+         * @param primitiveGetter - initial primitive property getter {@link MethodHandle}
+         * @param comparator      - initial property comparator {@link Comparator}
+         */
+        private PropertyAccessor(final String name, final Class<?> type, final MethodHandle getter, final MethodHandle primitiveGetter, final Comparator<Object> comparator) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.primitiveGetter = primitiveGetter;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Returns difference entry {@link DiffEntry} by property values of initial arguments
+         *
+         * @param first - initial first argument to be compared
+         * @param last  - initial last argument to be compared with
+         * @return difference entry {@link DiffEntry}, or {@code null} if property values are equal
+         */
+        public DiffEntry<?> diffCompare(final Object first, final Object last) {
+            if (Objects.nonNull(this.primitiveGetter)) {
+                return this.diffComparePrimitive(first, last);
+            }
+            final Object firstValue = this.get(first);
+            final Object lastValue = this.get(last);
+            if (0 != Objects.compare(firstValue, lastValue, this.comparator)) {
+                return DefaultDiffEntry.of(this.name, firstValue, lastValue);
+            }
+            return null;
+        }
+
+        /**
+         * Returns difference entry {@link DiffEntry} by primitive property values of initial arguments
+         *
+         * @param first - initial first argument to be compared
+         * @param last  - initial last argument to be compared with
+         * @return difference entry {@link DiffEntry}, or {@code null} if property values are equal
+         */
+        private DiffEntry<?> diffComparePrimitive(final Object first, final Object last) {
+            try {
+                if (int.class == this.type) {
+                    final int firstValue = (int) this.primitiveGetter.invokeExact(first);
+                    final int lastValue = (int) this.primitiveGetter.invokeExact(last);
+                    return firstValue == lastValue ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+                } else if (long.class == this.type) {
+                    final long firstValue = (long) this.primitiveGetter.invokeExact(first);
+                    final long lastValue = (long) this.primitiveGetter.invokeExact(last);
+                    return firstValue == lastValue ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+                } else if (double.class == this.type) {
+                    final double firstValue = (double) this.primitiveGetter.invokeExact(first);
+                    final double lastValue = (double) this.primitiveGetter.invokeExact(last);
+                    return 0 == Double.compare(firstValue, lastValue) ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+                } else if (boolean.class == this.type) {
+                    final boolean firstValue = (boolean) this.primitiveGetter.invokeExact(first);
+                    final boolean lastValue = (boolean) this.primitiveGetter.invokeExact(last);
+                    return firstValue == lastValue ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+                } else if (float.class == this.type) {
+                    final float firstValue = (float) this.primitiveGetter.invokeExact(first);
+                    final float lastValue = (float) this.primitiveGetter.invokeExact(last);
+                    return 0 == Float.compare(firstValue, lastValue) ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+                } else if (short.class == this.type) {
+                    final short firstValue = (short) this.primitiveGetter.invokeExact(first);
+                    final short lastValue = (short) this.primitiveGetter.invokeExact(last);
+                    return firstValue == lastValue ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+                } else if (byte.class == this.type) {
+                    final byte firstValue = (byte) this.primitiveGetter.invokeExact(first);
+                    final byte lastValue = (byte) this.primitiveGetter.invokeExact(last);
+                    return firstValue == lastValue ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+                }
+                final char firstValue = (char) this.primitiveGetter.invokeExact(first);
+                final char lastValue = (char) this.primitiveGetter.invokeExact(last);
+                return firstValue == lastValue ? null : DefaultDiffEntry.of(this.name, firstValue, lastValue);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw PropertyAccessException.throwIllegalAccess(this.name, first, t);
+            }
+        }
+
+        /**
+         * Returns property value by target instance
+         *
+         * @param target - initial target instance to get property value from
+         * @return property value
+         */
+        public Object get(final Object target) {
+            try {
+                return this.getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw PropertyAccessException.throwIllegalAccess(this.name, target, t);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.exception.PropertyAccessException;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.sort.SortManager;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.StringUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled multi-key comparator implementation {@link Comparator} by sort specification {@link SortManager}
+ * <p>
+ * Every sort order {@link SortManager.SortOrder} (property path, direction, case sensitivity and null priority) is compiled
+ * into a chain of {@link MethodHandle} getters and a key comparator resolved by the property type, so a comparison is a single
+ * loop over keys without nested comparator wrappers. Keys are extracted lazily and at most once per element: the next key
+ * is read only if previous keys are equal. {@link #sort(List, boolean)} can precompute all keys once per element
+ * (decorate-sort-undecorate) for large sorts with expensive key paths.
+ * <p>
+ * {@link SortManager.NullPriority#NATIVE} orders {@code null} keys as the smallest ones (before non-null keys in ascending
+ * and after them in descending order), {@link SortManager.NullPriority#NULLS_FIRST} and {@link SortManager.NullPriority#NULLS_LAST}
+ * do not depend on the direction. Keys of non-comparable types are compared by their string representations.
+ *
+ * @param <T> type of input element to be compared by operation
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Getter
+@ToString(of = "clazz")
+@SuppressWarnings("unchecked")
+public final class CompiledComparator<T> implements Comparator<T> {
+
+    /**
+     * Default property path separator {@link Pattern}
+     */
+    private static final Pattern PATH_SEPARATOR = Pattern.compile("\\.");
+
+    /**
+     * Default class instance {@link Class} to compare
+     */
+    private final Class<? extends T> clazz;
+    /**
+     * Default compiled keys
+     */
+    @ToString.Exclude
+    private final Key[] keys;
+
+    /**
+     * Creates compiled comparator by class instance {@link Class} and compiled keys
+     *
+     * @param clazz - initial class instance {@link Class}
+     * @param keys  - initial compiled keys
+     */
+    private CompiledComparator(final Class<? extends T> clazz, final Key[] keys) {
+        this.clazz = clazz;
+        this.keys = keys;
+    }
+
+    /**
+     * Returns compiled comparator {@link CompiledComparator} by class instance {@link Class} and sort specification {@link SortManager}
+     *
+     * @param <T>   type of input element to be compared by operation
+     * @param clazz - initial class instance {@link Class}
+     * @param sort  - initial sort specification {@link SortManager}
+     * @return compiled comparator {@link CompiledComparator}
+     * @throws IllegalArgumentException if any property path cannot be resolved
+     */
+    public static <T> CompiledComparator<T> compile(final Class<? extends T> clazz, final SortManager sort) {
+        return compile(clazz, sort, ClassMetadataCache.getDefault());
+    }
+
+    /**
+     * Returns compiled comparator {@link CompiledComparator} by class instance {@link Class}, sort specification {@link SortManager} and metadata cache {@link ClassMetadataCache}
+     *
+     * @param <T>           type of input element to be compared by operation
+     * @param clazz         - initial class instance {@link Class}
+     * @param sort          - initial sort specification {@link SortManager}
+     * @param metadataCache - initial class metadata cache {@link ClassMetadataCache} to resolve property paths by
+     * @return compiled comparator {@link CompiledComparator}
+     * @throws IllegalArgumentException if any property path cannot be resolved
+     */
+    public static <T> CompiledComparator<T> compile(final Class<? extends T> clazz, final SortManager sort, final ClassMetadataCache metadataCache) {
+        ValidationUtils.notNull(clazz, "Class should not be null!");
+        ValidationUtils.notNull(sort, "Sort should not be null!");
+        ValidationUtils.notNull(metadataCache, "Metadata cache should not be null!");
+
+        final List<Key> keys = new ArrayList<>();
+        for (final SortManager.SortOrder order : sort.getOrders()) {
+            keys.add(compileKey(clazz, order, metadataCache));
+        }
+        return new CompiledComparator<>(clazz, keys.toArray(new Key[0]));
+    }
+
+    /**
+     * Returns numeric result of arguments comparison by compiled keys
+     *
+     * @param first - initial input first argument
+     * @param last  - initial input last argument
+     * @return numeric result of arguments comparison
+     */
+    @Override
+    public int compare(final T first, final T last) {
+        for (final Key key : this.keys) {
+            final int result = key.compareKeys(key.extract(first), key.extract(last));
+            if (0 != result) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts list {@link List} by compiled keys
+     *
+     * @param list       - initial list {@link List} to be sorted
+     * @param precompute - initial binary flag whether keys are extracted once per element before sorting (decorate-sort-undecorate)
+     */
+    public void sort(final List<T> list, boolean precompute) {
+        ValidationUtils.notNull(list, "List should not be null!");
+
+        if (!precompute || list.size() < 2) {
+            list.sort(this);
+            return;
+        }
+        final Decorated<T>[] decorated = new Decorated[list.size()];
+        int index = 0;
+        for (final T item : list) {
+            final Object[] values = new Object[this.keys.length];
+            for (int i = 0; i < this.keys.length; i++) {
+                values[i] = this.keys[i].extract(item);
+            }
+            decorated[index++] = new Decorated<>(item, values);
+        }
+        Arrays.sort(decorated, this::compareDecorated);
+        final ListIterator<T> iterator = list.listIterator();
+        for (final Decorated<T> item : decorated) {
+            iterator.next();
+            iterator.set(item.value);
+        }
+    }
+
+    private int compareDecorated(final Decorated<T> first, final Decorated<T> last) {
+        for (int i = 0; i < this.keys.length; i++) {
+            final int result = this.keys[i].compareKeys(first.keys[i], last.keys[i]);
+            if (0 != result) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static Key compileKey(final Class<?> clazz, final SortManager.SortOrder order, final ClassMetadataCache metadataCache) {
+        final String[] segments = PATH_SEPARATOR.split(order.getProperty());
+        final MethodHandle[] getters = new MethodHandle[segments.length];
+        Class<?> type = clazz;
+        for (int i = 0; i < segments.length; i++) {
+            final ClassMetadata metadata = metadataCache.get(type);
+            final Field field = metadata.getFields().get(segments[i]);
+            ValidationUtils.isTrue(Objects.nonNull(field) && Objects.nonNull(metadata.getGetter(segments[i])),
+                StringUtils.formatMessage("ERROR: cannot resolve property: {%s} of path: {%s} in class: {%s}", segments[i], order.getProperty(), type.getName()));
+            getters[i] = metadata.getGetter(segments[i]);
+            type = field.getType();
+        }
+        return new Key(order.getProperty(), getters, keyComparator(type, order.isIgnoreCase()), !order.isDescending(), nullOrder(order));
+    }
+
+    private static Comparator<Object> keyComparator(final Class<?> type, boolean ignoreCase) {
+        if (ignoreCase && CharSequence.class.isAssignableFrom(type)) {
+            return (first, last) -> String.CASE_INSENSITIVE_ORDER.compare(first.toString(), last.toString());
+        } else if (type.isPrimitive() || Comparable.class.isAssignableFrom(type)) {
+            return (first, last) -> ((Comparable<Object>) first).compareTo(last);
+        }
+        return Comparator.comparing(Object::toString);
+    }
+
+    /**
+     * Returns result of comparison of {@code null} key with non-null key by sort order {@link SortManager.SortOrder}
+     */
+    private static int nullOrder(final SortManager.SortOrder order) {
+        if (Objects.isNull(order.getNullPriority())) {
+            return order.isDescending() ? 1 : -1;
+        }
+        switch (order.getNullPriority()) {
+            case NULLS_FIRST:
+                return -1;
+            case NULLS_LAST:
+                return 1;
+            default:
+                return order.isDescending() ? 1 : -1;
+        }
+    }
+
+    /**
+     * Compiled sort key implementation
+     */
+    private static final class Key {
+
+        private final String property;
+        private final MethodHandle[] getters;
+        private final Comparator<Object> comparator;
+        private final boolean ascending;
+        private final int nullOrder;
+
+        private Key(final String property, final MethodHandle[] getters, final Comparator<Object> comparator, boolean ascending, int nullOrder) {
+            this.property = property;
+            this.getters = getters;
+            this.comparator = comparator;
+            this.ascending = ascending;
+            this.nullOrder = nullOrder;
+        }
+
+        private Object extract(final Object target) {
+            Object value = target;
+            try {
+                for (final MethodHandle getter : this.getters) {
+                    if (Objects.isNull(value)) {
+                        return null;
+                    }
+                    value = (Object) getter.invokeExact(value);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw PropertyAccessException.throwIllegalAccess(this.property, target, t);
+            }
+            return value;
+        }
+
+        private int compareKeys(final Object first, final Object last) {
+            if (first == last) {
+                return 0;
+            } else if (Objects.isNull(first)) {
+                return this.nullOrder;
+            } else if (Objects.isNull(last)) {
+                return -this.nullOrder;
+            }
+            return this.ascending ? this.comparator.compare(first, last) : this.comparator.compare(last, first);
+        }
+    }
+
+    /**
+     * Element decorated by precomputed keys
+     *
+     * @param <T> type of input element
+     */
+    private static final class Decorated<T> {
+
+        private final T value;
+        private final Object[] keys;
+
+        private Decorated(final T value, final Object[] keys) {
+            this.value = value;
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyed difference result implementation of elements joined by key
+ *
+ * @param <K> type of element key
+ * @param <T> type of element
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public final class KeyedDiffResult<K, T> {
+
+    /**
+     * Keyed difference type
+     */
+    public enum DiffType {
+        /**
+         * Element is present in last source only
+         */
+        ADDED,
+        /**
+         * Element is present in first source only
+         */
+        REMOVED,
+        /**
+         * Elements are present in both sources and differ
+         */
+        CHANGED
+    }
+
+    /**
+     * Default difference type {@link DiffType}
+     */
+    private final DiffType type;
+    /**
+     * Default element key
+     */
+    private final K key;
+    /**
+     * Default element of first source
+     */
+    private final T first;
+    /**
+     * Default element of last source
+     */
+    private final T last;
+    /**
+     * Default difference entries {@link List} of changed elements
+     */
+    private final List<DiffEntry<?>> entries;
+
+    private KeyedDiffResult(final DiffType type, final K key, final T first, final T last, final List<DiffEntry<?>> entries) {
+        this.type = type;
+        this.key = key;
+        this.first = first;
+        this.last = last;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns {@link KeyedDiffResult} of element present in last source only
+     *
+     * @param <K>  type of element key
+     * @param <T>  type of element
+     * @param key  - initial element key
+     * @param last - initial element of last source
+     * @return {@link KeyedDiffResult}
+     */
+    public static <K, T> KeyedDiffResult<K, T> added(final K key, final T last) {
+        return new KeyedDiffResult<>(DiffType.ADDED, key, null, last, Collections.emptyList());
+    }
+
+    /**
+     * Returns {@link KeyedDiffResult} of element present in first source only
+     *
+     * @param <K>   type of element key
+     * @param <T>   type of element
+     * @param key   - initial element key
+     * @param first - initial element of first source
+     * @return {@link KeyedDiffResult}
+     */
+    public static <K, T> KeyedDiffResult<K, T> removed(final K key, final T first) {
+        return new KeyedDiffResult<>(DiffType.REMOVED, key, first, null, Collections.emptyList());
+    }
+
+    /**
+     * Returns {@link KeyedDiffResult} of changed elements with difference entries {@link List}
+     *
+     * @param <K>     type of element key
+     * @param <T>     type of element
+     * @param key     - initial element key
+     * @param first   - initial element of first source
+     * @param last    - initial element of last source
+     * @param entries - initial difference entries {@link List}
+     * @return {@link KeyedDiffResult}
+     */
+    public static <K, T> KeyedDiffResult<K, T> changed(final K key, final T first, final T last, final List<DiffEntry<?>> entries) {
+        return new KeyedDiffResult<>(DiffType.CHANGED, key, first, last, Collections.unmodifiableList(entries));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Array mismatch range implementation by start (inclusive) and end (exclusive) indexes
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public final class MismatchRange {
+
+    /**
+     * Default start index (inclusive)
+     */
+    private final int from;
+    /**
+     * Default end index (exclusive)
+     */
+    private final int to;
+
+    private MismatchRange(final int from, final int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Returns {@link MismatchRange} by start (inclusive) and end (exclusive) indexes
+     *
+     * @param from - initial start index (inclusive)
+     * @param to   - initial end index (exclusive)
+     * @return {@link MismatchRange}
+     */
+    public static MismatchRange of(final int from, final int to) {
+        return new MismatchRange(from, to);
+    }
+
+    /**
+     * Returns number of mismatched elements
+     *
+     * @return number of mismatched elements
+     */
+    public int length() {
+        return this.to - this.from;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.enumeration.OptimizeType;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Sort utilities implementation
+ * <p>
+ * Top-K selection keeps a bounded heap of K elements, so sources {@link Iterable} / {@link Stream} of any size
+ * are consumed in O(N log K) time with O(K) memory. Partial sort selects the K smallest elements of a list in place
+ * (introselect) and sorts only them. Neither selection nor partial sort is stable.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@UtilityClass
+@SuppressWarnings("unchecked")
+public class SortUtils {
+
+    /**
+     * Default size of range to be sorted instead of partitioned by selection
+     */
+    private static final int SELECTION_THRESHOLD = 16;
+
+    /**
+     * Returns K smallest elements {@link List} of source {@link Iterable} by comparator {@link Comparator} in sorted order
+     *
+     * @param <T>        type of input element to be compared by operation
+     * @param source     - initial source {@link Iterable} of elements
+     * @param k          - initial number of elements to select
+     * @param comparator - initial comparator {@link Comparator}
+     * @return K smallest elements {@link List} in sorted order
+     */
+    public static <T> List<T> topK(final Iterable<? extends T> source, int k, final Comparator<? super T> comparator) {
+        ValidationUtils.notNull(source, "Source should not be null!");
+
+        final TopKBuffer<T> buffer = new TopKBuffer<>(k, comparator);
+        for (final T item : source) {
+            buffer.offer(item);
+        }
+        return buffer.toList();
+    }
+
+    /**
+     * Returns K smallest elements {@link List} of source {@link Stream} by comparator {@link Comparator} in sorted order
+     *
+     * @param <T>        type of input element to be compared by operation
+     * @param source     - initial source {@link Stream} of elements
+     * @param k          - initial number of elements to select
+     * @param comparator - initial comparator {@link Comparator}
+     * @return K smallest elements {@link List} in sorted order
+     */
+    public static <T> List<T> topK(final Stream<? extends T> source, int k, final Comparator<? super T> comparator) {
+        ValidationUtils.notNull(source, "Source should not be null!");
+
+        return source.collect(toTopK(k, comparator));
+    }
+
+    /**
+     * Returns K best elements {@link List} of source {@link Iterable} by optimization type {@link OptimizeType} from the best to the worst one
+     *
+     * @param <T>          type of input element to be compared by operation
+     * @param source       - initial source {@link Iterable} of elements
+     * @param k            - initial number of elements to select
+     * @param optimizeType - initial optimization type {@link OptimizeType}
+     * @return K best elements {@link List}
+     */
+    public static <T extends Comparable<? super T>> List<T> best(final Iterable<? extends T> source, int k, final OptimizeType optimizeType) {
+        ValidationUtils.notNull(optimizeType, "Optimize type should not be null!");
+
+        return topK(source, k, optimizeType.<T>descending());
+    }
+
+    /**
+     * Returns collector {@link Collector} of K smallest elements {@link List} by comparator {@link Comparator} in sorted order
+     * (supports parallel streams by merging partial heaps)
+     *
+     * @param <T>        type of input element to be compared by operation
+     * @param k          - initial number of elements to select
+     * @param comparator - initial comparator {@link Comparator}
+     * @return top-K collector {@link Collector}
+     */
+    public static <T> Collector<T, ?, List<T>> toTopK(int k, final Comparator<? super T> comparator) {
+        ValidationUtils.isTrue(k >= 0, "Number of elements should not be negative!");
+        ValidationUtils.notNull(comparator, "Comparator should not be null!");
+
+        return Collector.of(() -> new TopKBuffer<T>(k, comparator), TopKBuffer::offer, TopKBuffer::merge, TopKBuffer::toList);
+    }
+
+    /**
+     * Sorts K smallest elements of list {@link List} by comparator {@link Comparator} into its first K positions,
+     * leaving the rest of elements in unspecified order
+     *
+     * @param <T>        type of input element to be compared by operation
+     * @param list       - initial list {@link List} to be sorted
+     * @param k          - initial number of elements to sort
+     * @param comparator - initial comparator {@link Comparator}
+     */
+    public static <T> void partialSort(final List<T> list, int k, final Comparator<? super T> comparator) {
+        ValidationUtils.notNull(list, "List should not be null!");
+        ValidationUtils.isTrue(k >= 0, "Number of elements should not be negative!");
+        ValidationUtils.notNull(comparator, "Comparator should not be null!");
+
+        final T[] array = (T[]) list.toArray();
+        final int size = Math.min(k, array.length);
+        if (size < array.length) {
+            select(array, size, comparator);
+        }
+        Arrays.sort(array, 0, size, comparator);
+        setAll(list, array);
+    }
+
+    /**
+     * Sorts list {@link List} by comparator {@link Comparator} with parallel sort-merge on {@link java.util.concurrent.ForkJoinPool#commonPool()}
+     * (stable, see {@link Arrays#parallelSort(Object[], Comparator)})
+     *
+     * @param <T>        type of input element to be compared by operation
+     * @param list       - initial list {@link List} to be sorted
+     * @param comparator - initial comparator {@link Comparator}
+     */
+    public static <T> void parallelSort(final List<T> list, final Comparator<? super T> comparator) {
+        ValidationUtils.notNull(list, "List should not be null!");
+        ValidationUtils.notNull(comparator, "Comparator should not be null!");
+
+        final T[] array = (T[]) list.toArray();
+        Arrays.parallelSort(array, comparator);
+        setAll(list, array);
+    }
+
+    /**
+     * Moves K smallest elements of array into its first K positions by introselect
+     * (median-of-three quickselect with three-way partitioning, falling back to sort of the remaining range)
+     */
+    private static <T> void select(final T[] array, int k, final Comparator<? super T> comparator) {
+        int lo = 0;
+        int hi = array.length - 1;
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(array.length));
+        while (hi - lo > SELECTION_THRESHOLD) {
+            if (budget-- == 0) {
+                Arrays.sort(array, lo, hi + 1, comparator);
+                return;
+            }
+            final T pivot = median(array[lo], array[(lo + hi) >>> 1], array[hi], comparator);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                final int result = comparator.compare(array[i], pivot);
+                if (result < 0) {
+                    swap(array, lt++, i++);
+                } else if (result > 0) {
+                    swap(array, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k <= lt) {
+                hi = lt - 1;
+            } else if (k > gt + 1) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
+        }
+        Arrays.sort(array, lo, hi + 1, comparator);
+    }
+
+    private static <T> T median(final T first, final T second, final T third, final Comparator<? super T> comparator) {
+        if (comparator.compare(first, second) < 0) {
+            if (comparator.compare(second, third) < 0) {
+                return second;
+            }
+            return comparator.compare(first, third) < 0 ? third : first;
+        }
+        if (comparator.compare(first, third) < 0) {
+            return first;
+        }
+        return comparator.compare(second, third) < 0 ? third : second;
+    }
+
+    private static void swap(final Object[] array, int i, int j) {
+        final Object value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    private static <T> void setAll(final List<T> list, final T[] array) {
+        final ListIterator<T> iterator = list.listIterator();
+        for (final T item : array) {
+            iterator.next();
+            iterator.set(item);
+        }
+    }
+
+    /**
+     * Bounded max-heap of K smallest elements implementation
+     *
+     * @param <T> type of input element to be compared by operation
+     */
+    private static final class TopKBuffer<T> {
+
+        private final int k;
+        private final Comparator<? super T> comparator;
+        private Object[] heap;
+        private int size;
+
+        private TopKBuffer(int k, final Comparator<? super T> comparator) {
+            ValidationUtils.isTrue(k >= 0, "Number of elements should not be negative!");
+            ValidationUtils.notNull(comparator, "Comparator should not be null!");
+
+            this.k = k;
+            this.comparator = comparator;
+            this.heap = new Object[Math.min(k, SELECTION_THRESHOLD)];
+        }
+
+        private void offer(final T item) {
+            if (this.size < this.k) {
+                if (this.size == this.heap.length) {
+                    this.heap = Arrays.copyOf(this.heap, (int) Math.min(this.k, 2L * this.heap.length));
+                }
+                this.heap[this.size] = item;
+                this.siftUp(this.size++);
+            } else if (this.k > 0 && this.comparator.compare(item, (T) this.heap[0]) < 0) {
+                this.heap[0] = item;
+                this.siftDown(0);
+            }
+        }
+
+        private TopKBuffer<T> merge(final TopKBuffer<T> other) {
+            for (int i = 0; i < other.size; i++) {
+                this.offer((T) other.heap[i]);
+            }
+            return this;
+        }
+
+        private List<T> toList() {
+            if (0 == this.size) {
+                return Collections.emptyList();
+            }
+            final T[] result = (T[]) Arrays.copyOf(this.heap, this.size);
+            Arrays.sort(result, this.comparator);
+            return new ArrayList<>(Arrays.asList(result));
+        }
+
+        private void siftUp(int index) {
+            final T item = (T) this.heap[index];
+            while (index > 0) {
+                final int parent = (index - 1) >>> 1;
+                if (this.comparator.compare(item, (T) this.heap[parent]) <= 0) {
+                    break;
+                }
+                this.heap[index] = this.heap[parent];
+                index = parent;
+            }
+            this.heap[index] = item;
+        }
+
+        private void siftDown(int index) {
+            final T item = (T) this.heap[index];
+            final int half = this.size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < this.size && this.comparator.compare((T) this.heap[child + 1], (T) this.heap[child]) > 0) {
+                    child++;
+                }
+                if (this.comparator.compare(item, (T) this.heap[child]) >= 0) {
+                    break;
+                }
+                this.heap[index] = this.heap[child];
+                index = child;
+            }
+            this.heap[index] = item;
+        }
+    }
+}
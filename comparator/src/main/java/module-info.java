@@ -29,6 +29,8 @@ open module com.wildbeeslabs.sensiblemtrics.diffy.comparator {
     requires com.wildbeeslabs.sensiblemtrics.diffy.common;
     requires com.wildbeeslabs.sensiblemtrics.diffy.matcher;
 
+    // exports comparator enumerations
+    exports com.wildbeeslabs.sensiblemetrics.diffy.comparator.enumeration;
     // exports comparator factory
     exports com.wildbeeslabs.sensiblemetrics.diffy.comparator.factory;
     // exports comparator interfaces
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Chunk;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.InlineDiff;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Refined {@link ChangeDelta} implementation
+ * <p>
+ * Intra-line changes are computed by the refinement function on first access only and cached,
+ * concurrent first accesses compute them once.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class RefinedChangeDelta extends ChangeDelta<String> {
+
+    /**
+     * Default refinement {@link Function}
+     */
+    @ToString.Exclude
+    private final transient Function<? super ChangeDelta<String>, InlineDiff> refinement;
+    /**
+     * Default cached {@link InlineDiff}
+     */
+    @ToString.Exclude
+    private transient volatile InlineDiff inlineDiff;
+
+    /**
+     * Creates a refined change delta with the two given chunks.
+     *
+     * @param original   The original chunk. Must not be {@code null}.
+     * @param revised    The original chunk. Must not be {@code null}.
+     * @param refinement The refinement function. Must not be {@code null}.
+     */
+    public RefinedChangeDelta(final Chunk<String> original, final Chunk<String> revised, final Function<? super ChangeDelta<String>, InlineDiff> refinement) {
+        super(original, revised);
+        ValidationUtils.notNull(refinement, "Refinement should not be null");
+        this.refinement = refinement;
+    }
+
+    /**
+     * Returns {@link InlineDiff} of the delta, computed on first access
+     *
+     * @return {@link InlineDiff}
+     */
+    public InlineDiff getInlineDiff() {
+        InlineDiff result = this.inlineDiff;
+        if (Objects.isNull(result)) {
+            synchronized (this) {
+                result = this.inlineDiff;
+                if (Objects.isNull(result)) {
+                    result = this.refinement.apply(this);
+                    this.inlineDiff = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns binary flag whether intra-line changes are already computed
+     *
+     * @return true - if intra-line changes are computed, false - otherwise
+     */
+    public boolean isRefined() {
+        return Objects.nonNull(this.inlineDiff);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.node;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * Heuristic {@link PathNode} implementation
+ * <p>
+ * HeuristicNodes join the furthest reaching path with the end
+ * of both sequences once the cost budget of the search is exceeded,
+ * the remaining region is reported as a single change.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public final class HeuristicNode extends PathNode {
+
+    /**
+     * Constructs a HeuristicNode.
+     * <p>
+     * HeuristicNodes are compressed in the same way as {@link DiffNode DiffNodes}.
+     *
+     * @param origPos the position in the original sequence
+     * @param revPos  the position in the revised sequence
+     * @param prev    the previous node in the path.
+     */
+    public HeuristicNode(int origPos, int revPos, final PathNode prev) {
+        super(origPos, revPos, (Objects.isNull(prev) ? null : prev.previousSnake()));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return false, always
+     */
+    @Override
+    public boolean isSnake() {
+        return false;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Patch;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Result of a single {@link DiffPair} of a batch diff
+ *
+ * @param <T> type of sequence element
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public final class BatchDiffResult<T> {
+
+    /**
+     * Default index of the pair in the batch
+     */
+    private final int index;
+    /**
+     * Default {@link DiffPair}
+     */
+    private final DiffPair<T> pair;
+    /**
+     * Default {@link Patch} ({@code null} if diff failed)
+     */
+    private final Patch<T> patch;
+    /**
+     * Default failure cause ({@code null} if diff succeeded)
+     */
+    private final Throwable error;
+    /**
+     * Default diff {@link Duration}
+     */
+    private final Duration elapsed;
+
+    public BatchDiffResult(int index, final DiffPair<T> pair, final Patch<T> patch, final Throwable error, final Duration elapsed) {
+        this.index = index;
+        this.pair = pair;
+        this.patch = patch;
+        this.error = error;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns binary flag whether diff of the pair failed
+     *
+     * @return true - if diff failed, false - otherwise
+     */
+    public boolean isFailed() {
+        return Objects.nonNull(this.error);
+    }
+}
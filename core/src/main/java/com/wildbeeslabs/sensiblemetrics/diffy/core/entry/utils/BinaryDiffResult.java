@@ -23,6 +23,9 @@
  */
 package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils;
 
+import java.util.Collections;
+import java.util.List;
+
 public class BinaryDiffResult {
     /**
      * Default EOF marker
@@ -30,9 +33,13 @@ public class BinaryDiffResult {
     private static final int EOF = -1;
 
     /**
-     * Default offset
+     * Default offset, saturated to {@link Integer#MAX_VALUE} for content beyond 2 GiB (see {@link #longOffset})
      */
     public final int offset;
+    /**
+     * Default offset
+     */
+    public final long longOffset;
     /**
      * Default expected value
      */
@@ -41,6 +48,10 @@ public class BinaryDiffResult {
      * Default actual value
      */
     public final String actual;
+    /**
+     * Default differing {@link Range}s
+     */
+    public final List<Range> ranges;
 
     /**
      * Builds a new instance.
@@ -50,13 +61,38 @@ public class BinaryDiffResult {
      * @param actual   the actual byte in the same format.
      */
     public BinaryDiffResult(int offset, int expected, int actual) {
-        this.offset = offset;
+        this((long) offset, expected, actual);
+    }
+
+    /**
+     * Builds a new instance.
+     *
+     * @param offset   the offset at which the difference occurred.
+     * @param expected the expected byte as an int in the range 0 to 255, or -1 for EOF.
+     * @param actual   the actual byte in the same format.
+     */
+    public BinaryDiffResult(long offset, int expected, int actual) {
+        this(offset, expected, actual, (offset == EOF) ? Collections.emptyList() : Collections.singletonList(new Range(offset, 1)));
+    }
+
+    /**
+     * Builds a new instance.
+     *
+     * @param offset   the offset at which the first difference occurred.
+     * @param expected the expected byte as an int in the range 0 to 255, or -1 for EOF.
+     * @param actual   the actual byte in the same format.
+     * @param ranges   the differing ranges ordered by offset.
+     */
+    public BinaryDiffResult(long offset, int expected, int actual, final List<Range> ranges) {
+        this.offset = (int) Math.min(offset, Integer.MAX_VALUE);
+        this.longOffset = offset;
         this.expected = describe(expected);
         this.actual = describe(actual);
+        this.ranges = Collections.unmodifiableList(ranges);
     }
 
     public boolean hasNoDiff() {
-        return this.offset == EOF;
+        return this.longOffset == EOF;
     }
 
     public static BinaryDiffResult noDiff() {
@@ -66,4 +102,34 @@ public class BinaryDiffResult {
     private String describe(int b) {
         return (b == EOF) ? "EOF" : "0x" + Integer.toHexString(b).toUpperCase();
     }
+
+    /**
+     * Differing range of bytes, bytes beyond the end of the shorter content are differing as well
+     */
+    public static final class Range {
+        /**
+         * Default offset
+         */
+        public final long offset;
+        /**
+         * Default length
+         */
+        public final long length;
+
+        /**
+         * Builds a new instance.
+         *
+         * @param offset the offset of the first differing byte.
+         * @param length the number of differing bytes.
+         */
+        public Range(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + this.offset + ", " + (this.offset + this.length) + ")";
+        }
+    }
 }
@@ -0,0 +1,350 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Chunk;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Patch;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultChunk;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.ChangeDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.DeleteDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.InsertDelta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.listOf;
+
+/**
+ * Compact {@link Patch} implementation
+ * <p>
+ * Stores every delta as a (position, deleted length, inserted length) range into the original sequence
+ * and keeps only the inserted elements, deleted elements are not copied. The patch is applied in a single pass
+ * over the target, deltas are available once the patch is bound to its original sequence.
+ *
+ * @param <T> type of patch element
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public final class CompactPatch<T> implements Patch<T> {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = 2405397155329434545L;
+
+    /**
+     * Default number of int values per range
+     */
+    private static final int RANGE_WIDTH = 3;
+
+    /**
+     * Default ranges (position, deleted length, inserted length) ordered by position
+     */
+    private final int[] ranges;
+    /**
+     * Default inserted elements of all ranges
+     */
+    private final List<T> inserted;
+    /**
+     * Default approximation flag, {@code true} if ranges were completed by a fallback heuristic and are not minimal
+     */
+    private final boolean approximate;
+    /**
+     * Default original sequence ({@code null} if not bound)
+     */
+    private final transient List<T> source;
+
+    private CompactPatch(final int[] ranges, final List<T> inserted, boolean approximate, final List<T> source) {
+        this.ranges = ranges;
+        this.inserted = inserted;
+        this.approximate = approximate;
+        this.source = source;
+    }
+
+    /**
+     * Returns {@link CompactPatch} by original sequence and {@link Patch}
+     *
+     * @param <T>    type of patch element
+     * @param source - initial input original sequence
+     * @param patch  - initial input {@link Patch}
+     * @return {@link CompactPatch} bound to the original sequence
+     * @throws IllegalArgumentException if source is {@code null}
+     * @throws IllegalArgumentException if patch is {@code null}
+     */
+    public static <T> CompactPatch<T> of(final List<T> source, final Patch<T> patch) {
+        ValidationUtils.notNull(source, "Source sequence should not be null");
+        ValidationUtils.notNull(patch, "Patch should not be null");
+
+        final Builder<T> builder = new Builder<>();
+        for (final Delta<T> delta : patch.getDeltas()) {
+            builder.add(delta.getOriginal().getPosition(), delta.getOriginal().size(), delta.getRevised().getLines());
+        }
+        return builder.build(source);
+    }
+
+    /**
+     * Returns new {@link CompactPatch} with the same ranges bound to the given original sequence
+     *
+     * @param source - initial input original sequence
+     * @return {@link CompactPatch} bound to the original sequence
+     * @throws IllegalArgumentException if source is {@code null}
+     */
+    public CompactPatch<T> bind(final List<T> source) {
+        ValidationUtils.notNull(source, "Source sequence should not be null");
+        return new CompactPatch<>(this.ranges, this.inserted, this.approximate, source);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Deleted elements are not stored, so the content of the target is not verified.
+     *
+     * @throws IllegalStateException if ranges are out of target bounds
+     */
+    @Override
+    public Iterable<T> applyTo(final Iterable<T> target) {
+        final List<T> values = (target instanceof List) ? (List<T>) target : listOf(target);
+        final List<T> result = new ArrayList<>(Math.max(0, values.size() + this.inserted.size() - this.getDeletedCount()));
+        int position = 0;
+        int offset = 0;
+        for (int index = 0; index < this.size(); index++) {
+            final int from = this.getPosition(index);
+            final int to = from + this.getDeleted(index);
+            checkState(from >= position && to <= values.size(), "Incorrect patch for range: range is out of target bounds");
+            result.addAll(values.subList(position, from));
+            result.addAll(this.inserted.subList(offset, offset + this.getInserted(index)));
+            offset += this.getInserted(index);
+            position = to;
+        }
+        result.addAll(values.subList(position, values.size()));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Original chunks are views of the bound original sequence, revised chunks are views of the inserted elements.
+     *
+     * @throws IllegalStateException if patch is not bound to the original sequence
+     */
+    @Override
+    public List<Delta<T>> getDeltas() {
+        checkState(Objects.nonNull(this.source), "Incorrect patch: compact patch is not bound to the original sequence");
+
+        final List<Delta<T>> deltas = new ArrayList<>(this.size());
+        int shift = 0;
+        int offset = 0;
+        for (int index = 0; index < this.size(); index++) {
+            final int position = this.getPosition(index);
+            final int deleted = this.getDeleted(index);
+            final int inserted = this.getInserted(index);
+            final Chunk<T> original = new DefaultChunk<>(position, this.source.subList(position, position + deleted));
+            final Chunk<T> revised = new DefaultChunk<>(position + shift, this.inserted.subList(offset, offset + inserted));
+            if (deleted == 0) {
+                deltas.add(new InsertDelta<>(original, revised));
+            } else if (inserted == 0) {
+                deltas.add(new DeleteDelta<>(original, revised));
+            } else {
+                deltas.add(new ChangeDelta<>(original, revised));
+            }
+            shift += inserted - deleted;
+            offset += inserted;
+        }
+        return deltas;
+    }
+
+    /**
+     * Returns number of ranges
+     *
+     * @return number of ranges
+     */
+    public int size() {
+        return this.ranges.length / RANGE_WIDTH;
+    }
+
+    /**
+     * Returns original position of the range by index
+     *
+     * @param index - initial input range index
+     * @return original position
+     */
+    public int getPosition(int index) {
+        return this.ranges[index * RANGE_WIDTH];
+    }
+
+    /**
+     * Returns number of deleted elements of the range by index
+     *
+     * @param index - initial input range index
+     * @return number of deleted elements
+     */
+    public int getDeleted(int index) {
+        return this.ranges[index * RANGE_WIDTH + 1];
+    }
+
+    /**
+     * Returns number of inserted elements of the range by index
+     *
+     * @param index - initial input range index
+     * @return number of inserted elements
+     */
+    public int getInserted(int index) {
+        return this.ranges[index * RANGE_WIDTH + 2];
+    }
+
+    /**
+     * Returns inserted elements of all ranges
+     *
+     * @return {@link List} of inserted elements
+     */
+    public List<T> getInsertedElements() {
+        return this.inserted;
+    }
+
+    /**
+     * Returns binary flag whether ranges were completed by a fallback heuristic
+     *
+     * @return true - if ranges are not minimal, false - otherwise
+     */
+    public boolean isApproximate() {
+        return this.approximate;
+    }
+
+    private int getDeletedCount() {
+        int count = 0;
+        for (int index = 0; index < this.size(); index++) {
+            count += this.getDeleted(index);
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompactPatch)) {
+            return false;
+        }
+        final CompactPatch<?> that = (CompactPatch<?>) other;
+        return this.approximate == that.approximate
+            && Arrays.equals(this.ranges, that.ranges)
+            && Objects.equals(this.inserted, that.inserted);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(this.inserted, this.approximate) + Arrays.hashCode(this.ranges);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("CompactPatch {ranges: %s, inserted: %s, approximate: %s}", Arrays.toString(this.ranges), this.inserted, this.approximate);
+    }
+
+    /**
+     * {@link CompactPatch} builder, ranges should be added in ascending order of position
+     *
+     * @param <T> type of patch element
+     */
+    public static final class Builder<T> {
+
+        /**
+         * Default ranges
+         */
+        private int[] ranges = new int[RANGE_WIDTH * 8];
+        /**
+         * Default number of range values
+         */
+        private int length;
+        /**
+         * Default inserted elements
+         */
+        private final List<T> inserted = new ArrayList<>();
+        /**
+         * Default approximation flag
+         */
+        private boolean approximate;
+
+        /**
+         * Adds range to the patch
+         *
+         * @param position - initial input original position
+         * @param deleted  - initial input number of deleted elements
+         * @param inserted - initial input inserted elements
+         * @return {@link Builder}
+         * @throws IllegalArgumentException if range is invalid or not in ascending order
+         */
+        public Builder<T> add(int position, int deleted, final List<? extends T> inserted) {
+            ValidationUtils.notNull(inserted, "Inserted elements should not be null");
+            ValidationUtils.isTrue(position >= 0 && deleted >= 0, "Range should not be negative");
+            ValidationUtils.isTrue(this.length == 0 || position >= this.ranges[this.length - 3] + this.ranges[this.length - 2], "Ranges should be ordered and not overlapping");
+
+            if (this.length + RANGE_WIDTH > this.ranges.length) {
+                this.ranges = Arrays.copyOf(this.ranges, 2 * this.ranges.length);
+            }
+            this.ranges[this.length++] = position;
+            this.ranges[this.length++] = deleted;
+            this.ranges[this.length++] = inserted.size();
+            this.inserted.addAll(inserted);
+            return this;
+        }
+
+        /**
+         * Sets approximation flag of the patch
+         *
+         * @param approximate - initial input approximation flag
+         * @return {@link Builder}
+         */
+        public Builder<T> approximate(boolean approximate) {
+            this.approximate = approximate;
+            return this;
+        }
+
+        /**
+         * Returns {@link CompactPatch} bound to the original sequence
+         *
+         * @param source - initial input original sequence ({@code null} if not bound)
+         * @return {@link CompactPatch}
+         */
+        public CompactPatch<T> build(final List<T> source) {
+            return new CompactPatch<>(Arrays.copyOf(this.ranges, this.length), new ArrayList<>(this.inserted), this.approximate, source);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Pair of original and revised sequences to be compared
+ *
+ * @param <T> type of sequence element
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public final class DiffPair<T> {
+
+    /**
+     * Default original sequence
+     */
+    private final List<T> original;
+    /**
+     * Default revised sequence
+     */
+    private final List<T> revised;
+
+    private DiffPair(final List<T> original, final List<T> revised) {
+        ValidationUtils.notNull(original, "Original list should not be null");
+        ValidationUtils.notNull(revised, "Revised list should not be null");
+
+        this.original = original;
+        this.revised = revised;
+    }
+
+    /**
+     * Returns {@link DiffPair} by original and revised sequences
+     *
+     * @param <T>      type of sequence element
+     * @param original - initial input original sequence
+     * @param revised  - initial input revised sequence
+     * @return {@link DiffPair}
+     */
+    public static <T> DiffPair<T> of(final List<T> original, final List<T> revised) {
+        return new DiffPair<>(original, revised);
+    }
+
+    /**
+     * Returns total number of elements of both sequences
+     *
+     * @return total number of elements
+     */
+    public int size() {
+        return this.original.size() + this.revised.size();
+    }
+}
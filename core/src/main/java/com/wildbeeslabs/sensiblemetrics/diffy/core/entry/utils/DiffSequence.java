@@ -0,0 +1,266 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.BiMatcher;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Encoded difference sequences
+ * <p>
+ * Holds the lengths of the common head / tail of the original and revised sequences and
+ * the remaining elements interned to int identifiers, equal elements share the same identifier.
+ * Positions of the encoded sequences are relative to {@link #getPrefix()}.
+ * <p>
+ * Sequences built by an arbitrary {@link BiMatcher} are not interned (see {@link #of(List, List, BiMatcher)}),
+ * every element gets a unique identifier and positions should be compared by {@link #matches(int, int)}.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public final class DiffSequence {
+
+    /**
+     * Default common head length
+     */
+    private final int prefix;
+    /**
+     * Default common tail length
+     */
+    private final int suffix;
+    /**
+     * Default number of distinct identifiers
+     */
+    private final int size;
+    /**
+     * Default encoded original sequence
+     */
+    private final int[] original;
+    /**
+     * Default encoded revised sequence
+     */
+    private final int[] revised;
+    /**
+     * Default position matcher of non-interned sequences ({@code null} if interned)
+     */
+    private final PositionMatcher matcher;
+
+    private DiffSequence(int prefix, int suffix, int size, final int[] original, final int[] revised, final PositionMatcher matcher) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.size = size;
+        this.original = original;
+        this.revised = revised;
+        this.matcher = matcher;
+    }
+
+    /**
+     * Returns {@link DiffSequence} by original and revised sequences,
+     * elements are interned by {@link Object#hashCode()} / {@link Object#equals(Object)}
+     *
+     * @param <T>      type of sequence element
+     * @param original - initial input original sequence
+     * @param revised  - initial input revised sequence
+     * @return {@link DiffSequence}
+     * @throws IllegalArgumentException if original is {@code null}
+     * @throws IllegalArgumentException if revised is {@code null}
+     */
+    public static <T> DiffSequence of(final List<T> original, final List<T> revised) {
+        return of(original, revised, Function.identity());
+    }
+
+    /**
+     * Returns {@link DiffSequence} by original and revised sequences,
+     * elements are interned by {@link Object#hashCode()} / {@link Object#equals(Object)} of their keys
+     * <p>
+     * Supports any equality-compatible comparison (e.g. case-insensitive lines by lower-cased key)
+     * in {@code O(N)} expected time.
+     *
+     * @param <T>      type of sequence element
+     * @param original - initial input original sequence
+     * @param revised  - initial input revised sequence
+     * @param key      - initial input element key {@link Function}
+     * @return {@link DiffSequence}
+     * @throws IllegalArgumentException if original is {@code null}
+     * @throws IllegalArgumentException if revised is {@code null}
+     * @throws IllegalArgumentException if key is {@code null}
+     */
+    public static <T> DiffSequence of(final List<T> original, final List<T> revised, final Function<? super T, ?> key) {
+        ValidationUtils.notNull(original, "Original sequence should not be null");
+        ValidationUtils.notNull(revised, "Revised sequence should not be null");
+        ValidationUtils.notNull(key, "Key function should not be null");
+
+        final BiMatcher<T> matcher = (first, last) -> Objects.equals(key.apply(first), key.apply(last));
+        final int prefix = prefix(original, revised, matcher);
+        final int suffix = suffix(original, revised, prefix, matcher);
+        final Map<Object, Integer> ids = new HashMap<>();
+        final int[] first = new int[original.size() - prefix - suffix];
+        final int[] last = new int[revised.size() - prefix - suffix];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = ids.computeIfAbsent(key.apply(original.get(prefix + i)), value -> ids.size());
+        }
+        for (int j = 0; j < last.length; j++) {
+            last[j] = ids.computeIfAbsent(key.apply(revised.get(prefix + j)), value -> ids.size());
+        }
+        return new DiffSequence(prefix, suffix, ids.size(), first, last, null);
+    }
+
+    /**
+     * Returns non-interned {@link DiffSequence} by original and revised sequences compared by {@link BiMatcher}
+     * <p>
+     * An arbitrary {@link BiMatcher} provides neither hash codes nor any guarantee to be an equivalence relation
+     * (it may be non-transitive, e.g. a tolerance comparison), so elements can neither be interned in linear time
+     * nor safely merged into shared identifiers. Every element gets a unique identifier instead and
+     * positions are compared pairwise by {@link #matches(int, int)}; use {@link #of(List, List, Function)}
+     * for equality-compatible comparisons.
+     *
+     * @param <T>      type of sequence element
+     * @param original - initial input original sequence
+     * @param revised  - initial input revised sequence
+     * @param matcher  - initial input {@link BiMatcher}
+     * @return {@link DiffSequence}
+     * @throws IllegalArgumentException if original is {@code null}
+     * @throws IllegalArgumentException if revised is {@code null}
+     * @throws IllegalArgumentException if matcher is {@code null}
+     */
+    public static <T> DiffSequence of(final List<T> original, final List<T> revised, final BiMatcher<T> matcher) {
+        ValidationUtils.notNull(original, "Original sequence should not be null");
+        ValidationUtils.notNull(revised, "Revised sequence should not be null");
+        ValidationUtils.notNull(matcher, "Matcher should not be null");
+
+        final int prefix = prefix(original, revised, matcher);
+        final int suffix = suffix(original, revised, prefix, matcher);
+        final int[] first = new int[original.size() - prefix - suffix];
+        final int[] last = new int[revised.size() - prefix - suffix];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = i;
+        }
+        for (int j = 0; j < last.length; j++) {
+            last[j] = first.length + j;
+        }
+        final PositionMatcher positions = (i, j) -> matcher.matches(original.get(prefix + i), revised.get(prefix + j));
+        return new DiffSequence(prefix, suffix, first.length + last.length, first, last, positions);
+    }
+
+    /**
+     * Returns binary flag whether elements at input positions of encoded original and revised sequences match
+     *
+     * @param i - initial input position of encoded original sequence
+     * @param j - initial input position of encoded revised sequence
+     * @return true - if elements match, false - otherwise
+     */
+    public boolean matches(int i, int j) {
+        if (Objects.isNull(this.matcher)) {
+            return this.original[i] == this.revised[j];
+        }
+        return this.matcher.matches(i, j);
+    }
+
+    /**
+     * Returns binary flag whether elements are interned (equal elements share the same identifier)
+     *
+     * @return true - if elements are interned, false - otherwise
+     */
+    public boolean isInterned() {
+        return Objects.isNull(this.matcher);
+    }
+
+    /**
+     * Returns common head length
+     *
+     * @return common head length
+     */
+    public int getPrefix() {
+        return this.prefix;
+    }
+
+    /**
+     * Returns common tail length
+     *
+     * @return common tail length
+     */
+    public int getSuffix() {
+        return this.suffix;
+    }
+
+    /**
+     * Returns number of distinct identifiers, identifiers are in range [0, size)
+     *
+     * @return number of distinct identifiers
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns encoded original sequence
+     *
+     * @return encoded original sequence
+     */
+    public int[] getOriginal() {
+        return this.original;
+    }
+
+    /**
+     * Returns encoded revised sequence
+     *
+     * @return encoded revised sequence
+     */
+    public int[] getRevised() {
+        return this.revised;
+    }
+
+    private static <T> int prefix(final List<T> original, final List<T> revised, final BiMatcher<T> matcher) {
+        final int max = Math.min(original.size(), revised.size());
+        int i = 0;
+        while (i < max && matcher.matches(original.get(i), revised.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static <T> int suffix(final List<T> original, final List<T> revised, int prefix, final BiMatcher<T> matcher) {
+        final int max = Math.min(original.size(), revised.size()) - prefix;
+        int i = 0;
+        while (i < max && matcher.matches(original.get(original.size() - i - 1), revised.get(revised.size() - i - 1))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Position matcher of non-interned sequences
+     */
+    @FunctionalInterface
+    private interface PositionMatcher {
+        boolean matches(int i, int j);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Intra-line changes of a changed block of lines
+ * <p>
+ * Ranges address characters of the lines of the original / revised chunks, blocks exceeding
+ * the refinement bound are skipped and have no ranges.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public final class InlineDiff {
+
+    /**
+     * Default skipped inline diff
+     */
+    private static final InlineDiff SKIPPED = new InlineDiff(Collections.emptyList(), Collections.emptyList(), true);
+
+    /**
+     * Default changed {@link Range}s of the original lines
+     */
+    public final List<Range> original;
+    /**
+     * Default changed {@link Range}s of the revised lines
+     */
+    public final List<Range> revised;
+    /**
+     * Default skipped flag, {@code true} if the block exceeded the refinement bound
+     */
+    public final boolean skipped;
+
+    /**
+     * Builds a new instance.
+     *
+     * @param original the changed ranges of the original lines.
+     * @param revised  the changed ranges of the revised lines.
+     */
+    public InlineDiff(final List<Range> original, final List<Range> revised) {
+        this(original, revised, false);
+    }
+
+    private InlineDiff(final List<Range> original, final List<Range> revised, boolean skipped) {
+        this.original = Collections.unmodifiableList(original);
+        this.revised = Collections.unmodifiableList(revised);
+        this.skipped = skipped;
+    }
+
+    public static InlineDiff skipped() {
+        return SKIPPED;
+    }
+
+    /**
+     * Changed range of characters [from, to) of a line
+     */
+    public static final class Range {
+        /**
+         * Default line index within the chunk
+         */
+        public final int line;
+        /**
+         * Default start column (inclusive)
+         */
+        public final int from;
+        /**
+         * Default end column (exclusive)
+         */
+        public final int to;
+
+        /**
+         * Builds a new instance.
+         *
+         * @param line the line index within the chunk.
+         * @param from the start column (inclusive).
+         * @param to   the end column (exclusive).
+         */
+        public Range(int line, int from, int to) {
+            this.line = line;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Range)) {
+                return false;
+            }
+            final Range that = (Range) other;
+            return this.line == that.line && this.from == that.from && this.to == that.to;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * this.line + this.from) + this.to;
+        }
+
+        @Override
+        public String toString() {
+            return this.line + ":[" + this.from + ", " + this.to + ")";
+        }
+    }
+}
@@ -24,6 +24,9 @@
 package com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces;
 
 import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Patch;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.CompactPatch;
+
+import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.listOf;
 
 /**
  * Copy from https://code.google.com/p/java-diff-utils/.
@@ -44,4 +47,16 @@ public interface DiffAlgorithm<T> {
      * @return The patch representing the diff of the given sequences. Never {@code null}.
      */
     Patch<T> diff(final Iterable<T> original, final Iterable<T> revised);
+
+    /**
+     * Computes the difference between the original sequence and the revised
+     * sequence and returns it as a {@link CompactPatch} object bound to the original sequence.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @return The compact patch representing the diff of the given sequences. Never {@code null}.
+     */
+    default CompactPatch<T> diffCompact(final Iterable<T> original, final Iterable<T> revised) {
+        return CompactPatch.of(listOf(original), this.diff(original, revised));
+    }
 }
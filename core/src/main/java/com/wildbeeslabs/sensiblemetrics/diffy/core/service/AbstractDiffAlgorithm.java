@@ -0,0 +1,290 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Chunk;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultChunk;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.ChangeDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.DeleteDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.InsertDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.CompactPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.DiffSequence;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.BiMatcher;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.copyOf;
+import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.listOf;
+
+/**
+ * Abstract {@link DiffAlgorithm} implementation
+ * <p>
+ * The common head / tail of both sequences is stripped and the remaining elements are interned
+ * to int identifiers by {@link DiffSequence}. Subclasses compare the encoded sequences and mark
+ * deleted positions of the original sequence and inserted positions of the revised sequence,
+ * the resulting {@link DefaultPatch} is built from those marks with the original offsets.
+ *
+ * @param <T> type of difference value
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public abstract class AbstractDiffAlgorithm<T> implements DiffAlgorithm<T> {
+
+    /**
+     * Default {@link BiMatcher}
+     */
+    private final BiMatcher<T> matcher;
+    /**
+     * Default element key {@link Function} to intern elements by ({@code null} if compared by {@link BiMatcher} only)
+     */
+    private final Function<? super T, ?> key;
+
+    /**
+     * Creates difference algorithm comparing elements by {@link Object#equals(Object)}
+     */
+    public AbstractDiffAlgorithm() {
+        this.matcher = Objects::equals;
+        this.key = Function.identity();
+    }
+
+    /**
+     * Creates difference algorithm with initial input {@link BiMatcher},
+     * elements are not interned and compared pairwise
+     *
+     * @param matcher - initial input {@link BiMatcher}
+     * @throws IllegalArgumentException if matcher is {@code null}
+     */
+    public AbstractDiffAlgorithm(final BiMatcher<T> matcher) {
+        ValidationUtils.notNull(matcher, "Matcher should not be null");
+        this.matcher = matcher;
+        this.key = null;
+    }
+
+    /**
+     * Creates difference algorithm comparing elements by {@link Object#equals(Object)} of their keys,
+     * elements are interned by hashing
+     *
+     * @param key - initial input element key {@link Function}
+     * @throws IllegalArgumentException if key is {@code null}
+     */
+    protected AbstractDiffAlgorithm(final Function<? super T, ?> key) {
+        ValidationUtils.notNull(key, "Key function should not be null");
+        this.matcher = (first, last) -> Objects.equals(key.apply(first), key.apply(last));
+        this.key = key;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Return empty diff if get the error while procession the difference.
+     *
+     * @throws IllegalArgumentException if original is {@code null}
+     * @throws IllegalArgumentException if revised is {@code null}
+     */
+    @Override
+    public DefaultPatch<T> diff(final Iterable<T> original, final Iterable<T> revised) {
+        ValidationUtils.notNull(original, "Original list must not be null");
+        ValidationUtils.notNull(revised, "Revised list must not be null");
+
+        try {
+            final List<T> first = listOf(original);
+            final List<T> last = listOf(revised);
+            final DiffSequence sequence = this.encode(first, last);
+            final BitSet deleted = new BitSet(sequence.getOriginal().length);
+            final BitSet inserted = new BitSet(sequence.getRevised().length);
+            final boolean approximate = this.computeChanges(sequence, deleted, inserted);
+            final DefaultPatch<T> patch = this.buildRevision(first, last, sequence.getPrefix(), deleted, inserted);
+            patch.setApproximate(approximate);
+            return patch;
+        } catch (IllegalStateException e) {
+            return new DefaultPatch<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ranges are built from the marked positions directly, deleted elements are not copied.
+     * Return empty diff if get the error while procession the difference.
+     *
+     * @throws IllegalArgumentException if original is {@code null}
+     * @throws IllegalArgumentException if revised is {@code null}
+     */
+    @Override
+    public CompactPatch<T> diffCompact(final Iterable<T> original, final Iterable<T> revised) {
+        ValidationUtils.notNull(original, "Original list must not be null");
+        ValidationUtils.notNull(revised, "Revised list must not be null");
+
+        final List<T> first = listOf(original);
+        final List<T> last = listOf(revised);
+        try {
+            final DiffSequence sequence = this.encode(first, last);
+            final BitSet deleted = new BitSet(sequence.getOriginal().length);
+            final BitSet inserted = new BitSet(sequence.getRevised().length);
+            final boolean approximate = this.computeChanges(sequence, deleted, inserted);
+            final CompactPatch.Builder<T> builder = new CompactPatch.Builder<T>().approximate(approximate);
+            this.buildRanges(first.size(), last.size(), sequence.getPrefix(), deleted, inserted,
+                (ianchor, i, janchor, j) -> builder.add(ianchor, i - ianchor, last.subList(janchor, j)));
+            return builder.build(first);
+        } catch (IllegalStateException e) {
+            return new CompactPatch.Builder<T>().build(first);
+        }
+    }
+
+    /**
+     * Returns {@link DiffSequence} by original and revised sequences
+     *
+     * @param original The original sequence.
+     * @param revised  The revised sequence.
+     * @return {@link DiffSequence}
+     */
+    protected DiffSequence encode(final List<T> original, final List<T> revised) {
+        if (Objects.nonNull(this.key)) {
+            return DiffSequence.of(original, revised, this.key);
+        }
+        return DiffSequence.of(original, revised, this.matcher);
+    }
+
+    /**
+     * Marks positions of the encoded original sequence to be deleted and positions
+     * of the encoded revised sequence to be inserted
+     *
+     * @param sequence The encoded sequences.
+     * @param deleted  The deleted positions of the encoded original sequence.
+     * @param inserted The inserted positions of the encoded revised sequence.
+     * @return {@code true} if marked positions were completed by a fallback heuristic, {@code false} otherwise
+     */
+    protected abstract boolean computeChanges(final DiffSequence sequence, final BitSet deleted, final BitSet inserted);
+
+    /**
+     * Returns {@link BiMatcher} instance
+     *
+     * @return {@link BiMatcher} instance
+     */
+    public BiMatcher<T> getMatcher() {
+        return this.matcher;
+    }
+
+    /**
+     * Constructs {@link DefaultPatch} from deleted and inserted positions
+     *
+     * @param original The original sequence.
+     * @param revised  The revised sequence.
+     * @param offset   The offset of the marked positions in both sequences.
+     * @param deleted  The deleted positions of the original sequence.
+     * @param inserted The inserted positions of the revised sequence.
+     * @return A {@link DefaultPatch} script corresponding to the marked positions.
+     * @throws IllegalStateException if marked positions are inconsistent
+     */
+    protected DefaultPatch<T> buildRevision(final List<T> original, final List<T> revised, int offset, final BitSet deleted, final BitSet inserted) {
+        ValidationUtils.notNull(original, "Original sequence should not be null");
+        ValidationUtils.notNull(revised, "Revised sequence should not be null");
+
+        final DefaultPatch<T> patch = new DefaultPatch<>();
+        this.buildRanges(original.size(), revised.size(), offset, deleted, inserted,
+            (ianchor, i, janchor, j) -> patch.addDelta(this.createDelta(new DefaultChunk<>(ianchor, copyOf(original, ianchor, i)), new DefaultChunk<>(janchor, copyOf(revised, janchor, j)))));
+        return patch;
+    }
+
+    /**
+     * Passes changed ranges [ianchor, i) of the original sequence and [janchor, j) of the revised sequence
+     * to the given consumer in ascending order
+     *
+     * @param N        The length of the original sequence.
+     * @param M        The length of the revised sequence.
+     * @param offset   The offset of the marked positions in both sequences.
+     * @param deleted  The deleted positions of the original sequence.
+     * @param inserted The inserted positions of the revised sequence.
+     * @param consumer The changed ranges consumer.
+     * @throws IllegalStateException if marked positions are inconsistent
+     */
+    private void buildRanges(int N, int M, int offset, final BitSet deleted, final BitSet inserted, final RangeConsumer consumer) {
+        int i = offset;
+        int j = offset;
+        while (i < N || j < M) {
+            final int nextDeleted = deleted.nextSetBit(i - offset);
+            final int nextInserted = inserted.nextSetBit(j - offset);
+            final int skip = Math.min(nextDeleted < 0 ? N - i : nextDeleted + offset - i, nextInserted < 0 ? M - j : nextInserted + offset - j);
+            i += skip;
+            j += skip;
+
+            final int ianchor = i;
+            final int janchor = j;
+            while (i < N && deleted.get(i - offset)) {
+                i++;
+            }
+            while (j < M && inserted.get(j - offset)) {
+                j++;
+            }
+            if (ianchor == i && janchor == j) {
+                if (i < N || j < M) {
+                    throw new IllegalStateException("ERROR: inconsistent edit script");
+                }
+                break;
+            }
+            consumer.accept(ianchor, i, janchor, j);
+        }
+    }
+
+    /**
+     * Returns {@link Delta} by original and revised {@link Chunk}s
+     *
+     * @param original The original chunk.
+     * @param revised  The revised chunk.
+     * @return {@link Delta} of the corresponding type
+     */
+    protected Delta<T> createDelta(final Chunk<T> original, final Chunk<T> revised) {
+        if (original.size() == 0 && revised.size() != 0) {
+            return new InsertDelta<>(original, revised);
+        } else if (original.size() > 0 && revised.size() == 0) {
+            return new DeleteDelta<>(original, revised);
+        }
+        return new ChangeDelta<>(original, revised);
+    }
+
+    /**
+     * Changed ranges consumer
+     */
+    @FunctionalInterface
+    private interface RangeConsumer {
+
+        /**
+         * Consumes changed ranges [ianchor, i) of the original sequence and [janchor, j) of the revised sequence
+         *
+         * @param ianchor The start of the original range.
+         * @param i       The end of the original range.
+         * @param janchor The start of the revised range.
+         * @param j       The end of the revised range.
+         */
+        void accept(int ianchor, int i, int janchor, int j);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Patch;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.BatchDiffResult;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.DiffPair;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Batch diff service implementation
+ * <p>
+ * Diffs independent {@link DiffPair}s in parallel on a {@link ForkJoinPool}, larger pairs are scheduled first,
+ * so that long-running diffs do not end up at the tail of the batch. The {@link DiffAlgorithm} is shared by
+ * all workers and should be stateless.
+ *
+ * @param <T> type of sequence element
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class BatchDiffService<T> {
+
+    /**
+     * Default {@link DiffAlgorithm}
+     */
+    private final DiffAlgorithm<T> algorithm;
+    /**
+     * Default {@link ForkJoinPool}
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Default batch diff service constructor with Myers differencing algorithm on the common pool
+     */
+    public BatchDiffService() {
+        this(new DiffAlgorithmService<>());
+    }
+
+    /**
+     * Batch diff service constructor with initial {@link DiffAlgorithm} on the common pool
+     *
+     * @param algorithm - initial input {@link DiffAlgorithm}
+     */
+    public BatchDiffService(final DiffAlgorithm<T> algorithm) {
+        this(algorithm, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Batch diff service constructor with initial {@link DiffAlgorithm} and {@link ForkJoinPool}
+     *
+     * @param algorithm - initial input {@link DiffAlgorithm}
+     * @param pool      - initial input {@link ForkJoinPool}
+     */
+    public BatchDiffService(final DiffAlgorithm<T> algorithm, final ForkJoinPool pool) {
+        ValidationUtils.notNull(algorithm, "Difference algorithm should not be null");
+        ValidationUtils.notNull(pool, "Pool should not be null");
+
+        this.algorithm = algorithm;
+        this.pool = pool;
+    }
+
+    /**
+     * Diffs the given pairs and passes each {@link BatchDiffResult} to the callback as soon as it is completed,
+     * the callback is invoked from worker threads and should be thread-safe. Returns once all pairs are completed.
+     *
+     * @param pairs    - initial input {@link Collection} of {@link DiffPair}s
+     * @param callback - initial input {@link BatchDiffResult} {@link Consumer}
+     */
+    public void diff(final Collection<DiffPair<T>> pairs, final Consumer<? super BatchDiffResult<T>> callback) {
+        ValidationUtils.notNull(callback, "Callback should not be null");
+
+        for (final ForkJoinTask<?> task : this.submit(pairs, callback)) {
+            task.join();
+        }
+    }
+
+    /**
+     * Diffs the given pairs and returns sequential {@link Stream} of {@link BatchDiffResult}s in completion order,
+     * the stream blocks until the next result is available
+     *
+     * @param pairs - initial input {@link Collection} of {@link DiffPair}s
+     * @return {@link Stream} of {@link BatchDiffResult}s
+     */
+    public Stream<BatchDiffResult<T>> diff(final Collection<DiffPair<T>> pairs) {
+        final BlockingQueue<BatchDiffResult<T>> results = new LinkedBlockingQueue<>();
+        final int size = this.submit(pairs, results::add).size();
+        final Iterator<BatchDiffResult<T>> iterator = new Iterator<>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return this.count < size;
+            }
+
+            @Override
+            public BatchDiffResult<T> next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    final BatchDiffResult<T> result = results.take();
+                    this.count++;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("ERROR: interrupted while waiting for batch diff result", e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterator, size, Spliterator.SIZED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Submits diff tasks of the given pairs ordered by descending size
+     *
+     * @param pairs    - initial input {@link Collection} of {@link DiffPair}s
+     * @param callback - initial input {@link BatchDiffResult} {@link Consumer}
+     * @return {@link List} of submitted {@link ForkJoinTask}s
+     */
+    private List<ForkJoinTask<?>> submit(final Collection<DiffPair<T>> pairs, final Consumer<? super BatchDiffResult<T>> callback) {
+        ValidationUtils.notNull(pairs, "Pairs should not be null");
+
+        final List<DiffPair<T>> items = new ArrayList<>(pairs);
+        items.forEach(pair -> ValidationUtils.notNull(pair, "Pair should not be null"));
+        final List<Integer> order = IntStream.range(0, items.size())
+            .boxed()
+            .sorted(Comparator.comparingInt((Integer index) -> items.get(index).size()).reversed())
+            .collect(Collectors.toList());
+
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(items.size());
+        for (final Integer index : order) {
+            final ForkJoinTask<?> task = ForkJoinTask.adapt(() -> callback.accept(this.diff(index, items.get(index))));
+            this.pool.execute(task);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns timed {@link BatchDiffResult} of the given pair, any {@link Throwable} raised by the algorithm
+     * is reported as a failed result, so that every submitted pair yields exactly one result
+     *
+     * @param index - initial input index of the pair in the batch
+     * @param pair  - initial input {@link DiffPair}
+     * @return {@link BatchDiffResult}
+     */
+    private BatchDiffResult<T> diff(int index, final DiffPair<T> pair) {
+        final long start = System.nanoTime();
+        try {
+            final Patch<T> patch = this.algorithm.diff(pair.getOriginal(), pair.getRevised());
+            return new BatchDiffResult<>(index, pair, patch, null, Duration.ofNanos(System.nanoTime() - start));
+        } catch (Throwable e) {
+            return new BatchDiffResult<>(index, pair, null, e, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
@@ -23,43 +23,317 @@
  */
 package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
 
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.BinaryDiffResult;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Compares the binary content of two input streams / paths
  */
 public class BinaryDiff {
 
+    /**
+     * Default block size (in bytes) of mapped content
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 26;
+    /**
+     * Default buffer size (in bytes) of streamed content
+     */
+    public static final int DEFAULT_STREAM_BUFFER_SIZE = 1 << 16;
+    /**
+     * Default EOF marker
+     */
+    private static final int EOF = -1;
+
+    /**
+     * Block size (in bytes) of mapped content
+     */
+    private final int blockSize;
+
+    /**
+     * Default binary diff constructor
+     */
+    public BinaryDiff() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Binary diff constructor with initial block size
+     *
+     * @param blockSize - initial input block size (in bytes) of mapped content
+     */
+    public BinaryDiff(int blockSize) {
+        ValidationUtils.isTrue(blockSize > 0, "Block size should be positive");
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns {@link BinaryDiffResult} with the first differing byte of the given file and content
+     *
+     * @param actual   - initial input actual {@link File}
+     * @param expected - initial input expected content
+     * @return {@link BinaryDiffResult}
+     * @throws IOException if the content could not be read
+     */
     public BinaryDiffResult diff(final File actual, final byte[] expected) throws IOException {
         return this.diff(actual.toPath(), expected);
     }
 
+    /**
+     * Returns {@link BinaryDiffResult} with the first differing byte of the given path and content,
+     * comparison stops at the first mismatch
+     *
+     * @param actual   - initial input actual {@link Path}
+     * @param expected - initial input expected content
+     * @return {@link BinaryDiffResult}
+     * @throws IOException if the content could not be read
+     */
     public BinaryDiffResult diff(final Path actual, final byte[] expected) throws IOException {
-        final InputStream expectedStream = new ByteArrayInputStream(expected);
-        try (final InputStream actualStream = Files.newInputStream(actual)) {
-            return this.diff(actualStream, expectedStream);
+        try (final FileChannel actualChannel = FileChannel.open(actual, StandardOpenOption.READ)) {
+            return this.diff(this.blocksOf(actualChannel), actualChannel.size(), this.blocksOf(expected), expected.length, 1);
+        }
+    }
+
+    /**
+     * Returns {@link BinaryDiffResult} with all differing ranges of the given paths
+     *
+     * @param actual   - initial input actual {@link Path}
+     * @param expected - initial input expected {@link Path}
+     * @return {@link BinaryDiffResult}
+     * @throws IOException if the content could not be read
+     */
+    public BinaryDiffResult diff(final Path actual, final Path expected) throws IOException {
+        return this.diff(actual, expected, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns {@link BinaryDiffResult} with at most max ranges of the given paths,
+     * contents are memory-mapped and compared block by block
+     *
+     * @param actual    - initial input actual {@link Path}
+     * @param expected  - initial input expected {@link Path}
+     * @param maxRanges - initial input maximum number of differing ranges to report
+     * @return {@link BinaryDiffResult}
+     * @throws IOException if the content could not be read
+     */
+    public BinaryDiffResult diff(final Path actual, final Path expected, int maxRanges) throws IOException {
+        ValidationUtils.notNull(actual, "Actual path should not be null");
+        ValidationUtils.notNull(expected, "Expected path should not be null");
+        ValidationUtils.isTrue(maxRanges > 0, "Max ranges should be positive");
+
+        try (final FileChannel actualChannel = FileChannel.open(actual, StandardOpenOption.READ);
+             final FileChannel expectedChannel = FileChannel.open(expected, StandardOpenOption.READ)) {
+            return this.diff(this.blocksOf(actualChannel), actualChannel.size(), this.blocksOf(expectedChannel), expectedChannel.size(), maxRanges);
         }
     }
 
+    /**
+     * Returns {@link BinaryDiffResult} with the first differing byte of the given streams,
+     * contents are buffered and compared block by block
+     *
+     * @param actualStream   - initial input actual {@link InputStream}
+     * @param expectedStream - initial input expected {@link InputStream}
+     * @return {@link BinaryDiffResult}
+     * @throws IOException if the content could not be read
+     */
     public BinaryDiffResult diff(final InputStream actualStream, final InputStream expectedStream) throws IOException {
-        int index = 0;
-        while (true) {
-            final int actual = actualStream.read();
-            final int expected = expectedStream.read();
-            if (actual == -1 && expected == -1) {
+        ValidationUtils.notNull(actualStream, "Actual stream should not be null");
+        ValidationUtils.notNull(expectedStream, "Expected stream should not be null");
+
+        final int size = Math.min(this.blockSize, DEFAULT_STREAM_BUFFER_SIZE);
+        final byte[] actualBuffer = new byte[size];
+        final byte[] expectedBuffer = new byte[size];
+        for (long position = 0; ; position += size) {
+            final int actualLength = actualStream.readNBytes(actualBuffer, 0, size);
+            final int expectedLength = expectedStream.readNBytes(expectedBuffer, 0, size);
+            final int index = Arrays.mismatch(actualBuffer, 0, actualLength, expectedBuffer, 0, expectedLength);
+            if (index >= 0) {
+                final int actual = (index < actualLength) ? actualBuffer[index] & 0xFF : EOF;
+                final int expected = (index < expectedLength) ? expectedBuffer[index] & 0xFF : EOF;
+                return new BinaryDiffResult(position + index, expected, actual);
+            }
+            if (actualLength < size) {
                 return BinaryDiffResult.noDiff();
             }
-            if (actual != expected) {
-                return new BinaryDiffResult(index, expected, actual);
+        }
+    }
+
+    /**
+     * Compares the given contents block by block, skipping equal bytes with {@link ByteBuffer#mismatch(ByteBuffer)}
+     *
+     * @param actual       - initial input actual {@link BlockSource}
+     * @param actualSize   - initial input actual content size
+     * @param expected     - initial input expected {@link BlockSource}
+     * @param expectedSize - initial input expected content size
+     * @param maxRanges    - initial input maximum number of differing ranges to report
+     * @return {@link BinaryDiffResult}
+     * @throws IOException if the content could not be read
+     */
+    private BinaryDiffResult diff(final BlockSource actual, long actualSize, final BlockSource expected, long expectedSize, int maxRanges) throws IOException {
+        final RangeCollector collector = new RangeCollector(maxRanges);
+        final long common = Math.min(actualSize, expectedSize);
+        long firstOffset = EOF;
+        int firstExpected = 0;
+        int firstActual = 0;
+
+        scan:
+        for (long position = 0; position < common; position += this.blockSize) {
+            final int length = (int) Math.min(this.blockSize, common - position);
+            final ByteBuffer actualBlock = actual.block(position, length);
+            final ByteBuffer expectedBlock = expected.block(position, length);
+            int index = actualBlock.mismatch(expectedBlock);
+            while (index >= 0) {
+                int end = index + 1;
+                while (end < length && actualBlock.get(end) != expectedBlock.get(end)) {
+                    end++;
+                }
+                if (firstOffset == EOF) {
+                    firstOffset = position + index;
+                    firstExpected = expectedBlock.get(index) & 0xFF;
+                    firstActual = actualBlock.get(index) & 0xFF;
+                }
+                if (!collector.add(position + index, position + end)) {
+                    break scan;
+                }
+                if (end == length) {
+                    break;
+                }
+                actualBlock.position(end);
+                expectedBlock.position(end);
+                final int next = actualBlock.mismatch(expectedBlock);
+                index = (next < 0) ? EOF : end + next;
+            }
+        }
+
+        if (actualSize != expectedSize && !collector.isComplete()) {
+            if (firstOffset == EOF) {
+                firstOffset = common;
+                firstExpected = (common < expectedSize) ? expected.block(common, 1).get(0) & 0xFF : EOF;
+                firstActual = (common < actualSize) ? actual.block(common, 1).get(0) & 0xFF : EOF;
+            }
+            collector.add(common, Math.max(actualSize, expectedSize));
+        }
+        if (firstOffset == EOF) {
+            return BinaryDiffResult.noDiff();
+        }
+        return new BinaryDiffResult(firstOffset, firstExpected, firstActual, collector.complete());
+    }
+
+    /**
+     * Returns {@link BlockSource} of the given {@link FileChannel} mapped in read-only mode
+     *
+     * @param channel - initial input {@link FileChannel}
+     * @return {@link BlockSource}
+     */
+    private BlockSource blocksOf(final FileChannel channel) {
+        return (position, length) -> channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    /**
+     * Returns {@link BlockSource} of the given byte array
+     *
+     * @param content - initial input byte array
+     * @return {@link BlockSource}
+     */
+    private BlockSource blocksOf(final byte[] content) {
+        ValidationUtils.notNull(content, "Content should not be null");
+        return (position, length) -> ByteBuffer.wrap(content, (int) position, length).slice();
+    }
+
+    /**
+     * Binary content block source
+     */
+    @FunctionalInterface
+    private interface BlockSource {
+
+        /**
+         * Returns {@link ByteBuffer} block of content at the given position
+         *
+         * @param position - initial input block position
+         * @param length   - initial input block length
+         * @return {@link ByteBuffer} block positioned at zero
+         * @throws IOException if the content could not be read
+         */
+        ByteBuffer block(long position, int length) throws IOException;
+    }
+
+    /**
+     * Differing ranges collector, merges adjacent ranges across block boundaries
+     */
+    private static final class RangeCollector {
+
+        /**
+         * Collected {@link BinaryDiffResult.Range}s
+         */
+        private final List<BinaryDiffResult.Range> ranges = new ArrayList<>();
+        /**
+         * Maximum number of ranges
+         */
+        private final int maxRanges;
+        /**
+         * Start offset of the pending range
+         */
+        private long start = EOF;
+        /**
+         * End offset (exclusive) of the pending range
+         */
+        private long end = EOF;
+        /**
+         * Completion flag, {@code true} if maximum number of ranges is reached
+         */
+        private boolean complete;
+
+        private RangeCollector(int maxRanges) {
+            this.maxRanges = maxRanges;
+        }
+
+        /**
+         * Adds the differing range [from, to)
+         *
+         * @param from - initial input start offset
+         * @param to   - initial input end offset (exclusive)
+         * @return {@code false} if maximum number of ranges is reached, {@code true} otherwise
+         */
+        private boolean add(long from, long to) {
+            if (from == this.end) {
+                this.end = to;
+                return true;
+            }
+            this.flush();
+            if (this.ranges.size() >= this.maxRanges) {
+                this.complete = true;
+                return false;
+            }
+            this.start = from;
+            this.end = to;
+            return true;
+        }
+
+        private boolean isComplete() {
+            return this.complete;
+        }
+
+        private List<BinaryDiffResult.Range> complete() {
+            this.flush();
+            return this.ranges;
+        }
+
+        private void flush() {
+            if (this.start != EOF) {
+                this.ranges.add(new BinaryDiffResult.Range(this.start, this.end - this.start));
+                this.start = EOF;
+                this.end = EOF;
             }
-            index++;
         }
     }
 }
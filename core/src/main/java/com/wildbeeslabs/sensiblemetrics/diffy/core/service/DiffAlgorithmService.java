@@ -23,92 +23,104 @@
  */
 package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
 
-import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Chunk;
-import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
-import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultChunk;
-import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
-import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.ChangeDelta;
-import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.DeleteDelta;
-import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.InsertDelta;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.node.DiffNode;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.node.HeuristicNode;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.node.PathNode;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.node.SnakeNode;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.DiffSequence;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
-import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.BiMatcher;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.BitSet;
 import java.util.Objects;
 
-import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.copyOf;
-import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils.listOf;
-
 /**
  * {@link DiffAlgorithm} service implementation
  *
  * @param <T> type of difference value
  */
-public class DiffAlgorithmService<T> implements DiffAlgorithm<T> {
+public class DiffAlgorithmService<T> extends AbstractDiffAlgorithm<T> {
 
     /**
-     * Default {@link BiMatcher}
+     * Default maximum edit distance (unbounded)
      */
-    private final BiMatcher<T> matcher;
+    public static final int DEFAULT_MAX_COST = Integer.MAX_VALUE;
+
+    /**
+     * Maximum edit distance to explore
+     */
+    private final int maxCost;
+    /**
+     * Maximum search {@link Duration} ({@code null} if unbounded)
+     */
+    private final Duration timeout;
 
     /**
      * Constructs an instance of the Myers differencing algorithm.
      */
     public DiffAlgorithmService() {
-        this.matcher = Objects::equals;
+        this(DEFAULT_MAX_COST, null);
+    }
+
+    /**
+     * Constructs an instance of the Myers differencing algorithm with cost budget,
+     * once either maximum edit distance or timeout is exceeded the furthest reaching path
+     * is completed by a single change (non-minimal, reported as approximate on the patch)
+     *
+     * @param maxCost - initial input maximum edit distance to explore
+     * @param timeout - initial input maximum search {@link Duration} ({@code null} if unbounded)
+     */
+    public DiffAlgorithmService(int maxCost, final Duration timeout) {
+        super();
+        ValidationUtils.isTrue(maxCost > 0, "Max cost should be positive");
+        ValidationUtils.isTrue(Objects.isNull(timeout) || !timeout.isNegative(), "Timeout should not be negative");
+        this.maxCost = maxCost;
+        this.timeout = timeout;
     }
 
     /**
      * {@inheritDoc}
-     * <p>
-     * Return empty diff if get the error while procession the difference.
-     * @throws IllegalArgumentException if original is {@code null}
-     * @throws IllegalArgumentException if revised is {@code null}
      */
     @Override
-    public DefaultPatch<T> diff(final Iterable<T> original, final Iterable<T> revised) {
-        ValidationUtils.notNull(original, "Original list must not be null");
-        ValidationUtils.notNull(revised, "Revised list must not be null");
-
-        try {
-            final List<T> first = listOf(original);
-            final List<T> last = listOf(revised);
-            final PathNode path = this.buildPath(first, last);
-            return this.buildRevision(path, first, last);
-        } catch (IllegalStateException e) {
-            return new DefaultPatch<>();
-        }
+    protected boolean computeChanges(final DiffSequence sequence, final BitSet deleted, final BitSet inserted) {
+        final PathNode path = this.buildPath(sequence.getOriginal(), sequence.getRevised());
+        this.buildRevision(path, deleted, inserted);
+        return path instanceof HeuristicNode;
     }
 
     /**
      * Computes the minimum diffpath that expresses de differences
      * between the original and revised sequences, according
-     * to Gene Myers differencing algorithm.
+     * to Gene Myers differencing algorithm. If the cost budget is exceeded
+     * the furthest reaching path is joined with the end of both sequences
+     * by a {@link HeuristicNode}.
      *
-     * @param original The original sequence.
-     * @param revised  The revised sequence.
+     * @param original The encoded original sequence.
+     * @param revised  The encoded revised sequence.
      * @return A minimum {@link PathNode Path} across the differences graph.
-     * @throws IllegalStateException if original is {@code null}
+     * @throws IllegalArgumentException if original is {@code null}
      * @throws IllegalArgumentException if revised is {@code null}
+     * @throws IllegalStateException    if diff path could not be found
      */
-    protected PathNode buildPath(final List<T> original, final List<T> revised) {
+    protected PathNode buildPath(final int[] original, final int[] revised) {
         ValidationUtils.notNull(original, "Original sequence should not be null");
         ValidationUtils.notNull(revised, "Revised sequence should not be null");
 
-        final int N = original.size();
-        final int M = revised.size();
+        final int N = original.length;
+        final int M = revised.length;
 
         final int MAX = N + M + 1;
         final int size = 1 + 2 * MAX;
         final int middle = size / 2;
         final PathNode diagonal[] = new PathNode[size];
 
+        final long deadline = Objects.isNull(this.timeout) ? 0 : System.nanoTime() + this.timeout.toNanos();
         diagonal[middle + 1] = new SnakeNode(0, -1, null);
         for (int d = 0; d < MAX; d++) {
+            if (d > 0 && (d > this.maxCost || (Objects.nonNull(this.timeout) && System.nanoTime() - deadline >= 0))) {
+                return this.buildFallbackPath(diagonal, middle, d - 1, N, M);
+            }
             for (int k = -d; k <= d; k += 2) {
                 final int kmiddle = middle + k;
                 final int kplus = kmiddle + 1;
@@ -127,7 +139,7 @@ public class DiffAlgorithmService<T> implements DiffAlgorithm<T> {
                 diagonal[kminus] = null;
                 int j = i - k;
                 PathNode node = new DiffNode(i, j, prev);
-                while (i < N && j < M && this.matcher.matches(original.get(i), revised.get(j))) {
+                while (i < N && j < M && original[i] == revised[j]) {
                     i++;
                     j++;
                 }
@@ -141,23 +153,39 @@ public class DiffAlgorithmService<T> implements DiffAlgorithm<T> {
     }
 
     /**
-     * Constructs {@link DefaultPatch} from a difference path
+     * Joins the furthest reaching path of the last explored edit distance with the end of both sequences
+     *
+     * @param diagonal The furthest reaching paths by diagonal.
+     * @param middle   The index of the zero diagonal.
+     * @param d        The last explored edit distance.
+     * @param N        The length of the original sequence.
+     * @param M        The length of the revised sequence.
+     * @return A non-minimal {@link PathNode Path} across the differences graph.
+     */
+    private PathNode buildFallbackPath(final PathNode[] diagonal, int middle, int d, int N, int M) {
+        PathNode best = diagonal[middle - d];
+        for (int k = -d + 2; k <= d; k += 2) {
+            final PathNode node = diagonal[middle + k];
+            if (node.origPos + node.revPos > best.origPos + best.revPos) {
+                best = node;
+            }
+        }
+        return new HeuristicNode(N, M, best);
+    }
+
+    /**
+     * Marks deleted and inserted positions from a difference path
      *
      * @param path     The path.
-     * @param original The original sequence.
-     * @param revised  The revised sequence.
-     * @return A {@link DefaultPatch} script corresponding to the path.
-     * @throws IllegalStateException if path is {@code null}
-     * @throws IllegalStateException if original is {@code null}
-     * @throws IllegalStateException if revised is {@code null}
+     * @param deleted  The deleted positions of the original sequence.
+     * @param inserted The inserted positions of the revised sequence.
+     * @throws IllegalArgumentException if path is {@code null}
+     * @throws IllegalStateException    if path is inconsistent
      */
-    protected DefaultPatch<T> buildRevision(final PathNode path, final List<T> original, final List<T> revised) {
+    protected void buildRevision(final PathNode path, final BitSet deleted, final BitSet inserted) {
         ValidationUtils.notNull(path, "Path node should not be null");
-        ValidationUtils.notNull(original, "Original sequence should not be null");
-        ValidationUtils.notNull(revised, "Revised sequence should not be null");
 
         PathNode root = path;
-        final DefaultPatch<T> patch = new DefaultPatch<>();
         if (root.isSnake()) {
             root = root.prev;
         }
@@ -172,22 +200,11 @@ public class DiffAlgorithmService<T> implements DiffAlgorithm<T> {
             int ianchor = root.origPos;
             int janchor = root.revPos;
 
-            final Chunk<T> orig = new DefaultChunk<>(ianchor, copyOf(original, ianchor, i));
-            final Chunk<T> rev = new DefaultChunk<>(janchor, copyOf(revised, janchor, j));
-            Delta<T> delta;
-            if (orig.size() == 0 && rev.size() != 0) {
-                delta = new InsertDelta<>(orig, rev);
-            } else if (orig.size() > 0 && rev.size() == 0) {
-                delta = new DeleteDelta<>(orig, rev);
-            } else {
-                delta = new ChangeDelta<>(orig, rev);
-            }
-
-            patch.addDelta(delta);
+            deleted.set(ianchor, i);
+            inserted.set(janchor, j);
             if (root.isSnake()) {
                 root = root.prev;
             }
         }
-        return patch;
     }
 }
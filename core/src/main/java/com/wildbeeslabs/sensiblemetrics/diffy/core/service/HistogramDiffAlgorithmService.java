@@ -0,0 +1,251 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.DiffSequence;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Histogram {@link DiffAlgorithm} service implementation
+ * <p>
+ * Extended patience difference algorithm: the revised sequence is scanned for the longest common region
+ * anchored on the least frequent element of the original sequence, the regions before and after it are
+ * processed the same way. Frequent elements (blank lines, braces, log prefixes) never become anchors,
+ * so repetitive inputs do not degrade to the quadratic behaviour of the greedy Myers algorithm.
+ * Regions with no anchor below {@link #getMaxChainLength()} occurrences fall back to {@link LinearDiffAlgorithmService}.
+ * <p>
+ * The result is not guaranteed to be minimal.
+ *
+ * @param <T> type of difference value
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class HistogramDiffAlgorithmService<T> extends AbstractDiffAlgorithm<T> {
+
+    /**
+     * Default maximum number of element occurrences to be considered as an anchor
+     */
+    public static final int DEFAULT_MAX_CHAIN_LENGTH = 64;
+
+    /**
+     * Default maximum number of element occurrences to be considered as an anchor
+     */
+    private final int maxChainLength;
+    /**
+     * Default fallback {@link LinearDiffAlgorithmService}
+     */
+    private final LinearDiffAlgorithmService<T> fallback;
+
+    /**
+     * Constructs an instance of the histogram differencing algorithm.
+     */
+    public HistogramDiffAlgorithmService() {
+        this(DEFAULT_MAX_CHAIN_LENGTH);
+    }
+
+    /**
+     * Constructs an instance of the histogram differencing algorithm with initial maximum chain length
+     *
+     * @param maxChainLength - initial input maximum number of element occurrences to be considered as an anchor
+     * @throws IllegalArgumentException if max chain length is not positive
+     */
+    public HistogramDiffAlgorithmService(int maxChainLength) {
+        super();
+        ValidationUtils.isTrue(maxChainLength > 0, "Max chain length should be positive");
+        this.maxChainLength = maxChainLength;
+        this.fallback = new LinearDiffAlgorithmService<>();
+    }
+
+    /**
+     * Returns maximum number of element occurrences to be considered as an anchor
+     *
+     * @return maximum number of element occurrences
+     */
+    public int getMaxChainLength() {
+        return this.maxChainLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean computeChanges(final DiffSequence sequence, final BitSet deleted, final BitSet inserted) {
+        final int[] original = sequence.getOriginal();
+        final int[] revised = sequence.getRevised();
+        final Histogram histogram = new Histogram(original, revised, sequence.getSize());
+        final Deque<int[]> regions = new ArrayDeque<>();
+        regions.push(new int[]{0, original.length, 0, revised.length});
+        while (!regions.isEmpty()) {
+            final int[] region = regions.pop();
+            int aLo = region[0];
+            int aHi = region[1];
+            int bLo = region[2];
+            int bHi = region[3];
+            while (aLo < aHi && bLo < bHi && original[aLo] == revised[bLo]) {
+                aLo++;
+                bLo++;
+            }
+            while (aLo < aHi && bLo < bHi && original[aHi - 1] == revised[bHi - 1]) {
+                aHi--;
+                bHi--;
+            }
+            if (aLo == aHi) {
+                inserted.set(bLo, bHi);
+            } else if (bLo == bHi) {
+                deleted.set(aLo, aHi);
+            } else {
+                final int[] anchor = histogram.findAnchor(aLo, aHi, bLo, bHi, this.maxChainLength);
+                if (Objects.isNull(anchor)) {
+                    this.fallback.computeChanges(sequence, aLo, aHi, bLo, bHi, deleted, inserted);
+                } else if (anchor[0] == anchor[1]) {
+                    deleted.set(aLo, aHi);
+                    inserted.set(bLo, bHi);
+                } else {
+                    regions.push(new int[]{anchor[1], aHi, anchor[3], bHi});
+                    regions.push(new int[]{aLo, anchor[0], bLo, anchor[2]});
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Occurrence index of the encoded original sequence region
+     */
+    private static final class Histogram {
+        /**
+         * Default encoded original / revised sequences
+         */
+        private final int[] original;
+        private final int[] revised;
+        /**
+         * Default last occurrence position by identifier
+         */
+        private final int[] heads;
+        /**
+         * Default previous occurrence position by position
+         */
+        private final int[] next;
+        /**
+         * Default number of occurrences up to position by position
+         */
+        private final int[] count;
+
+        private Histogram(final int[] original, final int[] revised, int size) {
+            this.original = original;
+            this.revised = revised;
+            this.heads = new int[size];
+            this.next = new int[original.length];
+            this.count = new int[original.length];
+            Arrays.fill(this.heads, -1);
+        }
+
+        /**
+         * Returns the longest common region anchored on the least frequent element as {@code [aStart, aEnd, bStart, bEnd]},
+         * empty region if both ranges have no common elements, or {@code null} if all common elements are too frequent
+         *
+         * @param aLo            - initial input original lower bound (inclusive)
+         * @param aHi            - initial input original upper bound (exclusive)
+         * @param bLo            - initial input revised lower bound (inclusive)
+         * @param bHi            - initial input revised upper bound (exclusive)
+         * @param maxChainLength - initial input maximum number of element occurrences to be considered as an anchor
+         * @return common region anchored on the least frequent element
+         */
+        private int[] findAnchor(int aLo, int aHi, int bLo, int bHi, int maxChainLength) {
+            for (int i = aLo; i < aHi; i++) {
+                final int head = this.heads[this.original[i]];
+                this.next[i] = head;
+                this.count[i] = head < 0 ? 1 : this.count[head] + 1;
+                this.heads[this.original[i]] = i;
+            }
+            try {
+                return this.findAnchor(aLo, aHi, bLo, bHi, maxChainLength, new int[]{aLo, aLo, bLo, bLo});
+            } finally {
+                for (int i = aLo; i < aHi; i++) {
+                    this.heads[this.original[i]] = -1;
+                }
+            }
+        }
+
+        private int[] findAnchor(int aLo, int aHi, int bLo, int bHi, int maxChainLength, final int[] best) {
+            boolean common = false;
+            int bestCount = maxChainLength;
+            int bestLength = 0;
+            for (int j = bLo; j < bHi; ) {
+                final int head = this.heads[this.revised[j]];
+                int nextJ = j + 1;
+                if (head >= 0) {
+                    common = true;
+                    if (this.count[head] <= bestCount) {
+                        for (int i = head; i >= 0; i = this.next[i]) {
+                            int aStart = i;
+                            int bStart = j;
+                            int aEnd = i + 1;
+                            int bEnd = j + 1;
+                            int regionCount = this.count[head];
+                            while (aStart > aLo && bStart > bLo && this.original[aStart - 1] == this.revised[bStart - 1]) {
+                                aStart--;
+                                bStart--;
+                                regionCount = Math.min(regionCount, this.occurrences(this.original[aStart]));
+                            }
+                            while (aEnd < aHi && bEnd < bHi && this.original[aEnd] == this.revised[bEnd]) {
+                                regionCount = Math.min(regionCount, this.occurrences(this.original[aEnd]));
+                                aEnd++;
+                                bEnd++;
+                            }
+                            if (bEnd > nextJ) {
+                                nextJ = bEnd;
+                            }
+                            if (regionCount < bestCount || (regionCount == bestCount && aEnd - aStart > bestLength)) {
+                                bestCount = regionCount;
+                                bestLength = aEnd - aStart;
+                                best[0] = aStart;
+                                best[1] = aEnd;
+                                best[2] = bStart;
+                                best[3] = bEnd;
+                            }
+                        }
+                    }
+                }
+                j = nextJ;
+            }
+            if (bestLength > 0) {
+                return best;
+            }
+            return common ? null : best;
+        }
+
+        private int occurrences(int value) {
+            return this.count[this.heads[value]];
+        }
+    }
+}
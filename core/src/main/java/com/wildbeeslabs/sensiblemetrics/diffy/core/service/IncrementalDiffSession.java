@@ -0,0 +1,298 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Chunk;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultChunk;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.ChangeDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.DeleteDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.InsertDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental diff session implementation
+ * <p>
+ * Holds the original sequence, the current revised sequence and the last computed deltas. A localized edit
+ * of the revised sequence is diffed against the corresponding window of the original sequence only,
+ * the window spans the edited range and all deltas touching it. Deltas outside of the window are kept,
+ * deltas after the window are shifted lazily: the session keeps a running offset of the deltas following
+ * the last edit, so an edit only touches the deltas between the previous and the current edit position
+ * and {@link #getPatch()} settles the offset. The resulting patch is always valid, but may be less minimal
+ * than a full diff; {@link #rebuild()} recomputes the whole patch.
+ * <p>
+ * Sessions are not thread-safe.
+ *
+ * @param <T> type of sequence element
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class IncrementalDiffSession<T> {
+
+    /**
+     * Default {@link DiffAlgorithm}
+     */
+    private final DiffAlgorithm<T> algorithm;
+    /**
+     * Default original sequence
+     */
+    private final List<T> original;
+    /**
+     * Default revised sequence
+     */
+    private final List<T> revised;
+    /**
+     * Default {@link List} of {@link Delta}s ordered by position
+     */
+    private final List<Delta<T>> deltas = new ArrayList<>();
+    /**
+     * Default index of the first delta with pending revised offset
+     */
+    private int pendingIndex;
+    /**
+     * Default pending revised offset of deltas starting at {@link #pendingIndex}
+     */
+    private int pendingShift;
+
+    /**
+     * Incremental diff session constructor with Myers differencing algorithm
+     *
+     * @param original - initial input original sequence
+     * @param revised  - initial input revised sequence
+     */
+    public IncrementalDiffSession(final List<T> original, final List<T> revised) {
+        this(original, revised, new DiffAlgorithmService<>());
+    }
+
+    /**
+     * Incremental diff session constructor with initial {@link DiffAlgorithm}
+     *
+     * @param original  - initial input original sequence
+     * @param revised   - initial input revised sequence
+     * @param algorithm - initial input {@link DiffAlgorithm}
+     */
+    public IncrementalDiffSession(final List<T> original, final List<T> revised, final DiffAlgorithm<T> algorithm) {
+        ValidationUtils.notNull(original, "Original list should not be null");
+        ValidationUtils.notNull(revised, "Revised list should not be null");
+        ValidationUtils.notNull(algorithm, "Difference algorithm should not be null");
+
+        this.algorithm = algorithm;
+        this.original = new ArrayList<>(original);
+        this.revised = new ArrayList<>(revised);
+        this.rebuild();
+    }
+
+    /**
+     * Replaces range [from, to) of the revised sequence by the given elements and updates the deltas
+     *
+     * @param from        - initial input start of the replaced range (inclusive)
+     * @param to          - initial input end of the replaced range (exclusive)
+     * @param replacement - initial input replacement elements
+     * @throws IllegalArgumentException if range is out of revised sequence bounds
+     * @throws IllegalArgumentException if replacement is {@code null}
+     */
+    public void edit(int from, int to, final List<? extends T> replacement) {
+        ValidationUtils.isTrue(0 <= from && from <= to && to <= this.revised.size(), "Edit range should be within revised sequence bounds");
+        ValidationUtils.notNull(replacement, "Replacement should not be null");
+
+        // deltas touching [from, to] in revised coordinates before the edit
+        int first = this.firstTouching(from);
+        int last = first;
+        while (last < this.deltas.size() && this.revisedStart(last) <= to) {
+            last++;
+        }
+        int revisedStart = from;
+        int revisedEnd = to;
+        if (first < last) {
+            revisedStart = Math.min(revisedStart, this.revisedStart(first));
+            revisedEnd = Math.max(revisedEnd, this.revisedEnd(last - 1));
+        }
+        final int originalStart = this.toOriginal(revisedStart, first);
+        final int originalEnd = this.toOriginal(revisedEnd, last);
+
+        this.revised.subList(from, to).clear();
+        this.revised.addAll(from, replacement);
+        final int shift = replacement.size() - (to - from);
+
+        final List<Delta<T>> local = this.algorithm.diff(this.original.subList(originalStart, originalEnd), this.revised.subList(revisedStart, revisedEnd + shift)).getDeltas();
+        final List<Delta<T>> updated = new ArrayList<>(local.size());
+        for (final Delta<T> delta : local) {
+            updated.add(shift(delta, originalStart, revisedStart));
+        }
+        // move the start of the pending offset from the previous to the current edit, deltas before the edit
+        // are settled, deltas after the edit are stored relative to the combined offset
+        if (this.pendingShift == 0) {
+            this.pendingIndex = last;
+        }
+        for (int index = this.pendingIndex; index < first; index++) {
+            this.deltas.set(index, shift(this.deltas.get(index), 0, this.pendingShift));
+        }
+        for (int index = last; index < this.pendingIndex; index++) {
+            this.deltas.set(index, shift(this.deltas.get(index), 0, -this.pendingShift));
+        }
+        final List<Delta<T>> window = this.deltas.subList(first, last);
+        window.clear();
+        window.addAll(updated);
+        this.pendingIndex = first + updated.size();
+        this.pendingShift += shift;
+    }
+
+    /**
+     * Recomputes the whole patch
+     *
+     * @return recomputed {@link DefaultPatch}
+     */
+    public DefaultPatch<T> rebuild() {
+        this.deltas.clear();
+        this.deltas.addAll(this.algorithm.diff(this.original, this.revised).getDeltas());
+        this.pendingShift = 0;
+        return this.getPatch();
+    }
+
+    /**
+     * Returns current {@link DefaultPatch}
+     *
+     * @return current {@link DefaultPatch}
+     */
+    public DefaultPatch<T> getPatch() {
+        if (this.pendingShift != 0) {
+            for (int index = this.pendingIndex; index < this.deltas.size(); index++) {
+                this.deltas.set(index, shift(this.deltas.get(index), 0, this.pendingShift));
+            }
+            this.pendingShift = 0;
+        }
+        final DefaultPatch<T> patch = new DefaultPatch<>();
+        this.deltas.forEach(patch::addDelta);
+        return patch;
+    }
+
+    /**
+     * Returns unmodifiable original sequence
+     *
+     * @return original sequence
+     */
+    public List<T> getOriginal() {
+        return Collections.unmodifiableList(this.original);
+    }
+
+    /**
+     * Returns unmodifiable current revised sequence
+     *
+     * @return current revised sequence
+     */
+    public List<T> getRevised() {
+        return Collections.unmodifiableList(this.revised);
+    }
+
+    /**
+     * Returns index of the first delta with revised range ending at or after the given position
+     *
+     * @param position - initial input revised position
+     * @return index of the first touching delta
+     */
+    private int firstTouching(int position) {
+        int low = 0;
+        int high = this.deltas.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (this.revisedEnd(middle) < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Maps revised position outside of deltas to original position
+     *
+     * @param position - initial input revised position
+     * @param index    - initial input number of preceding deltas
+     * @return original position
+     */
+    private int toOriginal(int position, int index) {
+        if (index == 0) {
+            return position;
+        }
+        return end(this.deltas.get(index - 1).getOriginal()) + position - this.revisedEnd(index - 1);
+    }
+
+    /**
+     * Returns revised start position of the delta at the given index
+     *
+     * @param index - initial input delta index
+     * @return revised start position
+     */
+    private int revisedStart(int index) {
+        final int position = this.deltas.get(index).getRevised().getPosition();
+        return (index >= this.pendingIndex) ? position + this.pendingShift : position;
+    }
+
+    /**
+     * Returns revised end position (exclusive) of the delta at the given index
+     *
+     * @param index - initial input delta index
+     * @return revised end position
+     */
+    private int revisedEnd(int index) {
+        return this.revisedStart(index) + this.deltas.get(index).getRevised().size();
+    }
+
+    private static int end(final Chunk<?> chunk) {
+        return chunk.getPosition() + chunk.size();
+    }
+
+    /**
+     * Returns {@link Delta} with chunk positions shifted by the given offsets
+     *
+     * @param <T>            type of delta element
+     * @param delta          - initial input {@link Delta}
+     * @param originalOffset - initial input original position offset
+     * @param revisedOffset  - initial input revised position offset
+     * @return shifted {@link Delta}
+     */
+    private static <T> Delta<T> shift(final Delta<T> delta, int originalOffset, int revisedOffset) {
+        if (originalOffset == 0 && revisedOffset == 0) {
+            return delta;
+        }
+        final Chunk<T> original = new DefaultChunk<>(delta.getOriginal().getPosition() + originalOffset, delta.getOriginal().getLines());
+        final Chunk<T> revised = new DefaultChunk<>(delta.getRevised().getPosition() + revisedOffset, delta.getRevised().getLines());
+        switch (delta.getType()) {
+            case INSERT:
+                return new InsertDelta<>(original, revised);
+            case DELETE:
+                return new DeleteDelta<>(original, revised);
+            default:
+                return new ChangeDelta<>(original, revised);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Patch;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.RefinedChangeDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.InlineDiff;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inline diff refiner implementation
+ * <p>
+ * Replaces {@link Delta.TYPE#CHANGE} deltas of a line-level patch by {@link RefinedChangeDelta}s, which compute
+ * intra-line changes on first access by a second-level diff over the words or characters of the changed block.
+ * Blocks larger than the maximum block size (in characters of both chunks) are skipped.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class InlineDiffRefiner {
+
+    /**
+     * Default maximum block size (in characters of both chunks)
+     */
+    public static final int DEFAULT_MAX_BLOCK_SIZE = 10_000;
+
+    /**
+     * Refinement granularity
+     */
+    public enum Granularity {
+        /**
+         * Words, whitespace runs and single punctuation characters
+         */
+        WORD,
+        /**
+         * Single characters (code points)
+         */
+        CHARACTER
+    }
+
+    /**
+     * Default word token pattern
+     */
+    private static final Pattern WORD_PATTERN = Pattern.compile("\\w+|\\s+|[^\\w\\s]");
+    /**
+     * Default line separator token
+     */
+    private static final String LINE_SEPARATOR = "\n";
+
+    /**
+     * Default {@link Granularity}
+     */
+    private final Granularity granularity;
+    /**
+     * Default maximum block size
+     */
+    private final int maxBlockSize;
+    /**
+     * Default token {@link DiffAlgorithm}
+     */
+    private final DiffAlgorithm<String> algorithm;
+
+    /**
+     * Default inline diff refiner constructor with word granularity
+     */
+    public InlineDiffRefiner() {
+        this(Granularity.WORD, DEFAULT_MAX_BLOCK_SIZE);
+    }
+
+    /**
+     * Inline diff refiner constructor with initial {@link Granularity} and maximum block size
+     *
+     * @param granularity  - initial input {@link Granularity}
+     * @param maxBlockSize - initial input maximum block size (in characters of both chunks)
+     */
+    public InlineDiffRefiner(final Granularity granularity, int maxBlockSize) {
+        this(granularity, maxBlockSize, new LinearDiffAlgorithmService<>());
+    }
+
+    /**
+     * Inline diff refiner constructor with initial {@link Granularity}, maximum block size and token {@link DiffAlgorithm}
+     *
+     * @param granularity  - initial input {@link Granularity}
+     * @param maxBlockSize - initial input maximum block size (in characters of both chunks)
+     * @param algorithm    - initial input token {@link DiffAlgorithm}
+     */
+    public InlineDiffRefiner(final Granularity granularity, int maxBlockSize, final DiffAlgorithm<String> algorithm) {
+        ValidationUtils.notNull(granularity, "Granularity should not be null");
+        ValidationUtils.isTrue(maxBlockSize > 0, "Max block size should be positive");
+        ValidationUtils.notNull(algorithm, "Difference algorithm should not be null");
+
+        this.granularity = granularity;
+        this.maxBlockSize = maxBlockSize;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Returns {@link DefaultPatch} with change deltas replaced by lazily refined deltas
+     *
+     * @param patch - initial input {@link Patch}
+     * @return refined {@link DefaultPatch}
+     */
+    public DefaultPatch<String> refine(final Patch<String> patch) {
+        ValidationUtils.notNull(patch, "Patch should not be null");
+
+        final DefaultPatch<String> result = new DefaultPatch<>();
+        for (final Delta<String> delta : patch.getDeltas()) {
+            if (delta.getType() == Delta.TYPE.CHANGE && !(delta instanceof RefinedChangeDelta)) {
+                result.addDelta(new RefinedChangeDelta(delta.getOriginal(), delta.getRevised(), this::refine));
+            } else {
+                result.addDelta(delta);
+            }
+        }
+        if (patch instanceof DefaultPatch) {
+            result.setApproximate(((DefaultPatch<String>) patch).isApproximate());
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@link DefaultPatch} with change deltas refined eagerly in parallel
+     *
+     * @param patch - initial input {@link Patch}
+     * @return refined {@link DefaultPatch}
+     */
+    public DefaultPatch<String> refineAll(final Patch<String> patch) {
+        final DefaultPatch<String> result = this.refine(patch);
+        result.getDeltas()
+            .parallelStream()
+            .filter(RefinedChangeDelta.class::isInstance)
+            .forEach(delta -> ((RefinedChangeDelta) delta).getInlineDiff());
+        return result;
+    }
+
+    /**
+     * Returns {@link InlineDiff} of the given delta
+     *
+     * @param delta - initial input {@link Delta}
+     * @return {@link InlineDiff}, skipped if the block exceeds maximum block size
+     */
+    public InlineDiff refine(final Delta<String> delta) {
+        ValidationUtils.notNull(delta, "Delta should not be null");
+
+        final List<String> originalLines = delta.getOriginal().getLines();
+        final List<String> revisedLines = delta.getRevised().getLines();
+        final int length = length(originalLines) + length(revisedLines);
+        if (length > this.maxBlockSize) {
+            return InlineDiff.skipped();
+        }
+        final Tokens original = this.tokenize(originalLines);
+        final Tokens revised = this.tokenize(revisedLines);
+        final List<InlineDiff.Range> originalRanges = new ArrayList<>();
+        final List<InlineDiff.Range> revisedRanges = new ArrayList<>();
+        for (final Delta<String> tokenDelta : this.algorithm.diff(original.values, revised.values).getDeltas()) {
+            original.collect(tokenDelta.getOriginal().getPosition(), tokenDelta.getOriginal().size(), originalRanges);
+            revised.collect(tokenDelta.getRevised().getPosition(), tokenDelta.getRevised().size(), revisedRanges);
+        }
+        return new InlineDiff(originalRanges, revisedRanges);
+    }
+
+    private static int length(final List<String> lines) {
+        int length = 0;
+        for (final String line : lines) {
+            length += line.length();
+        }
+        return length;
+    }
+
+    /**
+     * Returns {@link Tokens} of the given lines, lines are separated by separator tokens
+     *
+     * @param lines - initial input lines
+     * @return {@link Tokens}
+     */
+    private Tokens tokenize(final List<String> lines) {
+        final Tokens tokens = new Tokens(length(lines) + lines.size());
+        for (int line = 0; line < lines.size(); line++) {
+            if (line > 0) {
+                tokens.add(LINE_SEPARATOR, -1, 0, 0);
+            }
+            final String value = lines.get(line);
+            if (this.granularity == Granularity.WORD) {
+                final Matcher matcher = WORD_PATTERN.matcher(value);
+                while (matcher.find()) {
+                    tokens.add(matcher.group(), line, matcher.start(), matcher.end());
+                }
+            } else {
+                for (int from = 0; from < value.length(); ) {
+                    final int to = from + Character.charCount(value.codePointAt(from));
+                    tokens.add(value.substring(from, to), line, from, to);
+                    from = to;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokens of a block of lines with their line / column positions
+     */
+    private static final class Tokens {
+
+        /**
+         * Default token values
+         */
+        private final List<String> values;
+        /**
+         * Default token lines ({@code -1} for line separators)
+         */
+        private final int[] lines;
+        /**
+         * Default token start columns
+         */
+        private final int[] starts;
+        /**
+         * Default token end columns
+         */
+        private final int[] ends;
+
+        private Tokens(int capacity) {
+            this.values = new ArrayList<>(capacity);
+            this.lines = new int[capacity];
+            this.starts = new int[capacity];
+            this.ends = new int[capacity];
+        }
+
+        private void add(final String value, int line, int start, int end) {
+            final int index = this.values.size();
+            this.values.add(value);
+            this.lines[index] = line;
+            this.starts[index] = start;
+            this.ends[index] = end;
+        }
+
+        /**
+         * Adds ranges of tokens [position, position + size) to the output, adjacent tokens of a line are merged
+         *
+         * @param position - initial input first token index
+         * @param size     - initial input number of tokens
+         * @param output   - initial input output {@link List} of ranges
+         */
+        private void collect(int position, int size, final List<InlineDiff.Range> output) {
+            for (int index = position; index < position + size; index++) {
+                if (this.lines[index] < 0) {
+                    continue;
+                }
+                final int last = output.size() - 1;
+                if (last >= 0 && output.get(last).line == this.lines[index] && output.get(last).to == this.starts[index]) {
+                    output.set(last, new InlineDiff.Range(this.lines[index], output.get(last).from, this.ends[index]));
+                } else {
+                    output.add(new InlineDiff.Range(this.lines[index], this.starts[index], this.ends[index]));
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.values + " " + Arrays.toString(this.lines);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.DiffSequence;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.BiMatcher;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Function;
+
+/**
+ * Linear space {@link DiffAlgorithm} service implementation
+ * <p>
+ * Computes the minimum difference by Gene Myers divide-and-conquer algorithm (middle snake bisection),
+ * only two diagonal vectors of size {@code O(N + M)} are allocated per difference.
+ *
+ * @param <T> type of difference value
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class LinearDiffAlgorithmService<T> extends AbstractDiffAlgorithm<T> {
+
+    /**
+     * Constructs an instance of the linear space Myers differencing algorithm.
+     */
+    public LinearDiffAlgorithmService() {
+        super();
+    }
+
+    /**
+     * Constructs an instance of the linear space Myers differencing algorithm with initial input {@link BiMatcher}
+     *
+     * @param matcher - initial input {@link BiMatcher}
+     */
+    public LinearDiffAlgorithmService(final BiMatcher<T> matcher) {
+        super(matcher);
+    }
+
+    private LinearDiffAlgorithmService(final Function<? super T, ?> key) {
+        super(key);
+    }
+
+    /**
+     * Returns linear space Myers differencing algorithm comparing elements by {@link Object#equals(Object)} of their keys
+     *
+     * @param <T> type of difference value
+     * @param key - initial input element key {@link Function}
+     * @return {@link LinearDiffAlgorithmService}
+     */
+    public static <T> LinearDiffAlgorithmService<T> byKey(final Function<? super T, ?> key) {
+        return new LinearDiffAlgorithmService<>(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean computeChanges(final DiffSequence sequence, final BitSet deleted, final BitSet inserted) {
+        this.computeChanges(sequence, 0, sequence.getOriginal().length, 0, sequence.getRevised().length, deleted, inserted);
+        return false;
+    }
+
+    /**
+     * Marks deleted / inserted positions of the encoded original range [aLo, aHi) and revised range [bLo, bHi)
+     *
+     * @param sequence - initial input encoded {@link DiffSequence}
+     * @param aLo      - initial input original lower bound (inclusive)
+     * @param aHi      - initial input original upper bound (exclusive)
+     * @param bLo      - initial input revised lower bound (inclusive)
+     * @param bHi      - initial input revised upper bound (exclusive)
+     * @param deleted  - initial input deleted positions of the original sequence
+     * @param inserted - initial input inserted positions of the revised sequence
+     */
+    void computeChanges(final DiffSequence sequence, int aLo, int aHi, int bLo, int bHi, final BitSet deleted, final BitSet inserted) {
+        final int size = 2 * ((aHi - aLo + bHi - bLo + 1) / 2) + 3;
+        new Bisection(sequence, deleted, inserted, size).compare(aLo, aHi, bLo, bHi);
+    }
+
+    /**
+     * Middle snake bisection state holding the reusable forward / backward diagonal vectors
+     */
+    private static final class Bisection {
+        /**
+         * Default encoded {@link DiffSequence}
+         */
+        private final DiffSequence sequence;
+        /**
+         * Default deleted / inserted positions
+         */
+        private final BitSet deleted;
+        private final BitSet inserted;
+        /**
+         * Default furthest reaching forward / backward positions by diagonal
+         */
+        private final int[] forward;
+        private final int[] backward;
+
+        private Bisection(final DiffSequence sequence, final BitSet deleted, final BitSet inserted, int size) {
+            this.sequence = sequence;
+            this.deleted = deleted;
+            this.inserted = inserted;
+            this.forward = new int[size];
+            this.backward = new int[size];
+        }
+
+        /**
+         * Compares original range [aLo, aHi) with revised range [bLo, bHi)
+         *
+         * @param aLo - initial input original lower bound (inclusive)
+         * @param aHi - initial input original upper bound (exclusive)
+         * @param bLo - initial input revised lower bound (inclusive)
+         * @param bHi - initial input revised upper bound (exclusive)
+         */
+        private void compare(int aLo, int aHi, int bLo, int bHi) {
+            while (aLo < aHi && bLo < bHi && this.matches(aLo, bLo)) {
+                aLo++;
+                bLo++;
+            }
+            while (aLo < aHi && bLo < bHi && this.matches(aHi - 1, bHi - 1)) {
+                aHi--;
+                bHi--;
+            }
+            if (aLo == aHi) {
+                this.inserted.set(bLo, bHi);
+            } else if (bLo == bHi) {
+                this.deleted.set(aLo, aHi);
+            } else {
+                this.bisect(aLo, aHi, bLo, bHi);
+            }
+        }
+
+        /**
+         * Finds the middle snake of original range [aLo, aHi) and revised range [bLo, bHi)
+         * and compares both halves separately
+         *
+         * @param aLo - initial input original lower bound (inclusive)
+         * @param aHi - initial input original upper bound (exclusive)
+         * @param bLo - initial input revised lower bound (inclusive)
+         * @param bHi - initial input revised upper bound (exclusive)
+         */
+        private void bisect(int aLo, int aHi, int bLo, int bHi) {
+            final int N = aHi - aLo;
+            final int M = bHi - bLo;
+            final int MAX = (N + M + 1) / 2;
+            final int offset = MAX + 1;
+            final int size = 2 * MAX + 3;
+            final int delta = N - M;
+            final boolean front = (delta & 1) != 0;
+
+            Arrays.fill(this.forward, 0, size, -1);
+            Arrays.fill(this.backward, 0, size, -1);
+            this.forward[offset + 1] = 0;
+            this.backward[offset + 1] = 0;
+
+            int k1start = 0;
+            int k1end = 0;
+            int k2start = 0;
+            int k2end = 0;
+            for (int d = 0; d < MAX; d++) {
+                for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+                    final int k1offset = offset + k1;
+                    int x1;
+                    if (k1 == -d || (k1 != d && this.forward[k1offset - 1] < this.forward[k1offset + 1])) {
+                        x1 = this.forward[k1offset + 1];
+                    } else {
+                        x1 = this.forward[k1offset - 1] + 1;
+                    }
+                    int y1 = x1 - k1;
+                    while (x1 < N && y1 < M && this.matches(aLo + x1, bLo + y1)) {
+                        x1++;
+                        y1++;
+                    }
+                    this.forward[k1offset] = x1;
+                    if (x1 > N) {
+                        k1end += 2;
+                    } else if (y1 > M) {
+                        k1start += 2;
+                    } else if (front) {
+                        final int k2offset = offset + delta - k1;
+                        if (k2offset >= 0 && k2offset < size && this.backward[k2offset] != -1 && x1 >= N - this.backward[k2offset]) {
+                            this.split(aLo, aHi, bLo, bHi, aLo + x1, bLo + y1);
+                            return;
+                        }
+                    }
+                }
+                for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+                    final int k2offset = offset + k2;
+                    int x2;
+                    if (k2 == -d || (k2 != d && this.backward[k2offset - 1] < this.backward[k2offset + 1])) {
+                        x2 = this.backward[k2offset + 1];
+                    } else {
+                        x2 = this.backward[k2offset - 1] + 1;
+                    }
+                    int y2 = x2 - k2;
+                    while (x2 < N && y2 < M && this.matches(aHi - x2 - 1, bHi - y2 - 1)) {
+                        x2++;
+                        y2++;
+                    }
+                    this.backward[k2offset] = x2;
+                    if (x2 > N) {
+                        k2end += 2;
+                    } else if (y2 > M) {
+                        k2start += 2;
+                    } else if (!front) {
+                        final int k1offset = offset + delta - k2;
+                        if (k1offset >= 0 && k1offset < size && this.forward[k1offset] != -1) {
+                            final int x1 = this.forward[k1offset];
+                            final int y1 = x1 - (k1offset - offset);
+                            if (x1 >= N - x2) {
+                                this.split(aLo, aHi, bLo, bHi, aLo + x1, bLo + y1);
+                                return;
+                            }
+                        }
+                    }
+                }
+            }
+            this.deleted.set(aLo, aHi);
+            this.inserted.set(bLo, bHi);
+        }
+
+        private void split(int aLo, int aHi, int bLo, int bHi, int x, int y) {
+            this.compare(aLo, x, bLo, y);
+            this.compare(x, aHi, y, bHi);
+        }
+
+        private boolean matches(int i, int j) {
+            return this.sequence.matches(i, j);
+        }
+    }
+}
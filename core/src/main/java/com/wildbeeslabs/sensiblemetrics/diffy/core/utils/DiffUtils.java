@@ -30,19 +30,25 @@ import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.ChangeDelta;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.BinaryDiffResult;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.CompactPatch;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.BinaryDiff;
 import com.wildbeeslabs.sensiblemetrics.diffy.core.service.DiffAlgorithmService;
 import lombok.experimental.UtilityClass;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -56,6 +62,10 @@ public class DiffUtils {
      * Default unified diff chunk regex
      */
     private static final Pattern DEFAULT_DIFF_CHUNK_REGEX = Pattern.compile("^@@\\s+-(?:(\\d+)(?:,(\\d+))?)\\s+\\+(?:(\\d+)(?:,(\\d+))?)\\s+@@$");
+    /**
+     * Default {@link BinaryDiff} instance
+     */
+    private static final BinaryDiff DEFAULT_BINARY_DIFF = new BinaryDiff();
 
     /**
      * Computes the difference between the original and revised list of elements
@@ -94,7 +104,29 @@ public class DiffUtils {
     }
 
     /**
-     * DefaultPatch the original text with given patch
+     * Computes the difference between the original and revised list of elements
+     * as a compact patch storing ranges and inserted elements only
+     *
+     * @param <T>       the type of elements.
+     * @param original  The original text. Must not be {@code null}.
+     * @param revised   The revised text. Must not be {@code null}.
+     * @param algorithm The diff algorithm. Must not be {@code null}.
+     * @return The compact patch describing the difference between the original and
+     * revised sequences. Never {@code null}.
+     * @throws IllegalArgumentException if original is {@code null}
+     * @throws IllegalArgumentException if revised is {@code null}
+     * @throws IllegalArgumentException if algorithm is {@code null}
+     */
+    public static <T> CompactPatch<T> diffCompact(final List<T> original, final List<T> revised, final DiffAlgorithm<T> algorithm) {
+        ValidationUtils.notNull(original, "Original list should not be null");
+        ValidationUtils.notNull(revised, "Revised list should not be null");
+        ValidationUtils.notNull(algorithm, "Difference algorithm should not be null");
+
+        return algorithm.diffCompact(original, revised);
+    }
+
+    /**
+     * Patch the original text with given patch
      *
      * @param <T>      the type of elements.
      * @param original the original text
@@ -102,7 +134,7 @@ public class DiffUtils {
      * @return the revised text
      * @throws IllegalStateException if can't apply patch
      */
-    public static <T> Iterable<T> patch(final Iterable<T> original, final DefaultPatch<T> patch) {
+    public static <T> Iterable<T> patch(final Iterable<T> original, final Patch<T> patch) {
         return patch.applyTo(original);
     }
 
@@ -112,84 +144,58 @@ public class DiffUtils {
      *
      * @param diff the text in unified format
      * @return the patch with deltas.
+     * @throws IllegalArgumentException if diff is {@code null}
      */
     public static DefaultPatch<String> parseUnifiedDiff(final List<String> diff) {
-        boolean inPrelude = true;
-        final List<String[]> rawChunk = new ArrayList<>();
-        DefaultPatch<String> patch = new DefaultPatch<>();
-
-        int old_ln = 0;
-        int new_ln = 0;
-        String tag;
-        String rest;
-        for (final String line : diff) {
-            if (inPrelude) {
-                if (line.startsWith("+++")) {
-                    inPrelude = false;
-                }
-                continue;
-            }
-            final Matcher m = DEFAULT_DIFF_CHUNK_REGEX.matcher(line);
-            if (m.find()) {
-                // Process the lines in the previous chunk
-                if (!rawChunk.isEmpty()) {
-                    List<String> oldChunkLines = new ArrayList<>();
-                    List<String> newChunkLines = new ArrayList<>();
-
-                    for (String[] raw_line : rawChunk) {
-                        tag = raw_line[0];
-                        rest = raw_line[1];
-                        if (tag.equals(" ") || tag.equals("-")) {
-                            oldChunkLines.add(rest);
-                        }
-                        if (tag.equals(" ") || tag.equals("+")) {
-                            newChunkLines.add(rest);
-                        }
-                    }
-                    patch.addDelta(new ChangeDelta<>(new DefaultChunk<>(old_ln - 1, oldChunkLines), new DefaultChunk<>(new_ln - 1, newChunkLines)));
-                    rawChunk.clear();
-                }
-                old_ln = m.group(1) == null ? 1 : Integer.parseInt(m.group(1));
-                new_ln = m.group(3) == null ? 1 : Integer.parseInt(m.group(3));
+        ValidationUtils.notNull(diff, "Unified diff should not be null");
 
-                if (old_ln == 0) {
-                    old_ln += 1;
-                }
-                if (new_ln == 0) {
-                    new_ln += 1;
-                }
-            } else {
-                if (line.length() > 0) {
-                    tag = line.substring(0, 1);
-                    rest = line.substring(1);
-                    if (tag.equals(" ") || tag.equals("+") || tag.equals("-")) {
-                        rawChunk.add(new String[]{tag, rest});
-                    }
-                } else {
-                    rawChunk.add(new String[]{" ", ""});
-                }
-            }
+        final DefaultPatch<String> patch = new DefaultPatch<>();
+        final UnifiedDiffParser parser = new UnifiedDiffParser(patch::addDelta);
+        for (final String line : diff) {
+            parser.parse(line);
         }
+        parser.complete();
+        return patch;
+    }
 
-        if (!rawChunk.isEmpty()) {
-            final List<String> oldChunkLines = new ArrayList<>();
-            final List<String> newChunkLines = new ArrayList<>();
-            for (String[] raw_line : rawChunk) {
-                tag = raw_line[0];
-                rest = raw_line[1];
-                if (tag.equals(" ") || tag.equals("-")) {
-                    oldChunkLines.add(rest);
-                }
-                if (tag.equals(" ") || tag.equals("+")) {
-                    newChunkLines.add(rest);
-                }
-            }
-            patch.addDelta(new ChangeDelta<>(new DefaultChunk<>(old_ln - 1, oldChunkLines), new DefaultChunk<>(new_ln - 1, newChunkLines)));
-            rawChunk.clear();
-        }
+    /**
+     * Parse the text in unified format from the given reader and creates the list of deltas for
+     * it, lines are read one by one.
+     *
+     * @param reader the reader of text in unified format
+     * @return the patch with deltas.
+     * @throws IOException              if the text could not be read
+     * @throws IllegalArgumentException if reader is {@code null}
+     */
+    public static DefaultPatch<String> parseUnifiedDiff(final Reader reader) throws IOException {
+        final DefaultPatch<String> patch = new DefaultPatch<>();
+        parseUnifiedDiff(reader, patch::addDelta);
         return patch;
     }
 
+    /**
+     * Parse the text in unified format from the given reader and passes each delta to the given consumer
+     * as soon as its chunk is read, so the whole diff is never held in memory.
+     *
+     * @param reader   the reader of text in unified format
+     * @param consumer the consumer of parsed deltas
+     * @throws IOException              if the text could not be read
+     * @throws IllegalArgumentException if reader is {@code null}
+     * @throws IllegalArgumentException if consumer is {@code null}
+     */
+    public static void parseUnifiedDiff(final Reader reader, final Consumer<Delta<String>> consumer) throws IOException {
+        ValidationUtils.notNull(reader, "Reader should not be null");
+        ValidationUtils.notNull(consumer, "Delta consumer should not be null");
+
+        final BufferedReader buffered = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+        final UnifiedDiffParser parser = new UnifiedDiffParser(consumer);
+        String line;
+        while (Objects.nonNull(line = buffered.readLine())) {
+            parser.parse(line);
+        }
+        parser.complete();
+    }
+
     /**
      * generateUnifiedDiff takes a DefaultPatch and some other arguments, returning the
      * Unified Diff format text representing the DefaultPatch.
@@ -204,35 +210,78 @@ public class DiffUtils {
      * the DefaultPatch argument.
      */
     public static List<String> generateUnifiedDiff(final String original, final String revised, final List<String> originalLines, final DefaultPatch<String> patch, int contextSize) {
-        if (!patch.getDeltas().isEmpty()) {
-            final List<String> ret = new ArrayList<>();
-            ret.add("--- " + original);
-            ret.add("+++ " + revised);
-
-            final List<Delta<String>> patchDeltas = new ArrayList<>(patch.getDeltas());
-            final List<Delta<String>> deltas = new ArrayList<>();
-            Delta<String> delta = patchDeltas.get(0);
-            deltas.add(delta);
-            if (patchDeltas.size() > 1) {
-                for (int i = 1; i < patchDeltas.size(); i++) {
-                    int position = delta.getOriginal().getPosition();
-                    final Delta<String> nextDelta = patchDeltas.get(i);
-                    if ((position + delta.getOriginal().size() + contextSize) >= (nextDelta.getOriginal().getPosition() - contextSize)) {
-                        deltas.add(nextDelta);
-                    } else {
-                        final List<String> curBlock = processDeltas(originalLines, deltas, contextSize);
-                        ret.addAll(curBlock);
-                        deltas.clear();
-                        deltas.add(nextDelta);
-                    }
-                    delta = nextDelta;
-                }
+        if (patch.getDeltas().isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> ret = new ArrayList<>();
+        try {
+            writeUnifiedDiff(original, revised, originalLines, patch, contextSize, ret::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ret;
+    }
+
+    /**
+     * writeUnifiedDiff takes a Patch and some other arguments, writing the
+     * Unified Diff format text representing the Patch to the given output hunk by hunk.
+     * Every line is terminated by a line feed.
+     *
+     * @param original      Filename of the original (unrevised file)
+     * @param revised       Filename of the revised file
+     * @param originalLines Lines of the original file
+     * @param patch         Patch created by the diff() function
+     * @param contextSize   number of lines of context output around each difference
+     *                      in the file.
+     * @param output        the output to write Unified Diff representation to
+     * @throws IOException              if the text could not be written
+     * @throws IllegalArgumentException if output is {@code null}
+     */
+    public static void writeUnifiedDiff(final String original, final String revised, final List<String> originalLines, final Patch<String> patch, int contextSize, final Appendable output) throws IOException {
+        ValidationUtils.notNull(output, "Output should not be null");
+
+        writeUnifiedDiff(original, revised, originalLines, patch, contextSize, line -> output.append(line).append('\n'));
+    }
+
+    /**
+     * Writes the Unified Diff format text representing the Patch to the given line writer
+     *
+     * @param original      Filename of the original (unrevised file)
+     * @param revised       Filename of the revised file
+     * @param originalLines Lines of the original file
+     * @param patch         Patch created by the diff() function
+     * @param contextSize   number of lines of context output around each difference
+     * @param writer        the line writer
+     * @throws IOException if the text could not be written
+     */
+    private static void writeUnifiedDiff(final String original, final String revised, final List<String> originalLines, final Patch<String> patch, int contextSize, final LineWriter writer) throws IOException {
+        ValidationUtils.notNull(originalLines, "Original lines should not be null");
+        ValidationUtils.notNull(patch, "Patch should not be null");
+
+        final List<Delta<String>> patchDeltas = patch.getDeltas();
+        if (patchDeltas.isEmpty()) {
+            return;
+        }
+        writer.write("--- " + original);
+        writer.write("+++ " + revised);
+
+        final List<Delta<String>> deltas = new ArrayList<>();
+        final Iterator<Delta<String>> iterator = patchDeltas.iterator();
+        Delta<String> delta = iterator.next();
+        deltas.add(delta);
+        while (iterator.hasNext()) {
+            int position = delta.getOriginal().getPosition();
+            final Delta<String> nextDelta = iterator.next();
+            if ((position + delta.getOriginal().size() + contextSize) >= (nextDelta.getOriginal().getPosition() - contextSize)) {
+                deltas.add(nextDelta);
+            } else {
+                processDeltas(originalLines, deltas, contextSize, writer);
+                deltas.clear();
+                deltas.add(nextDelta);
             }
-            final List<String> curBlock = processDeltas(originalLines, deltas, contextSize);
-            ret.addAll(curBlock);
-            return ret;
+            delta = nextDelta;
         }
-        return Collections.emptyList();
+        processDeltas(originalLines, deltas, contextSize, writer);
     }
 
     /**
@@ -242,106 +291,171 @@ public class DiffUtils {
      * @param origLines   the lines of the original file
      * @param deltas      the Deltas to be output as a single block
      * @param contextSize the number of lines of context to place around block
+     * @param writer      the line writer
+     * @throws IOException if the text could not be written
      */
-    private static List<String> processDeltas(final List<String> origLines, final List<Delta<String>> deltas, int contextSize) {
-        final List<String> buffer = new ArrayList<>();
-        int origTotal = 0;
-        int revTotal = 0;
-        int line;
-
-        Delta<String> curDelta = deltas.get(0);
-        int origStart = curDelta.getOriginal().getPosition() + 1 - contextSize;
-        if (origStart < 1) {
-            origStart = 1;
-        }
-        int revStart = curDelta.getRevised().getPosition() + 1 - contextSize;
-        if (revStart < 1) {
-            revStart = 1;
-        }
-        int contextStart = curDelta.getOriginal().getPosition() - contextSize;
-        if (contextStart < 0) {
-            contextStart = 0;
-        }
+    private static void processDeltas(final List<String> origLines, final List<Delta<String>> deltas, int contextSize, final LineWriter writer) throws IOException {
+        final Delta<String> firstDelta = deltas.get(0);
+        final Delta<String> lastDelta = deltas.get(deltas.size() - 1);
+
+        final int contextStart = Math.max(0, firstDelta.getOriginal().getPosition() - contextSize);
+        final int deltasEnd = lastDelta.getOriginal().getPosition() + lastDelta.getOriginal().getLines().size();
+        final int contextEnd = Math.max(deltasEnd, Math.min(origLines.size(), deltasEnd + contextSize));
 
-        for (line = contextStart; line < curDelta.getOriginal().getPosition(); line++) {
-            buffer.add(" " + origLines.get(line));
-            origTotal++;
-            revTotal++;
+        final int origStart = Math.max(1, firstDelta.getOriginal().getPosition() + 1 - contextSize);
+        final int revStart = Math.max(1, firstDelta.getRevised().getPosition() + 1 - contextSize);
+        final int origTotal = contextEnd - contextStart;
+        int revTotal = origTotal;
+        for (final Delta<String> delta : deltas) {
+            revTotal += delta.getRevised().getLines().size() - delta.getOriginal().getLines().size();
         }
+        writer.write("@@ -" + origStart + "," + origTotal + " +" + revStart + "," + revTotal + " @@");
 
-        buffer.addAll(getDeltaText(curDelta));
-        origTotal += curDelta.getOriginal().getLines().size();
-        revTotal += curDelta.getRevised().getLines().size();
-
-        int deltaIndex = 1;
-        while (deltaIndex < deltas.size()) {
-            Delta<String> nextDelta = deltas.get(deltaIndex);
-            int intermediateStart = curDelta.getOriginal().getPosition()
-                + curDelta.getOriginal().getLines().size();
-            for (line = intermediateStart; line < nextDelta.getOriginal()
-                .getPosition(); line++) {
-                buffer.add(" " + origLines.get(line));
-                origTotal++;
-                revTotal++;
+        int line = contextStart;
+        for (final Delta<String> delta : deltas) {
+            for (; line < delta.getOriginal().getPosition(); line++) {
+                writer.write(" " + origLines.get(line));
             }
-            buffer.addAll(getDeltaText(nextDelta));
-            origTotal += nextDelta.getOriginal().getLines().size();
-            revTotal += nextDelta.getRevised().getLines().size();
-            curDelta = nextDelta;
-            deltaIndex++;
+            writeDeltaText(delta, writer);
+            line = delta.getOriginal().getPosition() + delta.getOriginal().getLines().size();
         }
-
-        contextStart = curDelta.getOriginal().getPosition()
-            + curDelta.getOriginal().getLines().size();
-        for (line = contextStart; (line < (contextStart + contextSize))
-            && (line < origLines.size()); line++) {
-            buffer.add(" " + origLines.get(line));
-            origTotal++;
-            revTotal++;
+        for (; line < contextEnd; line++) {
+            writer.write(" " + origLines.get(line));
         }
-
-        final String header = "@@ -" + origStart + "," + origTotal + " +" + revStart + "," + revTotal + " @@";
-        buffer.add(0, header);
-        return buffer;
     }
 
     /**
-     * getDeltaText returns the lines to be added to the Unified Diff text from
+     * writeDeltaText writes the lines to be added to the Unified Diff text from
      * the Delta parameter
      *
-     * @param delta the Delta to output
-     * @return list of String lines of code.
+     * @param delta  the Delta to output
+     * @param writer the line writer
+     * @throws IOException if the text could not be written
      */
-    private static List<String> getDeltaText(final Delta<String> delta) {
-        final List<String> buffer = new ArrayList<>();
+    private static void writeDeltaText(final Delta<String> delta, final LineWriter writer) throws IOException {
         for (final String original : delta.getOriginal().getLines()) {
-            buffer.add("-" + original);
+            writer.write("-" + original);
         }
         for (final String original : delta.getRevised().getLines()) {
-            buffer.add("+" + original);
+            writer.write("+" + original);
+        }
+    }
+
+    /**
+     * Unified diff line writer
+     */
+    @FunctionalInterface
+    private interface LineWriter {
+
+        /**
+         * Writes the given line of Unified-Diff-format text
+         *
+         * @param line the line to write
+         * @throws IOException if the line could not be written
+         */
+        void write(final String line) throws IOException;
+    }
+
+    /**
+     * Unified diff parser, consumes the text line by line and emits a delta per chunk
+     */
+    private static final class UnifiedDiffParser {
+
+        /**
+         * Parsed delta {@link Consumer}
+         */
+        private final Consumer<Delta<String>> consumer;
+        /**
+         * Original lines of the current chunk
+         */
+        private List<String> oldChunkLines = new ArrayList<>();
+        /**
+         * Revised lines of the current chunk
+         */
+        private List<String> newChunkLines = new ArrayList<>();
+        /**
+         * Prelude flag, {@code true} until the revised file header is read
+         */
+        private boolean inPrelude = true;
+        /**
+         * Original start line of the current chunk
+         */
+        private int old_ln;
+        /**
+         * Revised start line of the current chunk
+         */
+        private int new_ln;
+
+        /**
+         * Unified diff parser constructor with initial delta {@link Consumer}
+         *
+         * @param consumer - initial input delta {@link Consumer}
+         */
+        private UnifiedDiffParser(final Consumer<Delta<String>> consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * Parses the next line of Unified-Diff-format text
+         *
+         * @param line the line to parse
+         */
+        private void parse(final String line) {
+            if (this.inPrelude) {
+                if (line.startsWith("+++")) {
+                    this.inPrelude = false;
+                }
+                return;
+            }
+            final Matcher m = DEFAULT_DIFF_CHUNK_REGEX.matcher(line);
+            if (m.find()) {
+                // Process the lines in the previous chunk
+                this.complete();
+                this.old_ln = m.group(1) == null ? 1 : Integer.parseInt(m.group(1));
+                this.new_ln = m.group(3) == null ? 1 : Integer.parseInt(m.group(3));
+
+                if (this.old_ln == 0) {
+                    this.old_ln += 1;
+                }
+                if (this.new_ln == 0) {
+                    this.new_ln += 1;
+                }
+            } else if (line.length() > 0) {
+                final char tag = line.charAt(0);
+                final String rest = line.substring(1);
+                if (tag == ' ' || tag == '-') {
+                    this.oldChunkLines.add(rest);
+                }
+                if (tag == ' ' || tag == '+') {
+                    this.newChunkLines.add(rest);
+                }
+            } else {
+                this.oldChunkLines.add("");
+                this.newChunkLines.add("");
+            }
+        }
+
+        /**
+         * Emits the delta of the current chunk (if any)
+         */
+        private void complete() {
+            if (!this.oldChunkLines.isEmpty() || !this.newChunkLines.isEmpty()) {
+                this.consumer.accept(new ChangeDelta<>(new DefaultChunk<>(this.old_ln - 1, this.oldChunkLines), new DefaultChunk<>(this.new_ln - 1, this.newChunkLines)));
+                this.oldChunkLines = new ArrayList<>();
+                this.newChunkLines = new ArrayList<>();
+            }
         }
-        return buffer;
     }
 
     public static BinaryDiffResult diff(final File actual, final byte[] expected) throws IOException {
-        return diff(actual.toPath(), expected);
+        return DEFAULT_BINARY_DIFF.diff(actual, expected);
     }
 
     public static BinaryDiffResult diff(final Path actual, final byte[] expected) throws IOException {
-        final InputStream expectedStream = new ByteArrayInputStream(expected);
-        try (final InputStream actualStream = Files.newInputStream(actual)) {
-            return diff(actualStream, expectedStream);
-        }
+        return DEFAULT_BINARY_DIFF.diff(actual, expected);
     }
 
     public static BinaryDiffResult diff(final InputStream actualStream, final InputStream expectedStream) throws IOException {
-        int index = 0;
-        while (true) {
-            int actual = actualStream.read();
-            int expected = expectedStream.read();
-            if (actual == -1 && expected == -1) return BinaryDiffResult.noDiff();
-            if (actual != expected) return new BinaryDiffResult(index, expected, actual);
-            index += 1;
-        }
+        return DEFAULT_BINARY_DIFF.diff(actualStream, expectedStream);
     }
 }
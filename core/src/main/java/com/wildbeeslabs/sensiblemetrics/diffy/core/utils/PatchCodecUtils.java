@@ -0,0 +1,330 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.CompactPatch;
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link CompactPatch} binary codec utilities implementation
+ * <p>
+ * Layout: magic number, flags, number of ranges, ranges as unsigned variable-length integers
+ * (gap from the end of the previous range, deleted length, inserted length), inserted elements.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@UtilityClass
+public class PatchCodecUtils {
+
+    /**
+     * Default compact patch magic number
+     */
+    private static final int MAGIC = 0x43505431;
+    /**
+     * Default approximation flag mask
+     */
+    private static final int APPROXIMATE_FLAG = 0x01;
+    /**
+     * Default initial capacity of decoded buffers, declared counts of unbounded inputs are not trusted
+     */
+    private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    /**
+     * Default string element writer (UTF-8, {@code null} safe)
+     */
+    public static final ElementWriter<String> STRING_WRITER = PatchCodecUtils::writeString;
+    /**
+     * Default string element reader (UTF-8, {@code null} safe)
+     */
+    public static final ElementReader<String> STRING_READER = PatchCodecUtils::readString;
+
+    /**
+     * Writes {@link CompactPatch} to the given {@link DataOutput}
+     *
+     * @param <T>    type of patch element
+     * @param patch  - initial input {@link CompactPatch}
+     * @param output - initial input {@link DataOutput}
+     * @param writer - initial input {@link ElementWriter}
+     * @throws IOException              if the patch could not be written
+     * @throws IllegalArgumentException if patch is {@code null}
+     * @throws IllegalArgumentException if output is {@code null}
+     * @throws IllegalArgumentException if writer is {@code null}
+     */
+    public static <T> void encode(final CompactPatch<T> patch, final DataOutput output, final ElementWriter<? super T> writer) throws IOException {
+        ValidationUtils.notNull(patch, "Patch should not be null");
+        ValidationUtils.notNull(output, "Output should not be null");
+        ValidationUtils.notNull(writer, "Element writer should not be null");
+
+        output.writeInt(MAGIC);
+        output.writeByte(patch.isApproximate() ? APPROXIMATE_FLAG : 0);
+        writeVarInt(output, patch.size());
+        int end = 0;
+        for (int index = 0; index < patch.size(); index++) {
+            writeVarInt(output, patch.getPosition(index) - end);
+            writeVarInt(output, patch.getDeleted(index));
+            writeVarInt(output, patch.getInserted(index));
+            end = patch.getPosition(index) + patch.getDeleted(index);
+        }
+        for (final T element : patch.getInsertedElements()) {
+            writer.write(output, element);
+        }
+    }
+
+    /**
+     * Reads {@link CompactPatch} from the given {@link DataInput}, the patch is not bound to the original sequence
+     *
+     * @param <T>    type of patch element
+     * @param input  - initial input {@link DataInput}
+     * @param reader - initial input {@link ElementReader}
+     * @return {@link CompactPatch}
+     * @throws IOException              if the patch could not be read
+     * @throws IllegalArgumentException if input is {@code null}
+     * @throws IllegalArgumentException if reader is {@code null}
+     * @throws IllegalArgumentException if the patch is malformed
+     */
+    public static <T> CompactPatch<T> decode(final DataInput input, final ElementReader<? extends T> reader) throws IOException {
+        ValidationUtils.notNull(input, "Input should not be null");
+        ValidationUtils.notNull(reader, "Element reader should not be null");
+
+        if (input.readInt() != MAGIC) {
+            throw new IOException("ERROR: invalid compact patch header");
+        }
+        final int flags = input.readUnsignedByte();
+        final int size = readVarInt(input);
+        // every range takes at least three bytes, every inserted element at least one
+        checkRemaining(input, size, 3, "ranges");
+        if (size > Integer.MAX_VALUE / 3) {
+            throw new IllegalArgumentException(String.format("ERROR: compact patch declares %d ranges", size));
+        }
+        int[] ranges = new int[3 * Math.min(size, DEFAULT_INITIAL_CAPACITY)];
+        int end = 0;
+        long total = 0;
+        for (int index = 0; index < size; index++) {
+            if (3 * index == ranges.length) {
+                ranges = Arrays.copyOf(ranges, 3 * (int) Math.min(size, 2L * index));
+            }
+            final long position = (long) end + readVarInt(input);
+            final long deleted = readVarInt(input);
+            ranges[3 * index + 2] = readVarInt(input);
+            if (position + deleted > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("ERROR: range %d of compact patch ends beyond %d", index, Integer.MAX_VALUE));
+            }
+            ranges[3 * index] = (int) position;
+            ranges[3 * index + 1] = (int) deleted;
+            end = (int) (position + deleted);
+            total += ranges[3 * index + 2];
+        }
+        checkRemaining(input, total, 1, "inserted elements");
+        final CompactPatch.Builder<T> builder = new CompactPatch.Builder<T>().approximate((flags & APPROXIMATE_FLAG) != 0);
+        for (int index = 0; index < size; index++) {
+            final List<T> inserted = new ArrayList<>(Math.min(ranges[3 * index + 2], DEFAULT_INITIAL_CAPACITY));
+            for (int i = 0; i < ranges[3 * index + 2]; i++) {
+                inserted.add(reader.read(input));
+            }
+            builder.add(ranges[3 * index], ranges[3 * index + 1], inserted);
+        }
+        return builder.build(null);
+    }
+
+    /**
+     * Reads {@link CompactPatch} from the given byte array, declared counts and lengths are validated
+     * against the remaining content before anything is allocated
+     *
+     * @param <T>     type of patch element
+     * @param content - initial input byte array
+     * @param reader  - initial input {@link ElementReader}
+     * @return {@link CompactPatch}
+     * @throws IOException              if the patch could not be read
+     * @throws IllegalArgumentException if content is {@code null}
+     * @throws IllegalArgumentException if the patch is malformed or truncated
+     */
+    public static <T> CompactPatch<T> decode(final byte[] content, final ElementReader<? extends T> reader) throws IOException {
+        ValidationUtils.notNull(content, "Content should not be null");
+        return decode(new BoundedDataInput(content), reader);
+    }
+
+    /**
+     * Writes {@link CompactPatch} of strings to the given {@link DataOutput}
+     *
+     * @param patch  - initial input {@link CompactPatch}
+     * @param output - initial input {@link DataOutput}
+     * @throws IOException if the patch could not be written
+     */
+    public static void encode(final CompactPatch<String> patch, final DataOutput output) throws IOException {
+        encode(patch, output, STRING_WRITER);
+    }
+
+    /**
+     * Reads {@link CompactPatch} of strings from the given {@link DataInput}
+     *
+     * @param input - initial input {@link DataInput}
+     * @return {@link CompactPatch}
+     * @throws IOException if the patch could not be read
+     */
+    public static CompactPatch<String> decode(final DataInput input) throws IOException {
+        return decode(input, STRING_READER);
+    }
+
+    /**
+     * Reads {@link CompactPatch} of strings from the given byte array
+     *
+     * @param content - initial input byte array
+     * @return {@link CompactPatch}
+     * @throws IOException if the patch could not be read
+     */
+    public static CompactPatch<String> decode(final byte[] content) throws IOException {
+        return decode(content, STRING_READER);
+    }
+
+    private static void writeString(final DataOutput output, final String value) throws IOException {
+        if (value == null) {
+            writeVarInt(output, 0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(output, bytes.length + 1);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInput input) throws IOException {
+        final int length = readVarInt(input);
+        if (length == 0) {
+            return null;
+        }
+        checkRemaining(input, length - 1, 1, "string bytes");
+        final byte[] bytes = new byte[length - 1];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(final DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(final DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = input.readUnsignedByte();
+            if (shift == 28 && (b & 0x78) != 0) {
+                throw new IllegalArgumentException("ERROR: variable-length integer exceeds " + Integer.MAX_VALUE);
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("ERROR: malformed variable-length integer");
+    }
+
+    /**
+     * Validates that the given number of items of the given minimum size fits into the remaining content,
+     * the check is skipped if the remaining content is unknown
+     *
+     * @param input - initial input {@link DataInput}
+     * @param count - initial input number of items
+     * @param size  - initial input minimum size (in bytes) of each item
+     * @param name  - initial input items name
+     * @throws IllegalArgumentException if the items do not fit into the remaining content
+     */
+    private static void checkRemaining(final DataInput input, long count, int size, final String name) {
+        if (input instanceof BoundedDataInput) {
+            final int remaining = ((BoundedDataInput) input).remaining();
+            if (count * size > remaining) {
+                throw new IllegalArgumentException(String.format("ERROR: compact patch declares %d %s, but only %d bytes remain", count, name, remaining));
+            }
+        }
+    }
+
+    /**
+     * {@link DataInput} over byte array with known remaining content
+     */
+    private static final class BoundedDataInput extends DataInputStream {
+
+        private BoundedDataInput(final byte[] content) {
+            super(new ByteArrayInputStream(content));
+        }
+
+        /**
+         * Returns number of remaining bytes
+         *
+         * @return number of remaining bytes
+         */
+        private int remaining() {
+            return ((ByteArrayInputStream) this.in).available();
+        }
+    }
+
+    /**
+     * Compact patch element writer
+     *
+     * @param <T> type of patch element
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+
+        /**
+         * Writes the given element to {@link DataOutput}
+         *
+         * @param output - initial input {@link DataOutput}
+         * @param value  - initial input element
+         * @throws IOException if the element could not be written
+         */
+        void write(final DataOutput output, final T value) throws IOException;
+    }
+
+    /**
+     * Compact patch element reader
+     *
+     * @param <T> type of patch element
+     */
+    @FunctionalInterface
+    public interface ElementReader<T> {
+
+        /**
+         * Reads element from {@link DataInput}
+         *
+         * @param input - initial input {@link DataInput}
+         * @return element
+         * @throws IOException if the element could not be read
+         */
+        T read(final DataInput input) throws IOException;
+    }
+}
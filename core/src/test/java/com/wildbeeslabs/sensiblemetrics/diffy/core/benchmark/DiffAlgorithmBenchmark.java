@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.DiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.HistogramDiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.LinearDiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.utils.DiffUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * {@link DiffAlgorithm} benchmark on repetitive inputs (blank lines, braces, log prefixes)
+ * <p>
+ * Usage: {@code DiffAlgorithmBenchmark [lines] [iterations]}
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class DiffAlgorithmBenchmark {
+
+    /**
+     * Default repetitive lines
+     */
+    private static final String[] REPEATED_LINES = {"", "{", "}", "    }", "INFO  [main] ", "return;"};
+    /**
+     * Default number of warmup iterations
+     */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    public static void main(final String[] args) {
+        final int lines = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        final Random random = new Random(42);
+        final List<String> original = generate(random, lines);
+        final List<String> revised = mutate(random, original);
+
+        final Map<String, Supplier<DiffAlgorithm<String>>> algorithms = new LinkedHashMap<>();
+        algorithms.put("myers", DiffAlgorithmService::new);
+        algorithms.put("myers-linear", LinearDiffAlgorithmService::new);
+        algorithms.put("histogram", HistogramDiffAlgorithmService::new);
+
+        System.out.printf("lines=%d, iterations=%d%n", lines, iterations);
+        algorithms.forEach((name, algorithm) -> {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                DiffUtils.diff(original, revised, algorithm.get());
+            }
+            int deltas = 0;
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                deltas = DiffUtils.diff(original, revised, algorithm.get()).getDeltas().size();
+            }
+            final long elapsed = (System.nanoTime() - start) / iterations;
+            System.out.printf("%-14s %10.3f ms/op, deltas=%d%n", name, elapsed / 1e6, deltas);
+        });
+    }
+
+    private static List<String> generate(final Random random, int size) {
+        final List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(random.nextInt(4) == 0 ? "statement " + i : REPEATED_LINES[random.nextInt(REPEATED_LINES.length)]);
+        }
+        return result;
+    }
+
+    private static List<String> mutate(final Random random, final List<String> source) {
+        final List<String> result = new ArrayList<>(source.size());
+        for (final String line : source) {
+            final int choice = random.nextInt(10);
+            if (choice == 0) {
+                continue;
+            }
+            result.add(line);
+            if (choice == 1) {
+                result.add(REPEATED_LINES[random.nextInt(REPEATED_LINES.length)]);
+            }
+        }
+        return result;
+    }
+}
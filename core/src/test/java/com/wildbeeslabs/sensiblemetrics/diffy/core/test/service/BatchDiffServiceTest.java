@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.BatchDiffResult;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.DiffPair;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.BatchDiffService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.LinearDiffAlgorithmService;
+import org.hamcrest.core.IsEqual;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link BatchDiffService} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class BatchDiffServiceTest {
+
+    /**
+     * Default {@link ForkJoinPool}
+     */
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        this.pool = new ForkJoinPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    public void test_BatchDiffService_withStream() {
+        // given
+        final List<DiffPair<String>> pairs = this.pairs();
+        final BatchDiffService<String> service = new BatchDiffService<>(new LinearDiffAlgorithmService<>(), this.pool);
+
+        // when
+        final List<BatchDiffResult<String>> results = service.diff(pairs).collect(Collectors.toList());
+
+        // then
+        assertThat(results.size(), IsEqual.equalTo(pairs.size()));
+        for (final BatchDiffResult<String> result : results) {
+            final DiffPair<String> pair = pairs.get(result.getIndex());
+            assertThat(result.getPair(), IsEqual.equalTo(pair));
+            assertThat(result.isFailed(), IsEqual.equalTo(false));
+            assertThat(result.getPatch().applyTo(pair.getOriginal()), IsEqual.equalTo(pair.getRevised()));
+        }
+    }
+
+    @Test
+    public void test_BatchDiffService_withCallback() {
+        // given
+        final List<DiffPair<String>> pairs = this.pairs();
+        final Queue<BatchDiffResult<String>> results = new ConcurrentLinkedQueue<>();
+
+        // when
+        new BatchDiffService<String>().diff(pairs, results::add);
+
+        // then
+        assertThat(results.size(), IsEqual.equalTo(pairs.size()));
+        assertThat(results.stream().map(BatchDiffResult::getIndex).distinct().count(), IsEqual.equalTo((long) pairs.size()));
+    }
+
+    @Test
+    public void test_BatchDiffService_withFailingAlgorithm() {
+        // given
+        final List<DiffPair<String>> pairs = this.pairs();
+        final BatchDiffService<String> service = new BatchDiffService<>((original, revised) -> {
+            throw new AssertionError("unexpected diff");
+        }, this.pool);
+
+        // when
+        final List<BatchDiffResult<String>> results = service.diff(pairs).collect(Collectors.toList());
+
+        // then
+        assertThat(results.size(), IsEqual.equalTo(pairs.size()));
+        for (final BatchDiffResult<String> result : results) {
+            assertThat(result.isFailed(), IsEqual.equalTo(true));
+            assertThat(result.getError() instanceof AssertionError, IsEqual.equalTo(true));
+        }
+    }
+
+    private List<DiffPair<String>> pairs() {
+        final List<DiffPair<String>> pairs = new ArrayList<>();
+        pairs.add(DiffPair.of(Arrays.asList("a", "b", "c"), Arrays.asList("a", "c")));
+        pairs.add(DiffPair.of(Arrays.asList("a", "b", "c", "d", "e", "f"), Arrays.asList("x", "b", "c", "d", "y", "f", "z")));
+        pairs.add(DiffPair.of(Arrays.asList("a"), Arrays.asList("a")));
+        pairs.add(DiffPair.of(new ArrayList<>(), Arrays.asList("a", "b")));
+        return pairs;
+    }
+}
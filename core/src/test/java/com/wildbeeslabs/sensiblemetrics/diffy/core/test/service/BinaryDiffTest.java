@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.BinaryDiffResult;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.BinaryDiff;
+import org.hamcrest.core.IsEqual;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link BinaryDiff} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class BinaryDiffTest {
+
+    /**
+     * Default {@link TemporaryFolder} rule
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_BinaryDiff_withAllRanges() throws IOException {
+        // given
+        final Path actual = this.write("actual", new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        final Path expected = this.write("expected", new byte[]{1, 0, 0, 4, 5, 6, 0, 8});
+
+        // when
+        final BinaryDiffResult result = new BinaryDiff(4).diff(actual, expected);
+
+        // then
+        assertThat(result.hasNoDiff(), IsEqual.equalTo(false));
+        assertThat(result.offset, IsEqual.equalTo(1));
+        assertThat(result.longOffset, IsEqual.equalTo(1L));
+        assertThat(result.expected, IsEqual.equalTo("0x0"));
+        assertThat(result.actual, IsEqual.equalTo("0x2"));
+        assertThat(result.ranges.size(), IsEqual.equalTo(3));
+        assertThat(result.ranges.get(0).offset, IsEqual.equalTo(1L));
+        assertThat(result.ranges.get(0).length, IsEqual.equalTo(2L));
+        assertThat(result.ranges.get(1).offset, IsEqual.equalTo(6L));
+        assertThat(result.ranges.get(1).length, IsEqual.equalTo(1L));
+        assertThat(result.ranges.get(2).offset, IsEqual.equalTo(8L));
+        assertThat(result.ranges.get(2).length, IsEqual.equalTo(1L));
+    }
+
+    @Test
+    public void test_BinaryDiff_withMaxRanges() throws IOException {
+        // given
+        final Path actual = this.write("actual", new byte[]{1, 2, 3, 4, 5, 6});
+        final Path expected = this.write("expected", new byte[]{0, 2, 0, 4, 0, 6});
+
+        // when
+        final BinaryDiffResult result = new BinaryDiff().diff(actual, expected, 2);
+
+        // then
+        assertThat(result.ranges.size(), IsEqual.equalTo(2));
+        assertThat(result.ranges.get(1).offset, IsEqual.equalTo(2L));
+    }
+
+    @Test
+    public void test_BinaryDiff_withContentStopsAtFirstRange() throws IOException {
+        // given
+        final Path actual = this.write("actual", new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        final byte[] expected = {1, 0, 0, 4, 0, 6, 0, 8};
+
+        // when
+        final BinaryDiffResult result = new BinaryDiff(4).diff(actual, expected);
+
+        // then
+        assertThat(result.offset, IsEqual.equalTo(1));
+        assertThat(result.expected, IsEqual.equalTo("0x0"));
+        assertThat(result.actual, IsEqual.equalTo("0x2"));
+        assertThat(result.ranges.size(), IsEqual.equalTo(1));
+        assertThat(result.ranges.get(0).offset, IsEqual.equalTo(1L));
+        assertThat(result.ranges.get(0).length, IsEqual.equalTo(2L));
+    }
+
+    @Test
+    public void test_BinaryDiff_withEqualContent() throws IOException {
+        // given
+        final byte[] content = {1, 2, 3};
+        final Path actual = this.write("actual", content);
+
+        // when
+        final BinaryDiffResult result = new BinaryDiff().diff(actual, content);
+
+        // then
+        assertThat(result.hasNoDiff(), IsEqual.equalTo(true));
+        assertThat(result.ranges.isEmpty(), IsEqual.equalTo(true));
+    }
+
+    @Test
+    public void test_BinaryDiff_withStreams() throws IOException {
+        // given
+        final byte[] actual = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        final byte[] expected = {1, 2, 3, 4, 5, 0, 7, 8, 9};
+        final byte[] prefix = {1, 2, 3, 4};
+
+        // when
+        final BinaryDiffResult changed = new BinaryDiff(4).diff(new ByteArrayInputStream(actual), new ByteArrayInputStream(expected));
+        final BinaryDiffResult truncated = new BinaryDiff(4).diff(new ByteArrayInputStream(prefix), new ByteArrayInputStream(actual));
+        final BinaryDiffResult equal = new BinaryDiff(4).diff(new ByteArrayInputStream(actual), new ByteArrayInputStream(actual.clone()));
+
+        // then
+        assertThat(changed.offset, IsEqual.equalTo(5));
+        assertThat(changed.expected, IsEqual.equalTo("0x0"));
+        assertThat(changed.actual, IsEqual.equalTo("0x6"));
+        assertThat(truncated.offset, IsEqual.equalTo(4));
+        assertThat(truncated.expected, IsEqual.equalTo("0x5"));
+        assertThat(truncated.actual, IsEqual.equalTo("EOF"));
+        assertThat(equal.hasNoDiff(), IsEqual.equalTo(true));
+    }
+
+    private Path write(final String name, final byte[] content) throws IOException {
+        return Files.write(this.folder.newFile(name).toPath(), content);
+    }
+}
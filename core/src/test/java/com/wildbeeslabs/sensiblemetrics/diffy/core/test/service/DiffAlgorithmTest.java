@@ -0,0 +1,249 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Patch;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.interfaces.DiffAlgorithm;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.DiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.HistogramDiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.LinearDiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.utils.DiffUtils;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link DiffAlgorithm} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class DiffAlgorithmTest {
+
+    @Test
+    public void test_LinearDiffAlgorithm_sameAsMyersDiff() {
+        // given
+        final List<String> original = Arrays.asList("a", "b", "c", "a", "b", "b", "a");
+        final List<String> revised = Arrays.asList("c", "b", "a", "b", "a", "c");
+
+        // when
+        final Patch<String> expected = DiffUtils.diff(original, revised, new DiffAlgorithmService<>());
+        final Patch<String> actual = DiffUtils.diff(original, revised, new LinearDiffAlgorithmService<>());
+
+        // then
+        assertThat(this.cost(actual), IsEqual.equalTo(this.cost(expected)));
+        assertThat(actual.applyTo(original), IsEqual.equalTo(revised));
+    }
+
+    @Test
+    public void test_DiffAlgorithm_withCommonPrefixAndSuffix() {
+        // given
+        final List<String> original = Arrays.asList("a", "b", "c", "d", "e", "f", "g");
+        final List<String> revised = Arrays.asList("a", "b", "c", "x", "e", "f", "g");
+
+        for (final DiffAlgorithm<String> algorithm : Arrays.<DiffAlgorithm<String>>asList(new DiffAlgorithmService<>(), new LinearDiffAlgorithmService<>(), new HistogramDiffAlgorithmService<>())) {
+            // when
+            final Patch<String> patch = DiffUtils.diff(original, revised, algorithm);
+
+            // then
+            assertThat(patch.getDeltas().size(), IsEqual.equalTo(1));
+            assertThat(patch.getDeltas().get(0).getType(), IsEqual.equalTo(Delta.TYPE.CHANGE));
+            assertThat(patch.getDeltas().get(0).getOriginal().getPosition(), IsEqual.equalTo(3));
+            assertThat(patch.getDeltas().get(0).getRevised().getPosition(), IsEqual.equalTo(3));
+            assertThat(patch.applyTo(original), IsEqual.equalTo(revised));
+        }
+    }
+
+    @Test
+    public void test_LinearDiffAlgorithm_withRandomSequences() {
+        // given
+        final Random random = new Random(42);
+        final DiffAlgorithm<Integer> algorithm = new LinearDiffAlgorithmService<>();
+
+        for (int i = 0; i < 500; i++) {
+            final List<Integer> original = this.randomList(random, random.nextInt(40), 5);
+            final List<Integer> revised = this.randomList(random, random.nextInt(40), 5);
+
+            // when
+            final Patch<Integer> patch = DiffUtils.diff(original, revised, algorithm);
+
+            // then
+            assertThat(patch.applyTo(original), IsEqual.equalTo(revised));
+            assertThat(this.cost(patch), IsEqual.equalTo(original.size() + revised.size() - 2 * this.lcs(original, revised)));
+        }
+    }
+
+    @Test
+    public void test_LinearDiffAlgorithm_withEmptySequences() {
+        // given
+        final List<String> original = Collections.emptyList();
+        final List<String> revised = Arrays.asList("a", "b");
+
+        // when
+        final Patch<String> inserted = DiffUtils.diff(original, revised, new LinearDiffAlgorithmService<>());
+        final Patch<String> deleted = DiffUtils.diff(revised, original, new LinearDiffAlgorithmService<>());
+
+        // then
+        assertThat(inserted.getDeltas().size(), IsEqual.equalTo(1));
+        assertThat(inserted.getDeltas().get(0).getType(), IsEqual.equalTo(Delta.TYPE.INSERT));
+        assertThat(deleted.getDeltas().size(), IsEqual.equalTo(1));
+        assertThat(deleted.getDeltas().get(0).getType(), IsEqual.equalTo(Delta.TYPE.DELETE));
+    }
+
+    @Test
+    public void test_HistogramDiffAlgorithm_withRandomSequences() {
+        // given
+        final Random random = new Random(42);
+        final DiffAlgorithm<Integer> algorithm = new HistogramDiffAlgorithmService<>(4);
+
+        for (int i = 0; i < 500; i++) {
+            final List<Integer> original = this.randomList(random, random.nextInt(40), 5);
+            final List<Integer> revised = this.randomList(random, random.nextInt(40), 5);
+
+            // when
+            final Patch<Integer> patch = DiffUtils.diff(original, revised, algorithm);
+
+            // then
+            assertThat(patch.applyTo(original), IsEqual.equalTo(revised));
+        }
+    }
+
+    @Test
+    public void test_HistogramDiffAlgorithm_withRepeatedLines() {
+        // given
+        final List<String> original = Arrays.asList("{", "", "first", "}", "", "{", "second", "}");
+        final List<String> revised = Arrays.asList("{", "", "first", "}", "", "{", "", "third", "}", "{", "second", "}");
+
+        // when
+        final Patch<String> patch = DiffUtils.diff(original, revised, new HistogramDiffAlgorithmService<>());
+
+        // then
+        assertThat(patch.getDeltas().size(), IsEqual.equalTo(1));
+        assertThat(patch.getDeltas().get(0).getType(), IsEqual.equalTo(Delta.TYPE.INSERT));
+        assertThat(patch.applyTo(original), IsEqual.equalTo(revised));
+    }
+
+    @Test
+    public void test_DiffAlgorithm_withCostBudget() {
+        // given
+        final Random random = new Random(42);
+        final DiffAlgorithmService<Integer> bounded = new DiffAlgorithmService<>(2, null);
+        final DiffAlgorithmService<Integer> expired = new DiffAlgorithmService<>(DiffAlgorithmService.DEFAULT_MAX_COST, Duration.ZERO);
+
+        for (int i = 0; i < 500; i++) {
+            final List<Integer> original = this.randomList(random, random.nextInt(40), 5);
+            final List<Integer> revised = this.randomList(random, random.nextInt(40), 5);
+
+            // when
+            final DefaultPatch<Integer> patch = bounded.diff(original, revised);
+            final DefaultPatch<Integer> fallback = expired.diff(original, revised);
+
+            // then
+            assertThat(patch.applyTo(original), IsEqual.equalTo(revised));
+            assertThat(fallback.applyTo(original), IsEqual.equalTo(revised));
+        }
+    }
+
+    @Test
+    public void test_DiffAlgorithm_withCostBudgetExceeded() {
+        // given
+        final List<String> original = Arrays.asList("a", "b", "c", "d", "e", "f");
+        final List<String> revised = Arrays.asList("x", "b", "y", "d", "z", "f");
+
+        // when
+        final DefaultPatch<String> exact = new DiffAlgorithmService<String>().diff(original, revised);
+        final DefaultPatch<String> approximate = new DiffAlgorithmService<String>(2, null).diff(original, revised);
+
+        // then
+        assertThat(exact.isApproximate(), IsEqual.equalTo(false));
+        assertThat(approximate.isApproximate(), IsEqual.equalTo(true));
+        assertThat(this.cost(approximate) > this.cost(exact), IsEqual.equalTo(true));
+        assertThat(approximate.applyTo(original), IsEqual.equalTo(revised));
+    }
+
+    @Test
+    public void test_LinearDiffAlgorithm_byKey() {
+        // given
+        final List<String> original = Arrays.asList("a", "B", "c", "d");
+        final List<String> revised = Arrays.asList("A", "b", "x", "D");
+
+        // when
+        final Patch<String> patch = DiffUtils.diff(original, revised, LinearDiffAlgorithmService.<String>byKey(String::toLowerCase));
+
+        // then
+        assertThat(patch.getDeltas().size(), IsEqual.equalTo(1));
+        assertThat(patch.getDeltas().get(0).getType(), IsEqual.equalTo(Delta.TYPE.CHANGE));
+        assertThat(patch.getDeltas().get(0).getOriginal().getPosition(), IsEqual.equalTo(2));
+    }
+
+    @Test
+    public void test_LinearDiffAlgorithm_withNonTransitiveMatcher() {
+        // given
+        final List<Integer> original = Arrays.asList(1, 2, 3, 10, 4);
+        final List<Integer> revised = Arrays.asList(2, 3, 4, 20, 5);
+
+        // when
+        final Patch<Integer> patch = DiffUtils.diff(original, revised, new LinearDiffAlgorithmService<Integer>((first, last) -> Math.abs(first - last) <= 1));
+
+        // then
+        assertThat(patch.getDeltas().size(), IsEqual.equalTo(1));
+        assertThat(patch.getDeltas().get(0).getOriginal().getPosition(), IsEqual.equalTo(3));
+        assertThat(patch.getDeltas().get(0).getRevised().getLines(), IsEqual.equalTo(Collections.singletonList(20)));
+    }
+
+    private List<Integer> randomList(final Random random, int size, int bound) {
+        final List<Integer> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(random.nextInt(bound));
+        }
+        return result;
+    }
+
+    private <T> int cost(final Patch<T> patch) {
+        return patch.getDeltas().stream().mapToInt(delta -> delta.getOriginal().size() + delta.getRevised().size()).sum();
+    }
+
+    private <T> int lcs(final List<T> first, final List<T> last) {
+        final int[][] table = new int[first.size() + 1][last.size() + 1];
+        for (int i = 1; i <= first.size(); i++) {
+            for (int j = 1; j <= last.size(); j++) {
+                table[i][j] = first.get(i - 1).equals(last.get(j - 1))
+                    ? table[i - 1][j - 1] + 1
+                    : Math.max(table[i - 1][j], table[i][j - 1]);
+            }
+        }
+        return table[first.size()][last.size()];
+    }
+}
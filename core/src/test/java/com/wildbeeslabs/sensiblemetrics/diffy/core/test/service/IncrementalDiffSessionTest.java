@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.IncrementalDiffSession;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link IncrementalDiffSession} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class IncrementalDiffSessionTest {
+
+    @Test
+    public void test_IncrementalDiffSession_withLocalEdits() {
+        // given
+        final List<String> original = Arrays.asList("a", "b", "c", "d", "e", "f", "g");
+        final IncrementalDiffSession<String> session = new IncrementalDiffSession<>(original, original);
+
+        // when
+        session.edit(1, 2, Collections.singletonList("x"));
+        session.edit(5, 5, Arrays.asList("y", "z"));
+        final DefaultPatch<String> patch = session.getPatch();
+
+        // then
+        assertThat(session.getRevised(), IsEqual.equalTo(Arrays.asList("a", "x", "c", "d", "e", "y", "z", "f", "g")));
+        assertThat(patch.getDeltas().size(), IsEqual.equalTo(2));
+        assertThat(patch.getDeltas().get(0).getType(), IsEqual.equalTo(Delta.TYPE.CHANGE));
+        assertThat(patch.getDeltas().get(1).getType(), IsEqual.equalTo(Delta.TYPE.INSERT));
+        assertThat(patch.getDeltas().get(1).getRevised().getPosition(), IsEqual.equalTo(5));
+        assertThat(patch.applyTo(original), IsEqual.equalTo(session.getRevised()));
+    }
+
+    @Test
+    public void test_IncrementalDiffSession_withRandomEdits() {
+        // given
+        final Random random = new Random(42);
+        final List<Integer> original = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            original.add(random.nextInt(5));
+        }
+        final List<Integer> revised = new ArrayList<>(original);
+        final IncrementalDiffSession<Integer> session = new IncrementalDiffSession<>(original, revised);
+
+        for (int i = 0; i < 200; i++) {
+            final int from = random.nextInt(revised.size() + 1);
+            final int to = from + random.nextInt(Math.min(3, revised.size() - from) + 1);
+            final List<Integer> replacement = Collections.nCopies(random.nextInt(3), random.nextInt(5));
+            revised.subList(from, to).clear();
+            revised.addAll(from, replacement);
+
+            // when
+            session.edit(from, to, replacement);
+
+            // then
+            assertThat(session.getRevised(), IsEqual.equalTo(revised));
+            if (i % 7 == 0) {
+                // settles the pending offset, other edits keep it running across edit positions
+                assertThat(session.getPatch().applyTo(original), IsEqual.equalTo(revised));
+            }
+        }
+        assertThat(session.getPatch().applyTo(original), IsEqual.equalTo(revised));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.delta.RefinedChangeDelta;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.InlineDiff;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.DiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.InlineDiffRefiner;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link InlineDiffRefiner} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class InlineDiffRefinerTest {
+
+    private final List<String> original = Arrays.asList("int a = 1;", "foo(bar, baz);", "same");
+    private final List<String> revised = Arrays.asList("int b = 1;", "foo(bar,  qux);", "same");
+
+    @Test
+    public void test_InlineDiffRefiner_withWordGranularity() {
+        // given
+        final DefaultPatch<String> patch = new InlineDiffRefiner().refine(new DiffAlgorithmService<String>().diff(this.original, this.revised));
+        final RefinedChangeDelta delta = (RefinedChangeDelta) patch.getDeltas().get(0);
+
+        // when
+        final boolean refined = delta.isRefined();
+        final InlineDiff inlineDiff = delta.getInlineDiff();
+
+        // then
+        assertThat(refined, IsEqual.equalTo(false));
+        assertThat(delta.isRefined(), IsEqual.equalTo(true));
+        assertThat(inlineDiff.skipped, IsEqual.equalTo(false));
+        assertThat(inlineDiff.original, IsEqual.equalTo(Arrays.asList(new InlineDiff.Range(0, 4, 5), new InlineDiff.Range(1, 8, 12))));
+        assertThat(inlineDiff.revised, IsEqual.equalTo(Arrays.asList(new InlineDiff.Range(0, 4, 5), new InlineDiff.Range(1, 8, 13))));
+    }
+
+    @Test
+    public void test_InlineDiffRefiner_withCharacterGranularity() {
+        // given
+        final InlineDiffRefiner refiner = new InlineDiffRefiner(InlineDiffRefiner.Granularity.CHARACTER, 100);
+
+        // when
+        final DefaultPatch<String> patch = refiner.refineAll(new DiffAlgorithmService<String>().diff(this.original, this.revised));
+        final RefinedChangeDelta delta = (RefinedChangeDelta) patch.getDeltas().get(0);
+
+        // then
+        assertThat(delta.isRefined(), IsEqual.equalTo(true));
+        assertThat(delta.getInlineDiff().original, IsEqual.equalTo(Arrays.asList(new InlineDiff.Range(0, 4, 5), new InlineDiff.Range(1, 9, 12))));
+    }
+
+    @Test
+    public void test_InlineDiffRefiner_withLargeBlock() {
+        // given
+        final InlineDiffRefiner refiner = new InlineDiffRefiner(InlineDiffRefiner.Granularity.WORD, 10);
+
+        // when
+        final DefaultPatch<String> patch = refiner.refine(new DiffAlgorithmService<String>().diff(this.original, this.revised));
+
+        // then
+        assertThat(((RefinedChangeDelta) patch.getDeltas().get(0)).getInlineDiff().skipped, IsEqual.equalTo(true));
+    }
+}
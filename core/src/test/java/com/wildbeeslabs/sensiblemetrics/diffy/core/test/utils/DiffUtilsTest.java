@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.core.test.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.iface.Delta;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.entry.impl.DefaultPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.entry.utils.CompactPatch;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.service.DiffAlgorithmService;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.utils.DiffUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.core.utils.PatchCodecUtils;
+import org.hamcrest.core.IsEqual;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+
+/**
+ * Diff utils unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class DiffUtilsTest {
+
+    /**
+     * Default {@link ExpectedException} rule
+     */
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void test_writeUnifiedDiff_sameAsGenerateUnifiedDiff() throws IOException {
+        // given
+        final List<String> original = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i");
+        final List<String> revised = Arrays.asList("a", "x", "c", "d", "e", "f", "g", "i", "j");
+        final DefaultPatch<String> patch = new DiffAlgorithmService<String>().diff(original, revised);
+        final StringWriter writer = new StringWriter();
+
+        // when
+        final List<String> expected = DiffUtils.generateUnifiedDiff("original", "revised", original, patch, 1);
+        DiffUtils.writeUnifiedDiff("original", "revised", original, patch, 1, writer);
+
+        // then
+        assertThat(writer.toString(), IsEqual.equalTo(String.join("\n", expected) + "\n"));
+    }
+
+    @Test
+    public void test_parseUnifiedDiff_fromReader() throws IOException {
+        // given
+        final List<String> original = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i");
+        final List<String> revised = Arrays.asList("a", "x", "c", "d", "e", "f", "g", "i", "j");
+        final DefaultPatch<String> patch = new DiffAlgorithmService<String>().diff(original, revised);
+        final StringWriter writer = new StringWriter();
+        DiffUtils.writeUnifiedDiff("original", "revised", original, patch, 1, writer);
+        final List<Delta<String>> deltas = new ArrayList<>();
+
+        // when
+        DiffUtils.parseUnifiedDiff(new StringReader(writer.toString()), deltas::add);
+        final DefaultPatch<String> parsed = DiffUtils.parseUnifiedDiff(new StringReader(writer.toString()));
+
+        // then
+        assertThat(deltas.size(), IsEqual.equalTo(2));
+        assertThat(parsed.getDeltas(), IsEqual.equalTo(deltas));
+        assertThat(parsed.applyTo(original), IsEqual.equalTo(revised));
+    }
+
+    @Test
+    public void test_diffCompact_withBinaryCodec() throws IOException {
+        // given
+        final List<String> original = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i");
+        final List<String> revised = Arrays.asList("a", "x", "c", "d", "e", "f", "g", "i", "j");
+        final CompactPatch<String> patch = DiffUtils.diffCompact(original, revised, new DiffAlgorithmService<>());
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        PatchCodecUtils.encode(patch, new DataOutputStream(output));
+        final CompactPatch<String> decoded = PatchCodecUtils.decode(new DataInputStream(new ByteArrayInputStream(output.toByteArray())));
+
+        // then
+        assertThat(decoded, IsEqual.equalTo(patch));
+        assertThat(decoded.getInsertedElements(), IsEqual.equalTo(Arrays.asList("x", "j")));
+        assertThat(DiffUtils.patch(original, decoded), IsEqual.equalTo(revised));
+        assertThat(decoded.bind(original).getDeltas(), IsEqual.equalTo(new DiffAlgorithmService<String>().diff(original, revised).getDeltas()));
+    }
+
+    @Test
+    public void test_decodeCompact_withTruncatedContent() throws IOException {
+        // given
+        final CompactPatch<String> patch = DiffUtils.diffCompact(Arrays.asList("a", "b"), Arrays.asList("a", "x"), new DiffAlgorithmService<>());
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PatchCodecUtils.encode(patch, new DataOutputStream(output));
+        final byte[] content = Arrays.copyOf(output.toByteArray(), output.size() - 1);
+
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(startsWith("ERROR: compact patch declares 1 string bytes"));
+
+        // when
+        PatchCodecUtils.decode(content);
+    }
+
+    @Test
+    public void test_decodeCompact_withOversizedCount() throws IOException {
+        // given
+        final byte[] content = {0x43, 0x50, 0x54, 0x31, 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(startsWith("ERROR: compact patch declares 2147483647 ranges"));
+
+        // when
+        PatchCodecUtils.decode(content);
+    }
+
+    @Test
+    public void test_decodeCompact_withOverflowingVarInt() throws IOException {
+        // given
+        final byte[] content = {0x43, 0x50, 0x54, 0x31, 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(startsWith("ERROR: variable-length integer exceeds"));
+
+        // when
+        PatchCodecUtils.decode(new DataInputStream(new ByteArrayInputStream(content)));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.examples.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparatorUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.SortUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * {@link SortUtils} benchmark of top-K selection, partial and parallel sort against full {@link Collections#sort(List, Comparator)}
+ * <p>
+ * Usage: {@code SortUtilsBenchmark [size] [k] [iterations]}
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class SortUtilsBenchmark {
+
+    /**
+     * Default number of warmup iterations
+     */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    public static void main(final String[] args) {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final int k = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        final Random random = new Random(42);
+        final List<Integer> source = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            source.add(random.nextInt());
+        }
+        final Comparator<Integer> comparator = new ComparatorUtils.DefaultMultiComparator<>(Comparator.<Integer>naturalOrder());
+
+        final Map<String, Function<List<Integer>, Integer>> operations = new LinkedHashMap<>();
+        operations.put("full-sort", list -> {
+            final List<Integer> copy = new ArrayList<>(list);
+            Collections.sort(copy, comparator);
+            return copy.get(Math.min(k, copy.size()) - 1);
+        });
+        operations.put("top-k", list -> {
+            final List<Integer> result = SortUtils.topK(list, k, comparator);
+            return result.get(result.size() - 1);
+        });
+        operations.put("top-k-stream", list -> {
+            final List<Integer> result = SortUtils.topK(list.parallelStream(), k, comparator);
+            return result.get(result.size() - 1);
+        });
+        operations.put("partial-sort", list -> {
+            final List<Integer> copy = new ArrayList<>(list);
+            SortUtils.partialSort(copy, k, comparator);
+            return copy.get(Math.min(k, copy.size()) - 1);
+        });
+        operations.put("parallel-sort", list -> {
+            final List<Integer> copy = new ArrayList<>(list);
+            SortUtils.parallelSort(copy, comparator);
+            return copy.get(Math.min(k, copy.size()) - 1);
+        });
+
+        System.out.printf("size=%d, k=%d, iterations=%d%n", size, k, iterations);
+        operations.forEach((name, operation) -> {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                operation.apply(source);
+            }
+            Integer kth = null;
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                kth = operation.apply(source);
+            }
+            final long elapsed = (System.nanoTime() - start) / iterations;
+            System.out.printf("%-14s %10.3f ms/op, k-th=%d%n", name, elapsed / 1e6, kth);
+        });
+    }
+}
@@ -31,6 +31,7 @@ import com.wildbeeslabs.sensiblemetrics.diffy.comparator.factory.DefaultDiffComp
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.interfaces.DiffComparator;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.service.DefaultDiffComparator;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparatorUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparisonPlan;
 import com.wildbeeslabs.sensiblemetrics.diffy.examples.model.AddressInfo;
 import com.wildbeeslabs.sensiblemetrics.diffy.examples.model.DeliveryInfo;
 import com.wildbeeslabs.sensiblemetrics.diffy.examples.test.AbstractDeliveryInfoDiffTest;
@@ -49,6 +50,7 @@ import org.junit.jupiter.api.DisplayName;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.wildbeeslabs.sensiblemetrics.diffy.common.utils.DateUtils.toDate;
 import static java.util.Arrays.asList;
@@ -696,4 +698,96 @@ public class DeliveryInfoDiffComparatorTest extends AbstractDeliveryInfoDiffTest
         assertThat(valueChangeList, not(hasItem(entry)));
         assertEquals(this.getDeliveryInfoFirst().getAddresses(), this.getDeliveryInfoLast().getAddresses());
     }
+
+    @Test
+    @DisplayName("Test comparing delivery info entities with nested addresses by graph comparator")
+    public void test_entitiesWithNestedAddresses_by_graphComparator() {
+        // given
+        final AddressInfo sharedAddress = getAddressInfoMock().val();
+        final AddressInfo firstAddress = getAddressInfoMock().val();
+        final AddressInfo lastAddress = AddressInfo.builder()
+            .id(firstAddress.getId())
+            .city(firstAddress.getCity() + "-changed")
+            .country(firstAddress.getCountry())
+            .stateOrProvince(firstAddress.getStateOrProvince())
+            .postalCode(firstAddress.getPostalCode())
+            .street(firstAddress.getStreet())
+            .build();
+        this.getDeliveryInfoFirst().setAddresses(asList(sharedAddress, firstAddress));
+        this.getDeliveryInfoLast().setAddresses(asList(sharedAddress, lastAddress));
+
+        final DiffComparator<DeliveryInfo> diffComparator = DefaultDiffComparatorFactory.createGraph(DeliveryInfo.class);
+
+        // when
+        final Iterable<DefaultDiffEntry> iterable = diffComparator.diffCompare(this.getDeliveryInfoFirst(), this.getDeliveryInfoLast());
+        assertNotNull("Collection of difference entries should not be null", iterable);
+        final List<DefaultDiffEntry> valueChangeList = Lists.newArrayList(iterable);
+
+        // then
+        assertThat(valueChangeList, hasItem(DefaultDiffEntry.of("addresses[1].city", firstAddress.getCity(), lastAddress.getCity())));
+        assertThat(valueChangeList, not(hasItem(DefaultDiffEntry.of("addresses", this.getDeliveryInfoFirst().getAddresses(), this.getDeliveryInfoLast().getAddresses()))));
+        assertThat(valueChangeList.stream().filter(entry -> entry.getPropertyName().startsWith("addresses[0]")).count(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Test comparing delivery info entities by properties changed after the first comparison")
+    public void test_entitiesWithPropertiesChangedAfterComparison_by_defaultComparator() {
+        // given
+        final DefaultDiffComparator<DeliveryInfo> diffComparator = DefaultDiffComparatorFactory.create(DeliveryInfo.class);
+        this.getDeliveryInfoFirst().setType(1);
+        this.getDeliveryInfoLast().setType(2);
+        final DefaultDiffEntry entry = DefaultDiffEntry.of("type", 1, 2);
+        final List<DefaultDiffEntry> initial = Lists.newArrayList(diffComparator.diffCompare(this.getDeliveryInfoFirst(), this.getDeliveryInfoLast()));
+        final ComparisonPlan<DeliveryInfo> plan = diffComparator.getPlan();
+
+        // when
+        diffComparator.excludeProperty("type");
+        final List<DefaultDiffEntry> excluded = Lists.newArrayList(diffComparator.diffCompare(this.getDeliveryInfoFirst(), this.getDeliveryInfoLast()));
+        diffComparator.includeProperties(asList("type"));
+        final List<DefaultDiffEntry> included = Lists.newArrayList(diffComparator.diffCompare(this.getDeliveryInfoFirst(), this.getDeliveryInfoLast()));
+
+        // then
+        assertThat(initial, hasItem(entry));
+        assertThat(excluded, not(hasItem(entry)));
+        assertThat(included, IsEqual.equalTo(Collections.singletonList(entry)));
+        assertThat(diffComparator.getPlan(), not(sameInstance(plan)));
+    }
+
+    @Test
+    @DisplayName("Test comparing delivery info entities by mutable properties changed after the first comparison")
+    public void test_entitiesWithMutatedProperties_by_cachingComparator() {
+        // given
+        final DefaultDiffComparator<DeliveryInfo> diffComparator = DefaultDiffComparatorFactory.createCaching(DeliveryInfo.class, 16);
+        final List<AddressInfo> addresses = this.getDeliveryInfoFirst().getAddresses();
+        this.getDeliveryInfoFirst().setAddresses(new ArrayList<>(addresses));
+        this.getDeliveryInfoLast().setAddresses(new ArrayList<>(addresses));
+        this.getDeliveryInfoFirst().setCreatedAt(new Date(0));
+        this.getDeliveryInfoLast().setCreatedAt(new Date(0));
+        final List<DefaultDiffEntry> initial = Lists.newArrayList(diffComparator.diffCompare(this.getDeliveryInfoFirst(), this.getDeliveryInfoLast()));
+
+        // when
+        this.getDeliveryInfoFirst().getAddresses().add(this.getAddressInfoMock().val());
+        this.getDeliveryInfoFirst().getCreatedAt().setTime(1000);
+        final List<DefaultDiffEntry> mutated = Lists.newArrayList(diffComparator.diffCompare(this.getDeliveryInfoFirst(), this.getDeliveryInfoLast()));
+        final List<String> properties = mutated.stream().map(DefaultDiffEntry::getPropertyName).collect(Collectors.toList());
+
+        // then
+        assertThat(initial.stream().map(DefaultDiffEntry::getPropertyName).collect(Collectors.toList()), not(hasItem("addresses")));
+        assertThat(initial.stream().map(DefaultDiffEntry::getPropertyName).collect(Collectors.toList()), not(hasItem("createdAt")));
+        assertThat(properties, hasItem("addresses"));
+        assertThat(properties, hasItem("createdAt"));
+        assertThat(diffComparator.getComparatorCaches().keySet(), not(hasItem("addresses")));
+        assertThat(diffComparator.getComparatorCaches().keySet(), not(hasItem("createdAt")));
+        assertThat(diffComparator.getComparatorCaches().keySet(), hasItem("description"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @DisplayName("Test modifying delivery info comparator properties bypassing comparator")
+    public void test_modifyingPropertySet_by_defaultComparator() {
+        // given
+        final DefaultDiffComparator<DeliveryInfo> diffComparator = DefaultDiffComparatorFactory.create(DeliveryInfo.class);
+
+        // when
+        diffComparator.getPropertySet().remove("type");
+    }
 }
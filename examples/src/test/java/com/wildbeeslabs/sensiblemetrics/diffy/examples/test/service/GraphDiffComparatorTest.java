@@ -0,0 +1,266 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.examples.test.service;
+
+import com.google.common.collect.Lists;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.service.GraphDiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadataCache;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.impl.DefaultDiffEntry;
+import lombok.Data;
+import lombok.ToString;
+import org.hamcrest.core.IsEqual;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Graph difference comparator unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class GraphDiffComparatorTest {
+
+    /**
+     * Default tree depth
+     */
+    private static final int DEFAULT_DEPTH = 12;
+
+    @Before
+    public void setUp() {
+        Node.HASH_CODE_CALLS.set(0);
+        Node.EQUALS_CALLS.set(0);
+    }
+
+    @Test
+    @DisplayName("Test comparing trees differing in a single leaf by graph comparator")
+    public void test_treesWithChangedLeaf_by_graphComparator() {
+        // given
+        final Node first = Node.tree(DEFAULT_DEPTH, 0);
+        final Node last = Node.tree(DEFAULT_DEPTH, 0);
+        Node leaf = last;
+        final StringBuilder path = new StringBuilder();
+        while (Objects.nonNull(leaf.right)) {
+            leaf = leaf.right;
+            path.append("right.");
+        }
+        leaf.value = -1;
+        final int size = (1 << DEFAULT_DEPTH) - 1;
+
+        // when
+        final List<DiffEntry<?>> entries = Lists.newArrayList((Iterable<DiffEntry<?>>) new GraphDiffComparator<>(Node.class).diffCompare(first, last));
+
+        // then
+        assertThat(entries, IsEqual.equalTo(Collections.singletonList(DefaultDiffEntry.of(path + "value", size - 1, -1))));
+        assertThat(Node.HASH_CODE_CALLS.get(), IsEqual.equalTo(0));
+        assertThat(Node.EQUALS_CALLS.get(), lessThanOrEqualTo(size));
+    }
+
+    @Test
+    @DisplayName("Test comparing trees differing in a single leaf by graph comparator with equality short-circuit")
+    public void test_treesWithChangedLeaf_by_shortCircuitGraphComparator() {
+        // given
+        final Node first = Node.tree(DEFAULT_DEPTH, 0);
+        final Node last = Node.tree(DEFAULT_DEPTH, 0);
+        Node leaf = last;
+        while (Objects.nonNull(leaf.left)) {
+            leaf = leaf.left;
+        }
+        leaf.value = -1;
+        final int size = (1 << DEFAULT_DEPTH) - 1;
+
+        // when
+        final List<DiffEntry<?>> entries = Lists.newArrayList((Iterable<DiffEntry<?>>) newShortCircuitComparator(Node.class).diffCompare(first, last));
+
+        // then
+        assertThat(entries.size(), IsEqual.equalTo(1));
+        assertThat(entries.get(0).getLast(), IsEqual.equalTo(-1));
+        assertThat(Node.HASH_CODE_CALLS.get(), IsEqual.equalTo(0));
+        assertThat(Node.EQUALS_CALLS.get(), lessThanOrEqualTo(size));
+    }
+
+    @Test
+    @DisplayName("Test comparing equal trees by graph comparator")
+    public void test_equalTrees_by_graphComparator() {
+        // given
+        final Node first = Node.tree(DEFAULT_DEPTH, 0);
+        final Node last = Node.tree(DEFAULT_DEPTH, 0);
+
+        // when
+        final Iterable<DiffEntry<?>> entries = new GraphDiffComparator<>(Node.class).diffCompare(first, last);
+
+        // then
+        assertThat(entries.iterator().hasNext(), IsEqual.equalTo(false));
+        assertThat(Node.EQUALS_CALLS.get(), IsEqual.equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Test comparing equal trees by graph comparator with equality short-circuit")
+    public void test_equalTrees_by_shortCircuitGraphComparator() {
+        // given
+        final Node first = Node.tree(DEFAULT_DEPTH, 0);
+        final Node last = Node.tree(DEFAULT_DEPTH, 0);
+
+        // when
+        final Iterable<DiffEntry<?>> entries = newShortCircuitComparator(Node.class).diffCompare(first, last);
+
+        // then
+        assertThat(entries.iterator().hasNext(), IsEqual.equalTo(false));
+        assertThat(Node.EQUALS_CALLS.get(), IsEqual.equalTo((1 << DEFAULT_DEPTH) - 1));
+    }
+
+    @Test
+    @DisplayName("Test comparing equal cyclic graphs by graph comparator with equality short-circuit")
+    public void test_equalCyclicGraphs_by_shortCircuitGraphComparator() {
+        // given
+        final Parent first = Parent.of("parent", "first", "last");
+        final Parent last = Parent.of("parent", "first", "last");
+
+        // when
+        final Iterable<DiffEntry<?>> entries = newShortCircuitComparator(Parent.class).diffCompare(first, last);
+
+        // then
+        assertThat(entries.iterator().hasNext(), IsEqual.equalTo(false));
+    }
+
+    @Test
+    @DisplayName("Test comparing cyclic graphs differing in a child by graph comparator")
+    public void test_cyclicGraphsWithChangedChild_by_graphComparator() {
+        // given
+        final Parent first = Parent.of("parent", "first", "last");
+        final Parent last = Parent.of("parent", "first", "changed");
+
+        // when
+        final List<DiffEntry<?>> defaultEntries = Lists.newArrayList((Iterable<DiffEntry<?>>) new GraphDiffComparator<>(Parent.class).diffCompare(first, last));
+        final List<DiffEntry<?>> shortCircuitEntries = Lists.newArrayList((Iterable<DiffEntry<?>>) newShortCircuitComparator(Parent.class).diffCompare(first, last));
+
+        // then
+        final List<DiffEntry<?>> expected = Collections.singletonList(DefaultDiffEntry.of("children[1].name", "last", "changed"));
+        assertThat(defaultEntries, IsEqual.equalTo(expected));
+        assertThat(shortCircuitEntries, IsEqual.equalTo(expected));
+    }
+
+    private static <T> GraphDiffComparator<T> newShortCircuitComparator(final Class<? extends T> clazz) {
+        return new GraphDiffComparator<>(clazz, GraphDiffComparator.DEFAULT_MAX_DEPTH, true, ClassMetadataCache.getDefault());
+    }
+
+    /**
+     * Parent bean with generated equality referencing children back (bidirectional)
+     */
+    @Data
+    public static class Parent {
+        private String name;
+        private List<Child> children = new ArrayList<>();
+
+        static Parent of(final String name, final String... children) {
+            final Parent parent = new Parent();
+            parent.setName(name);
+            for (final String child : children) {
+                final Child item = new Child();
+                item.setName(child);
+                item.setParent(parent);
+                parent.getChildren().add(item);
+            }
+            return parent;
+        }
+    }
+
+    /**
+     * Child bean with generated equality referencing its parent
+     */
+    @Data
+    @ToString(exclude = "parent")
+    public static class Child {
+        private String name;
+        private Parent parent;
+    }
+
+    /**
+     * Binary tree node declaring structural equality
+     */
+    static class Node {
+
+        /**
+         * Default number of {@link #hashCode()} calls
+         */
+        static final AtomicInteger HASH_CODE_CALLS = new AtomicInteger();
+        /**
+         * Default number of {@link #equals(Object)} calls
+         */
+        static final AtomicInteger EQUALS_CALLS = new AtomicInteger();
+
+        private int value;
+        private Node left;
+        private Node right;
+
+        /**
+         * Returns complete binary tree of the given depth with values numbered in-order
+         *
+         * @param depth - initial input tree depth
+         * @param from  - initial input value of the leftmost node
+         * @return root {@link Node}
+         */
+        static Node tree(final int depth, final int from) {
+            if (0 == depth) {
+                return null;
+            }
+            final Node node = new Node();
+            final int size = (1 << (depth - 1)) - 1;
+            node.left = tree(depth - 1, from);
+            node.value = from + size;
+            node.right = tree(depth - 1, from + size + 1);
+            return node;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            EQUALS_CALLS.incrementAndGet();
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Node)) {
+                return false;
+            }
+            final Node node = (Node) other;
+            return this.value == node.value && Objects.equals(this.left, node.left) && Objects.equals(this.right, node.right);
+        }
+
+        @Override
+        public int hashCode() {
+            HASH_CODE_CALLS.incrementAndGet();
+            return Objects.hash(this.value, this.left, this.right);
+        }
+    }
+}
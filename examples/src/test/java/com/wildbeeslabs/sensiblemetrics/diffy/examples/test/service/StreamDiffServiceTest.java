@@ -0,0 +1,386 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.examples.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.service.DefaultDiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.service.StreamDiffService;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.KeyedDiffResult;
+import org.hamcrest.core.IsEqual;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Keyed stream difference service unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class StreamDiffServiceTest {
+
+    /**
+     * Default spill directory {@link Path}
+     */
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("diffy-stream-");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (final Path file : files.collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(this.directory);
+    }
+
+    @Test
+    @DisplayName("Test difference of streams sorted by key")
+    public void test_diffSorted_withSortedStreams() {
+        // given
+        final StreamDiffService<Item, Integer> service = this.createService(Integer.MAX_VALUE, 4);
+        final List<Item> first = Arrays.asList(Item.of(1, "a"), Item.of(2, "b"), Item.of(3, "c"), Item.of(5, "e"));
+        final List<Item> last = Arrays.asList(Item.of(2, "b"), Item.of(3, "x"), Item.of(4, "d"), Item.of(5, "e"), Item.of(6, "f"));
+
+        // when
+        final List<String> result;
+        try (Stream<KeyedDiffResult<Integer, Item>> stream = service.diffSorted(first.stream(), last.stream(), Comparator.naturalOrder())) {
+            result = stream.map(StreamDiffServiceTest::describe).collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(result, IsEqual.equalTo(Arrays.asList("REMOVED:1", "CHANGED:3", "ADDED:4", "ADDED:6")));
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams in memory")
+    public void test_diffUnsorted_inMemory() {
+        // given
+        final StreamDiffService<Item, Integer> service = this.createService(Integer.MAX_VALUE, 4);
+        final List<Item> first = Arrays.asList(Item.of(5, "e"), Item.of(3, "c"), Item.of(1, "a"), Item.of(2, "b"));
+        final List<Item> last = Arrays.asList(Item.of(6, "f"), Item.of(2, "b"), Item.of(5, "e"), Item.of(4, "d"), Item.of(3, "x"));
+
+        // when
+        final List<String> result = sorted(service.diffUnsorted(first.stream(), last.stream()));
+
+        // then
+        assertThat(result, IsEqual.equalTo(Arrays.asList("ADDED:4", "ADDED:6", "CHANGED:3", "REMOVED:1")));
+        assertThat(this.spillFiles(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams spilled to temporary files")
+    public void test_diffUnsorted_withSpill() {
+        // given
+        final Random random = new Random(11);
+        final List<Item> first = randomItems(random, 2000);
+        final List<Item> last = randomItems(random, 2000);
+        final List<String> expected = sorted(this.createService(Integer.MAX_VALUE, 4).diffUnsorted(first.stream(), last.stream()));
+
+        // when
+        final List<String> result;
+        final long spilled;
+        try (Stream<KeyedDiffResult<Integer, Item>> stream = this.createService(256, 16).diffUnsorted(first.stream(), last.stream())) {
+            spilled = this.spillFiles();
+            result = stream.map(StreamDiffServiceTest::describe).sorted().collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(spilled > 0, IsEqual.equalTo(true));
+        assertThat(result, IsEqual.equalTo(expected));
+        assertThat(this.spillFiles(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams with spill partitions exceeding in-memory limit")
+    public void test_diffUnsorted_withRepartition() {
+        // given
+        final Random random = new Random(13);
+        final List<Item> first = randomItems(random, 2000);
+        final List<Item> last = randomItems(random, 2000);
+        final List<String> expected = sorted(this.createService(Integer.MAX_VALUE, 4).diffUnsorted(first.stream(), last.stream()));
+
+        // when
+        final List<String> result = sorted(this.createService(100, 2).diffUnsorted(first.stream(), last.stream()));
+
+        // then
+        assertThat(result, IsEqual.equalTo(expected));
+        assertThat(this.spillFiles(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams closed before all partitions are read")
+    public void test_diffUnsorted_withPartialRead() {
+        // given
+        final Random random = new Random(17);
+        final List<Item> first = randomItems(random, 500);
+        final List<Item> last = randomItems(random, 500);
+
+        // when
+        try (Stream<KeyedDiffResult<Integer, Item>> stream = this.createService(16, 4).diffUnsorted(first.stream(), last.stream())) {
+            assertThat(stream.iterator().hasNext(), IsEqual.equalTo(true));
+        }
+
+        // then
+        assertThat(this.spillFiles(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams with keys sharing the same hash")
+    public void test_diffUnsorted_withCollidingHashes() {
+        // given
+        final StreamDiffService<Item, Collision> service = new StreamDiffService<>(new DefaultDiffComparator<>(Item.class), item -> new Collision(item.getId()), 4, 4, this.directory);
+        final List<Item> items = randomItems(new Random(19), 20);
+
+        // when
+        try (Stream<KeyedDiffResult<Collision, Item>> stream = service.diffUnsorted(items.stream(), items.stream())) {
+            stream.forEach(result -> {
+            });
+            fail("Spill partition exceeding in-memory limit should not be joined");
+        } catch (IllegalStateException e) {
+            // then
+            assertThat(e.getMessage(), containsString("exceeds in-memory limit {4}"));
+        }
+        assertThat(this.spillFiles(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Test difference of sorted streams with duplicate keys")
+    public void test_diffSorted_withDuplicateKeys() {
+        // given
+        final StreamDiffService<Item, Integer> service = this.createService(Integer.MAX_VALUE, 4);
+        final List<Item> first = Arrays.asList(Item.of(1, "a"), Item.of(2, "b"), Item.of(2, "c"));
+
+        // when
+        try (Stream<KeyedDiffResult<Integer, Item>> stream = service.diffSorted(first.stream(), Stream.empty(), Comparator.naturalOrder())) {
+            stream.forEach(result -> {
+            });
+            fail("Duplicate keys should not be joined");
+        } catch (IllegalStateException e) {
+            // then
+            assertThat(e.getMessage(), containsString("keys should be sorted and unique, found: {2} after {2}"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams by sorted join")
+    public void test_diffSorted_withUnsortedKeys() {
+        // given
+        final StreamDiffService<Item, Integer> service = this.createService(Integer.MAX_VALUE, 4);
+        final List<Item> last = Arrays.asList(Item.of(3, "c"), Item.of(1, "a"));
+
+        // when
+        try (Stream<KeyedDiffResult<Integer, Item>> stream = service.diffSorted(Stream.empty(), last.stream(), Comparator.naturalOrder())) {
+            stream.forEach(result -> {
+            });
+            fail("Unsorted keys should not be joined");
+        } catch (IllegalStateException e) {
+            // then
+            assertThat(e.getMessage(), containsString("found: {1} after {3}"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams with duplicate keys in memory")
+    public void test_diffUnsorted_withDuplicateKeys() {
+        // given
+        final StreamDiffService<Item, Integer> service = this.createService(Integer.MAX_VALUE, 4);
+        final AtomicBoolean firstClosed = new AtomicBoolean();
+        final AtomicBoolean lastClosed = new AtomicBoolean();
+        final Stream<Item> first = Stream.of(Item.of(1, "a")).onClose(() -> firstClosed.set(true));
+        final Stream<Item> last = Stream.of(Item.of(1, "a"), Item.of(1, "b")).onClose(() -> lastClosed.set(true));
+
+        // when
+        try {
+            service.diffUnsorted(first, last);
+            fail("Duplicate keys should not be indexed");
+        } catch (IllegalStateException e) {
+            // then
+            assertThat(e.getMessage(), containsString("duplicate key: {1}"));
+        }
+        assertThat(firstClosed.get(), IsEqual.equalTo(true));
+        assertThat(lastClosed.get(), IsEqual.equalTo(true));
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams with duplicate keys in spill partition")
+    public void test_diffUnsorted_withDuplicateKeysInSpill() {
+        // given
+        final StreamDiffService<Item, Integer> service = this.createService(2, 4);
+        final List<Item> last = Arrays.asList(Item.of(1, "a"), Item.of(2, "b"), Item.of(3, "c"), Item.of(2, "d"));
+
+        // when
+        try (Stream<KeyedDiffResult<Integer, Item>> stream = service.diffUnsorted(Stream.empty(), last.stream())) {
+            stream.forEach(result -> {
+            });
+            fail("Duplicate keys should not be indexed");
+        } catch (IllegalStateException e) {
+            // then
+            assertThat(e.getMessage(), containsString("duplicate key: {2}"));
+        }
+        assertThat(this.spillFiles(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Test difference of unsorted streams with spill failure")
+    public void test_diffUnsorted_withSpillFailure() {
+        // given
+        final StreamDiffService<Item, Integer> service = this.createService(2, 4);
+        final AtomicBoolean firstClosed = new AtomicBoolean();
+        final AtomicBoolean lastClosed = new AtomicBoolean();
+        final Item broken = Item.of(3, "c");
+        broken.setPayload(new Object());
+        final Stream<Item> first = Stream.of(Item.of(1, "a")).onClose(() -> firstClosed.set(true));
+        final Stream<Item> last = Stream.of(Item.of(1, "a"), Item.of(2, "b"), broken).onClose(() -> lastClosed.set(true));
+
+        // when
+        try {
+            service.diffUnsorted(first, last);
+            fail("Not serializable elements should not be spilled");
+        } catch (UncheckedIOException e) {
+            // then
+            assertThat(e.getMessage(), containsString("java.lang.Object"));
+        }
+        assertThat(firstClosed.get(), IsEqual.equalTo(true));
+        assertThat(lastClosed.get(), IsEqual.equalTo(true));
+        assertThat(this.spillFiles(), IsEqual.equalTo(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test difference of null stream")
+    public void test_diffUnsorted_withNullStream() {
+        // then
+        this.createService(Integer.MAX_VALUE, 4).diffUnsorted(Stream.empty(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test keyed stream difference service with invalid in-memory limit")
+    public void test_streamDiffService_withInvalidLimit() {
+        // then
+        this.createService(0, 4);
+    }
+
+    private StreamDiffService<Item, Integer> createService(int maxInMemory, int partitions) {
+        return new StreamDiffService<>(new DefaultDiffComparator<>(Item.class), Item::getId, maxInMemory, partitions, this.directory);
+    }
+
+    private long spillFiles() {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Item> randomItems(final Random random, int size) {
+        final List<Item> result = IntStream.range(0, size)
+            .filter(id -> random.nextInt(4) > 0)
+            .mapToObj(id -> Item.of(id, String.valueOf(random.nextInt(3))))
+            .collect(Collectors.toList());
+        Collections.shuffle(result, random);
+        return result;
+    }
+
+    private static List<String> sorted(final Stream<? extends KeyedDiffResult<?, ?>> results) {
+        try (Stream<? extends KeyedDiffResult<?, ?>> stream = results) {
+            return stream.map(StreamDiffServiceTest::describe).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String describe(final KeyedDiffResult<?, ?> result) {
+        return result.getType() + ":" + result.getKey();
+    }
+
+    static class Item implements Serializable {
+        private int id;
+        private String value;
+        private Object payload;
+
+        static Item of(int id, final String value) {
+            final Item result = new Item();
+            result.id = id;
+            result.value = value;
+            return result;
+        }
+
+        int getId() {
+            return this.id;
+        }
+
+        void setPayload(final Object payload) {
+            this.payload = payload;
+        }
+    }
+
+    static class Collision {
+        private final int id;
+
+        Collision(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Collision && this.id == ((Collision) other).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(this.id);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.examples.test.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ArrayDiffUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparisonPlan;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.MismatchRange;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Array difference utilities unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class ArrayDiffUtilsTest {
+
+    @Test
+    @DisplayName("Test mismatch ranges of equal arrays")
+    public void test_mismatches_withEqualArrays() {
+        assertThat(ArrayDiffUtils.mismatches(new int[]{1, 2, 3}, new int[]{1, 2, 3}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new long[]{1, 2, 3}, new long[]{1, 2, 3}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new double[]{1, 2, 3}, new double[]{1, 2, 3}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new float[]{1, 2, 3}, new float[]{1, 2, 3}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new short[]{1, 2, 3}, new short[]{1, 2, 3}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new byte[]{1, 2, 3}, new byte[]{1, 2, 3}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new char[]{'a', 'b'}, new char[]{'a', 'b'}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new boolean[]{true, false}, new boolean[]{true, false}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new String[]{"a", null}, new String[]{"a", null}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new int[0], new int[0]), IsEqual.equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    @DisplayName("Test mismatch ranges of arrays differing only in length")
+    public void test_mismatches_withDifferentLength() {
+        assertThat(ArrayDiffUtils.mismatches(new int[]{1, 2}, new int[]{1, 2, 3, 4}), IsEqual.equalTo(ranges(2, 4)));
+        assertThat(ArrayDiffUtils.mismatches(new long[]{1, 2, 3}, new long[]{1}), IsEqual.equalTo(ranges(1, 3)));
+        assertThat(ArrayDiffUtils.mismatches(new byte[0], new byte[]{1, 2}), IsEqual.equalTo(ranges(0, 2)));
+        assertThat(ArrayDiffUtils.mismatches(new Object[]{"a"}, new Object[0]), IsEqual.equalTo(ranges(0, 1)));
+    }
+
+    @Test
+    @DisplayName("Test mismatch ranges of arrays differing at start and end")
+    public void test_mismatches_atStartAndEnd() {
+        assertThat(ArrayDiffUtils.mismatches(new int[]{9, 2, 3}, new int[]{1, 2, 3}), IsEqual.equalTo(ranges(0, 1)));
+        assertThat(ArrayDiffUtils.mismatches(new int[]{1, 2, 3}, new int[]{1, 2, 9}), IsEqual.equalTo(ranges(2, 3)));
+        assertThat(ArrayDiffUtils.mismatches(new char[]{'x', 'b', 'c', 'y'}, new char[]{'a', 'b', 'c', 'd'}), IsEqual.equalTo(ranges(0, 1, 3, 4)));
+        assertThat(ArrayDiffUtils.mismatches(new short[]{1, 2, 3}, new short[]{1, 2, 9, 4}), IsEqual.equalTo(ranges(2, 4)));
+        assertThat(ArrayDiffUtils.mismatches(new boolean[]{true, true, false}, new boolean[]{false, false, false}), IsEqual.equalTo(ranges(0, 2)));
+    }
+
+    @Test
+    @DisplayName("Test mismatch ranges of large arrays")
+    public void test_mismatches_withLargeArrays() {
+        // given
+        final long[] first = new long[1000];
+        final long[] last = new long[1000];
+        Arrays.setAll(first, i -> i);
+        Arrays.setAll(last, i -> i);
+        last[0] = -1;
+        Arrays.fill(last, 500, 510, -1);
+        last[999] = -1;
+
+        // when
+        final List<MismatchRange> result = ArrayDiffUtils.mismatches((Object) first, last);
+
+        // then
+        assertThat(result, IsEqual.equalTo(ranges(0, 1, 500, 510, 999, 1000)));
+        assertThat(result.get(1).length(), IsEqual.equalTo(10));
+    }
+
+    @Test
+    @DisplayName("Test mismatch ranges of floating point arrays with NaN and negative zero")
+    public void test_mismatches_withNaNAndNegativeZero() {
+        final double otherNaN = Double.longBitsToDouble(0x7ff8000000000001L);
+        assertThat(ArrayDiffUtils.mismatches(new double[]{Double.NaN, 1}, new double[]{otherNaN, 1}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new double[]{Double.NaN, 0.0, 1}, new double[]{Double.NaN, -0.0, 1}), IsEqual.equalTo(ranges(1, 2)));
+        assertThat(ArrayDiffUtils.mismatches(new double[]{1, Double.NaN}, new double[]{1, 2}), IsEqual.equalTo(ranges(1, 2)));
+        assertThat(ArrayDiffUtils.mismatches(new float[]{Float.NaN, 1}, new float[]{Float.intBitsToFloat(0x7fc00001), 1}), IsEqual.equalTo(Collections.emptyList()));
+        assertThat(ArrayDiffUtils.mismatches(new float[]{-0.0f, 0.0f}, new float[]{0.0f, 0.0f}), IsEqual.equalTo(ranges(0, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test mismatch ranges of arrays of different types")
+    public void test_mismatches_withDifferentTypes() {
+        // then
+        ArrayDiffUtils.mismatches((Object) new int[]{1}, new long[]{1});
+    }
+
+    @Test
+    @DisplayName("Test difference entries of primitive properties")
+    public void test_diffComparePrimitive_withAllTypes() {
+        // given
+        final ComparisonPlan<Primitives> plan = ComparisonPlan.compile(Arrays.asList(Primitives.class.getDeclaredFields()), property -> ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
+        final Primitives first = Primitives.of(1, 2L, 3.0, true, 4.0f, (short) 5, (byte) 6, 'a');
+        final Primitives last = Primitives.of(7, 8L, 9.0, false, 10.0f, (short) 11, (byte) 12, 'b');
+
+        // when
+        final List<DiffEntry<?>> result = plan.diffCompare(first, last);
+
+        // then
+        plan.getProperties().forEach(property -> assertThat(property.getPrimitiveGetter(), notNullValue()));
+        assertThat(describe(result), IsEqual.equalTo(Arrays.asList(
+            "intValue: 1 -> 7", "longValue: 2 -> 8", "doubleValue: 3.0 -> 9.0", "booleanValue: true -> false",
+            "floatValue: 4.0 -> 10.0", "shortValue: 5 -> 11", "byteValue: 6 -> 12", "charValue: a -> b")));
+        assertThat(result.get(0).getFirst(), IsEqual.equalTo(1));
+        assertThat(result.get(6).getLast(), IsEqual.equalTo((byte) 12));
+        assertThat(plan.diffCompare(first, Primitives.of(1, 2L, 3.0, true, 4.0f, (short) 5, (byte) 6, 'a')), IsEqual.equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    @DisplayName("Test difference entries of primitive floating point properties with NaN and negative zero")
+    public void test_diffComparePrimitive_withNaNAndNegativeZero() {
+        // given
+        final ComparisonPlan<Primitives> plan = ComparisonPlan.compile(Arrays.asList(Primitives.class.getDeclaredFields()), property -> ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
+
+        // when
+        final List<DiffEntry<?>> nan = plan.diffCompare(
+            Primitives.of(0, 0L, Double.NaN, false, Float.NaN, (short) 0, (byte) 0, 'a'),
+            Primitives.of(0, 0L, Double.longBitsToDouble(0x7ff8000000000001L), false, Float.intBitsToFloat(0x7fc00001), (short) 0, (byte) 0, 'a'));
+        final List<DiffEntry<?>> zero = plan.diffCompare(
+            Primitives.of(0, 0L, 0.0, false, 0.0f, (short) 0, (byte) 0, 'a'),
+            Primitives.of(0, 0L, -0.0, false, -0.0f, (short) 0, (byte) 0, 'a'));
+
+        // then
+        assertThat(nan, IsEqual.equalTo(Collections.emptyList()));
+        assertThat(describe(zero), IsEqual.equalTo(Arrays.asList("doubleValue: 0.0 -> -0.0", "floatValue: 0.0 -> -0.0")));
+    }
+
+    @Test
+    @DisplayName("Test difference entries of primitive properties by custom comparator")
+    public void test_diffComparePrimitive_withCustomComparator() {
+        // given
+        final Comparator<Object> comparator = (o1, o2) -> 0;
+        final ComparisonPlan<Primitives> plan = ComparisonPlan.compile(Arrays.asList(Primitives.class.getDeclaredFields()), property -> "intValue".equals(property) ? comparator : ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
+
+        // when
+        final List<DiffEntry<?>> result = plan.diffCompare(
+            Primitives.of(1, 0L, 0.0, false, 0.0f, (short) 0, (byte) 0, 'a'),
+            Primitives.of(2, 0L, 0.0, false, 0.0f, (short) 0, (byte) 0, 'a'));
+
+        // then
+        assertThat(plan.getProperties().get(0).getPrimitiveGetter(), nullValue());
+        assertThat(result, IsEqual.equalTo(Collections.emptyList()));
+    }
+
+    private static List<MismatchRange> ranges(final int... bounds) {
+        final List<MismatchRange> result = new ArrayList<>();
+        for (int i = 0; i < bounds.length; i += 2) {
+            result.add(MismatchRange.of(bounds[i], bounds[i + 1]));
+        }
+        return result;
+    }
+
+    private static List<String> describe(final List<DiffEntry<?>> entries) {
+        final List<String> result = new ArrayList<>();
+        for (final DiffEntry<?> entry : entries) {
+            result.add(entry.getPropertyName() + ": " + entry.getFirst() + " -> " + entry.getLast());
+        }
+        return result;
+    }
+
+    static class Primitives {
+        private int intValue;
+        private long longValue;
+        private double doubleValue;
+        private boolean booleanValue;
+        private float floatValue;
+        private short shortValue;
+        private byte byteValue;
+        private char charValue;
+
+        static Primitives of(int intValue, long longValue, double doubleValue, boolean booleanValue, float floatValue, short shortValue, byte byteValue, char charValue) {
+            final Primitives result = new Primitives();
+            result.intValue = intValue;
+            result.longValue = longValue;
+            result.doubleValue = doubleValue;
+            result.booleanValue = booleanValue;
+            result.floatValue = floatValue;
+            result.shortValue = shortValue;
+            result.byteValue = byteValue;
+            result.charValue = charValue;
+            return result;
+        }
+    }
+}
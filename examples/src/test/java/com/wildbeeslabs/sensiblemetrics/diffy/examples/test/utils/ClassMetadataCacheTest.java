@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.examples.test.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadata;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ClassMetadataCache;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.lang.reflect.Field;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Class metadata cache unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class ClassMetadataCacheTest {
+
+    @Test
+    @DisplayName("Test resolving shadowed fields of class metadata")
+    public void test_classMetadata_withShadowedFields() {
+        // when
+        final ClassMetadata metadata = ClassMetadata.of(Derived.class);
+        final Field name = metadata.getFields().get("name");
+        final Field id = metadata.getFields().get("id");
+
+        // then
+        assertThat(metadata.getFields().size(), IsEqual.equalTo(3));
+        assertThat(name.getDeclaringClass(), IsEqual.equalTo(Derived.class));
+        assertThat(name.getType(), IsEqual.equalTo(Integer.class));
+        assertThat(id.getDeclaringClass(), IsEqual.equalTo(Base.class));
+        assertThat(metadata.getFields().containsKey("code"), IsEqual.equalTo(true));
+    }
+
+    @Test
+    @DisplayName("Test reading shadowed fields by class metadata getters")
+    public void test_classMetadata_withShadowedGetter() throws Throwable {
+        // given
+        final Derived value = new Derived();
+        value.name = 7;
+        ((Base) value).name = "base";
+
+        // when
+        final Object name = ClassMetadata.of(Derived.class).getGetter("name").invoke(value);
+
+        // then
+        assertThat(name, IsEqual.equalTo(7));
+    }
+
+    @Test
+    @DisplayName("Test hits and misses of class metadata cache")
+    public void test_classMetadataCache_withHitsAndMisses() {
+        // given
+        final ClassMetadataCache cache = new ClassMetadataCache(2);
+
+        // when
+        final ClassMetadata first = cache.get(Base.class);
+        final ClassMetadata last = cache.get(Base.class);
+
+        // then
+        assertThat(last, sameInstance(first));
+        assertThat(cache.getMissCount(), IsEqual.equalTo(1L));
+        assertThat(cache.getHitCount(), IsEqual.equalTo(1L));
+        assertThat(cache.getHitRate(), IsEqual.equalTo(0.5));
+        assertThat(cache.size(), IsEqual.equalTo(1));
+    }
+
+    @Test
+    @DisplayName("Test eviction of oldest entries of class metadata cache")
+    public void test_classMetadataCache_withEviction() {
+        // given
+        final ClassMetadataCache cache = new ClassMetadataCache(2);
+        final ClassMetadata base = cache.get(Base.class);
+        cache.get(Derived.class);
+
+        // when
+        cache.get(Other.class);
+        final ClassMetadata reloaded = cache.get(Base.class);
+
+        // then
+        assertThat(cache.getEvictionCount(), IsEqual.equalTo(2L));
+        assertThat(cache.size(), IsEqual.equalTo(2));
+        assertThat(cache.getMissCount(), IsEqual.equalTo(4L));
+        assertThat(reloaded, not(sameInstance(base)));
+        assertThat(reloaded, IsEqual.equalTo(base));
+    }
+
+    @Test
+    @DisplayName("Test invalidation and clearing of class metadata cache")
+    public void test_classMetadataCache_withInvalidation() {
+        // given
+        final ClassMetadataCache cache = new ClassMetadataCache(4);
+        final ClassMetadata base = cache.get(Base.class);
+        final ClassMetadata derived = cache.get(Derived.class);
+
+        // when
+        cache.invalidate(Base.class);
+        final ClassMetadata invalidated = cache.get(Base.class);
+        cache.clear();
+        final ClassMetadata cleared = cache.get(Derived.class);
+
+        // then
+        assertThat(invalidated, not(sameInstance(base)));
+        assertThat(cleared, not(sameInstance(derived)));
+        assertThat(cache.getHitCount(), IsEqual.equalTo(0L));
+        assertThat(cache.size(), IsEqual.equalTo(1));
+    }
+
+    static class Base {
+        protected String name;
+        protected int id;
+    }
+
+    static class Derived extends Base {
+        private Integer name;
+        private String code;
+    }
+
+    static class Other {
+        private long value;
+    }
+}
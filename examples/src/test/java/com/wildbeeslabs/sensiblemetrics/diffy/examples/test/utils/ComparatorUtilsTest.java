@@ -28,7 +28,12 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.sort.SortManager;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.enumeration.OptimizeType;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.CachingComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.CollectionDiffResult;
 import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparatorUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.CompiledComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.SortUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.examples.model.AddressInfo;
 import com.wildbeeslabs.sensiblemetrics.diffy.examples.model.DeliveryInfo;
 import com.wildbeeslabs.sensiblemetrics.diffy.examples.test.AbstractDiffTest;
@@ -46,6 +51,7 @@ import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Instant;
+import java.time.Year;
 import java.util.*;
 import java.util.function.Function;
 
@@ -1242,6 +1248,158 @@ public class ComparatorUtilsTest extends AbstractDiffTest {
         assertThat(comparator.compare(d1, d2), IsEqual.equalTo(0));
     }
 
+    @Test
+    @DisplayName("Test different list objects by keyed unordered comparator")
+    public void test_iterableListObjects_by_keyedComparator() {
+        // given
+        final AddressInfo a1 = AddressInfo.builder().id(1L).city("Moscow").build();
+        final AddressInfo a2 = AddressInfo.builder().id(2L).city("London").build();
+        final AddressInfo a3 = AddressInfo.builder().id(2L).city("Paris").build();
+        final AddressInfo a4 = AddressInfo.builder().id(3L).city("Berlin").build();
+        final List<AddressInfo> d1 = Arrays.asList(a1, a2);
+        final List<AddressInfo> d2 = Arrays.asList(a4, a3, a1);
+
+        // when
+        final ComparatorUtils.DefaultNullSafeIterableComparator<AddressInfo> comparator = new ComparatorUtils.DefaultNullSafeIterableComparator<>(AddressInfo::getId, Comparator.comparing(AddressInfo::getCity), false);
+        final CollectionDiffResult<AddressInfo> result = comparator.diff(d1, d2);
+
+        // then
+        assertThat(result.getAdded(), IsEqual.equalTo(Collections.singletonList(a4)));
+        assertThat(result.getRemoved(), hasSize(0));
+        assertThat(result.getChanged(), IsEqual.equalTo(Collections.singletonList(CollectionDiffResult.Change.of(a2, a3))));
+        assertThat(comparator.compare(d1, d2), IsEqual.equalTo(-1));
+        assertThat(comparator.compare(d1, Arrays.asList(a2, a1)), IsEqual.equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Test different list objects by keyed ordered comparator")
+    public void test_iterableListObjects_by_keyedOrderedComparator() {
+        // given
+        final List<String> d1 = Arrays.asList("a", "b", "c", "d", "e");
+        final List<String> d2 = Arrays.asList("b", "c", "x", "e", "a");
+
+        // when
+        final ComparatorUtils.DefaultNullSafeIterableComparator<String> comparator = new ComparatorUtils.DefaultNullSafeIterableComparator<>(Function.identity(), null, true);
+        final CollectionDiffResult<String> result = comparator.diff(d1, d2);
+
+        // then
+        assertThat(result.getRemoved(), IsEqual.equalTo(Arrays.asList("a", "d")));
+        assertThat(result.getAdded(), IsEqual.equalTo(Arrays.asList("x", "a")));
+        assertThat(result.getChanged(), hasSize(0));
+        assertThat(comparator.compare(d1, d2), IsEqual.equalTo(-1));
+        assertThat(comparator.compare(d2, d1), IsEqual.equalTo(1));
+        assertThat(comparator.compare(d1, Arrays.asList("a", "b", "c", "e", "d")), IsEqual.equalTo(-1));
+        assertThat(comparator.compare(Arrays.asList("a", "b", "c", "e", "d"), d1), IsEqual.equalTo(1));
+    }
+
+    @Test
+    @DisplayName("Test repeated currency objects by caching comparator")
+    public void test_currencyObjects_by_cachingComparator() {
+        // given
+        final List<Currency> currencies = Arrays.asList(Currency.getInstance("EUR"), Currency.getInstance("USD"), Currency.getInstance("GBP"));
+        final Comparator<Currency> delegate = new ComparatorUtils.DefaultNullSafeCurrencyComparator();
+
+        // when
+        final CachingComparator<Currency> comparator = new CachingComparator<>(delegate);
+        for (int i = 0; i < 100; i++) {
+            for (final Currency first : currencies) {
+                for (final Currency last : currencies) {
+                    // then
+                    assertThat(comparator.compare(first, last), IsEqual.equalTo(delegate.compare(first, last)));
+                }
+            }
+        }
+        assertThat(comparator.getMissCount(), IsEqual.equalTo(9L));
+        assertThat(comparator.getHitCount(), IsEqual.equalTo(891L));
+        assertThat(comparator.isBypassed(), IsEqual.equalTo(false));
+    }
+
+    @Test
+    @DisplayName("Test mutated list objects by caching comparator")
+    public void test_mutatedListObjects_by_cachingComparator() {
+        // given
+        final List<Integer> d1 = new ArrayList<>(Arrays.asList(1, 2));
+        final List<Integer> d2 = new ArrayList<>(Arrays.asList(1, 2));
+        final CachingComparator<List<Integer>> comparator = new CachingComparator<>(Comparator.comparingInt(List::size));
+
+        // when
+        final int initial = comparator.compare(d1, d2);
+        d1.add(3);
+        final int mutated = comparator.compare(d1, d2);
+
+        // then
+        assertThat(initial, IsEqual.equalTo(0));
+        assertThat(mutated, IsEqual.equalTo(1));
+        assertThat(comparator.getHitCount(), IsEqual.equalTo(0L));
+        assertThat(comparator.getMissCount(), IsEqual.equalTo(0L));
+        assertThat(comparator.isCacheable(ArrayList.class), IsEqual.equalTo(false));
+    }
+
+    @Test
+    @DisplayName("Test year objects by caching comparator with allowed types")
+    public void test_yearObjects_by_cachingComparatorWithAllowedTypes() {
+        // given
+        final Comparator<Year> delegate = Comparator.naturalOrder();
+        final CachingComparator<Year> comparator = new CachingComparator<>(delegate, 16);
+        final CachingComparator<Year> allowed = new CachingComparator<>(delegate, 16, Collections.singleton(Year.class));
+
+        // when
+        for (int i = 0; i < 2; i++) {
+            comparator.compare(Year.of(2019), Year.of(2020));
+            allowed.compare(Year.of(2019), Year.of(2020));
+        }
+
+        // then
+        assertThat(comparator.getMissCount() + comparator.getHitCount(), IsEqual.equalTo(0L));
+        assertThat(allowed.getMissCount(), IsEqual.equalTo(1L));
+        assertThat(allowed.getHitCount(), IsEqual.equalTo(1L));
+        assertThat(allowed.isCacheable(String.class), IsEqual.equalTo(true));
+    }
+
+    @Test
+    @DisplayName("Test top-k / partial sort of integer objects by optimize type comparator")
+    public void test_integerObjects_by_topKSelection() {
+        // given
+        final List<Integer> d1 = Arrays.asList(3, 1, 4, 1, 5, 9, 2, 6, 5, 3);
+
+        // when
+        final List<Integer> best = SortUtils.best(d1, 3, OptimizeType.MAXIMUM);
+        final List<Integer> worst = SortUtils.topK(d1.stream(), 3, OptimizeType.MAXIMUM.<Integer>ascending());
+        final List<Integer> d2 = new ArrayList<>(d1);
+        SortUtils.partialSort(d2, 4, Comparator.naturalOrder());
+
+        // then
+        assertThat(best, IsEqual.equalTo(Arrays.asList(9, 6, 5)));
+        assertThat(worst, IsEqual.equalTo(Arrays.asList(1, 1, 2)));
+        assertThat(d2.subList(0, 4), IsEqual.equalTo(Arrays.asList(1, 1, 2, 3)));
+        assertThat(d2, hasSize(d1.size()));
+    }
+
+    @Test
+    @DisplayName("Test address objects by compiled multi-key comparator")
+    public void test_addressObjects_by_compiledComparator() {
+        // given
+        final AddressInfo d1 = AddressInfo.builder().id(1L).city("berlin").build();
+        final AddressInfo d2 = AddressInfo.builder().id(2L).city("Berlin").build();
+        final AddressInfo d3 = AddressInfo.builder().id(3L).city("Amsterdam").build();
+        final AddressInfo d4 = AddressInfo.builder().id(4L).build();
+        final SortManager sort = SortManager.by(
+            new SortManager.SortOrder(SortManager.SortDirection.ASC, "city", SortManager.NullPriority.NULLS_LAST).ignoreCase(),
+            SortManager.SortOrder.desc("id")
+        );
+
+        // when
+        final CompiledComparator<AddressInfo> comparator = CompiledComparator.compile(AddressInfo.class, sort);
+        final List<AddressInfo> sorted = new ArrayList<>(Arrays.asList(d4, d1, d3, d2));
+        final List<AddressInfo> precomputed = new ArrayList<>(Arrays.asList(d4, d1, d3, d2));
+        comparator.sort(sorted, false);
+        comparator.sort(precomputed, true);
+
+        // then
+        assertThat(sorted, IsEqual.equalTo(Arrays.asList(d3, d2, d1, d4)));
+        assertThat(precomputed, IsEqual.equalTo(sorted));
+    }
+
     /**
      * Return matcher {@link Matcher} by collection of integers {@link List} in descending order
      *
@@ -0,0 +1,225 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.examples.test.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.service.DefaultDiffComparator;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.ComparisonPlan;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.entry.iface.DiffEntry;
+import org.hamcrest.core.IsEqual;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Comparison plan unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class ComparisonPlanTest {
+
+    /**
+     * Default {@link ExpectedException} rule
+     */
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Default executor {@link ExecutorService} to evaluate chunks on
+     */
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test parallel comparison plan returns the same entries in the same order as sequential")
+    public void test_comparisonPlan_parallelEqualsSequential() {
+        // given
+        final ComparisonPlan<Wide> plan = ComparisonPlan.compile(Arrays.asList(Wide.class.getDeclaredFields()), property -> ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
+        final Random random = new Random(17);
+
+        for (int i = 0; i < 100; i++) {
+            final Wide first = Wide.random(random);
+            final Wide last = Wide.random(random);
+
+            // when
+            final List<String> expected = describe(plan.diffCompare(first, last));
+
+            // then
+            for (final int chunks : new int[]{2, 3, 5, plan.size() - 1, plan.size()}) {
+                assertThat(describe(plan.diffCompare(first, last, this.executor, chunks)), IsEqual.equalTo(expected));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel comparison plan with more chunks than properties")
+    public void test_comparisonPlan_withMoreChunksThanProperties() {
+        // given
+        final ComparisonPlan<Wide> plan = ComparisonPlan.compile(Arrays.asList(Wide.class.getDeclaredFields()), property -> ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
+        final Wide first = Wide.random(new Random(1));
+        final Wide last = Wide.random(new Random(2));
+
+        // when
+        final List<String> expected = describe(plan.diffCompare(first, last));
+        final List<String> actual = describe(plan.diffCompare(first, last, this.executor, plan.size() + 7));
+        final List<String> unbounded = describe(plan.diffCompare(first, last, this.executor, Integer.MAX_VALUE));
+
+        // then
+        assertThat(expected.isEmpty(), IsEqual.equalTo(false));
+        assertThat(actual, IsEqual.equalTo(expected));
+        assertThat(unbounded, IsEqual.equalTo(expected));
+    }
+
+    @Test
+    @DisplayName("Test comparison plan with single chunk is evaluated by calling thread")
+    public void test_comparisonPlan_withSingleChunk() {
+        // given
+        final ComparisonPlan<Wide> plan = ComparisonPlan.compile(Arrays.asList(Wide.class.getDeclaredFields()), property -> ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
+        final Wide first = Wide.random(new Random(3));
+        final Wide last = Wide.random(new Random(4));
+
+        // when
+        final List<String> expected = describe(plan.diffCompare(first, last));
+        final List<String> single = describe(plan.diffCompare(first, last, command -> {
+            throw new RejectedExecutionException();
+        }, 1));
+        final List<String> none = describe(plan.diffCompare(first, last, command -> {
+            throw new RejectedExecutionException();
+        }, 0));
+
+        // then
+        assertThat(single, IsEqual.equalTo(expected));
+        assertThat(none, IsEqual.equalTo(expected));
+    }
+
+    @Test
+    @DisplayName("Test parallel comparison plan rethrows property comparator exception")
+    public void test_comparisonPlan_withFailingComparator() {
+        // given
+        final Comparator<Object> failing = (o1, o2) -> {
+            throw new IllegalStateException("failing comparator");
+        };
+        final ComparisonPlan<Wide> plan = ComparisonPlan.compile(Arrays.asList(Wide.class.getDeclaredFields()), property -> "name".equals(property) ? failing : ComparisonPlan.DEFAULT_PROPERTY_COMPARATOR);
+        final Wide first = Wide.random(new Random(5));
+        final Wide last = Wide.random(new Random(6));
+        first.name = "first";
+        last.name = "last";
+
+        // when
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("failing comparator");
+
+        // then
+        plan.diffCompare(first, last, this.executor, plan.size());
+    }
+
+    @Test
+    @DisplayName("Test parallel diff comparator returns the same entries in the same order as sequential")
+    public void test_diffComparator_withParallel() {
+        // given
+        final DefaultDiffComparator<Wide> sequential = new DefaultDiffComparator<>(Wide.class);
+        final DefaultDiffComparator<Wide> parallel = new DefaultDiffComparator<>(Wide.class);
+        parallel.enableParallel(1, this.executor);
+        final DefaultDiffComparator<Wide> common = new DefaultDiffComparator<>(Wide.class);
+        common.enableParallel(1, null);
+        final Random random = new Random(23);
+
+        for (int i = 0; i < 100; i++) {
+            final Wide first = Wide.random(random);
+            final Wide last = Wide.random(random);
+
+            // when
+            final List<String> expected = describe(sequential.diffCompare(first, last));
+
+            // then
+            assertThat(describe(parallel.diffCompare(first, last)), IsEqual.equalTo(expected));
+            assertThat(describe(common.diffCompare(first, last)), IsEqual.equalTo(expected));
+        }
+    }
+
+    private static List<String> describe(final Iterable<? extends DiffEntry<?>> entries) {
+        final List<String> result = new ArrayList<>();
+        for (final DiffEntry<?> entry : entries) {
+            result.add(entry.getPropertyName() + ": " + entry.getFirst() + " -> " + entry.getLast());
+        }
+        return result;
+    }
+
+    static class Wide {
+        private int id;
+        private long count;
+        private double ratio;
+        private boolean active;
+        private char grade;
+        private String name;
+        private String code;
+        private Integer rank;
+        private Long total;
+        private Double price;
+        private List<String> tags;
+        private short level;
+
+        static Wide random(final Random random) {
+            final Wide result = new Wide();
+            result.id = random.nextInt(2);
+            result.count = random.nextInt(2);
+            result.ratio = random.nextInt(2) / 2.0;
+            result.active = random.nextBoolean();
+            result.grade = (char) ('a' + random.nextInt(2));
+            result.name = random.nextBoolean() ? "name" : null;
+            result.code = "code" + random.nextInt(2);
+            result.rank = random.nextBoolean() ? random.nextInt(2) : null;
+            result.total = (long) random.nextInt(2);
+            result.price = random.nextInt(2) * 1.5;
+            result.tags = random.nextBoolean() ? Arrays.asList("a", "b") : Arrays.asList("b", "a");
+            result.level = (short) random.nextInt(2);
+            return result;
+        }
+    }
+}
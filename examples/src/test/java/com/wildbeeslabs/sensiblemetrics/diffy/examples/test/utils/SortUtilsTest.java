@@ -0,0 +1,196 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.examples.test.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.enumeration.OptimizeType;
+import com.wildbeeslabs.sensiblemetrics.diffy.comparator.utils.SortUtils;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Sort utilities unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class SortUtilsTest {
+
+    /**
+     * Default sizes of input lists (below and above selection threshold)
+     */
+    private static final int[] SIZES = {0, 1, 15, 16, 17, 100, 1000, 20000};
+
+    @Test
+    @DisplayName("Test partial sort of integer lists against full sort")
+    public void test_partialSort_againstFullSort() {
+        for (final Map.Entry<String, List<Integer>> input : inputs(new Random(7)).entrySet()) {
+            for (final int k : limits(input.getValue().size())) {
+                // given
+                final List<Integer> list = new ArrayList<>(input.getValue());
+                final List<Integer> expected = sorted(input.getValue(), Comparator.naturalOrder());
+
+                // when
+                SortUtils.partialSort(list, k, Comparator.naturalOrder());
+
+                // then
+                final int size = Math.min(k, list.size());
+                assertThat(input.getKey() + ", k=" + k, list.subList(0, size), IsEqual.equalTo(expected.subList(0, size)));
+                assertThat(input.getKey() + ", k=" + k, sorted(list, Comparator.naturalOrder()), IsEqual.equalTo(expected));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test partial sort of linked list in reverse order")
+    public void test_partialSort_withLinkedListAndReverseOrder() {
+        // given
+        final List<Integer> source = inputs(new Random(11)).get("duplicates-1000");
+        final List<Integer> list = new LinkedList<>(source);
+        final List<Integer> expected = sorted(source, Comparator.reverseOrder());
+
+        // when
+        SortUtils.partialSort(list, 100, Comparator.reverseOrder());
+
+        // then
+        assertThat(list.subList(0, 100), IsEqual.equalTo(expected.subList(0, 100)));
+        assertThat(list.size(), IsEqual.equalTo(source.size()));
+    }
+
+    @Test
+    @DisplayName("Test top-k selection of integer iterables and streams against full sort")
+    public void test_topK_againstFullSort() {
+        for (final Map.Entry<String, List<Integer>> input : inputs(new Random(13)).entrySet()) {
+            for (final int k : limits(input.getValue().size())) {
+                // given
+                final List<Integer> expected = sorted(input.getValue(), Comparator.naturalOrder());
+                final List<Integer> prefix = expected.subList(0, Math.min(k, expected.size()));
+
+                // when
+                final List<Integer> iterable = SortUtils.topK(input.getValue(), k, Comparator.naturalOrder());
+                final List<Integer> stream = SortUtils.topK(input.getValue().stream(), k, Comparator.naturalOrder());
+                final List<Integer> parallel = SortUtils.topK(input.getValue().parallelStream(), k, Comparator.naturalOrder());
+
+                // then
+                assertThat(input.getKey() + ", k=" + k, iterable, IsEqual.equalTo(prefix));
+                assertThat(input.getKey() + ", k=" + k, stream, IsEqual.equalTo(prefix));
+                assertThat(input.getKey() + ", k=" + k, parallel, IsEqual.equalTo(prefix));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test best elements selection of large integer list by optimize type")
+    public void test_best_withLargeInput() {
+        // given
+        final List<Integer> source = inputs(new Random(17)).get("random-20000");
+        final List<Integer> descending = sorted(source, Comparator.reverseOrder());
+        final List<Integer> ascending = sorted(source, Comparator.naturalOrder());
+
+        // when
+        final List<Integer> maximum = SortUtils.best(source, 50, OptimizeType.MAXIMUM);
+        final List<Integer> minimum = SortUtils.best(source, 50, OptimizeType.MINIMUM);
+
+        // then
+        assertThat(maximum, IsEqual.equalTo(descending.subList(0, 50)));
+        assertThat(minimum, IsEqual.equalTo(ascending.subList(0, 50)));
+    }
+
+    @Test
+    @DisplayName("Test parallel sort of integer lists against full sort and its stability")
+    public void test_parallelSort_againstFullSort() {
+        for (final Map.Entry<String, List<Integer>> input : inputs(new Random(19)).entrySet()) {
+            // given
+            final List<Integer> list = new ArrayList<>(input.getValue());
+
+            // when
+            SortUtils.parallelSort(list, Comparator.naturalOrder());
+
+            // then
+            assertThat(input.getKey(), list, IsEqual.equalTo(sorted(input.getValue(), Comparator.naturalOrder())));
+        }
+
+        // given
+        final List<int[]> pairs = IntStream.range(0, 20000).mapToObj(i -> new int[]{i % 7, i}).collect(Collectors.toList());
+        Collections.shuffle(pairs, new Random(23));
+        final List<int[]> expected = new ArrayList<>(pairs);
+        expected.sort(Comparator.comparingInt(pair -> pair[0]));
+
+        // when
+        SortUtils.parallelSort(pairs, Comparator.comparingInt(pair -> pair[0]));
+
+        // then
+        assertThat(pairs, IsEqual.equalTo(expected));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test partial sort with negative number of elements")
+    public void test_partialSort_withNegativeLimit() {
+        // then
+        SortUtils.partialSort(new ArrayList<>(Arrays.asList(1, 2, 3)), -1, Comparator.<Integer>naturalOrder());
+    }
+
+    private static Map<String, List<Integer>> inputs(final Random random) {
+        final Map<String, List<Integer>> result = new LinkedHashMap<>();
+        for (final int size : SIZES) {
+            result.put("random-" + size, generate(size, i -> random.nextInt()));
+            result.put("duplicates-" + size, generate(size, i -> random.nextInt(3)));
+            result.put("equal-" + size, generate(size, i -> 42));
+            result.put("sorted-" + size, generate(size, i -> i));
+            result.put("reversed-" + size, generate(size, i -> size - i));
+            result.put("organ-pipe-" + size, generate(size, i -> Math.min(i, size - i)));
+        }
+        return result;
+    }
+
+    private static List<Integer> generate(int size, final IntUnaryOperator generator) {
+        return IntStream.range(0, size).map(generator).boxed().collect(Collectors.toList());
+    }
+
+    private static int[] limits(int size) {
+        return IntStream.of(0, 1, 2, 16, 17, size / 2, size - 1, size, size + 5).filter(k -> k >= 0).distinct().toArray();
+    }
+
+    private static List<Integer> sorted(final List<Integer> list, final Comparator<Integer> comparator) {
+        final List<Integer> result = new ArrayList<>(list);
+        result.sort(comparator);
+        return result;
+    }
+}
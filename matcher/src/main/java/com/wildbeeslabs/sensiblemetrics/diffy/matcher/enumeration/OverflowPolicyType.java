@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.enumeration;
+
+/**
+ * Event queue overflow policy type {@link Enum} applied when a bounded event queue is full
+ * <p>
+ * 3 basic implementations are provided:
+ * <ul>
+ * <li>{@link #DROP_NEWEST} discards incoming event</li>
+ * <li>{@link #DROP_OLDEST} discards the oldest queued event to make room for incoming one</li>
+ * <li>{@link #CALLER_RUNS} delivers incoming event on the publishing thread (backpressure)</li>
+ * </ul>
+ */
+public enum OverflowPolicyType {
+    DROP_NEWEST,
+    DROP_OLDEST,
+    CALLER_RUNS;
+
+    /**
+     * Returns binary flag based on current policy discarding events
+     *
+     * @return true - if current policy discards events, false - otherwise
+     */
+    public boolean isDropping() {
+        return !this.equals(CALLER_RUNS);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.handler.impl;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.event.BaseMatcherEvent;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.handler.iface.MatcherHandler;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.listener.iface.MatcherEventListener;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Abstract {@link MatcherHandler} implementation dispatching events to {@link MatcherEventListener}s
+ *
+ * @param <T> type of input element to be matched by operation
+ */
+@EqualsAndHashCode
+@ToString
+public abstract class AbstractMatcherHandler<T, S> implements MatcherHandler<T, S> {
+
+    /**
+     * Default {@link Duration} timeout (5000 in millis)
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(5000);
+
+    /**
+     * Returns binary flag by input {@link BaseMatcherEvent}
+     *
+     * @param <E>   type of processing event
+     * @param event - initial input {@link BaseMatcherEvent}
+     * @return true - if event handler is enabled, false - otherwise
+     */
+    protected <E extends BaseMatcherEvent<T, S>> boolean isEnableMode(final E event) {
+        return Objects.nonNull(event) && event.getMatcher().isEnable();
+    }
+
+    /**
+     * Invokes {@link MatcherEventListener} by {@link BaseMatcherEvent} type
+     *
+     * @param <E>      type of processing event
+     * @param event    - initial input {@link BaseMatcherEvent}
+     * @param listener - initial input {@link MatcherEventListener}
+     */
+    protected <E extends BaseMatcherEvent<T, S>> void invokeEventListener(final E event, final MatcherEventListener<T, S> listener) {
+        switch (event.getStateType()) {
+            case MATCH_SUCCESS:
+                listener.onSuccess(event);
+                break;
+            case MATCH_FAILURE:
+                listener.onFailure(event);
+                break;
+            case MATCH_SKIP:
+                listener.onSkip(event);
+                break;
+            case MATCH_ERROR:
+                listener.onError(event);
+                break;
+            case MATCH_START:
+                listener.onStart(event);
+                break;
+            case MATCH_COMPLETE:
+                listener.onComplete(event);
+                break;
+            case MATCH_BEFORE:
+                listener.onBefore(event);
+                break;
+            case MATCH_AFTER:
+                listener.onAfter(event);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.handler.impl;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.enumeration.OverflowPolicyType;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.event.BaseMatcherEvent;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.handler.iface.MatcherHandler;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.BaseMatcher;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.listener.iface.MatcherEventListener;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batching {@link MatcherHandler} implementation
+ * <p>
+ * Publishes events into a bounded lock-free ring buffer and returns immediately; dedicated consumer threads
+ * drain the buffer in batches and deliver events to matcher listeners. When the buffer is full the configured
+ * {@link OverflowPolicyType} is applied, so the publishing (matching) thread never waits for a consumer.
+ * Events are delivered in publishing order when a single consumer is used and no event is delivered
+ * on the publishing thread by {@link OverflowPolicyType#CALLER_RUNS}.
+ *
+ * @param <T> type of input element to be matched by operation
+ */
+@Slf4j
+@Getter
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+@ToString(callSuper = true, onlyExplicitlyIncluded = true)
+public class BatchingMatcherHandler<T, S> extends AbstractMatcherHandler<T, S> implements AutoCloseable {
+
+    /**
+     * Default ring buffer capacity
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+    /**
+     * Default maximum number of events delivered per batch
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    /**
+     * Default number of consumer threads
+     */
+    public static final int DEFAULT_CONSUMERS = 1;
+    /**
+     * Default maximum consumer park time (in nanos) while buffer is empty
+     */
+    private static final long DEFAULT_PARK_NANOS = Duration.ofMillis(1).toNanos();
+    /**
+     * Default number of empty polls before consumer parks
+     */
+    private static final int DEFAULT_SPIN_TRIES = 128;
+
+    /**
+     * Default ring buffer capacity
+     */
+    @ToString.Include
+    private final int capacity;
+    /**
+     * Default maximum batch size
+     */
+    @ToString.Include
+    private final int batchSize;
+    /**
+     * Default {@link OverflowPolicyType}
+     */
+    @ToString.Include
+    private final OverflowPolicyType overflowPolicy;
+    /**
+     * Default event ring buffer
+     */
+    @Getter(AccessLevel.NONE)
+    private final RingBuffer<BaseMatcherEvent<T, S>> buffer;
+    /**
+     * Default consumer {@link Thread}s
+     */
+    @Getter(AccessLevel.NONE)
+    private final Thread[] consumers;
+    /**
+     * Default number of parked consumers
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger parked = new AtomicInteger();
+    /**
+     * Default running flag
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile boolean running = true;
+
+    /**
+     * Default number of events accepted into ring buffer
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder published = new LongAdder();
+    /**
+     * Default number of events delivered by consumers
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder consumed = new LongAdder();
+    /**
+     * Default number of events delivered on publishing thread
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder callerRuns = new LongAdder();
+    /**
+     * Default number of discarded incoming events
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder rejected = new LongAdder();
+    /**
+     * Default number of discarded queued events
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder evicted = new LongAdder();
+    /**
+     * Default number of failed listener invocations
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Default batching matcher handler constructor
+     */
+    public BatchingMatcherHandler() {
+        this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_CONSUMERS, OverflowPolicyType.DROP_NEWEST, null);
+    }
+
+    /**
+     * Batching matcher handler constructor with input arguments
+     *
+     * @param capacity       - initial input ring buffer capacity (rounded up to power of two)
+     * @param batchSize      - initial input maximum number of events delivered per batch
+     * @param consumers      - initial input number of consumer threads
+     * @param overflowPolicy - initial input {@link OverflowPolicyType}
+     * @param threadFactory  - initial input consumer {@link ThreadFactory} (daemon threads are used by default)
+     */
+    public BatchingMatcherHandler(int capacity, int batchSize, int consumers, final OverflowPolicyType overflowPolicy, final ThreadFactory threadFactory) {
+        ValidationUtils.isTrue(capacity > 0 && capacity <= 1 << 30, "Capacity should be in range (0, 2^30]");
+        ValidationUtils.isTrue(batchSize > 0, "Batch size should be greater than zero");
+        ValidationUtils.isTrue(consumers > 0, "Number of consumers should be greater than zero");
+        ValidationUtils.notNull(overflowPolicy, "Overflow policy should not be null");
+
+        this.buffer = new RingBuffer<>(capacity);
+        this.capacity = this.buffer.capacity();
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.consumers = new Thread[consumers];
+
+        final ThreadFactory factory = Optional.ofNullable(threadFactory).orElseGet(BatchingMatcherHandler::newDaemonThreadFactory);
+        for (int i = 0; i < consumers; i++) {
+            this.consumers[i] = factory.newThread(this::consume);
+        }
+        for (final Thread consumer : this.consumers) {
+            consumer.start();
+        }
+    }
+
+    /**
+     * {@link BaseMatcherEvent} handler by input event {@code E}, never waits for delivery
+     *
+     * @param <E>   type of processing event
+     * @param event - initial input event {@link E} to handle
+     */
+    @Override
+    public <E extends BaseMatcherEvent<T, S>> void handleEvent(final E event) {
+        if (!this.isEnableMode(event)) {
+            return;
+        }
+        if (!this.running) {
+            this.rejected.increment();
+            return;
+        }
+        if (this.buffer.offer(event)) {
+            this.onPublished();
+            return;
+        }
+        switch (this.overflowPolicy) {
+            case DROP_OLDEST:
+                if (Objects.nonNull(this.buffer.poll())) {
+                    this.evicted.increment();
+                }
+                if (this.buffer.offer(event)) {
+                    this.onPublished();
+                } else {
+                    this.rejected.increment();
+                }
+                break;
+            case CALLER_RUNS:
+                this.deliver(event, this.listenersOf(event));
+                this.callerRuns.increment();
+                break;
+            default:
+                this.rejected.increment();
+                break;
+        }
+    }
+
+    /**
+     * Returns current number of queued events
+     *
+     * @return number of queued events
+     */
+    public int getQueueDepth() {
+        return this.buffer.size();
+    }
+
+    /**
+     * Returns number of events accepted into ring buffer
+     *
+     * @return number of published events
+     */
+    public long getPublishedCount() {
+        return this.published.sum();
+    }
+
+    /**
+     * Returns number of events delivered to listeners (including events delivered on publishing thread)
+     *
+     * @return number of delivered events
+     */
+    public long getDeliveredCount() {
+        return this.consumed.sum() + this.callerRuns.sum();
+    }
+
+    /**
+     * Returns number of events discarded by {@link OverflowPolicyType} or after handler has been closed
+     *
+     * @return number of dropped events
+     */
+    public long getDroppedCount() {
+        return this.rejected.sum() + this.evicted.sum();
+    }
+
+    /**
+     * Returns number of listener invocations failed with exception (including events whose listeners cannot be resolved)
+     *
+     * @return number of failed listener invocations
+     */
+    public long getFailureCount() {
+        return this.failed.sum();
+    }
+
+    /**
+     * Waits until all published events are either delivered or dropped
+     *
+     * @param timeout - initial input {@link Duration} to wait for
+     * @return true - if all published events have been processed, false - if timeout elapsed
+     */
+    public boolean awaitDrained(final Duration timeout) {
+        ValidationUtils.notNull(timeout, "Timeout should not be null");
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (this.published.sum() > this.consumed.sum() + this.evicted.sum()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(DEFAULT_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting events, waits for consumers to terminate (at most {@link AbstractMatcherHandler#DEFAULT_TIMEOUT})
+     * and delivers events still queued on closing thread
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        this.unparkConsumers();
+        final long deadline = System.nanoTime() + DEFAULT_TIMEOUT.toNanos();
+        for (final Thread consumer : this.consumers) {
+            try {
+                consumer.join(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        this.drain();
+    }
+
+    private void onPublished() {
+        this.published.increment();
+        if (!this.running) {
+            this.drain();
+        } else if (this.parked.get() > 0) {
+            this.unparkConsumers();
+        }
+    }
+
+    private void unparkConsumers() {
+        for (final Thread consumer : this.consumers) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Consumer loop draining ring buffer in batches
+     */
+    @SuppressWarnings("unchecked")
+    private void consume() {
+        final BaseMatcherEvent<T, S>[] batch = new BaseMatcherEvent[this.batchSize];
+        int idle = 0;
+        while (true) {
+            final int size = this.buffer.drainTo(batch);
+            if (size > 0) {
+                this.deliver(batch, size);
+                idle = 0;
+            } else if (!this.running) {
+                return;
+            } else if (++idle < DEFAULT_SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                this.parked.incrementAndGet();
+                if (this.buffer.isEmpty() && this.running) {
+                    LockSupport.parkNanos(this, DEFAULT_PARK_NANOS);
+                }
+                this.parked.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Delivers events published concurrently with {@link #close()} on current thread
+     */
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        final BaseMatcherEvent<T, S>[] batch = new BaseMatcherEvent[this.batchSize];
+        int size;
+        while ((size = this.buffer.drainTo(batch)) > 0) {
+            this.deliver(batch, size);
+        }
+    }
+
+    /**
+     * Delivers batch of events, resolving listeners once per run of events with the same matcher,
+     * a failing event is counted and skipped
+     *
+     * @param batch - initial input batch of events
+     * @param size  - initial input batch size
+     */
+    private void deliver(final BaseMatcherEvent<T, S>[] batch, int size) {
+        BaseMatcher<T, S> matcher = null;
+        List<MatcherEventListener<T, S>> listeners = null;
+        for (int i = 0; i < size; i++) {
+            final BaseMatcherEvent<T, S> event = batch[i];
+            try {
+                if (Objects.isNull(matcher) || event.getMatcher() != matcher) {
+                    listeners = this.listenersOf(event);
+                    matcher = event.getMatcher();
+                }
+                this.deliver(event, listeners);
+            } catch (Throwable e) {
+                matcher = null;
+                this.failed.increment();
+                log.error(String.format("ERROR: cannot deliver event = {%s}, message = {%s}", event, e.getMessage()));
+            }
+        }
+        Arrays.fill(batch, 0, size, null);
+        this.consumed.add(size);
+    }
+
+    private void deliver(final BaseMatcherEvent<T, S> event, final List<MatcherEventListener<T, S>> listeners) {
+        for (final MatcherEventListener<T, S> listener : listeners) {
+            if (Objects.isNull(listener)) {
+                continue;
+            }
+            try {
+                this.invokeEventListener(event, listener);
+            } catch (Throwable e) {
+                this.failed.increment();
+                log.error(String.format("ERROR: cannot deliver event = {%s} to listener = {%s}, message = {%s}", event, listener, e.getMessage()));
+            }
+        }
+    }
+
+    private List<MatcherEventListener<T, S>> listenersOf(final BaseMatcherEvent<T, S> event) {
+        return ServiceUtils.listOf(event.getMatcher().<MatcherEventListener<T, S>>getListeners());
+    }
+
+    private static ThreadFactory newDaemonThreadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "matcher-event-dispatcher-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Bounded lock-free multi-producer / multi-consumer ring buffer (sequence per slot)
+     *
+     * @param <E> type of buffer element
+     */
+    private static final class RingBuffer<E> {
+        private final int mask;
+        private final AtomicReferenceArray<E> elements;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+
+        private RingBuffer(int capacity) {
+            final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            this.mask = size - 1;
+            this.elements = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                this.sequences.set(i, i);
+            }
+        }
+
+        private int capacity() {
+            return this.mask + 1;
+        }
+
+        private int size() {
+            return (int) Math.max(0, Math.min(this.capacity(), this.tail.get() - this.head.get()));
+        }
+
+        private boolean isEmpty() {
+            return this.tail.get() == this.head.get();
+        }
+
+        private boolean offer(final E element) {
+            long position = this.tail.get();
+            while (true) {
+                final int index = (int) position & this.mask;
+                final long difference = this.sequences.get(index) - position;
+                if (difference == 0) {
+                    if (this.tail.compareAndSet(position, position + 1)) {
+                        this.elements.lazySet(index, element);
+                        this.sequences.lazySet(index, position + 1);
+                        return true;
+                    }
+                    position = this.tail.get();
+                } else if (difference < 0) {
+                    return false;
+                } else {
+                    position = this.tail.get();
+                }
+            }
+        }
+
+        private E poll() {
+            long position = this.head.get();
+            while (true) {
+                final int index = (int) position & this.mask;
+                final long difference = this.sequences.get(index) - (position + 1);
+                if (difference == 0) {
+                    if (this.head.compareAndSet(position, position + 1)) {
+                        final E element = this.elements.get(index);
+                        this.elements.lazySet(index, null);
+                        this.sequences.lazySet(index, position + this.mask + 1);
+                        return element;
+                    }
+                    position = this.head.get();
+                } else if (difference < 0) {
+                    return null;
+                } else {
+                    position = this.head.get();
+                }
+            }
+        }
+
+        private int drainTo(final E[] target) {
+            int size = 0;
+            while (size < target.length) {
+                final E element = this.poll();
+                if (Objects.isNull(element)) {
+                    break;
+                }
+                target[size++] = element;
+            }
+            return size;
+        }
+    }
+}
@@ -26,12 +26,10 @@ package com.wildbeeslabs.sensiblemetrics.diffy.matcher.handler.impl;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ServiceUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.event.BaseMatcherEvent;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.handler.iface.MatcherHandler;
-import com.wildbeeslabs.sensiblemetrics.diffy.matcher.listener.iface.MatcherEventListener;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
-import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
@@ -45,20 +43,15 @@ import static com.wildbeeslabs.sensiblemetrics.diffy.common.executor.impl.TaskEx
  * @param <T> type of input element to be matched by operation
  */
 @Data
-@EqualsAndHashCode
-@ToString
-public class DefaultMatcherHandler<T, S> implements MatcherHandler<T, S> {
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class DefaultMatcherHandler<T, S> extends AbstractMatcherHandler<T, S> {
 
     /**
      * Default {@link Object} mutex
      */
     private final Object mutex = new Object();
 
-    /**
-     * Default {@link Duration} timeout (5000 in millis)
-     */
-    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(5000);
-
     /**
      * Default {@link MatcherHandler}
      */
@@ -100,55 +93,4 @@ public class DefaultMatcherHandler<T, S> implements MatcherHandler<T, S> {
                 .forEach(listener -> execute(DEFAULT_TIMEOUT, () -> this.invokeEventListener(event, listener), this.getExecutor()));
         }
     }
-
-    /**
-     * Returns binary flag by input {@link BaseMatcherEvent}
-     *
-     * @param <E>   type of processing event
-     * @param event - initial input {@link BaseMatcherEvent}
-     * @return true - if event handler is enabled, false - otherwise
-     */
-    private <E extends BaseMatcherEvent<T, S>> boolean isEnableMode(final E event) {
-        return Objects.nonNull(event) && event.getMatcher().isEnable();
-    }
-
-    /**
-     * Invokes {@link MatcherEventListener} by {@link BaseMatcherEvent} type
-     *
-     * @param <E>      type of processing event
-     * @param event    - initial input {@link BaseMatcherEvent}
-     * @param listener - initial input {@link MatcherEventListener}
-     */
-    private <E extends BaseMatcherEvent<T, S>> void invokeEventListener(final E event, final MatcherEventListener<T, S> listener) {
-        //synchronized (this.mutex) {
-        switch (event.getStateType()) {
-            case MATCH_SUCCESS:
-                listener.onSuccess(event);
-                break;
-            case MATCH_FAILURE:
-                listener.onFailure(event);
-                break;
-            case MATCH_SKIP:
-                listener.onSkip(event);
-                break;
-            case MATCH_ERROR:
-                listener.onError(event);
-                break;
-            case MATCH_START:
-                listener.onStart(event);
-                break;
-            case MATCH_COMPLETE:
-                listener.onComplete(event);
-                break;
-            case MATCH_BEFORE:
-                listener.onBefore(event);
-                break;
-            case MATCH_AFTER:
-                listener.onAfter(event);
-                break;
-            default:
-                break;
-        }
-        // }
-    }
 }
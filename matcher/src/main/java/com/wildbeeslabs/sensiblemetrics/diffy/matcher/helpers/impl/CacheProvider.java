@@ -34,7 +34,6 @@ public class CacheProvider {
     }
 
     private static Cache getDefaultCache() {
-        return new LRUCache(400);
-        //return new NOOPCache();
+        return new TinyLfuCache(TinyLfuCache.DEFAULT_MAXIMUM_SIZE);
     }
 }
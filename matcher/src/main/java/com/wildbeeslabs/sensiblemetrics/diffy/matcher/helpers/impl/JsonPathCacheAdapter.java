@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.impl;
+
+import com.jayway.jsonpath.JsonPath;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.iface.Cache;
+
+/**
+ * Json path cache adapter implementation of {@link com.jayway.jsonpath.spi.cache.Cache} by {@link Cache}
+ * (defaults to the cache of {@link CacheProvider}), so that paths compiled by json path library share the same cache
+ */
+public class JsonPathCacheAdapter implements com.jayway.jsonpath.spi.cache.Cache {
+
+    private final Cache cache;
+
+    public JsonPathCacheAdapter() {
+        this(CacheProvider.getCache());
+    }
+
+    public JsonPathCacheAdapter(final Cache cache) {
+        ValidationUtils.notNull(cache, "Cache should not be null");
+        this.cache = cache;
+    }
+
+    @Override
+    public JsonPath get(final String key) {
+        return this.cache.get(key);
+    }
+
+    @Override
+    public void put(final String key, final JsonPath value) {
+        this.cache.put(key, value);
+    }
+
+    public Cache getCache() {
+        return this.cache;
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.impl;
+
+import com.jayway.jsonpath.JsonPath;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.iface.Cache;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent bounded {@link Cache} implementation with W-TinyLFU admission and segmented LRU eviction
+ * <p>
+ * Lookups are served by {@link ConcurrentHashMap} without locking: accesses are recorded into lossy striped
+ * ring buffers and replayed in batches by the thread that manages to acquire the eviction lock, so cache hits
+ * never wait for each other. Entries are admitted through a small LRU window into a segmented LRU (probation and
+ * protected segments); when the cache is full, a candidate evicted from the window replaces the probation victim
+ * only if it was accessed more frequently, as estimated by a count-min frequency sketch with periodic aging.
+ * Every policy operation is O(1).
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class TinyLfuCache implements Cache {
+
+    /**
+     * Default maximum number of cached entries
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 400;
+
+    /**
+     * Default number of read buffer stripes
+     */
+    private static final int READ_BUFFER_STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+    /**
+     * Default size of read buffer stripe
+     */
+    private static final int READ_BUFFER_SIZE = 32;
+    /**
+     * Default number of pending reads of stripe to drain read buffers at
+     */
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+    /**
+     * Default cache entries {@link Map} by key {@link String}
+     */
+    private final Map<String, Node> data = new ConcurrentHashMap<>();
+    /**
+     * Default eviction policy lock {@link ReentrantLock}
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    /**
+     * Default read buffer stripes
+     */
+    private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+    /**
+     * Default access frequency sketch
+     */
+    private final FrequencySketch sketch;
+    /**
+     * Default admission window queue
+     */
+    private final AccessOrderQueue window = new AccessOrderQueue();
+    /**
+     * Default probation segment queue
+     */
+    private final AccessOrderQueue probation = new AccessOrderQueue();
+    /**
+     * Default protected segment queue
+     */
+    private final AccessOrderQueue protect = new AccessOrderQueue();
+
+    private final int maximumSize;
+    private final int maximumWindowSize;
+    private final int maximumProtectedSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TinyLfuCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates cache with initial maximum number of entries
+     *
+     * @param maximumSize - initial maximum number of cached entries
+     * @throws IllegalArgumentException if maximum size is not positive
+     */
+    public TinyLfuCache(final int maximumSize) {
+        ValidationUtils.isTrue(maximumSize > 0, "Maximum size should be greater than zero!");
+
+        this.maximumSize = maximumSize;
+        this.maximumWindowSize = Math.max(1, maximumSize / 100);
+        this.maximumProtectedSize = (int) (0.8d * (maximumSize - this.maximumWindowSize));
+        this.sketch = new FrequencySketch(maximumSize);
+        for (int i = 0; i < this.readBuffers.length; i++) {
+            this.readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    @Override
+    public JsonPath get(final String key) {
+        final Node node = this.data.get(key);
+        if (Objects.isNull(node)) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        final ReadBuffer buffer = this.readBuffers[(int) Thread.currentThread().getId() & (this.readBuffers.length - 1)];
+        if (buffer.offer(node) >= READ_BUFFER_DRAIN_THRESHOLD) {
+            this.tryDrain();
+        }
+        return node.value;
+    }
+
+    @Override
+    public void put(final String key, final JsonPath value) {
+        ValidationUtils.notNull(key, "Key should not be null!");
+        ValidationUtils.notNull(value, "Value should not be null!");
+
+        this.evictionLock.lock();
+        try {
+            this.drainReadBuffers();
+            final Node node = this.data.get(key);
+            if (Objects.nonNull(node)) {
+                node.value = value;
+                this.onAccess(node);
+                return;
+            }
+            final Node created = new Node(key, value);
+            this.data.put(key, created);
+            this.sketch.increment(key);
+            this.window.addLast(created);
+            this.evict();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns number of cached entries
+     *
+     * @return number of cached entries
+     */
+    public int size() {
+        return this.data.size();
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns ratio of hits to lookups
+     *
+     * @return hit rate
+     */
+    public double getHitRate() {
+        final long hitCount = this.getHitCount();
+        final long total = hitCount + this.getMissCount();
+        return (0 == total) ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TinyLfuCache{size=%d, maximumSize=%d, hits=%d, misses=%d, evictions=%d}",
+            this.size(), this.maximumSize, this.getHitCount(), this.getMissCount(), this.getEvictionCount());
+    }
+
+    private void tryDrain() {
+        if (this.evictionLock.tryLock()) {
+            try {
+                this.drainReadBuffers();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (final ReadBuffer buffer : this.readBuffers) {
+            buffer.drainTo(this);
+        }
+    }
+
+    /**
+     * Applies recorded access of node to frequency sketch and access order queues (guarded by eviction lock)
+     */
+    private void onAccess(final Node node) {
+        this.sketch.increment(node.key);
+        if (Objects.isNull(node.queue)) {
+            return;
+        } else if (node.queue == this.probation) {
+            this.probation.remove(node);
+            this.protect.addLast(node);
+            if (this.protect.size > this.maximumProtectedSize) {
+                this.probation.addLast(this.protect.removeFirst());
+            }
+        } else {
+            node.queue.moveToLast(node);
+        }
+    }
+
+    /**
+     * Moves overflowing window entries to probation segment as admission candidates and evicts, while the cache
+     * exceeds maximum size, either the candidate or the victim (the least recently used entry of probation, protected
+     * or window segment, in that order), whichever is estimated to be accessed less frequently (guarded by eviction lock)
+     */
+    private void evict() {
+        Node candidate = null;
+        while (this.window.size > this.maximumWindowSize) {
+            final Node node = this.window.removeFirst();
+            this.probation.addLast(node);
+            if (Objects.isNull(candidate)) {
+                candidate = node;
+            }
+        }
+        while (this.data.size() > this.maximumSize) {
+            final Node victim = (Objects.nonNull(this.probation.head) && this.probation.head != candidate) ? this.probation.head
+                : Objects.nonNull(this.protect.head) ? this.protect.head : this.window.head;
+            final Node evicted;
+            if (Objects.isNull(candidate)) {
+                evicted = victim;
+            } else if (Objects.isNull(victim) || this.sketch.frequency(candidate.key) <= this.sketch.frequency(victim.key)) {
+                evicted = candidate;
+                candidate = candidate.next;
+            } else {
+                evicted = victim;
+            }
+            evicted.queue.remove(evicted);
+            this.data.remove(evicted.key, evicted);
+            this.evictions.increment();
+        }
+    }
+
+    /**
+     * Cache entry node of intrusive access order queue
+     */
+    private static final class Node {
+
+        private final String key;
+        private volatile JsonPath value;
+        private AccessOrderQueue queue;
+        private Node prev;
+        private Node next;
+
+        private Node(final String key, final JsonPath value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Intrusive doubly-linked access order queue (from the least to the most recently used node)
+     */
+    private static final class AccessOrderQueue {
+
+        private Node head;
+        private Node tail;
+        private int size;
+
+        private void addLast(final Node node) {
+            node.queue = this;
+            node.prev = this.tail;
+            node.next = null;
+            if (Objects.isNull(this.tail)) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+        }
+
+        private Node removeFirst() {
+            final Node node = this.head;
+            this.remove(node);
+            return node;
+        }
+
+        private void remove(final Node node) {
+            if (Objects.isNull(node.prev)) {
+                this.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (Objects.isNull(node.next)) {
+                this.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = null;
+            this.size--;
+        }
+
+        private void moveToLast(final Node node) {
+            if (this.tail != node) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+    }
+
+    /**
+     * Lossy bounded ring buffer of recorded accesses (multiple producers, single consumer under eviction lock)
+     */
+    private static final class ReadBuffer {
+
+        private final AtomicLong writeCounter = new AtomicLong();
+        private final AtomicLong readCounter = new AtomicLong();
+        private final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+        /**
+         * Records access of node (dropped if buffer is full or contended) and returns number of pending accesses
+         */
+        private long offer(final Node node) {
+            final long head = this.readCounter.get();
+            final long tail = this.writeCounter.get();
+            final long pending = tail - head;
+            if (pending < READ_BUFFER_SIZE && this.writeCounter.compareAndSet(tail, tail + 1)) {
+                this.buffer.lazySet((int) (tail & (READ_BUFFER_SIZE - 1)), node);
+                return pending + 1;
+            }
+            return pending;
+        }
+
+        private void drainTo(final TinyLfuCache cache) {
+            long head = this.readCounter.get();
+            final long tail = this.writeCounter.get();
+            while (head < tail) {
+                final int index = (int) (head & (READ_BUFFER_SIZE - 1));
+                final Node node = this.buffer.get(index);
+                if (Objects.isNull(node)) {
+                    break;
+                }
+                this.buffer.lazySet(index, null);
+                cache.onAccess(node);
+                head++;
+            }
+            this.readCounter.lazySet(head);
+        }
+    }
+
+    /**
+     * Count-min sketch of access frequencies with four 4-bit counters per key and periodic aging (halving)
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(final int maximumSize) {
+            this.table = new long[Math.max(8, Integer.highestOneBit(Math.max(1, maximumSize) - 1) << 1)];
+            this.sampleSize = 10 * Math.max(1, maximumSize);
+        }
+
+        private int frequency(final String key) {
+            final int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; i++) {
+                final int index = this.indexOf(hash, i);
+                final int offset = this.offsetOf(hash, i);
+                frequency = Math.min(frequency, (int) ((this.table[index] >>> offset) & 0xfL));
+            }
+            return frequency;
+        }
+
+        private void increment(final String key) {
+            final int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                final int index = this.indexOf(hash, i);
+                final int offset = this.offsetOf(hash, i);
+                if (((this.table[index] >>> offset) & 0xfL) != 0xfL) {
+                    this.table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++this.additions >= this.sampleSize) {
+                for (int i = 0; i < this.table.length; i++) {
+                    this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+                }
+                this.additions >>>= 1;
+            }
+        }
+
+        private int indexOf(final int hash, final int depth) {
+            long value = (hash + SEEDS[depth]) * SEEDS[depth];
+            value += value >>> 32;
+            return (int) value & (this.table.length - 1);
+        }
+
+        private int offsetOf(final int hash, final int depth) {
+            return (((hash >>> (depth << 3)) & 3) << 2) + (depth << 4);
+        }
+
+        private static int spread(final int hash) {
+            final int value = hash * 0x9E3779B9;
+            return value ^ (value >>> 16);
+        }
+    }
+}
@@ -2,11 +2,12 @@ package com.wildbeeslabs.sensiblemetrics.diffy.matcher.service;
 
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class ChainMatcher<T> implements Matcher<T> {
-    private final Set<Matcher<T>> matchers = new HashSet<>();
+    private final Set<Matcher<T>> matchers = new LinkedHashSet<>();
 
     public boolean addFilter(final Matcher<T> matcher) {
         return this.matchers.add(matcher);
@@ -16,6 +17,14 @@ public class ChainMatcher<T> implements Matcher<T> {
         return this.matchers.remove(matcher);
     }
 
+    public Set<Matcher<T>> getMatchers() {
+        return Collections.unmodifiableSet(this.matchers);
+    }
+
+    public Matcher<T> compile() {
+        return CompiledMatcher.compile(CompiledMatcher.OperatorType.AND, this.matchers, CompiledMatcher.DEFAULT_SAMPLE_RATE, CompiledMatcher.DEFAULT_REORDER_INTERVAL);
+    }
+
     @Override
     public boolean matches(final T item) {
         for (final Matcher<T> matcher : this.matchers) {
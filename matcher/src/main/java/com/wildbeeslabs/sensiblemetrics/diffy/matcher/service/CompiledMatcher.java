@@ -0,0 +1,364 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compiled {@link Matcher} implementation
+ * <p>
+ * Flattens nested conjunctions / disjunctions into a single node, removes duplicate and constant operands and
+ * evaluates the remaining operands with short-circuiting. A random sample of evaluations is profiled and the
+ * operands are periodically reordered so that cheap and selective ones are tested first: ascending by
+ * {@code cost / P(reject)} for conjunctions and by {@code cost / P(accept)} for disjunctions.
+ * Collected statistics are aged on every reordering, so the order follows changes of the input distribution.
+ *
+ * @param <T> type of input element to be matched by operation
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@SuppressWarnings("unchecked")
+public final class CompiledMatcher<T> implements Matcher<T> {
+
+    /**
+     * Default sample rate (every n-th evaluation on average is profiled)
+     */
+    public static final int DEFAULT_SAMPLE_RATE = 64;
+    /**
+     * Default number of profiled evaluations between reorderings
+     */
+    public static final int DEFAULT_REORDER_INTERVAL = 256;
+
+    /**
+     * Logical operator type
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum OperatorType {
+        AND(false),
+        OR(true);
+
+        /**
+         * Operand result that short-circuits evaluation (and becomes the result of expression)
+         */
+        private final boolean shortCircuit;
+    }
+
+    /**
+     * Default {@link OperatorType}
+     */
+    @Getter
+    private final OperatorType operator;
+    /**
+     * Default sample rate
+     */
+    private final int sampleRate;
+    /**
+     * Default reorder interval
+     */
+    private final int reorderInterval;
+    /**
+     * Default operands in current evaluation order
+     */
+    private volatile Operand<T>[] operands;
+    /**
+     * Default profiled evaluations count
+     */
+    private final AtomicLong samples = new AtomicLong();
+    /**
+     * Default reordering guard
+     */
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    private CompiledMatcher(final OperatorType operator, final Collection<Matcher<? super T>> matchers, int sampleRate, int reorderInterval) {
+        this.operator = operator;
+        this.sampleRate = sampleRate;
+        this.reorderInterval = reorderInterval;
+        this.operands = matchers.stream().map(Operand::new).toArray(Operand[]::new);
+    }
+
+    /**
+     * Returns compiled conjunction of input {@link Matcher}s
+     *
+     * @param <T>      type of input element to be matched by operation
+     * @param matchers - initial input {@link Matcher}s to combine
+     * @return compiled {@link Matcher}
+     */
+    @SafeVarargs
+    public static <T> Matcher<T> and(final Matcher<? super T>... matchers) {
+        ValidationUtils.notNull(matchers, "Matchers should not be null");
+        return CompiledMatcher.<T>compile(OperatorType.AND, Arrays.asList(matchers), DEFAULT_SAMPLE_RATE, DEFAULT_REORDER_INTERVAL);
+    }
+
+    /**
+     * Returns compiled disjunction of input {@link Matcher}s
+     *
+     * @param <T>      type of input element to be matched by operation
+     * @param matchers - initial input {@link Matcher}s to combine
+     * @return compiled {@link Matcher}
+     */
+    @SafeVarargs
+    public static <T> Matcher<T> or(final Matcher<? super T>... matchers) {
+        ValidationUtils.notNull(matchers, "Matchers should not be null");
+        return CompiledMatcher.<T>compile(OperatorType.OR, Arrays.asList(matchers), DEFAULT_SAMPLE_RATE, DEFAULT_REORDER_INTERVAL);
+    }
+
+    /**
+     * Returns compiled {@link Matcher} combining input {@link Matcher}s by logical operator
+     *
+     * @param <T>             type of input element to be matched by operation
+     * @param operator        - initial input {@link OperatorType}
+     * @param matchers        - initial input {@link Collection} of {@link Matcher}s to combine
+     * @param sampleRate      - initial input sample rate (every n-th evaluation on average is profiled)
+     * @param reorderInterval - initial input number of profiled evaluations between reorderings
+     * @return compiled {@link Matcher}
+     */
+    public static <T> Matcher<T> compile(final OperatorType operator, final Collection<? extends Matcher<? super T>> matchers, int sampleRate, int reorderInterval) {
+        ValidationUtils.notNull(operator, "Operator should not be null");
+        ValidationUtils.notNull(matchers, "Matchers should not be null");
+        ValidationUtils.isTrue(sampleRate > 0, "Sample rate should be greater than zero");
+        ValidationUtils.isTrue(reorderInterval > 0, "Reorder interval should be greater than zero");
+
+        final Set<Matcher<? super T>> operands = new LinkedHashSet<>();
+        for (final Matcher<? super T> matcher : matchers) {
+            ValidationUtils.notNull(matcher, "Matcher should not be null");
+            if (!matcher.getMode().isEnable()) {
+                continue;
+            }
+            if (flatten(operator, matcher, operands)) {
+                return constant(operator.isShortCircuit());
+            }
+        }
+        if (operands.isEmpty()) {
+            return constant(!operator.isShortCircuit());
+        }
+        if (operands.size() == 1) {
+            return (Matcher<T>) operands.iterator().next();
+        }
+        return new CompiledMatcher<>(operator, operands, sampleRate, reorderInterval);
+    }
+
+    /**
+     * Collects operands of input {@link Matcher} into target {@link Set}
+     *
+     * @param operator - initial input {@link OperatorType}
+     * @param matcher  - initial input {@link Matcher} to flatten
+     * @param target   - initial input {@link Set} of operands
+     * @return true - if the whole expression is short-circuited by a constant operand, false - otherwise
+     */
+    private static <T> boolean flatten(final OperatorType operator, final Matcher<? super T> matcher, final Set<Matcher<? super T>> target) {
+        if (matcher == DEFAULT_TRUE_MATCHER || matcher == DEFAULT_FALSE_MATCHER) {
+            return (matcher == DEFAULT_TRUE_MATCHER) == operator.isShortCircuit();
+        }
+        if (matcher instanceof CompiledMatcher && ((CompiledMatcher<?>) matcher).getOperator() == operator) {
+            for (final Operand<?> operand : ((CompiledMatcher<?>) matcher).operands) {
+                target.add((Matcher<? super T>) operand.getMatcher());
+            }
+            return false;
+        }
+        if (matcher instanceof ChainMatcher && operator == OperatorType.AND) {
+            for (final Matcher<?> m : ((ChainMatcher<?>) matcher).getMatchers()) {
+                if (flatten(operator, (Matcher<? super T>) m, target)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        target.add(matcher);
+        return false;
+    }
+
+    private static <T> Matcher<T> constant(boolean value) {
+        return value ? DEFAULT_TRUE_MATCHER : DEFAULT_FALSE_MATCHER;
+    }
+
+    @Override
+    public boolean matches(final T value) {
+        if (ThreadLocalRandom.current().nextInt(this.sampleRate) == 0) {
+            return this.profile(value);
+        }
+        final boolean shortCircuit = this.operator.isShortCircuit();
+        for (final Operand<T> operand : this.operands) {
+            if (operand.matcher.matches(value) == shortCircuit) {
+                return shortCircuit;
+            }
+        }
+        return !shortCircuit;
+    }
+
+    private boolean profile(final T value) {
+        final boolean shortCircuit = this.operator.isShortCircuit();
+        boolean result = !shortCircuit;
+        for (final Operand<T> operand : this.operands) {
+            final long start = System.nanoTime();
+            final boolean matched = operand.matcher.matches(value);
+            operand.record(System.nanoTime() - start, matched == shortCircuit);
+            if (matched == shortCircuit) {
+                result = shortCircuit;
+                break;
+            }
+        }
+        if (this.samples.incrementAndGet() % this.reorderInterval == 0) {
+            this.reorder();
+        }
+        return result;
+    }
+
+    /**
+     * Reorders operands by ascending rank (expected cost per short-circuit)
+     */
+    private void reorder() {
+        if (!this.reordering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final Operand<T>[] current = this.operands.clone();
+            for (final Operand<T> operand : current) {
+                operand.age();
+            }
+            Arrays.sort(current, Comparator.comparingDouble(Operand::rank));
+            this.operands = current;
+        } finally {
+            this.reordering.set(false);
+        }
+    }
+
+    /**
+     * Returns {@link List} of operand {@link Statistics} in current evaluation order
+     *
+     * @return {@link List} of operand {@link Statistics}
+     */
+    public List<Statistics> getStatistics() {
+        final List<Statistics> result = new ArrayList<>();
+        for (final Operand<T> operand : this.operands) {
+            result.add(operand.toStatistics());
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns {@link List} of operand {@link Matcher}s in current evaluation order
+     *
+     * @return {@link List} of operand {@link Matcher}s
+     */
+    public List<Matcher<? super T>> getMatchers() {
+        final List<Matcher<? super T>> result = new ArrayList<>();
+        for (final Operand<T> operand : this.operands) {
+            result.add(operand.matcher);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompiledMatcher %s with: {%s}", this.operator, this.getMatchers());
+    }
+
+    /**
+     * Operand statistics
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Statistics {
+        /**
+         * Default operand {@link Matcher}
+         */
+        private final Matcher<?> matcher;
+        /**
+         * Default number of profiled evaluations
+         */
+        private final long evaluations;
+        /**
+         * Default number of profiled evaluations short-circuiting the expression
+         */
+        private final long shortCircuits;
+        /**
+         * Default average evaluation cost (in nanoseconds)
+         */
+        private final double averageCost;
+    }
+
+    /**
+     * Profiled operand
+     */
+    private static final class Operand<T> {
+        private final Matcher<? super T> matcher;
+        private final LongAdder windowEvaluations = new LongAdder();
+        private final LongAdder windowShortCircuits = new LongAdder();
+        private final LongAdder windowNanos = new LongAdder();
+        /**
+         * Aged totals, updated by the reordering thread only
+         */
+        private volatile double evaluations;
+        private volatile double shortCircuits;
+        private volatile double nanos;
+
+        private Operand(final Matcher<? super T> matcher) {
+            this.matcher = matcher;
+        }
+
+        private Matcher<? super T> getMatcher() {
+            return this.matcher;
+        }
+
+        private void record(long nanos, boolean shortCircuit) {
+            this.windowEvaluations.increment();
+            this.windowNanos.add(nanos);
+            if (shortCircuit) {
+                this.windowShortCircuits.increment();
+            }
+        }
+
+        private void age() {
+            this.evaluations = this.evaluations / 2 + this.windowEvaluations.sumThenReset();
+            this.shortCircuits = this.shortCircuits / 2 + this.windowShortCircuits.sumThenReset();
+            this.nanos = this.nanos / 2 + this.windowNanos.sumThenReset();
+        }
+
+        private double rank() {
+            final double cost = this.evaluations > 0 ? this.nanos / this.evaluations : 0;
+            final double probability = (this.shortCircuits + 1) / (this.evaluations + 2);
+            return (cost + 1) / probability;
+        }
+
+        private Statistics toStatistics() {
+            final long evaluations = Math.round(this.evaluations) + this.windowEvaluations.sum();
+            final long shortCircuits = Math.round(this.shortCircuits) + this.windowShortCircuits.sum();
+            final double nanos = this.nanos + this.windowNanos.sum();
+            return new Statistics(this.matcher, evaluations, shortCircuits, evaluations > 0 ? nanos / evaluations : 0);
+        }
+    }
+}
@@ -29,15 +29,23 @@ import com.jayway.jsonpath.ReadContext;
 import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.description.iface.MatchDescription;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Objects;
 
 /**
  * Json {@link AbstractTypeSafeMatcher} implementation
+ * <p>
+ * The last parsed document {@link ReadContext} is kept per matcher (softly referenced), so that matching and describing
+ * a mismatch of the same document instance (except of {@link File}s) parse it only once.
  *
  * @param <T> type of matcher item
  */
@@ -47,6 +55,14 @@ import java.io.IOException;
 @SuppressWarnings("unchecked")
 public class JsonMatcher<T> extends AbstractTypeSafeMatcher<T> {
     private final Matcher<? super ReadContext> jsonMatcher;
+    /**
+     * Default last parsed document
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile SoftReference<ParsedDocument> lastParsed;
 
     public JsonMatcher(final Matcher<? super ReadContext> jsonMatcher) {
         ValidationUtils.notNull(jsonMatcher, "Json matcher should not be null");
@@ -87,12 +103,37 @@ public class JsonMatcher<T> extends AbstractTypeSafeMatcher<T> {
             .append(e.getMessage());
     }
 
-    private static <T> ReadContext parse(final T object) throws IOException {
+    private ReadContext parse(final T object) throws IOException {
+        if (object instanceof File) {
+            return JsonPath.parse((File) object);
+        }
+        final SoftReference<ParsedDocument> reference = this.lastParsed;
+        final ParsedDocument parsed = Objects.isNull(reference) ? null : reference.get();
+        if (Objects.nonNull(parsed) && parsed.source == object) {
+            return parsed.context;
+        }
+        final ReadContext context = parseDocument(object);
+        this.lastParsed = new SoftReference<>(new ParsedDocument(object, context));
+        return context;
+    }
+
+    private static <T> ReadContext parseDocument(final T object) {
         if (object instanceof String) {
             return JsonPath.parse((String) object);
-        } else if (object instanceof File) {
-            return JsonPath.parse((File) object);
         }
         return JsonPath.parse(object);
     }
+
+    /**
+     * Parsed document by source instance
+     */
+    private static final class ParsedDocument {
+        private final Object source;
+        private final ReadContext context;
+
+        private ParsedDocument(final Object source, final ReadContext context) {
+            this.source = source;
+            this.context = context;
+        }
+    }
 }
@@ -0,0 +1,553 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Multi-pattern {@link AbstractMatcher} implementation
+ * <p>
+ * Matches input against a set of {@link Matcher}s (logical "OR") in a single pass. A literal that any match has to
+ * contain is extracted from every {@link StringMatcher} and {@link RegexMatcher}; the literals are indexed by
+ * Aho-Corasick automata (case-sensitive and case-insensitive) that scan input once. Only patterns whose literal
+ * occurs are confirmed by the original {@link Matcher}, "contains" patterns need no confirmation at all.
+ * Patterns without a usable literal (and any other {@link Matcher}s) are evaluated directly.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@SuppressWarnings("unchecked")
+public class MultiPatternMatcher extends AbstractMatcher<String> {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = -2378196340581843925L;
+
+    /**
+     * Default regular expression meta characters
+     */
+    private static final String DEFAULT_META_CHARACTERS = ".^$)]}*+?";
+    /**
+     * Default escape sequences matching a single character class or position
+     */
+    private static final String DEFAULT_BREAKING_ESCAPES = "dDsSwWbBAGZzhHvVRXtnrfae";
+
+    /**
+     * Default {@link List} of {@link Matcher}s
+     */
+    private final List<Matcher<String>> matchers;
+    /**
+     * Default case-sensitive literal {@link Automaton}
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Automaton automaton;
+    /**
+     * Default case-insensitive (lower-cased) literal {@link Automaton}
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Automaton foldedAutomaton;
+    /**
+     * Default flags of patterns matched as soon as their literal occurs
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final boolean[] exact;
+    /**
+     * Default indexes of patterns evaluated directly
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final int[] direct;
+
+    public MultiPatternMatcher(final Collection<? extends Matcher<String>> matchers) {
+        ValidationUtils.notNull(matchers, "Matchers should not be null");
+        this.matchers = Collections.unmodifiableList(new ArrayList<>(matchers));
+        this.exact = new boolean[this.matchers.size()];
+
+        final Automaton.Builder builder = new Automaton.Builder();
+        final Automaton.Builder foldedBuilder = new Automaton.Builder();
+        final List<Integer> direct = new ArrayList<>();
+        for (int i = 0; i < this.matchers.size(); i++) {
+            final Matcher<String> matcher = this.matchers.get(i);
+            ValidationUtils.notNull(matcher, "Matcher should not be null");
+            if (!this.addLiteral(matcher, i, builder, foldedBuilder)) {
+                direct.add(i);
+            }
+        }
+        this.automaton = builder.build();
+        this.foldedAutomaton = foldedBuilder.build();
+        this.direct = direct.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns {@link MultiPatternMatcher} by input regular expressions
+     *
+     * @param regexes - initial input regular expressions
+     * @return {@link MultiPatternMatcher}
+     */
+    public static MultiPatternMatcher ofRegex(final String... regexes) {
+        ValidationUtils.notNull(regexes, "Regexes should not be null");
+        final List<Matcher<String>> matchers = new ArrayList<>(regexes.length);
+        for (final String regex : regexes) {
+            matchers.add(new RegexMatcher(regex, 0));
+        }
+        return new MultiPatternMatcher(matchers);
+    }
+
+    /**
+     * Checks whether the input matches any of patterns
+     *
+     * @param value - initial input value to be matched
+     * @return true - if any pattern matches, false - otherwise
+     */
+    @Override
+    public boolean matches(final String value) {
+        if (Objects.isNull(value)) {
+            return false;
+        }
+        final BitSet checked = new BitSet(this.matchers.size());
+        if (this.scan(this.automaton, value, checked, null) || this.scan(this.foldedAutomaton, value, checked, null)) {
+            return true;
+        }
+        for (final int index : this.direct) {
+            if (this.matchers.get(index).matches(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@link BitSet} of indexes of all patterns matching the input
+     *
+     * @param value - initial input value to be matched
+     * @return {@link BitSet} of matched pattern indexes
+     */
+    public BitSet matchIndexes(final String value) {
+        final BitSet result = new BitSet(this.matchers.size());
+        if (Objects.isNull(value)) {
+            return result;
+        }
+        final BitSet checked = new BitSet(this.matchers.size());
+        this.scan(this.automaton, value, checked, result);
+        this.scan(this.foldedAutomaton, value, checked, result);
+        for (final int index : this.direct) {
+            if (this.matchers.get(index).matches(value)) {
+                result.set(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@link List} of all {@link Matcher}s matching the input
+     *
+     * @param value - initial input value to be matched
+     * @return {@link List} of matched {@link Matcher}s
+     */
+    public List<Matcher<String>> matchedPatterns(final String value) {
+        final BitSet indexes = this.matchIndexes(value);
+        final List<Matcher<String>> result = new ArrayList<>(indexes.cardinality());
+        for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+            result.add(this.matchers.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Scans input by {@link Automaton} and confirms candidate patterns
+     *
+     * @param automaton - initial input {@link Automaton}
+     * @param value     - initial input value to be scanned
+     * @param checked   - initial input {@link BitSet} of already confirmed pattern indexes
+     * @param result    - initial input {@link BitSet} to collect matched indexes into, or {@code null} to stop on first match
+     * @return true - if a pattern matched and scanning stopped early, false - otherwise
+     */
+    private boolean scan(final Automaton automaton, final String value, final BitSet checked, final BitSet result) {
+        if (automaton.isEmpty()) {
+            return false;
+        }
+        final String input = automaton == this.foldedAutomaton ? value.toLowerCase() : value;
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            state = automaton.next(state, input.charAt(i));
+            for (final int index : automaton.outputs(state)) {
+                if (checked.get(index)) {
+                    continue;
+                }
+                checked.set(index);
+                if (this.exact[index] || this.matchers.get(index).matches(value)) {
+                    if (Objects.isNull(result)) {
+                        return true;
+                    }
+                    result.set(index);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indexes the literal required by input {@link Matcher}
+     *
+     * @param matcher       - initial input {@link Matcher}
+     * @param index         - initial input pattern index
+     * @param builder       - initial input case-sensitive {@link Automaton.Builder}
+     * @param foldedBuilder - initial input case-insensitive {@link Automaton.Builder}
+     * @return true - if literal has been indexed, false - if {@link Matcher} should be evaluated directly
+     */
+    private boolean addLiteral(final Matcher<String> matcher, int index, final Automaton.Builder builder, final Automaton.Builder foldedBuilder) {
+        if (matcher instanceof StringMatcher) {
+            return this.addLiteral((StringMatcher) matcher, index, builder, foldedBuilder);
+        } else if (matcher instanceof RegexMatcher) {
+            final Pattern pattern = ((RegexMatcher) matcher).getPattern();
+            return this.addLiteral(requiredLiteral(pattern.pattern(), pattern.flags()), index, builder);
+        }
+        return false;
+    }
+
+    private boolean addLiteral(final StringMatcher matcher, int index, final Automaton.Builder builder, final Automaton.Builder foldedBuilder) {
+        final String value = matcher.getValue();
+        if (Objects.isNull(value) || value.isEmpty()) {
+            return false;
+        }
+        switch (matcher.getModeType()) {
+            case CONTAINS:
+            case EQUALS_FULLY:
+            case STARTS_WITH:
+            case ENDS_WITH:
+                this.exact[index] = matcher.getModeType() == StringMatcher.MatchModeType.CONTAINS;
+                builder.add(value, index);
+                return true;
+            case CONTAINS_IGNORE_CASE:
+            case STARTS_WITH_IGNORE_CASE:
+            case ENDS_WITH_IGNORE_CASE:
+                this.exact[index] = matcher.getModeType() == StringMatcher.MatchModeType.CONTAINS_IGNORE_CASE;
+                foldedBuilder.add(value.toLowerCase(), index);
+                return true;
+            case MATCHES:
+                return this.addLiteral(requiredLiteral(value, 0), index, builder);
+            default:
+                return false;
+        }
+    }
+
+    private boolean addLiteral(final String literal, int index, final Automaton.Builder builder) {
+        if (Objects.isNull(literal)) {
+            return false;
+        }
+        builder.add(literal, index);
+        return true;
+    }
+
+    /**
+     * Returns the longest literal every match of regular expression has to contain
+     * <p>
+     * Only top-level literal runs of a regular expression without top-level alternation are considered,
+     * groups, character classes and quantified characters break a run; any construct that is not
+     * understood makes the result {@code null}.
+     *
+     * @param regex - initial input regular expression
+     * @param flags - initial input {@link Pattern} flags
+     * @return required literal, or {@code null} if none can be proven
+     */
+    static String requiredLiteral(final String regex, int flags) {
+        if ((flags & Pattern.LITERAL) != 0) {
+            return regex.isEmpty() ? null : regex;
+        }
+        if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+            return null;
+        }
+        String best = null;
+        final StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            int next = i + 1;
+            char literal = 0;
+            if (c == '|') {
+                return null;
+            } else if (c == '\\') {
+                if (next >= regex.length()) {
+                    return null;
+                }
+                final char escaped = regex.charAt(next++);
+                if (escaped < 128 && !Character.isLetterOrDigit(escaped)) {
+                    literal = escaped;
+                } else if (DEFAULT_BREAKING_ESCAPES.indexOf(escaped) < 0) {
+                    return null;
+                }
+            } else if (c == '[') {
+                next = skipClass(regex, i);
+            } else if (c == '(') {
+                next = skipGroup(regex, i);
+                if (next > 0 && isInlineFlags(regex, i, next)) {
+                    return null;
+                }
+            } else if (c == '{') {
+                next = regex.indexOf('}', i) + 1;
+            } else if (DEFAULT_META_CHARACTERS.indexOf(c) < 0 && !Character.isSurrogate(c)) {
+                literal = c;
+            }
+            if (next <= 0) {
+                return null;
+            }
+            final char quantifier = next < regex.length() ? regex.charAt(next) : 0;
+            final boolean optional = quantifier == '?' || quantifier == '*' || quantifier == '{';
+            if (literal != 0 && !optional) {
+                current.append(literal);
+            }
+            if (literal == 0 || optional || quantifier == '+') {
+                best = longest(best, current);
+                current.setLength(0);
+            }
+            i = next;
+        }
+        return longest(best, current);
+    }
+
+    private static String longest(final String best, final StringBuilder current) {
+        if (current.length() == 0 || (Objects.nonNull(best) && best.length() >= current.length())) {
+            return best;
+        }
+        return current.toString();
+    }
+
+    private static boolean isInlineFlags(final String regex, int start, int end) {
+        if (!regex.startsWith("(?", start) || end - start <= 3) {
+            return false;
+        }
+        for (int i = start + 2; i < end - 1; i++) {
+            final char c = regex.charAt(i);
+            if (!Character.isLetter(c) && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipClass(final String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        for (; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == ']') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipGroup(final String regex, int start) {
+        int depth = 0;
+        for (int i = start; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Aho-Corasick automaton over {@code char} alphabet
+     */
+    private static final class Automaton implements Serializable {
+
+        private static final long serialVersionUID = 4466103521826853185L;
+        private static final int[] EMPTY = new int[0];
+
+        /**
+         * Default sorted transition labels per state
+         */
+        private final char[][] labels;
+        /**
+         * Default transition targets per state
+         */
+        private final int[][] targets;
+        /**
+         * Default failure links
+         */
+        private final int[] failures;
+        /**
+         * Default pattern indexes per state (including suffix outputs)
+         */
+        private final int[][] outputs;
+
+        private Automaton(final char[][] labels, final int[][] targets, final int[] failures, final int[][] outputs) {
+            this.labels = labels;
+            this.targets = targets;
+            this.failures = failures;
+            this.outputs = outputs;
+        }
+
+        private boolean isEmpty() {
+            return this.labels.length == 1 && this.labels[0].length == 0;
+        }
+
+        private int[] outputs(int state) {
+            return this.outputs[state];
+        }
+
+        private int next(int state, char c) {
+            while (true) {
+                final int target = this.transition(state, c);
+                if (target >= 0) {
+                    return target;
+                }
+                if (state == 0) {
+                    return 0;
+                }
+                state = this.failures[state];
+            }
+        }
+
+        private int transition(int state, char c) {
+            final int position = Arrays.binarySearch(this.labels[state], c);
+            return position >= 0 ? this.targets[state][position] : -1;
+        }
+
+        private static final class Builder {
+            private final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+            private final List<List<Integer>> outputs = new ArrayList<>();
+
+            private Builder() {
+                this.newState();
+            }
+
+            private int newState() {
+                this.trie.add(new TreeMap<>());
+                this.outputs.add(new ArrayList<>());
+                return this.trie.size() - 1;
+            }
+
+            private void add(final String literal, int index) {
+                int state = 0;
+                for (int i = 0; i < literal.length(); i++) {
+                    final Integer next = this.trie.get(state).get(literal.charAt(i));
+                    if (Objects.isNull(next)) {
+                        final int created = this.newState();
+                        this.trie.get(state).put(literal.charAt(i), created);
+                        state = created;
+                    } else {
+                        state = next;
+                    }
+                }
+                this.outputs.get(state).add(index);
+            }
+
+            private Automaton build() {
+                final int size = this.trie.size();
+                final char[][] labels = new char[size][];
+                final int[][] targets = new int[size][];
+                for (int state = 0; state < size; state++) {
+                    final TreeMap<Character, Integer> edges = this.trie.get(state);
+                    labels[state] = new char[edges.size()];
+                    targets[state] = new int[edges.size()];
+                    int i = 0;
+                    for (final Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                        labels[state][i] = edge.getKey();
+                        targets[state][i++] = edge.getValue();
+                    }
+                }
+                final int[] failures = new int[size];
+                final int[][] outputs = new int[size][];
+                final Automaton automaton = new Automaton(labels, targets, failures, outputs);
+                outputs[0] = toArray(this.outputs.get(0));
+
+                final Deque<Integer> queue = new ArrayDeque<>();
+                for (final int child : targets[0]) {
+                    outputs[child] = toArray(this.outputs.get(child));
+                    queue.add(child);
+                }
+                while (!queue.isEmpty()) {
+                    final int state = queue.poll();
+                    for (int i = 0; i < labels[state].length; i++) {
+                        final int child = targets[state][i];
+                        final int failure = automaton.next(failures[state], labels[state][i]);
+                        failures[child] = failure;
+                        outputs[child] = merge(toArray(this.outputs.get(child)), outputs[failure]);
+                        queue.add(child);
+                    }
+                }
+                return automaton;
+            }
+
+            private static int[] toArray(final List<Integer> values) {
+                return values.isEmpty() ? EMPTY : values.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            private static int[] merge(final int[] first, final int[] last) {
+                if (last.length == 0) {
+                    return first;
+                }
+                final int[] result = Arrays.copyOf(first, first.length + last.length);
+                System.arraycopy(last, 0, result, first.length, last.length);
+                return result;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.service;
+
+import com.jayway.jsonpath.ReadContext;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.description.iface.MatchDescription;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * With json paths {@link AbstractTypeSafeMatcher} implementation that evaluates several json path matchers
+ * (for instance, {@link WithJsonPath} / {@link WithoutJsonPath}) against one shared parsed document {@link ReadContext}
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class WithJsonPaths extends AbstractTypeSafeMatcher<ReadContext> {
+    private final List<Matcher<? super ReadContext>> matchers;
+
+    public WithJsonPaths(final Iterable<? extends Matcher<? super ReadContext>> matchers) {
+        ValidationUtils.notNull(matchers, "Matchers should not be null");
+        final List<Matcher<? super ReadContext>> result = new ArrayList<>();
+        for (final Matcher<? super ReadContext> matcher : matchers) {
+            ValidationUtils.notNull(matcher, "Matcher should not be null");
+            result.add(matcher);
+        }
+        this.matchers = Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public boolean matchesSafe(final ReadContext context) {
+        for (final Matcher<? super ReadContext> matcher : this.matchers) {
+            if (!matcher.matches(context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void describeTo(final MatchDescription description) {
+        description.appendText("with json paths ").append("[", ", ", "]", this.matchers);
+    }
+
+    protected void describeMismatchSafely(final ReadContext context, final MatchDescription mismatchDescription) {
+        for (final Matcher<? super ReadContext> matcher : this.matchers) {
+            if (!matcher.matches(context)) {
+                matcher.describeBy(context, mismatchDescription);
+                return;
+            }
+        }
+    }
+}
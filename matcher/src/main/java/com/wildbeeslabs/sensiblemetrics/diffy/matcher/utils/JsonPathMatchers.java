@@ -25,22 +25,51 @@ package com.wildbeeslabs.sensiblemetrics.diffy.matcher.utils;
 
 import com.jayway.jsonpath.*;
 import com.jayway.jsonpath.spi.cache.CacheProvider;
-import com.jayway.jsonpath.spi.cache.NOOPCache;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.impl.JsonPathCacheAdapter;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.JsonMatcher;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.WithJsonPath;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.WithJsonPaths;
 import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.WithoutJsonPath;
 import lombok.experimental.UtilityClass;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Objects;
 
 import static com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher.DEFAULT_TRUE_MATCHER;
 
 @UtilityClass
 public class JsonPathMatchers {
 
+    /**
+     * Default compiled json paths cache {@link JsonPathCacheAdapter} (shared with json path library)
+     */
+    private static final JsonPathCacheAdapter PATH_CACHE = new JsonPathCacheAdapter();
+
     static {
-        CacheProvider.setCache(new NOOPCache());
+        try {
+            CacheProvider.setCache(PATH_CACHE);
+        } catch (JsonPathException e) {
+            // json path library cache is already configured by application
+        }
+    }
+
+    /**
+     * Returns compiled json path {@link JsonPath} by expression {@link String} (compiled once and cached)
+     *
+     * @param jsonPath - initial json path expression {@link String}
+     * @return compiled json path {@link JsonPath}
+     */
+    public static JsonPath compile(final String jsonPath) {
+        ValidationUtils.notNull(jsonPath, "Json path should not be null");
+        JsonPath result = PATH_CACHE.get(jsonPath);
+        if (Objects.isNull(result)) {
+            result = JsonPath.compile(jsonPath);
+            PATH_CACHE.put(jsonPath, result);
+        }
+        return result;
     }
 
     public Configuration getConfig() {
@@ -59,6 +88,17 @@ public class JsonPathMatchers {
         return new JsonMatcher<>(matcher);
     }
 
+    /**
+     * Returns json {@link Matcher} that evaluates all json path matchers against one parsed document {@link ReadContext}
+     *
+     * @param matchers - initial json path matchers (for instance, by {@link #withJsonPath(String, Matcher)})
+     * @return json {@link Matcher}
+     */
+    @SafeVarargs
+    public static Matcher<Object> hasJsonPaths(final Matcher<? super ReadContext>... matchers) {
+        return isJson(new WithJsonPaths(Arrays.asList(matchers)));
+    }
+
     public static Matcher<String> isJsonString(final Matcher<? super ReadContext> matcher) {
         return new JsonMatcher<>(matcher);
     }
@@ -68,11 +108,11 @@ public class JsonPathMatchers {
     }
 
     public static Matcher<? super ReadContext> withJsonPath(final String jsonPath, final Predicate... filters) {
-        return withJsonPath(JsonPath.compile(jsonPath, filters), DEFAULT_TRUE_MATCHER);
+        return withJsonPath(compile(jsonPath, filters), DEFAULT_TRUE_MATCHER);
     }
 
     public static Matcher<? super ReadContext> withoutJsonPath(final String jsonPath, final Predicate... filters) {
-        return withoutJsonPath(JsonPath.compile(jsonPath, filters));
+        return withoutJsonPath(compile(jsonPath, filters));
     }
 
     public static Matcher<? super ReadContext> withoutJsonPath(final JsonPath jsonPath) {
@@ -80,10 +120,14 @@ public class JsonPathMatchers {
     }
 
     public static <T> Matcher<? super ReadContext> withJsonPath(final String jsonPath, final Matcher<T> resultMatcher) {
-        return withJsonPath(JsonPath.compile(jsonPath), resultMatcher);
+        return withJsonPath(compile(jsonPath), resultMatcher);
     }
 
     public static <T> Matcher<? super ReadContext> withJsonPath(final JsonPath jsonPath, final Matcher<T> resultMatcher) {
         return new WithJsonPath<>(jsonPath, resultMatcher);
     }
+
+    private static JsonPath compile(final String jsonPath, final Predicate... filters) {
+        return (Objects.isNull(filters) || 0 == filters.length) ? compile(jsonPath) : JsonPath.compile(jsonPath, filters);
+    }
 }
@@ -0,0 +1,301 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software andAll associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, andAll/or sell
+ * copies of the Software, andAll to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice andAll this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.wildbeeslabs.sensiblemetrics.diffy.common.utils.ValidationUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming json path evaluator implementation for definite paths
+ * <p>
+ * Evaluates a set of simple json paths (root {@code $} followed by {@code .name}, {@code ['name']} or {@code [index]} segments)
+ * in a single pass over the document without building its tree: only values addressed by paths are materialized
+ * (as {@link Map}, {@link List}, {@link String}, {@link Number}, {@link Boolean} or {@code null}), other subtrees are skipped,
+ * and parsing stops as soon as all paths are resolved. Paths with wildcards, deep scans, filters, slices or unions
+ * are not supported, see {@link #isSupported(String)}.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Getter
+@ToString(of = "paths")
+public class StreamingJsonPathEvaluator {
+
+    /**
+     * Default json factory {@link JsonFactory}
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    /**
+     * Default path segment {@link Pattern} ({@code .name}, {@code ['name']}, {@code ["name"]} or {@code [index]})
+     */
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("\\.([^.\\[\\]*@?()'\"]+)|\\['([^']*)'\\]|\\[\"([^\"]*)\"\\]|\\[(\\d+)\\]");
+
+    /**
+     * Default json paths {@link Set}
+     */
+    private final Set<String> paths;
+    /**
+     * Default compiled paths trie
+     */
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private final Node root = new Node();
+
+    /**
+     * Creates streaming evaluator by json paths {@link Iterable}
+     *
+     * @param paths - initial json paths {@link Iterable}
+     * @throws IllegalArgumentException if any path is not supported
+     */
+    public StreamingJsonPathEvaluator(final Iterable<String> paths) {
+        ValidationUtils.notNull(paths, "Paths should not be null");
+
+        final Set<String> result = new LinkedHashSet<>();
+        for (final String path : paths) {
+            ValidationUtils.isTrue(isSupported(path), "Json path is not supported by streaming evaluator: " + path);
+            Node node = this.root;
+            for (final Object segment : compile(path)) {
+                node = node.child(segment);
+            }
+            node.paths.add(path);
+            result.add(path);
+        }
+        this.paths = Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Returns binary flag whether json path {@link String} can be evaluated by streaming evaluator
+     *
+     * @param path - initial json path {@link String}
+     * @return true - if json path is supported, false - otherwise
+     */
+    public static boolean isSupported(final String path) {
+        return Objects.nonNull(path) && path.startsWith("$") && Objects.nonNull(compile(path));
+    }
+
+    /**
+     * Returns values {@link Map} of found json paths by json document {@link String} (missing paths are absent from the result)
+     *
+     * @param json - initial json document {@link String}
+     * @return values {@link Map} by json path
+     * @throws IOException if document cannot be parsed
+     */
+    public Map<String, Object> evaluate(final String json) throws IOException {
+        ValidationUtils.notNull(json, "Json should not be null");
+        try (final JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return this.evaluate(parser);
+        }
+    }
+
+    /**
+     * Returns values {@link Map} of found json paths by json document {@link Reader} (missing paths are absent from the result)
+     *
+     * @param reader - initial json document {@link Reader}
+     * @return values {@link Map} by json path
+     * @throws IOException if document cannot be read or parsed
+     */
+    public Map<String, Object> evaluate(final Reader reader) throws IOException {
+        ValidationUtils.notNull(reader, "Reader should not be null");
+        try (final JsonParser parser = JSON_FACTORY.createParser(reader)) {
+            return this.evaluate(parser);
+        }
+    }
+
+    /**
+     * Returns values {@link Map} of found json paths by json document {@link InputStream} (missing paths are absent from the result)
+     *
+     * @param stream - initial json document {@link InputStream}
+     * @return values {@link Map} by json path
+     * @throws IOException if document cannot be read or parsed
+     */
+    public Map<String, Object> evaluate(final InputStream stream) throws IOException {
+        ValidationUtils.notNull(stream, "Stream should not be null");
+        try (final JsonParser parser = JSON_FACTORY.createParser(stream)) {
+            return this.evaluate(parser);
+        }
+    }
+
+    private Map<String, Object> evaluate(final JsonParser parser) throws IOException {
+        final Map<String, Object> result = new HashMap<>();
+        if (Objects.nonNull(parser.nextToken())) {
+            this.visit(parser, this.root, result);
+        }
+        return result;
+    }
+
+    /**
+     * Visits current value of parser by trie node, returns {@code false} if all paths are resolved
+     */
+    private boolean visit(final JsonParser parser, final Node node, final Map<String, Object> result) throws IOException {
+        if (!node.paths.isEmpty()) {
+            this.resolve(node, readValue(parser), result);
+            return result.size() < this.paths.size();
+        }
+        final JsonToken token = parser.currentToken();
+        if (JsonToken.START_OBJECT == token && !node.names.isEmpty()) {
+            while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                final Node child = node.names.get(parser.getCurrentName());
+                parser.nextToken();
+                if (Objects.isNull(child)) {
+                    parser.skipChildren();
+                } else if (!this.visit(parser, child, result)) {
+                    return false;
+                }
+            }
+        } else if (JsonToken.START_ARRAY == token && !node.indexes.isEmpty()) {
+            int index = 0;
+            while (JsonToken.END_ARRAY != parser.nextToken()) {
+                final Node child = node.indexes.get(index++);
+                if (Objects.isNull(child)) {
+                    parser.skipChildren();
+                } else if (!this.visit(parser, child, result)) {
+                    return false;
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        return true;
+    }
+
+    /**
+     * Resolves paths of trie node and its descendants by materialized value
+     */
+    private void resolve(final Node node, final Object value, final Map<String, Object> result) {
+        for (final String path : node.paths) {
+            result.put(path, value);
+        }
+        if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            node.names.forEach((name, child) -> {
+                if (map.containsKey(name)) {
+                    this.resolve(child, map.get(name), result);
+                }
+            });
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            node.indexes.forEach((index, child) -> {
+                if (index < list.size()) {
+                    this.resolve(child, list.get(index), result);
+                }
+            });
+        }
+    }
+
+    private static Object readValue(final JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+                final Map<String, Object> map = new LinkedHashMap<>();
+                while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                    final String name = parser.getCurrentName();
+                    parser.nextToken();
+                    map.put(name, readValue(parser));
+                }
+                return map;
+            case START_ARRAY:
+                final List<Object> list = new ArrayList<>();
+                while (JsonToken.END_ARRAY != parser.nextToken()) {
+                    list.add(readValue(parser));
+                }
+                return list;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns path segments {@link List} (field names {@link String} and indexes {@link Integer}), or {@code null} if path is not supported
+     */
+    private static List<Object> compile(final String path) {
+        final List<Object> result = new ArrayList<>();
+        final Matcher matcher = SEGMENT_PATTERN.matcher(path);
+        int position = 1;
+        while (position < path.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                return null;
+            }
+            if (Objects.nonNull(matcher.group(1))) {
+                result.add(matcher.group(1));
+            } else if (Objects.nonNull(matcher.group(2))) {
+                result.add(matcher.group(2));
+            } else if (Objects.nonNull(matcher.group(3))) {
+                result.add(matcher.group(3));
+            } else {
+                try {
+                    result.add(Integer.valueOf(matcher.group(4)));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            position = matcher.end();
+        }
+        return result;
+    }
+
+    /**
+     * Compiled paths trie node
+     */
+    private static final class Node {
+        private final List<String> paths = new ArrayList<>();
+        private final Map<String, Node> names = new HashMap<>();
+        private final Map<Integer, Node> indexes = new HashMap<>();
+
+        private Node child(final Object segment) {
+            if (segment instanceof Integer) {
+                return this.indexes.computeIfAbsent((Integer) segment, index -> new Node());
+            }
+            return this.names.computeIfAbsent((String) segment, name -> new Node());
+        }
+    }
+}
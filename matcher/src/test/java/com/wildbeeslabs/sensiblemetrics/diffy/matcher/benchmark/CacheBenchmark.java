@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.benchmark;
+
+import com.jayway.jsonpath.JsonPath;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.iface.Cache;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.impl.LRUCache;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.impl.TinyLfuCache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * {@link Cache} benchmark on a concurrent all-hit workload (every key fits into the cache)
+ * <p>
+ * Usage: {@code CacheBenchmark [threads] [lookups] [keys]}
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class CacheBenchmark {
+
+    /**
+     * Default cache size
+     */
+    private static final int CACHE_SIZE = 400;
+    /**
+     * Default number of warmup iterations
+     */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    public static void main(final String[] args) throws Exception {
+        final int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        final int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        final int keys = args.length > 2 ? Integer.parseInt(args[2]) : CACHE_SIZE;
+
+        final String[] paths = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            paths[i] = "$.path" + i;
+        }
+
+        final Map<String, IntFunction<Cache>> caches = new LinkedHashMap<>();
+        caches.put("tiny-lfu", TinyLfuCache::new);
+        caches.put("lru", LRUCache::new);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            System.out.printf("threads=%d, lookups=%d per thread, keys=%d, size=%d%n", threads, lookups, keys, CACHE_SIZE);
+            for (final Map.Entry<String, IntFunction<Cache>> entry : caches.entrySet()) {
+                final Cache cache = entry.getValue().apply(CACHE_SIZE);
+                for (final String path : paths) {
+                    cache.put(path, JsonPath.compile(path));
+                }
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    run(executor, cache, paths, threads, lookups);
+                }
+                final long start = System.nanoTime();
+                final long hits = run(executor, cache, paths, threads, lookups);
+                final long elapsed = System.nanoTime() - start;
+                System.out.printf("%-10s %10.3f ms, hits=%d/%d%n", entry.getKey(), elapsed / 1e6, hits, (long) threads * lookups);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static long run(final ExecutorService executor, final Cache cache, final String[] paths, int threads, int lookups) throws Exception {
+        final List<Future<Long>> futures = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            final int offset = thread * 31;
+            futures.add(executor.submit(() -> {
+                long hits = 0;
+                for (int i = 0; i < lookups; i++) {
+                    if (null != cache.get(paths[(offset + i) % paths.length])) {
+                        hits++;
+                    }
+                }
+                return hits;
+            }));
+        }
+        long result = 0;
+        for (final Future<Long> future : futures) {
+            result += future.get();
+        }
+        return result;
+    }
+}
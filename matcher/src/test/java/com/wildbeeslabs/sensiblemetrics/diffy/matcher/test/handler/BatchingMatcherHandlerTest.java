@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.test.handler;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.enumeration.MatcherStateEventType;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.enumeration.OverflowPolicyType;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.event.BaseMatcherEvent;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.event.MatcherEvent;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.handler.impl.BatchingMatcherHandler;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.listener.impl.DefaultMatcherEventListener;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.AbstractMatcher;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.AbstractTypeSafeMatcher;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link BatchingMatcherHandler} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class BatchingMatcherHandlerTest {
+
+    @Test
+    public void test_BatchingMatcherHandler_deliverAllEvents() {
+        // given
+        final BatchingMatcherHandler<String, String> handler = new BatchingMatcherHandler<>(1024, 16, 1, OverflowPolicyType.DROP_NEWEST, null);
+        final DefaultMatcherEventListener<String, String> listener = new DefaultMatcherEventListener<>();
+        final AbstractMatcher<String> matcher = new AbstractTypeSafeMatcher<>(handler) {
+            @Override
+            public boolean matchesSafe(final String value) {
+                return value.startsWith("a");
+            }
+        };
+        matcher.addListener(listener);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            matcher.matches(i % 2 == 0 ? "a" + i : "b" + i);
+        }
+
+        // then
+        assertThat(handler.awaitDrained(Duration.ofSeconds(5)), IsEqual.equalTo(true));
+        assertThat(handler.getPublishedCount(), IsEqual.equalTo(500L));
+        assertThat(handler.getDeliveredCount(), IsEqual.equalTo(500L));
+        assertThat(handler.getDroppedCount(), IsEqual.equalTo(0L));
+        assertThat(handler.getQueueDepth(), IsEqual.equalTo(0));
+        assertThat(listener.getSuccessMatchers().size(), IsEqual.equalTo(50));
+        assertThat(listener.getFailedMatchers().size(), IsEqual.equalTo(50));
+        handler.close();
+    }
+
+    @Test
+    public void test_BatchingMatcherHandler_dropWhenFull() throws InterruptedException {
+        // given
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        final BatchingMatcherHandler<String, String> handler = new BatchingMatcherHandler<>(8, 4, 1, OverflowPolicyType.DROP_NEWEST, null);
+        final AbstractMatcher<String> matcher = new AbstractTypeSafeMatcher<>(handler) {
+            @Override
+            public boolean matchesSafe(final String value) {
+                return true;
+            }
+        };
+        matcher.addListener(new DefaultMatcherEventListener<>() {
+            @Override
+            public void onSuccess(final BaseMatcherEvent<String, String> event) {
+                started.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        handler.handleEvent(MatcherEvent.of("first", matcher, MatcherStateEventType.MATCH_SUCCESS));
+        started.await();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            handler.handleEvent(MatcherEvent.of("value" + i, matcher, MatcherStateEventType.MATCH_SKIP));
+        }
+
+        // then
+        assertThat(handler.getQueueDepth(), IsEqual.equalTo(8));
+        assertThat(handler.getDroppedCount(), IsEqual.equalTo(92L));
+        released.countDown();
+        assertThat(handler.awaitDrained(Duration.ofSeconds(5)), IsEqual.equalTo(true));
+        assertThat(handler.getDeliveredCount(), IsEqual.equalTo(9L));
+        handler.close();
+    }
+
+    @Test
+    public void test_BatchingMatcherHandler_deliverAfterListenerFailure() {
+        // given
+        final BatchingMatcherHandler<String, String> handler = new BatchingMatcherHandler<>(1024, 16, 1, OverflowPolicyType.DROP_NEWEST, null);
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        final AbstractMatcher<String> matcher = new AbstractTypeSafeMatcher<>(handler) {
+            @Override
+            public boolean matchesSafe(final String value) {
+                return true;
+            }
+        };
+        matcher.addListener(new DefaultMatcherEventListener<>() {
+            @Override
+            public void onSuccess(final BaseMatcherEvent<String, String> event) {
+                if ("runtime".equals(event.getSource())) {
+                    throw new IllegalStateException("runtime");
+                }
+                if ("error".equals(event.getSource())) {
+                    throw new AssertionError("error");
+                }
+                delivered.add(event.getSource());
+            }
+        });
+
+        // when
+        handler.handleEvent(MatcherEvent.of("runtime", matcher, MatcherStateEventType.MATCH_SUCCESS));
+        handler.handleEvent(MatcherEvent.of("error", matcher, MatcherStateEventType.MATCH_SUCCESS));
+        for (int i = 0; i < 100; i++) {
+            handler.handleEvent(MatcherEvent.of("value" + i, matcher, MatcherStateEventType.MATCH_SUCCESS));
+        }
+        handler.handleEvent(MatcherEvent.of("last", matcher, MatcherStateEventType.MATCH_SUCCESS));
+
+        // then
+        assertThat(handler.awaitDrained(Duration.ofSeconds(5)), IsEqual.equalTo(true));
+        assertThat(handler.getFailureCount(), IsEqual.equalTo(2L));
+        assertThat(delivered.size(), IsEqual.equalTo(101));
+        assertThat(delivered.get(100), IsEqual.equalTo("last"));
+        handler.close();
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.test.helpers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.helpers.impl.TinyLfuCache;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNull;
+import org.hamcrest.core.IsSame;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * {@link TinyLfuCache} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class TinyLfuCacheTest {
+
+    @Test
+    public void test_TinyLfuCache_getAndPut() {
+        // given
+        final TinyLfuCache cache = new TinyLfuCache(10);
+        final JsonPath first = JsonPath.compile("$.first");
+        final JsonPath last = JsonPath.compile("$.last");
+
+        // when
+        cache.put("path", first);
+        final JsonPath cached = cache.get("path");
+        final JsonPath missing = cache.get("missing");
+        cache.put("path", last);
+
+        // then
+        assertThat(cached, IsSame.sameInstance(first));
+        assertThat(missing, IsNull.nullValue());
+        assertThat(cache.get("path"), IsSame.sameInstance(last));
+        assertThat(cache.size(), IsEqual.equalTo(1));
+        assertThat(cache.getHitCount(), IsEqual.equalTo(2L));
+        assertThat(cache.getMissCount(), IsEqual.equalTo(1L));
+        assertThat(cache.getEvictionCount(), IsEqual.equalTo(0L));
+    }
+
+    @Test
+    public void test_TinyLfuCache_evictToMaximumSize() {
+        // given
+        final TinyLfuCache cache = new TinyLfuCache(10);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            cache.put("path" + i, JsonPath.compile("$.path" + i));
+
+            // then
+            assertThat(cache.size(), lessThanOrEqualTo(10));
+        }
+        assertThat(cache.size(), IsEqual.equalTo(10));
+        assertThat(cache.getEvictionCount(), IsEqual.equalTo(90L));
+    }
+
+    @Test
+    public void test_TinyLfuCache_evictToMaximumSizeOfOne() {
+        // given
+        final TinyLfuCache cache = new TinyLfuCache(1);
+
+        // when
+        cache.put("first", JsonPath.compile("$.first"));
+        cache.put("last", JsonPath.compile("$.last"));
+
+        // then
+        assertThat(cache.size(), IsEqual.equalTo(1));
+        assertThat(cache.getEvictionCount(), IsEqual.equalTo(1L));
+    }
+
+    @Test
+    public void test_TinyLfuCache_rejectInfrequentCandidate() {
+        // given
+        final TinyLfuCache cache = new TinyLfuCache(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put("path" + i, JsonPath.compile("$.path" + i));
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 10; i++) {
+                cache.get("path" + i);
+            }
+        }
+
+        // when
+        cache.put("once", JsonPath.compile("$.once"));
+        cache.put("twice", JsonPath.compile("$.twice"));
+
+        // then
+        for (int i = 0; i < 9; i++) {
+            assertThat(cache.get("path" + i), IsNull.notNullValue());
+        }
+        assertThat(cache.get("once"), IsNull.nullValue());
+        assertThat(cache.get("twice"), IsNull.notNullValue());
+        assertThat(cache.size(), IsEqual.equalTo(10));
+    }
+
+    @Test
+    public void test_TinyLfuCache_admitFrequentCandidate() {
+        // given
+        final TinyLfuCache cache = new TinyLfuCache(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put("path" + i, JsonPath.compile("$.path" + i));
+        }
+
+        // when
+        int admitted = -1;
+        for (int round = 0; round < 10 && admitted < 0; round++) {
+            if (null == cache.get("frequent")) {
+                cache.put("frequent", JsonPath.compile("$.frequent"));
+            }
+            cache.put("once" + round, JsonPath.compile("$.once" + round));
+            if (null != cache.get("frequent")) {
+                admitted = round;
+            }
+        }
+
+        // then
+        assertThat(admitted, greaterThanOrEqualTo(0));
+        assertThat(cache.size(), IsEqual.equalTo(10));
+    }
+
+    @Test
+    public void test_TinyLfuCache_resistScan() {
+        // given
+        final TinyLfuCache cache = new TinyLfuCache(100);
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot" + i, JsonPath.compile("$.hot" + i));
+        }
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get("hot" + i);
+            }
+        }
+
+        // when
+        for (int i = 0; i < 5000; i++) {
+            cache.put("cold" + i, JsonPath.compile("$.cold" + i));
+        }
+
+        // then
+        int survivors = 0;
+        for (int i = 0; i < 50; i++) {
+            if (null != cache.get("hot" + i)) {
+                survivors++;
+            }
+        }
+        assertThat(survivors, greaterThanOrEqualTo(45));
+        assertThat(cache.size(), IsEqual.equalTo(100));
+    }
+
+    @Test
+    public void test_TinyLfuCache_concurrentStress() throws Exception {
+        // given
+        final TinyLfuCache cache = new TinyLfuCache(100);
+        final Map<String, JsonPath> values = new ConcurrentHashMap<>();
+        final LongAdder lookups = new LongAdder();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            final Random random = new Random(thread);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    final String key = "path" + (int) (Math.pow(random.nextDouble(), 3) * 1000);
+                    final JsonPath value = values.computeIfAbsent(key, path -> JsonPath.compile("$." + path));
+                    final JsonPath cached = cache.get(key);
+                    lookups.increment();
+                    if (null == cached) {
+                        cache.put(key, value);
+                    } else {
+                        assertThat(cached, IsSame.sameInstance(value));
+                    }
+                }
+            }));
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), IsEqual.equalTo(true));
+        assertThat(cache.size(), lessThanOrEqualTo(100));
+        assertThat(cache.getHitCount() + cache.getMissCount(), IsEqual.equalTo(lookups.sum()));
+        assertThat(cache.getHitRate(), greaterThanOrEqualTo(0.35));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.ChainMatcher;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.CompiledMatcher;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsSame;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link CompiledMatcher} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class CompiledMatcherTest {
+
+    @Test
+    public void test_CompiledMatcher_flattenAndDeduplicate() {
+        // given
+        final Matcher<Integer> positive = value -> value > 0;
+        final Matcher<Integer> even = value -> value % 2 == 0;
+        final ChainMatcher<Integer> chain = new ChainMatcher<>();
+        chain.addFilter(positive);
+        chain.addFilter(even);
+
+        // when
+        final CompiledMatcher<Integer> matcher = (CompiledMatcher<Integer>) CompiledMatcher.and(chain, CompiledMatcher.and(positive, Matcher.DEFAULT_TRUE_MATCHER), even);
+
+        // then
+        assertThat(matcher.getOperator(), IsEqual.equalTo(CompiledMatcher.OperatorType.AND));
+        assertThat(matcher.getMatchers(), IsEqual.equalTo(Arrays.asList(positive, even)));
+        assertThat(CompiledMatcher.and(positive, Matcher.DEFAULT_FALSE_MATCHER), IsSame.sameInstance(Matcher.DEFAULT_FALSE_MATCHER));
+        assertThat(CompiledMatcher.or(positive, Matcher.DEFAULT_TRUE_MATCHER), IsSame.sameInstance(Matcher.DEFAULT_TRUE_MATCHER));
+        assertThat(CompiledMatcher.or(positive, positive), IsSame.sameInstance(positive));
+    }
+
+    @Test
+    public void test_CompiledMatcher_reorderBySelectivity() {
+        // given
+        final Random random = new Random(42);
+        final Matcher<Integer> permissive = value -> value >= 0;
+        final Matcher<Integer> selective = value -> value % 10 == 0;
+        final Matcher<Integer> and = CompiledMatcher.compile(CompiledMatcher.OperatorType.AND, Arrays.asList(permissive, selective), 1, 16);
+        final Matcher<Integer> or = CompiledMatcher.compile(CompiledMatcher.OperatorType.OR, Arrays.asList(selective, permissive), 1, 16);
+
+        for (int i = 0; i < 10000; i++) {
+            final int value = random.nextInt(1000);
+
+            // when
+            final boolean conjunction = and.matches(value);
+            final boolean disjunction = or.matches(value);
+
+            // then
+            assertThat(conjunction, IsEqual.equalTo(value % 10 == 0));
+            assertThat(disjunction, IsEqual.equalTo(true));
+        }
+        assertThat(((CompiledMatcher<Integer>) and).getMatchers().get(0), IsSame.sameInstance(selective));
+        assertThat(((CompiledMatcher<Integer>) or).getMatchers().get(0), IsSame.sameInstance(permissive));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.test.service;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.interfaces.Matcher;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.MultiPatternMatcher;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.RegexMatcher;
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.service.StringMatcher;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link MultiPatternMatcher} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class MultiPatternMatcherTest {
+
+    @Test
+    public void test_MultiPatternMatcher_reportMatchedPatterns() {
+        // given
+        final Matcher<String> error = new RegexMatcher("ERROR code=\\d+", 0);
+        final Matcher<String> timeout = new StringMatcher("timeout", StringMatcher.MatchModeType.CONTAINS_IGNORE_CASE);
+        final Matcher<String> prefix = new StringMatcher("2019-", StringMatcher.MatchModeType.STARTS_WITH);
+        final Matcher<String> email = new RegexMatcher("\\w+@\\w+", 0);
+        final MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList(error, timeout, prefix, email));
+
+        // when
+        final List<Matcher<String>> matched = matcher.matchedPatterns("2019-01-01 ERROR code=42 Timeout");
+
+        // then
+        assertThat(matched, IsEqual.equalTo(Arrays.asList(error, timeout, prefix)));
+        assertThat(matcher.matches("2020-01-01 ERROR code=x TIMEOUT"), IsEqual.equalTo(true));
+        assertThat(matcher.matches("2020-01-01 ERROR CODE=42"), IsEqual.equalTo(false));
+    }
+
+    @Test
+    public void test_MultiPatternMatcher_sameAsSeparateMatchers() {
+        // given
+        final Random random = new Random(42);
+        final List<Matcher<String>> matchers = new ArrayList<>();
+        for (final String regex : Arrays.asList("ab+c", "a.c", "x[]a]yz", "(ab|cd)ef", "(?i)abc", "a\\.b?c", "ab{2}c", "\\d+ab", "^ca$")) {
+            matchers.add(new RegexMatcher(regex, 0));
+        }
+        for (final StringMatcher.MatchModeType modeType : StringMatcher.MatchModeType.values()) {
+            matchers.add(new StringMatcher("aB", modeType));
+        }
+        final MultiPatternMatcher matcher = new MultiPatternMatcher(matchers);
+
+        for (int i = 0; i < 5000; i++) {
+            final StringBuilder value = new StringBuilder();
+            for (int j = random.nextInt(10); j > 0; j--) {
+                value.append("abcABxyz.]1ef".charAt(random.nextInt(13)));
+            }
+            final BitSet expected = new BitSet();
+            for (int j = 0; j < matchers.size(); j++) {
+                if (matchers.get(j).matches(value.toString())) {
+                    expected.set(j);
+                }
+            }
+
+            // when
+            final BitSet actual = matcher.matchIndexes(value.toString());
+
+            // then
+            assertThat(actual, IsEqual.equalTo(expected));
+            assertThat(matcher.matches(value.toString()), IsEqual.equalTo(!expected.isEmpty()));
+        }
+    }
+}
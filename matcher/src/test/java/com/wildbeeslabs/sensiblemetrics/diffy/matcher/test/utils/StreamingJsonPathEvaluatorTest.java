@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.diffy.matcher.test.utils;
+
+import com.wildbeeslabs.sensiblemetrics.diffy.matcher.utils.StreamingJsonPathEvaluator;
+import org.hamcrest.core.IsEqual;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link StreamingJsonPathEvaluator} unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+public class StreamingJsonPathEvaluatorTest {
+
+    @Test
+    public void test_check_StreamingJsonPathEvaluator_ByDefinitePaths() throws IOException {
+        // given
+        final String json = "{\"store\":{\"book\":[{\"title\":\"first\"},{\"title\":\"second\",\"price\":8.95}],\"open\":true},\"owner\":null}";
+        final StreamingJsonPathEvaluator evaluator = new StreamingJsonPathEvaluator(Arrays.asList("$.store.book[1].title", "$['store']['open']", "$.owner", "$.store.book[0]", "$.store.bicycle"));
+
+        // when
+        final Map<String, Object> result = evaluator.evaluate(json);
+
+        // then
+        assertThat(result.size(), IsEqual.equalTo(4));
+        assertThat(result.get("$.store.book[1].title"), IsEqual.equalTo("second"));
+        assertThat(result.get("$['store']['open']"), IsEqual.equalTo(true));
+        assertThat(result.get("$.store.book[0]").toString(), IsEqual.equalTo("{title=first}"));
+        assertTrue(result.containsKey("$.owner"));
+        assertFalse(result.containsKey("$.store.bicycle"));
+    }
+
+    @Test
+    public void test_check_StreamingJsonPathEvaluator_BySupportedPaths() {
+        assertTrue(StreamingJsonPathEvaluator.isSupported("$"));
+        assertTrue(StreamingJsonPathEvaluator.isSupported("$.store.book[0]['title']"));
+        assertFalse(StreamingJsonPathEvaluator.isSupported("$..title"));
+        assertFalse(StreamingJsonPathEvaluator.isSupported("$.store.book[*]"));
+        assertFalse(StreamingJsonPathEvaluator.isSupported("$.store.book[?(@.price < 10)]"));
+    }
+}